@@ -0,0 +1,26 @@
+package com.example.backend.config;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.backend.service.storage.LocalFileStorageService;
+
+@Configuration
+@ConditionalOnProperty(name = "app.storage.backend", havingValue = "pack")
+public class PackStorageConfig {
+
+    /** Qualifier of the plain-file store the pack backend uses for large files. */
+    public static final String LARGE_FILES = "packLargeFileStorage";
+
+    /**
+     * Plain-file store for files above app.storage.pack.max-entry-kb. Its own
+     * qualifier keeps it from being mistaken for the storage backend.
+     */
+    @Bean(name = LARGE_FILES)
+    @Qualifier(LARGE_FILES)
+    public LocalFileStorageService packLargeFileStorage() {
+        return new LocalFileStorageService();
+    }
+}
@@ -23,7 +23,6 @@ import com.example.backend.filter.JwtFilter;
 import com.example.backend.filter.LoginFilter;
 import com.example.backend.filter.LogoutAuthFilter;
 import com.example.backend.security.CustomUserDetailsService;
-import com.example.backend.service.JwtBlacklistService;
 
 import java.util.Arrays;
 import java.util.List;
@@ -38,7 +37,6 @@ public class SecurityConfig {
 
     final JwtContract jwtService;
     final CustomUserDetailsService userDetailsService;
-    final JwtBlacklistService jwtBlacklistService;
     final JwtFilter jwtFilter;
 
     @Value("${app.cors.allowed-origins:http://localhost:3000}")
@@ -52,7 +50,7 @@ public class SecurityConfig {
         LoginFilter loginFilter = new LoginFilter(authenticationManager(authConfig), jwtService);
 
         // Create LogoutFilter
-        LogoutAuthFilter logoutFilter = new LogoutAuthFilter(jwtBlacklistService);
+        LogoutAuthFilter logoutFilter = new LogoutAuthFilter(jwtService);
 
         return http
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
@@ -0,0 +1,104 @@
+package com.example.backend.config;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class StorageExecutorConfig {
+
+    /**
+     * Bounded pool for staging bulk uploads and moving staged files to their
+     * final location. Tasks are rejected when the queue is full: staging then
+     * runs on the request thread, and promotions stay STORING until
+     * StoragePromotionJob queues them again.
+     */
+    @Bean(name = "storageExecutor")
+    public ThreadPoolTaskExecutor storageExecutor(
+            @Value("${app.storage.promotion.pool-size:4}") int poolSize,
+            @Value("${app.storage.promotion.queue-capacity:200}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("storage-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    /**
+     * Small pool for rendering previews after upload. Background renders are
+     * best-effort: when the queue is full they are dropped and the preview is
+     * rendered on first request instead.
+     */
+    @Bean(name = "thumbnailExecutor")
+    public ThreadPoolTaskExecutor thumbnailExecutor(
+            @Value("${app.thumbnails.pool-size:2}") int poolSize,
+            @Value("${app.thumbnails.queue-capacity:500}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("thumbnail-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.DiscardPolicy());
+        return executor;
+    }
+
+    /**
+     * Bounded pool for text extraction and OCR, kept separate so slow scans
+     * never hold up promotions or previews. Tasks are rejected when the queue
+     * is full; TextExtractionService drops them and TextExtractionJob picks
+     * them up again.
+     */
+    @Bean(name = "extractionExecutor")
+    public ThreadPoolTaskExecutor extractionExecutor(
+            @Value("${app.extraction.pool-size:2}") int poolSize,
+            @Value("${app.extraction.queue-capacity:1000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("extraction-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        return executor;
+    }
+
+    /**
+     * Pool for rendering compliance reports into the disk cache. Requests
+     * beyond the queue are rejected so the caller can report that the
+     * service is busy.
+     */
+    @Bean(name = "reportExecutor")
+    public ThreadPoolTaskExecutor reportExecutor(
+            @Value("${app.reports.pool-size:2}") int poolSize,
+            @Value("${app.reports.queue-capacity:50}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("report-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        return executor;
+    }
+
+    /**
+     * Runs batch report coordinators one at a time; each keeps its own renders
+     * on the report pool. Batches beyond the queue are rejected.
+     */
+    @Bean(name = "reportBatchExecutor")
+    public ThreadPoolTaskExecutor reportBatchExecutor(
+            @Value("${app.reports.batch.queue-capacity:4}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("report-batch-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        return executor;
+    }
+}
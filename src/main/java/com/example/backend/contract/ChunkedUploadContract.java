@@ -0,0 +1,23 @@
+package com.example.backend.contract;
+
+import java.io.InputStream;
+
+import com.example.backend.dto.ChunkedUploadInitDTO;
+import com.example.backend.dto.ChunkedUploadSessionDTO;
+import com.example.backend.dto.DocumentResponseDTO;
+import com.example.backend.dto.DocumentUploadDTO;
+import com.example.backend.entity.User;
+
+public interface ChunkedUploadContract {
+    ChunkedUploadSessionDTO initSession(ChunkedUploadInitDTO init, User user);
+
+    ChunkedUploadSessionDTO getSession(String sessionId, User user);
+
+    ChunkedUploadSessionDTO writeChunk(String sessionId, int index, String sha256, InputStream content, User user);
+
+    DocumentResponseDTO commit(String sessionId, DocumentUploadDTO dto, String societyId, User user);
+
+    void abort(String sessionId, User user);
+
+    void purgeExpiredSessions();
+}
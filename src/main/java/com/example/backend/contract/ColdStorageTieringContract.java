@@ -0,0 +1,7 @@
+package com.example.backend.contract;
+
+public interface ColdStorageTieringContract {
+    int archiveClosedYears();
+
+    boolean rehydrate(Long documentId);
+}
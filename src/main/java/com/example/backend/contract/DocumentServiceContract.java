@@ -12,6 +12,12 @@ import java.util.List;
 public interface DocumentServiceContract {
     DocumentResponseDTO uploadDocument(DocumentUploadDTO dto, MultipartFile file, String societyId, User uploadedBy);
 
+    DocumentResponseDTO registerAssembledUpload(DocumentUploadDTO dto, StoredFileInfo assembled,
+            String originalFilename, String societyId, User uploadedBy);
+
+    DocumentBatchResultDTO uploadDocuments(List<DocumentBatchItemDTO> manifest, List<MultipartFile> files,
+            String societyId, User uploadedBy);
+
     List<DocumentResponseDTO> getDocumentsBySocieteAndExercice(Long societeId, Integer exercice);
 
     List<DocumentResponseDTO> getAllPendingDocuments();
@@ -26,7 +32,12 @@ public interface DocumentServiceContract {
 
     List<DocumentResponseDTO> getDocumentsBySociete(Long societeId);
 
-    byte[] downloadDocument(Long documentId);
+    DocumentDownloadDescriptor getDownloadDescriptor(Long documentId);
+
+    StoredFile downloadDocument(DocumentDownloadDescriptor descriptor);
+
+    /** First-page JPEG preview, rendered on demand when not cached yet. */
+    StoredFile getPreview(DocumentDownloadDescriptor descriptor);
 
     void deleteDocument(Long documentId, User deletedBy);
 
@@ -46,6 +57,25 @@ public interface DocumentServiceContract {
             LocalDate datePieceFrom,
             LocalDate datePieceTo);
 
+    CursorPageResponse<DocumentResponseDTO> getDocumentsBySocieteCursor(
+            Long accountantId,
+            String cursor,
+            Integer size,
+            String sortBy,
+            String sortDir,
+            boolean includeTotal,
+            Document.StatutDocument statut,
+            Document.TypeDocument typeDocument,
+            Integer exerciceComptable,
+            String numeroPiece,
+            String fournisseur,
+            LocalDate datePieceFrom,
+            LocalDate datePieceTo);
+
+    Page<DocumentResponseDTO> searchDocuments(Long userId, String q, Integer page, Integer size);
+
+    Page<DocumentResponseDTO> searchDocumentContent(Long userId, String q, Integer page, Integer size);
+
     int countDocumentsBySociete(Long societeId);
     int countDocumentsBySocieteAndStatut(Long societeId, Document.StatutDocument statut);
 }
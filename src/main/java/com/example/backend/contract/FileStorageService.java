@@ -2,10 +2,42 @@ package com.example.backend.contract;
 
 import org.springframework.web.multipart.MultipartFile;
 
+import com.example.backend.dto.StoredFileInfo;
+
 public interface FileStorageService {
-    String save(MultipartFile file, Long clientId, Integer year);
+    /**
+     * Writes the upload to a staging area in a single pass, returning its
+     * location together with the size, SHA-256 and sniffed MIME type computed
+     * while copying. Staged files are readable but not yet durable.
+     */
+    StoredFileInfo stage(MultipartFile file);
+
+    /**
+     * Flushes a staged file and moves it to its final location. The staged file
+     * is left in place when this fails, so promotion can be retried.
+     */
+    StoredFileInfo promote(StoredFileInfo staged, Long clientId, Integer year);
+
+    /** Stages and promotes in one call, for callers that do not need the split. */
+    default StoredFileInfo save(MultipartFile file, Long clientId, Integer year) {
+        StoredFileInfo staged = stage(file);
+        try {
+            return promote(staged, clientId, year);
+        } catch (RuntimeException e) {
+            delete(staged.path());
+            throw e;
+        }
+    }
 
     byte[] read(String path);
 
+    /**
+     * Opens a streaming handle on a stored file. Prefer this over
+     * {@link #read(String)} for anything served over HTTP.
+     */
+    StoredFile open(String path);
+
+    boolean exists(String path);
+
     void delete(String path);
-}
\ No newline at end of file
+}
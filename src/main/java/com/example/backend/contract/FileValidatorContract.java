@@ -2,6 +2,18 @@ package com.example.backend.contract;
 
 import org.springframework.web.multipart.MultipartFile;
 
+import com.example.backend.dto.StoredFileInfo;
+import com.example.backend.entity.Document;
+
 public interface FileValidatorContract {
     void validate(MultipartFile file);
+
+    /**
+     * Checks name and size of a file announced ahead of a chunked upload. The
+     * size cap depends on the document type.
+     */
+    void validateDeclaredFile(String originalFilename, long size, Document.TypeDocument typeDocument);
+
+    /** Checks the sniffed content of a stored upload against its declared filename. */
+    void validateContent(StoredFileInfo stored, String originalFilename);
 }
@@ -15,28 +15,21 @@ public interface JwtContract {
     String generateToken(Map<String, String> extraClaims, String email);
 
     /**
-     * Extract email from JWT token
+     * Verify the token signature and expiry and return its claims. This is the
+     * only parse a request needs: read the subject and other claims from the
+     * result instead of parsing the token again.
      * 
      * @param token JWT token string
-     * @return Email extracted from token subject
+     * @return Claims of the valid token
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, tampered with or expired
      */
-    String getEmail(String token);
+    Claims verify(String token);
 
     /**
-     * Check if token is expired
+     * Revoke a token until its expiry. Invalid or already expired tokens are
+     * ignored since they cannot authenticate anyway.
      * 
      * @param token JWT token string
-     * @return true if token is expired, false otherwise
      */
-    boolean isTokenExpired(String token);
-
-    /**
-     * Extract all claims from JWT token
-     * 
-     * @param token JWT token string
-     * @return Claims object containing all token claims
-     */
-    Claims extractAllClaims(String token);
-
     void invalidate(String token);
 }
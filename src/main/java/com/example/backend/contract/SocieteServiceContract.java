@@ -2,6 +2,7 @@ package com.example.backend.contract;
 
 import com.example.backend.dto.*;
 
+import java.io.OutputStream;
 import java.util.List;
 
 public interface SocieteServiceContract {
@@ -24,8 +25,11 @@ public interface SocieteServiceContract {
     List<SocieteDTO> getSocietiesByAccountant(Long accountantId);
 
     SocietComplianceOverviewDTO getSocietComplianceOverview(Long societeId);
+
+    PageResponse<SocieteComplianceSummaryDTO> getCompliancePortfolio(Integer exercice, int page, int size,
+            String sortBy, String sortDir);
     
-    byte[] generateCompliancePdfReport(Long societeId);
+    void writeCompliancePdfReport(Long societeId, OutputStream out);
 
     List<SimpleSocieteDTO> getAllSocietesSimple();
 }
@@ -0,0 +1,45 @@
+package com.example.backend.contract;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+
+/**
+ * Read handle on a stored document file. Content is pushed to a channel on
+ * demand so callers never have to materialise the file in heap.
+ * Callers own the handle and must close it.
+ */
+public interface StoredFile extends Closeable {
+
+    /** Size of the content in bytes. */
+    long size();
+
+    /** Last modification time of the content in epoch millis. */
+    long lastModified();
+
+    /**
+     * Copies {@code count} bytes starting at {@code position} to the target.
+     *
+     * @return number of bytes actually transferred
+     */
+    long transferTo(long position, long count, WritableByteChannel target) throws IOException;
+
+    /** Sequential stream over the content; valid while the handle is open. */
+    InputStream newInputStream() throws IOException;
+
+    /**
+     * File on disk holding the content as a plain byte range, or null when the
+     * content has to be decoded first. Used to hand the transfer to the
+     * servlet container (sendfile).
+     */
+    default Path backingFile() {
+        return null;
+    }
+
+    /** Offset of the content inside {@link #backingFile()}. */
+    default long backingOffset() {
+        return 0;
+    }
+}
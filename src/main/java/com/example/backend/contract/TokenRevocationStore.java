@@ -0,0 +1,24 @@
+package com.example.backend.contract;
+
+import java.time.Instant;
+
+/**
+ * Where revoked token keys (jti, or a digest for tokens without one) are
+ * kept until the token expires. Selected with security.jwt.revocation.store:
+ * "memory" (default, single node) or "database" (shared by every node).
+ */
+public interface TokenRevocationStore {
+
+    /** Records the key as revoked until expiresAt. */
+    void revoke(String key, Instant expiresAt);
+
+    /** Called on every authenticated request: must be cheap for keys that were never revoked. */
+    boolean isRevoked(String key);
+
+    /** Drops revocations whose token has expired. Returns the number removed. */
+    int purgeExpired();
+
+    /** Picks up revocations recorded by other nodes. No-op for stores that are not shared. */
+    default void refresh() {
+    }
+}
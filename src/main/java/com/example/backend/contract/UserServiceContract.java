@@ -24,6 +24,8 @@ public interface UserServiceContract {
 
     UserDTO updateUserStatus(Long id, UpdateUserStatusDTO request);
 
+    void revokeAllSessions(Long id);
+
     PageResponse<UserDTO> getUsersWithFilters(User.Role role, Boolean active,
             String search, int page, int size, String sortBy);
 }
@@ -0,0 +1,96 @@
+package com.example.backend.controller;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.backend.contract.ChunkedUploadContract;
+import com.example.backend.dto.ChunkedUploadInitDTO;
+import com.example.backend.dto.ChunkedUploadSessionDTO;
+import com.example.backend.dto.DocumentResponseDTO;
+import com.example.backend.dto.DocumentUploadDTO;
+import com.example.backend.entity.User;
+import com.example.backend.security.CustomUserDetails;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Resumable upload protocol for large files:
+ * 1. POST /api/documents/uploads (optionally with the whole file's SHA-256) →
+ * session with chunk size and chunk count
+ * 2. PUT /api/documents/uploads/{id}/chunks/{index} (raw bytes, X-Chunk-Sha256
+ * header) for every chunk, in any order; GET the session to see what is missing
+ * 3. POST /api/documents/uploads/{id}/commit with the document metadata
+ */
+@RestController
+@RequestMapping("/api/documents/uploads")
+@RequiredArgsConstructor
+public class ChunkedUploadController {
+
+    private final ChunkedUploadContract chunkedUploadService;
+
+    @PostMapping
+    public ResponseEntity<ChunkedUploadSessionDTO> initSession(
+            @Valid @RequestBody ChunkedUploadInitDTO init,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        ChunkedUploadSessionDTO session = chunkedUploadService.initSession(init, extractUser(userDetails));
+        return ResponseEntity.status(HttpStatus.CREATED).body(session);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ChunkedUploadSessionDTO> getSession(
+            @PathVariable String id,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        return ResponseEntity.ok(chunkedUploadService.getSession(id, extractUser(userDetails)));
+    }
+
+    @PutMapping(value = "/{id}/chunks/{index}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<ChunkedUploadSessionDTO> writeChunk(
+            @PathVariable String id,
+            @PathVariable int index,
+            @RequestHeader("X-Chunk-Sha256") String sha256,
+            HttpServletRequest request,
+            @AuthenticationPrincipal UserDetails userDetails) throws IOException {
+        ChunkedUploadSessionDTO session = chunkedUploadService.writeChunk(
+                id, index, sha256, request.getInputStream(), extractUser(userDetails));
+        return ResponseEntity.ok(session);
+    }
+
+    @PostMapping("/{id}/commit")
+    public ResponseEntity<DocumentResponseDTO> commit(
+            @PathVariable String id,
+            @Valid @RequestBody DocumentUploadDTO dto,
+            @RequestParam("societeId") String societeId,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        DocumentResponseDTO response = chunkedUploadService.commit(id, dto, societeId, extractUser(userDetails));
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> abort(
+            @PathVariable String id,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        chunkedUploadService.abort(id, extractUser(userDetails));
+        return ResponseEntity.noContent().build();
+    }
+
+    private User extractUser(UserDetails userDetails) {
+        return ((CustomUserDetails) userDetails).getUser();
+    }
+}
@@ -1,11 +1,12 @@
 package com.example.backend.controller;
 
+import java.io.IOException;
 import java.time.LocalDate;
 import java.util.List;
 
 import org.springframework.data.domain.Page;
-import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -19,12 +20,19 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.example.backend.contract.ColdStorageTieringContract;
 import com.example.backend.contract.DocumentServiceContract;
+import com.example.backend.contract.StoredFile;
 import com.example.backend.dto.AuditLogDTO;
+import com.example.backend.dto.CursorPageResponse;
+import com.example.backend.dto.DocumentBatchItemDTO;
+import com.example.backend.dto.DocumentBatchResultDTO;
+import com.example.backend.dto.DocumentDownloadDescriptor;
 import com.example.backend.dto.DocumentResponseDTO;
 import com.example.backend.dto.DocumentUploadDTO;
 import com.example.backend.dto.DocumentValidationDTO;
@@ -32,7 +40,10 @@ import com.example.backend.entity.Document;
 import com.example.backend.entity.User;
 import com.example.backend.security.CustomUserDetails;
 import com.example.backend.service.AuditLogService;
+import com.example.backend.util.FileStreamingUtil;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 
@@ -43,6 +54,7 @@ public class DocumentController {
 
     private final DocumentServiceContract documentService;
     private final AuditLogService auditLogService;
+    private final ColdStorageTieringContract tieringService;
 
     /**
      * Get all documents for the current user's societes.
@@ -83,6 +95,77 @@ public class DocumentController {
         return ResponseEntity.ok(documents);
     }
 
+    /**
+     * Same listing as {@link #getAllMyDocuments}, paginated by cursor: pass the
+     * returned nextCursor to get the following page. Meant for deep scrolling
+     * and exports, where offset pages get slower the further they go.
+     */
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorPageResponse<DocumentResponseDTO>> getAllMyDocumentsByCursor(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(defaultValue = "desc") String sortDir,
+            @RequestParam(defaultValue = "false") boolean includeTotal,
+            @RequestParam(required = false) Document.StatutDocument statut,
+            @RequestParam(required = false) Document.TypeDocument typeDocument,
+            @RequestParam(required = false) Integer exerciceComptable,
+            @RequestParam(required = false) String numeroPiece,
+            @RequestParam(required = false) String fournisseur,
+            @RequestParam(required = false) LocalDate datePieceFrom,
+            @RequestParam(required = false) LocalDate datePieceTo) {
+
+        User user = extractUser(userDetails);
+
+        CursorPageResponse<DocumentResponseDTO> documents = documentService.getDocumentsBySocieteCursor(
+                user.getId(),
+                cursor,
+                size,
+                sortBy,
+                sortDir,
+                includeTotal,
+                statut,
+                typeDocument,
+                exerciceComptable,
+                numeroPiece,
+                fournisseur,
+                datePieceFrom,
+                datePieceTo);
+
+        return ResponseEntity.ok(documents);
+    }
+
+    /**
+     * Search documents by supplier, numéro de pièce, catégorie or filename,
+     * with prefix and typo-tolerant matching. Same visibility as the listing.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<Page<DocumentResponseDTO>> searchDocuments(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") Integer page,
+            @RequestParam(defaultValue = "10") Integer size) {
+
+        User user = extractUser(userDetails);
+        return ResponseEntity.ok(documentService.searchDocuments(user.getId(), q, page, size));
+    }
+
+    /**
+     * Search documents by the text printed on them (ICE, amounts…), extracted
+     * in the background after upload. Same visibility as the listing.
+     */
+    @GetMapping("/search/content")
+    public ResponseEntity<Page<DocumentResponseDTO>> searchDocumentContent(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") Integer page,
+            @RequestParam(defaultValue = "10") Integer size) {
+
+        User user = extractUser(userDetails);
+        return ResponseEntity.ok(documentService.searchDocumentContent(user.getId(), q, page, size));
+    }
+
     /**
      * Upload a document — any authenticated user.
      * CLIENT users are restricted to their own societe at the service layer.
@@ -99,6 +182,24 @@ public class DocumentController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    /**
+     * Bulk upload — a JSON manifest ("manifest" part, application/json) describing
+     * each file of the "files" parts by its original filename. Returns one result
+     * per manifest entry; failed entries do not prevent the others from being
+     * registered.
+     */
+    @PostMapping(value = "/batch", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<DocumentBatchResultDTO> uploadDocuments(
+            @RequestPart("manifest") List<DocumentBatchItemDTO> manifest,
+            @RequestPart("files") List<MultipartFile> files,
+            @RequestParam("societeId") String societeId,
+            @AuthenticationPrincipal UserDetails userDetails) {
+
+        User uploadedBy = extractUser(userDetails);
+        DocumentBatchResultDTO result = documentService.uploadDocuments(manifest, files, societeId, uploadedBy);
+        return ResponseEntity.ok(result);
+    }
+
     /**
      * Get documents filtered by fiscal year.
      * Role-based filtering is applied at the service layer.
@@ -121,19 +222,40 @@ public class DocumentController {
         return ResponseEntity.ok(document);
     }
 
-    /** Download document file — any authenticated user */
+    /**
+     * Download document file — any authenticated user.
+     * The file is streamed straight from storage (sendfile when available) and
+     * supports ETag revalidation and single byte ranges for resumed downloads.
+     */
     @GetMapping("/{id}/download")
-    public ResponseEntity<byte[]> downloadDocument(@PathVariable Long id) {
-        byte[] fileContent = documentService.downloadDocument(id);
-        DocumentResponseDTO document = documentService.getDocumentById(id);
+    public void downloadDocument(@PathVariable Long id, HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        DocumentDownloadDescriptor descriptor = documentService.getDownloadDescriptor(id);
+
+        MediaType contentType = resolveContentType(descriptor.typeMime());
+        String etag = descriptor.checksumSha256() != null ? "\"" + descriptor.checksumSha256() + "\"" : null;
 
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
-        headers.setContentDispositionFormData("attachment", document.getNomFichierOriginal());
+        try (StoredFile file = documentService.downloadDocument(descriptor)) {
+            FileStreamingUtil.write(request, response, file, descriptor.nomFichierOriginal(), contentType, etag);
+        }
+    }
+
+    /**
+     * First-page preview (small JPEG) — any authenticated user.
+     * Meant for review screens, which would otherwise download the full file.
+     */
+    @GetMapping("/{id}/preview")
+    public void previewDocument(@PathVariable Long id, HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        DocumentDownloadDescriptor descriptor = documentService.getDownloadDescriptor(id);
+        String etag = descriptor.checksumSha256() != null
+                ? "\"preview-" + descriptor.checksumSha256() + "\""
+                : null;
 
-        return ResponseEntity.ok()
-                .headers(headers)
-                .body(fileContent);
+        try (StoredFile preview = documentService.getPreview(descriptor)) {
+            FileStreamingUtil.write(request, response, preview, "preview-" + id + ".jpg", MediaType.IMAGE_JPEG,
+                    etag);
+        }
     }
 
     /**
@@ -212,6 +334,28 @@ public class DocumentController {
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * Bring a document packed into the cold tier back to hot storage — ADMIN only.
+     */
+    @PostMapping("/{id}/rehydrate")
+    @PreAuthorize("hasRole('ADMIN')")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public ResponseEntity<Void> rehydrateDocument(@PathVariable Long id) {
+        tieringService.rehydrate(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    private MediaType resolveContentType(String typeMime) {
+        if (typeMime == null) {
+            return MediaType.APPLICATION_OCTET_STREAM;
+        }
+        try {
+            return MediaType.parseMediaType(typeMime);
+        } catch (InvalidMediaTypeException e) {
+            return MediaType.APPLICATION_OCTET_STREAM;
+        }
+    }
+
     private User extractUser(UserDetails userDetails) {
         return ((CustomUserDetails) userDetails).getUser();
     }
@@ -1,8 +1,15 @@
 package com.example.backend.controller;
 
 import com.example.backend.contract.SocieteServiceContract;
+import com.example.backend.contract.StoredFile;
 import com.example.backend.dto.*;
+import com.example.backend.service.ComplianceReportBatchService;
+import com.example.backend.service.ComplianceReportService;
+import com.example.backend.util.FileStreamingUtil;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -10,6 +17,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -18,6 +26,8 @@ import java.util.List;
 public class SocieteController {
 
     private final SocieteServiceContract societeService;
+    private final ComplianceReportService complianceReportService;
+    private final ComplianceReportBatchService reportBatchService;
 
     /** ADMIN only — create a new societe */
     @PostMapping
@@ -35,6 +45,50 @@ public class SocieteController {
         return ResponseEntity.ok(societes);
     }
 
+    /** ADMIN only — compliance of every societe, ranked (optionally for a single fiscal year) */
+    @GetMapping("/compliance")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<PageResponse<SocieteComplianceSummaryDTO>> getCompliancePortfolio(
+            @RequestParam(required = false) Integer exercice,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "compliancePercentage") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDir) {
+        return ResponseEntity.ok(societeService.getCompliancePortfolio(exercice, page, size, sortBy, sortDir));
+    }
+
+    /** ADMIN only — start rendering the compliance reports of every societe into one ZIP */
+    @PostMapping("/compliance/reports")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ReportBatchStatusDTO> startReportBatch() {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(reportBatchService.start());
+    }
+
+    /** ADMIN only — progress of a batch report job */
+    @GetMapping("/compliance/reports/{jobId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ReportBatchStatusDTO> getReportBatchStatus(@PathVariable String jobId) {
+        return ResponseEntity.ok(reportBatchService.getStatus(jobId));
+    }
+
+    /** ADMIN only — cancel a batch report job */
+    @DeleteMapping("/compliance/reports/{jobId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ReportBatchStatusDTO> cancelReportBatch(@PathVariable String jobId) {
+        return ResponseEntity.ok(reportBatchService.cancel(jobId));
+    }
+
+    /** ADMIN only — download the ZIP of a completed batch report job */
+    @GetMapping("/compliance/reports/{jobId}/download")
+    @PreAuthorize("hasRole('ADMIN')")
+    public void downloadReportBatch(@PathVariable String jobId, HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        try (StoredFile archive = reportBatchService.openArchive(jobId)) {
+            FileStreamingUtil.write(request, response, archive, "compliance_reports_" + jobId + ".zip",
+                    MediaType.parseMediaType("application/zip"), null);
+        }
+    }
+
     /** ADMIN, COMPTABLE, CLIENT — get a societe by ID */
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('COMPTABLE') or hasRole('CLIENT')")
@@ -51,19 +105,41 @@ public class SocieteController {
         return ResponseEntity.ok(overview);
     }
 
-    /** ADMIN, COMPTABLE, CLIENT — generate PDF compliance report for a societe */
+    /**
+     * ADMIN, COMPTABLE, CLIENT — PDF compliance report for a societe.
+     * Served from the report cache when it holds a version for the current
+     * data, otherwise rendered straight into the response.
+     */
     @GetMapping("/{id}/compliance/report")
     @PreAuthorize("hasRole('ADMIN') or hasRole('COMPTABLE') or hasRole('CLIENT')")
-    public ResponseEntity<byte[]> generateCompliancePdfReport(@PathVariable Long id) {
-        byte[] pdfReport = societeService.generateCompliancePdfReport(id);
-
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_PDF);
-        headers.setContentDispositionFormData("attachment", "compliance_report_" + id + ".pdf");
+    public void generateCompliancePdfReport(@PathVariable Long id, HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        String filename = "compliance_report_" + id + ".pdf";
+
+        try (StoredFile cached = complianceReportService.findCached(id)) {
+            if (cached != null) {
+                FileStreamingUtil.write(request, response, cached, filename, MediaType.APPLICATION_PDF, null);
+                return;
+            }
+        }
+
+        response.setContentType(MediaType.APPLICATION_PDF_VALUE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(filename)
+                .build()
+                .toString());
+        societeService.writeCompliancePdfReport(id, response.getOutputStream());
+    }
 
-        return ResponseEntity.ok()
-                .headers(headers)
-                .body(pdfReport);
+    /**
+     * ADMIN, COMPTABLE, CLIENT — render the PDF report into the cache in the
+     * background; poll until ready, then download it through the GET above.
+     */
+    @PostMapping("/{id}/compliance/report")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('COMPTABLE') or hasRole('CLIENT')")
+    public ResponseEntity<ComplianceReportStatusDTO> renderCompliancePdfReport(@PathVariable Long id) {
+        ComplianceReportStatusDTO status = complianceReportService.renderInBackground(id);
+        return ResponseEntity.status(status.isReady() ? HttpStatus.OK : HttpStatus.ACCEPTED).body(status);
     }
 
     /** ADMIN only — assign an accountant to a societe */
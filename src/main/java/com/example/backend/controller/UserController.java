@@ -34,6 +34,14 @@ public class UserController {
         return ResponseEntity.ok(updated);
     }
 
+    /** Any authenticated user can log out of every device, including this one */
+    @PostMapping("/me/logout-all")
+    public ResponseEntity<Void> revokeAllCurrentUserSessions() {
+        UserDTO currentUser = userService.getCurrentUser();
+        userService.revokeAllSessions(currentUser.getId());
+        return ResponseEntity.noContent().build();
+    }
+
     /** ADMIN only — create a new accountant (COMPTABLE) */
     @PostMapping("/comptable")
     @PreAuthorize("hasRole('ADMIN')")
@@ -105,6 +113,14 @@ public class UserController {
         return ResponseEntity.ok(updated);
     }
 
+    /** ADMIN only — revoke every token issued to a user */
+    @PostMapping("/{id}/logout-all")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> revokeAllSessions(@PathVariable Long id) {
+        userService.revokeAllSessions(id);
+        return ResponseEntity.noContent().build();
+    }
+
     /** ADMIN only — delete a user (cannot delete ADMIN accounts) */
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
@@ -0,0 +1,28 @@
+package com.example.backend.dto;
+
+import jakarta.validation.constraints.*;
+import lombok.*;
+
+import com.example.backend.entity.Document;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ChunkedUploadInitDTO {
+
+    @NotBlank(message = "Le nom du fichier est obligatoire")
+    private String nomFichier;
+
+    @NotNull(message = "La taille du fichier est obligatoire")
+    @Positive(message = "La taille du fichier doit être supérieure à 0")
+    private Long tailleTotale;
+
+    /** Determines the size cap (bank statements may be larger than other documents). */
+    @NotNull(message = "Le type de document est obligatoire")
+    private Document.TypeDocument typeDocument;
+
+    /** Optional SHA-256 of the whole file; the assembled file must match it at commit. */
+    @Pattern(regexp = "^[0-9a-fA-F]{64}$", message = "L'empreinte SHA-256 doit contenir 64 caractères hexadécimaux")
+    private String checksumSha256;
+}
@@ -0,0 +1,25 @@
+package com.example.backend.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ChunkedUploadSessionDTO {
+
+    private String id;
+    private String nomFichier;
+    private long tailleTotale;
+    private int tailleChunk;
+    private int nombreChunks;
+
+    /** Indexes of the chunks still to be sent — resume by sending only these. */
+    private List<Integer> chunksManquants;
+
+    private boolean complete;
+    private LocalDateTime expiresAt;
+}
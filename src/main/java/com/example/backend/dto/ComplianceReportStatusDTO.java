@@ -0,0 +1,14 @@
+package com.example.backend.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ComplianceReportStatusDTO {
+    private Long societeId;
+    private String version; // stamp of the data the report is rendered from
+    private boolean ready; // false while the report is being rendered in the background
+}
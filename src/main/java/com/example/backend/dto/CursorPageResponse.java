@@ -0,0 +1,22 @@
+package com.example.backend.dto;
+
+import lombok.*;
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing. Pass {@code nextCursor} back to get
+ * the following page; it is null on the last page. {@code totalElements} is
+ * only filled in when explicitly requested, since it costs a full count.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CursorPageResponse<T> {
+    private List<T> content;
+    private int size;
+    private String nextCursor;
+    private boolean hasNext;
+    private Long totalElements;
+}
@@ -0,0 +1,25 @@
+package com.example.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+
+import jakarta.validation.Valid;
+import lombok.*;
+
+/**
+ * One entry of a bulk upload manifest: the document metadata plus the name of
+ * the multipart file it describes, e.g.
+ * {"fichier": "ticket-012.jpg", "numeroPiece": "TC-012", ...}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DocumentBatchItemDTO {
+
+    /** Original filename of the matching part in the "files" field. */
+    private String fichier;
+
+    @Valid
+    @JsonUnwrapped
+    private DocumentUploadDTO document;
+}
@@ -0,0 +1,23 @@
+package com.example.backend.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DocumentBatchItemResultDTO {
+
+    /** Position of the entry in the manifest. */
+    private int index;
+    private String fichier;
+    private String numeroPiece;
+    private boolean success;
+
+    /** Set when success is true. */
+    private DocumentResponseDTO document;
+
+    /** Set when success is false. */
+    private String errorCode;
+    private String message;
+}
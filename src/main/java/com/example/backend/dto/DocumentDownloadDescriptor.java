@@ -0,0 +1,14 @@
+package com.example.backend.dto;
+
+/**
+ * Minimal projection of a document needed to serve its file — loaded in a
+ * single statement without touching any association.
+ */
+public record DocumentDownloadDescriptor(
+        Long id,
+        String cheminFichier,
+        String nomFichierOriginal,
+        Long tailleFichier,
+        String typeMime,
+        String checksumSha256) {
+}
@@ -24,6 +24,7 @@ public class DocumentResponseDTO {
     private String fournisseur;
     private String nomFichierOriginal;
     private Document.StatutDocument statut;
+    private Document.StatutStockage statutStockage;
     private LocalDateTime dateValidation;
     private String commentaireComptable;
     private String societeRaisonSociale;
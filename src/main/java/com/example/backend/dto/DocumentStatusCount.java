@@ -0,0 +1,14 @@
+package com.example.backend.dto;
+
+import com.example.backend.entity.Document;
+
+/**
+ * Number of documents of a société sharing the same fiscal year, type and
+ * status — one row of the compliance aggregation.
+ */
+public record DocumentStatusCount(
+        Integer exerciceComptable,
+        Document.TypeDocument typeDocument,
+        Document.StatutDocument statut,
+        long count) {
+}
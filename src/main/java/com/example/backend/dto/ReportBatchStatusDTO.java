@@ -0,0 +1,22 @@
+package com.example.backend.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReportBatchStatusDTO {
+    private String jobId;
+    private String status; // "QUEUED", "RUNNING", "COMPLETED", "CANCELLED", "FAILED"
+    private int total;
+    private int completed;
+    private int failed;
+    private Map<Long, String> errors; // societeId -> reason
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,22 @@
+package com.example.backend.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SocieteComplianceSummaryDTO {
+    private Long societeId;
+    private String raisonSociale;
+    private String ice;
+    private Integer exerciceComptable; // null = all fiscal years
+    private long totalDocuments;
+    private long pendingDocuments;
+    private long approvedDocuments;
+    private long rejectedDocuments;
+    private long deletedDocuments;
+    private double compliancePercentage;
+    private String complianceStatus; // "COMPLIANT", "AT_RISK", "NON_COMPLIANT"
+}
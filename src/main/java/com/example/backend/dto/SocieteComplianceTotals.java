@@ -0,0 +1,16 @@
+package com.example.backend.dto;
+
+/**
+ * Document totals of one société, summed from compliance_counters — one row
+ * of the compliance portfolio aggregation.
+ */
+public record SocieteComplianceTotals(
+        Long societeId,
+        String raisonSociale,
+        String ice,
+        long total,
+        long pending,
+        long approved,
+        long rejected,
+        long deleted) {
+}
@@ -0,0 +1,12 @@
+package com.example.backend.dto;
+
+/**
+ * Outcome of writing an upload to storage, gathered in the same pass as the copy.
+ * typeMime is null when the content matched none of the accepted formats.
+ */
+public record StoredFileInfo(
+        String path,
+        long size,
+        String checksumSha256,
+        String typeMime) {
+}
@@ -0,0 +1,10 @@
+package com.example.backend.dto;
+
+/**
+ * Current token version of a user — tokens issued with an older version are
+ * rejected.
+ */
+public record UserTokenVersion(
+        Long userId,
+        int tokenVersion) {
+}
@@ -14,8 +14,11 @@ import java.time.LocalDateTime;
 @Builder
 public class AuditLog {
 
+    /** Table-allocated (see V12) so that bulk uploads can batch their inserts. */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "audit_log_id_gen")
+    @TableGenerator(name = "audit_log_id_gen", table = "id_generators", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "audit_logs", allocationSize = 50)
     private Long id;
 
     @Enumerated(EnumType.STRING)
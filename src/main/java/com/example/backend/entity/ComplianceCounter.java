@@ -0,0 +1,50 @@
+package com.example.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+
+/**
+ * Number of documents of a société sharing a fiscal year, type and status.
+ * Kept in step with the documents table by ComplianceCounterService so the
+ * compliance dashboard never has to count documents.
+ */
+@Entity
+@Table(name = "compliance_counters")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ComplianceCounter {
+
+    @EmbeddedId
+    private Key id;
+
+    @Column(nullable = false)
+    private long nombre;
+
+    @Embeddable
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+
+        @Column(name = "societe_id", nullable = false)
+        private Long societeId;
+
+        @Column(nullable = false)
+        private Integer exerciceComptable;
+
+        @Enumerated(EnumType.STRING)
+        @Column(nullable = false, length = 50)
+        private Document.TypeDocument typeDocument;
+
+        @Enumerated(EnumType.STRING)
+        @Column(nullable = false, length = 50)
+        private Document.StatutDocument statut;
+    }
+}
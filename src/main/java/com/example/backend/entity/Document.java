@@ -9,6 +9,11 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "documents")
+@NamedEntityGraph(name = Document.WITH_PARTIES, attributeNodes = {
+        @NamedAttributeNode("societe"),
+        @NamedAttributeNode("uploadedBy"),
+        @NamedAttributeNode("validatedBy")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -16,8 +21,14 @@ import java.time.LocalDateTime;
 @Builder
 public class Document {
 
+    /** Fetches everything DocumentResponseDTO dereferences, for listing queries. */
+    public static final String WITH_PARTIES = "Document.withParties";
+
+    /** Table-allocated (see V12) so that bulk uploads can batch their inserts. */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "document_id_gen")
+    @TableGenerator(name = "document_id_gen", table = "id_generators", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "documents", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true)
@@ -45,10 +56,29 @@ public class Document {
     @Column(nullable = false)
     private String nomFichierOriginal;
 
+    /** Size of the stored file in bytes (null for documents uploaded before V9). */
+    private Long tailleFichier;
+
+    @Column(length = 100)
+    private String typeMime;
+
+    /** Hex-encoded SHA-256 of the stored file, also used as the download ETag. */
+    @Column(length = 64)
+    private String checksumSha256;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private StatutDocument statut;
 
+    /**
+     * Where the file is in the upload pipeline. While STORING, cheminFichier points
+     * at the staged copy, which is already readable.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    @Builder.Default
+    private StatutStockage statutStockage = StatutStockage.STORED;
+
     private LocalDateTime dateValidation;
 
     @Column(length = 500)
@@ -111,4 +141,10 @@ public class Document {
         REJETE,
         SUPPRIME
     }
+
+    public enum StatutStockage {
+        STORING,
+        STORED,
+        FAILED
+    }
 }
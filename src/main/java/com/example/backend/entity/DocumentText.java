@@ -0,0 +1,54 @@
+package com.example.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Text extracted from a document's file, deflate-compressed (see
+ * {@link com.example.backend.util.TextCompressor}). longueur is the length of
+ * the uncompressed text; tentatives counts the extraction attempts, which are
+ * only repeated while the source is ECHEC.
+ */
+@Entity
+@Table(name = "document_texts")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DocumentText {
+
+    @Id
+    private Long documentId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Source source;
+
+    @Column(nullable = false)
+    private Integer longueur;
+
+    @Lob
+    private byte[] contenu;
+
+    @Column(nullable = false)
+    private Integer tentatives;
+
+    @Column(nullable = false)
+    private LocalDateTime extractedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        extractedAt = LocalDateTime.now();
+    }
+
+    public enum Source {
+        PDF,      // Text layer of the PDF
+        OCR,      // Recognized from page images
+        AUCUN,    // Nothing to extract (scanned file without OCR, unsupported type)
+        ECHEC     // File could not be read
+    }
+}
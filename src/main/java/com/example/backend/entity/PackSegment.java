@@ -0,0 +1,25 @@
+package com.example.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Bookkeeping for a segment of the pack storage backend. Only the bytes freed
+ * by purged documents are tracked; the segment's size is its file size.
+ */
+@Entity
+@Table(name = "pack_segments")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PackSegment {
+
+    @Id
+    @Column(length = 64)
+    private String nom;
+
+    @Column(nullable = false)
+    private long octetsMorts;
+}
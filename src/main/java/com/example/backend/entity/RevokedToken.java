@@ -0,0 +1,30 @@
+package com.example.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A logged-out JWT, kept until the token's own expiry so every node rejects
+ * it. Written and read by DatabaseTokenRevocationStore.
+ */
+@Entity
+@Table(name = "revoked_tokens")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RevokedToken {
+
+    @Id
+    @Column(length = 64)
+    private String tokenKey;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(nullable = false, insertable = false, updatable = false)
+    private LocalDateTime revokedAt;
+}
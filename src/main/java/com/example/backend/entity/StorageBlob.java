@@ -0,0 +1,39 @@
+package com.example.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Content-addressed blob shared by every document whose file has the same
+ * SHA-256. refCount is the number of documents pointing at it through
+ * Document.cheminFichier; the file is removed once it drops to zero.
+ */
+@Entity
+@Table(name = "storage_blobs")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StorageBlob {
+
+    @Id
+    @Column(length = 64)
+    private String sha256;
+
+    @Column(nullable = false)
+    private int refCount;
+
+    @Column(nullable = false)
+    private Long tailleFichier;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.BitSet;
+
+/**
+ * A resumable chunked upload in progress. The file is assembled in place at
+ * cheminFichier by positional writes; chunksRecus records which chunks have
+ * been written and verified.
+ */
+@Entity
+@Table(name = "upload_sessions")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UploadSession {
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Column(nullable = false)
+    private String nomFichierOriginal;
+
+    @Column(nullable = false)
+    private Long tailleTotale;
+
+    @Column(nullable = false)
+    private Integer tailleChunk;
+
+    @Column(nullable = false)
+    private Integer nombreChunks;
+
+    @Lob
+    @Column(nullable = false)
+    private byte[] chunksRecus;
+
+    @Column(nullable = false)
+    private String cheminFichier;
+
+    /** SHA-256 of the whole file as announced at init, checked at commit; optional. */
+    @Column(length = 64)
+    private String checksumSha256;
+
+    /** Bumped by every chunk written, so a commit can tell the file changed after it was inspected. */
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer revision = 0;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "created_by_user_id", nullable = false)
+    private User createdBy;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    public BitSet getReceivedChunks() {
+        return BitSet.valueOf(chunksRecus);
+    }
+
+    public void markChunkReceived(int index) {
+        BitSet received = getReceivedChunks();
+        received.set(index);
+        chunksRecus = received.toByteArray();
+        revision++;
+    }
+
+    public boolean isComplete() {
+        return getReceivedChunks().cardinality() == nombreChunks;
+    }
+
+    /** Expected length of the given chunk; only the last one may be shorter. */
+    public long chunkLength(int index) {
+        long offset = (long) index * tailleChunk;
+        return Math.min(tailleChunk, tailleTotale - offset);
+    }
+}
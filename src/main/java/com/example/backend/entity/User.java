@@ -38,6 +38,11 @@ public class User {
     @Builder.Default
     private boolean active = true;
 
+    // Bumped to invalidate every JWT issued to this user
+    @Column(nullable = false)
+    @Builder.Default
+    private int tokenVersion = 0;
+
     @CreationTimestamp
     @Column(updatable = false)
     private LocalDateTime createdAt;
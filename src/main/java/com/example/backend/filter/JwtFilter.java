@@ -8,16 +8,18 @@ import org.springframework.http.MediaType;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 import com.example.backend.contract.JwtContract;
 import com.example.backend.exception.InvalidTokenException;
-import com.example.backend.security.CustomUserDetailsService;
+import com.example.backend.security.AuthenticatedUserCache;
+import com.example.backend.security.CustomUserDetails;
+import com.example.backend.security.TokenVersionRegistry;
 import com.example.backend.service.JwtBlacklistService;
 import com.example.backend.util.AppLogger;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -30,7 +32,8 @@ import lombok.AllArgsConstructor;
 public class JwtFilter extends OncePerRequestFilter {
 
     JwtContract jwtUtility;
-    CustomUserDetailsService userUtility;
+    AuthenticatedUserCache userCache;
+    TokenVersionRegistry tokenVersions;
     JwtBlacklistService jwtBlacklistService;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
@@ -83,17 +86,15 @@ public class JwtFilter extends OncePerRequestFilter {
 
         final String jwtToken = authHeader.substring(7);
 
-        if (jwtBlacklistService.isBlacklisted(jwtToken)) {
+        // Single verification: signature and expiry are checked here (an expired
+        // token throws ExpiredJwtException); everything below reads these claims
+        Claims claims = jwtUtility.verify(jwtToken);
+
+        if (jwtBlacklistService.isBlacklisted(jwtToken, claims)) {
             AppLogger.warn("Attempted to use blacklisted token");
             throw new InvalidTokenException("Token has been invalidated");
         }
-
-        if (jwtUtility.isTokenExpired(jwtToken)) {
-            AppLogger.warn("Attempted to use expired token");
-            return;
-        }
-
-        String email = jwtUtility.getEmail(jwtToken);
+        String email = claims.getSubject();
 
         if (email == null) {
             AppLogger.warn("Token does not contain valid email");
@@ -106,7 +107,13 @@ public class JwtFilter extends OncePerRequestFilter {
             return;
         }
 
-        UserDetails user = userUtility.loadUserByUsername(email);
+        // Role comes from the signed claims; the user row from a short-lived cache
+        CustomUserDetails user = userCache.principalFor(claims);
+
+        if (!tokenVersions.isCurrent(user.getUser().getId(), claims)) {
+            AppLogger.warn(String.format("Attempted to use revoked token of user: %s", email));
+            throw new InvalidTokenException("Token has been revoked");
+        }
 
         UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(user, null,
                 user.getAuthorities());
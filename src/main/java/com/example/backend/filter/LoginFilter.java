@@ -17,6 +17,7 @@ import com.example.backend.dto.LoginRequest;
 import com.example.backend.dto.LoginResponse;
 import com.example.backend.entity.User;
 import com.example.backend.security.CustomUserDetails;
+import com.example.backend.security.TokenVersionRegistry;
 import com.example.backend.util.AppLogger;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -94,6 +95,7 @@ public class LoginFilter extends UsernamePasswordAuthenticationFilter {
         Map<String, String> claims = new HashMap<>();
         claims.put("role", user.getRole().name());
         claims.put("fullName", user.getFullName());
+        claims.put(TokenVersionRegistry.CLAIM, String.valueOf(user.getTokenVersion()));
 
         // Generate JWT token
         String token = jwtService.generateToken(claims, user.getEmail());
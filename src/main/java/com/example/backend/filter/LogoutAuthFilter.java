@@ -12,7 +12,7 @@ import org.springframework.security.web.authentication.logout.LogoutHandler;
 import org.springframework.security.web.authentication.logout.LogoutSuccessHandler;
 import org.springframework.security.web.util.matcher.RequestMatcher;
 
-import com.example.backend.service.JwtBlacklistService;
+import com.example.backend.contract.JwtContract;
 import com.example.backend.util.AppLogger;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -22,10 +22,10 @@ import jakarta.servlet.http.HttpServletResponse;
 
 public class LogoutAuthFilter extends LogoutFilter {
 
-    public LogoutAuthFilter(JwtBlacklistService jwtBlacklistService) {
+    public LogoutAuthFilter(JwtContract jwtService) {
         super(
                 new CustomLogoutSuccessHandler(),
-                new CustomLogoutHandler(jwtBlacklistService));
+                new CustomLogoutHandler(jwtService));
 
         // Custom request matcher
         setLogoutRequestMatcher(new RequestMatcher() {
@@ -38,10 +38,10 @@ public class LogoutAuthFilter extends LogoutFilter {
     }
 
     private static class CustomLogoutHandler implements LogoutHandler {
-        private final JwtBlacklistService jwtBlacklistService;
+        private final JwtContract jwtService;
 
-        public CustomLogoutHandler(JwtBlacklistService jwtBlacklistService) {
-            this.jwtBlacklistService = jwtBlacklistService;
+        public CustomLogoutHandler(JwtContract jwtService) {
+            this.jwtService = jwtService;
         }
 
         @Override
@@ -54,8 +54,8 @@ public class LogoutAuthFilter extends LogoutFilter {
                 // Get authenticated user info
                 String userEmail = authentication != null ? authentication.getName() : "unknown";
 
-                // Blacklist the token
-                jwtBlacklistService.blacklist(token);
+                // Blacklist the token until it expires
+                jwtService.invalidate(token);
 
                 AppLogger.success(String.format("User logged out successfully: %s", userEmail));
             } else {
@@ -0,0 +1,72 @@
+package com.example.backend.repository;
+
+import com.example.backend.dto.DocumentStatusCount;
+import com.example.backend.dto.SocieteComplianceTotals;
+import com.example.backend.entity.ComplianceCounter;
+import com.example.backend.entity.Document;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface ComplianceCounterRepository extends JpaRepository<ComplianceCounter, ComplianceCounter.Key> {
+
+    /** Adds delta to a counter, creating it on first use. Must run inside the caller's transaction. */
+    @Modifying
+    @Query(value = "INSERT INTO compliance_counters (societe_id, exercice_comptable, type_document, statut, nombre) " +
+            "VALUES (:societeId, :exercice, :typeDocument, :statut, :delta) " +
+            "ON DUPLICATE KEY UPDATE nombre = nombre + :delta", nativeQuery = true)
+    void increment(@Param("societeId") Long societeId,
+            @Param("exercice") Integer exercice,
+            @Param("typeDocument") String typeDocument,
+            @Param("statut") String statut,
+            @Param("delta") long delta);
+
+    @Query("SELECT new com.example.backend.dto.DocumentStatusCount(" +
+            "c.id.exerciceComptable, c.id.typeDocument, c.id.statut, c.nombre) " +
+            "FROM ComplianceCounter c WHERE c.id.societeId = :societeId AND c.nombre <> 0")
+    List<DocumentStatusCount> findCounts(@Param("societeId") Long societeId);
+
+    @Query("SELECT COALESCE(SUM(c.nombre), 0) FROM ComplianceCounter c WHERE c.id.societeId = :societeId")
+    long sumBySociete(@Param("societeId") Long societeId);
+
+    @Query("SELECT COALESCE(SUM(c.nombre), 0) FROM ComplianceCounter c " +
+            "WHERE c.id.societeId = :societeId AND c.id.statut = :statut")
+    long sumBySocieteAndStatut(@Param("societeId") Long societeId,
+            @Param("statut") Document.StatutDocument statut);
+
+    /**
+     * Totals for every société, including those without documents, over one
+     * fiscal year or all of them when exercice is null. Statuses are passed as
+     * parameters so the query stays independent of enum literal syntax.
+     */
+    @Query("SELECT new com.example.backend.dto.SocieteComplianceTotals(s.id, s.raisonSociale, s.ice, " +
+            "COALESCE(SUM(c.nombre), 0), " +
+            "COALESCE(SUM(CASE WHEN c.id.statut = :pending THEN c.nombre ELSE 0 END), 0), " +
+            "COALESCE(SUM(CASE WHEN c.id.statut = :approved THEN c.nombre ELSE 0 END), 0), " +
+            "COALESCE(SUM(CASE WHEN c.id.statut = :rejected THEN c.nombre ELSE 0 END), 0), " +
+            "COALESCE(SUM(CASE WHEN c.id.statut = :deleted THEN c.nombre ELSE 0 END), 0)) " +
+            "FROM Societe s LEFT JOIN ComplianceCounter c ON c.id.societeId = s.id " +
+            "AND (:exercice IS NULL OR c.id.exerciceComptable = :exercice) " +
+            "GROUP BY s.id, s.raisonSociale, s.ice")
+    List<SocieteComplianceTotals> findTotalsPerSociete(
+            @Param("exercice") Integer exercice,
+            @Param("pending") Document.StatutDocument pending,
+            @Param("approved") Document.StatutDocument approved,
+            @Param("rejected") Document.StatutDocument rejected,
+            @Param("deleted") Document.StatutDocument deleted);
+
+    @Modifying
+    @Query("DELETE FROM ComplianceCounter c WHERE c.id.societeId = :societeId")
+    int deleteBySociete(@Param("societeId") Long societeId);
+
+    /** Recomputes the counters of a société from its documents; run after {@link #deleteBySociete}. */
+    @Modifying
+    @Query(value = "INSERT INTO compliance_counters (societe_id, exercice_comptable, type_document, statut, nombre) " +
+            "SELECT societe_id, exercice_comptable, type_document, statut, COUNT(*) FROM documents " +
+            "WHERE societe_id = :societeId " +
+            "GROUP BY societe_id, exercice_comptable, type_document, statut", nativeQuery = true)
+    int rebuildForSociete(@Param("societeId") Long societeId);
+}
@@ -1,28 +1,112 @@
 package com.example.backend.repository;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import com.example.backend.dto.DocumentDownloadDescriptor;
+import com.example.backend.dto.DocumentStatusCount;
 import com.example.backend.entity.Document;
 import com.example.backend.entity.Societe;
 
+import jakarta.persistence.LockModeType;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface DocumentRepository extends JpaRepository<Document, Long>, JpaSpecificationExecutor<Document> {
 
-    List<Document> findBySocieteAndExerciceComptable(Societe societe, Integer exerciceComptable);
+    // Listing queries: societe and users are fetched in the same select, so
+    // mapping a page to DTOs does not issue one query per document.
+
+    @EntityGraph(Document.WITH_PARTIES)
+    @Override
+    Page<Document> findAll(Specification<Document> spec, Pageable pageable);
+
+    @EntityGraph(Document.WITH_PARTIES)
+    Optional<Document> findWithPartiesById(Long id);
+
+    @EntityGraph(Document.WITH_PARTIES)
+    List<Document> findWithPartiesByIdIn(Collection<Long> ids);
+
+    @EntityGraph(Document.WITH_PARTIES)
+    List<Document> findWithPartiesBySocieteIn(Collection<Societe> societes);
+
+    @EntityGraph(Document.WITH_PARTIES)
+    List<Document> findWithPartiesBySocieteInAndExerciceComptable(Collection<Societe> societes,
+            Integer exerciceComptable);
+
+    @EntityGraph(Document.WITH_PARTIES)
+    List<Document> findWithPartiesBySocieteInAndStatut(Collection<Societe> societes,
+            Document.StatutDocument statut);
 
-    List<Document> findByStatut(Document.StatutDocument statut);
+    @EntityGraph(Document.WITH_PARTIES)
+    List<Document> findWithPartiesByStatut(Document.StatutDocument statut);
 
-    List<Document> findBySocieteAndStatut(Societe societe, Document.StatutDocument statut);
+    @EntityGraph(Document.WITH_PARTIES)
+    List<Document> findWithPartiesByStatutAndExerciceComptable(Document.StatutDocument statut,
+            Integer exerciceComptable);
 
     Optional<Document> findByNumeroPiece(String numeroPiece);
 
-    List<Document> findBySociete(Societe societe);
+    @Query("SELECT d.numeroPiece FROM Document d WHERE d.numeroPiece IN :numeros")
+    List<String> findExistingNumeroPieces(@Param("numeros") Collection<String> numeros);
+
+    List<Document> findByStatutStockageIn(List<Document.StatutStockage> statuts);
+
+    /** Rows changed since the given instant, for the search index catch-up. */
+    Page<Document> findByUpdatedAtGreaterThanEqual(LocalDateTime since, Pageable pageable);
+
+    /** Documents left in a storage status since before the cutoff, oldest first. */
+    @Query("SELECT d FROM Document d WHERE d.statutStockage = :stockage AND d.updatedAt < :before ORDER BY d.id")
+    List<Document> findStalledPromotions(
+            @Param("stockage") Document.StatutStockage stockage,
+            @Param("before") LocalDateTime before,
+            Pageable pageable);
+
+    List<Document> findByCheminFichierStartingWith(String prefix);
+
+    /** Documents of closed fiscal years still on the hot tier, grouped for packing. */
+    @Query("SELECT d FROM Document d WHERE d.statut = :statut AND d.statutStockage = :stockage " +
+            "AND d.exerciceComptable <= :lastClosedYear AND d.cheminFichier NOT LIKE 'archive:%' " +
+            "ORDER BY d.societe.id, d.exerciceComptable, d.id")
+    List<Document> findColdTierCandidates(
+            @Param("statut") Document.StatutDocument statut,
+            @Param("stockage") Document.StatutStockage stockage,
+            @Param("lastClosedYear") Integer lastClosedYear,
+            Pageable pageable);
+
+    /** Stored documents that text extraction has not processed yet. */
+    @Query("SELECT d.id FROM Document d WHERE d.statutStockage = :stockage " +
+            "AND NOT EXISTS (SELECT t.documentId FROM DocumentText t WHERE t.documentId = d.id) ORDER BY d.id")
+    List<Long> findIdsWithoutExtractedText(@Param("stockage") Document.StatutStockage stockage, Pageable pageable);
+
+    @Query("SELECT new com.example.backend.dto.DocumentDownloadDescriptor(" +
+            "d.id, d.cheminFichier, d.nomFichierOriginal, d.tailleFichier, d.typeMime, d.checksumSha256) " +
+            "FROM Document d WHERE d.id = :id")
+    Optional<DocumentDownloadDescriptor> findDownloadDescriptorById(@Param("id") Long id);
 
-    List<Document> findByStatutAndExerciceComptable(Document.StatutDocument statut, Integer exerciceComptable);
+    /**
+     * Row-locks the document so a status transition (validation, rejection,
+     * deletion, purge) is checked and applied by one request at a time, and
+     * the compliance counters move exactly once.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT d FROM Document d WHERE d.id = :id")
+    Optional<Document> findByIdForUpdate(@Param("id") Long id);
 
-    int countBySociete(Societe societe);
-    int countBySocieteAndStatut(Societe societe, Document.StatutDocument statut);
+    /** Document counts of a société per fiscal year, type and status, for compliance metrics. */
+    @Query("SELECT new com.example.backend.dto.DocumentStatusCount(" +
+            "d.exerciceComptable, d.typeDocument, d.statut, COUNT(d)) " +
+            "FROM Document d WHERE d.societe.id = :societeId " +
+            "GROUP BY d.exerciceComptable, d.typeDocument, d.statut")
+    List<DocumentStatusCount> countByStatusForSociete(@Param("societeId") Long societeId);
 }
@@ -0,0 +1,18 @@
+package com.example.backend.repository;
+
+import com.example.backend.entity.DocumentText;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface DocumentTextRepository extends JpaRepository<DocumentText, Long> {
+
+    /** Documents with the given outcome and fewer attempts than the limit, least recently tried first. */
+    @Query("SELECT t.documentId FROM DocumentText t WHERE t.source = :source AND t.tentatives < :maxAttempts " +
+            "ORDER BY t.extractedAt")
+    List<Long> findIdsToRetry(@Param("source") DocumentText.Source source, @Param("maxAttempts") int maxAttempts,
+            Pageable pageable);
+}
@@ -0,0 +1,22 @@
+package com.example.backend.repository;
+
+import com.example.backend.entity.PackSegment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+public interface PackSegmentRepository extends JpaRepository<PackSegment, String> {
+
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO pack_segments (nom, octets_morts) VALUES (:nom, :bytes) " +
+            "ON DUPLICATE KEY UPDATE octets_morts = octets_morts + :bytes", nativeQuery = true)
+    void addDeadBytes(@Param("nom") String nom, @Param("bytes") long bytes);
+
+    @Query("SELECT s.octetsMorts FROM PackSegment s WHERE s.nom = :nom")
+    Optional<Long> findDeadBytes(@Param("nom") String nom);
+}
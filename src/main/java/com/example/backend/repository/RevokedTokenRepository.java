@@ -0,0 +1,35 @@
+package com.example.backend.repository;
+
+import com.example.backend.entity.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+
+    /** Records a revocation; revoking the same token twice only refreshes revoked_at. */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO revoked_tokens (token_key, expires_at, revoked_at) " +
+            "VALUES (:tokenKey, :expiresAt, CURRENT_TIMESTAMP(6)) " +
+            "ON DUPLICATE KEY UPDATE revoked_at = CURRENT_TIMESTAMP(6)", nativeQuery = true)
+    void revoke(@Param("tokenKey") String tokenKey, @Param("expiresAt") LocalDateTime expiresAt);
+
+    boolean existsByTokenKeyAndExpiresAtAfter(String tokenKey, LocalDateTime now);
+
+    List<RevokedToken> findByExpiresAtAfter(LocalDateTime now);
+
+    long countByExpiresAtAfter(LocalDateTime now);
+
+    List<RevokedToken> findByRevokedAtGreaterThanEqual(LocalDateTime since);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RevokedToken r WHERE r.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
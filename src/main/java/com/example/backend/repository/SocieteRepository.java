@@ -4,6 +4,7 @@ import com.example.backend.entity.Societe;
 import com.example.backend.entity.User;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -18,4 +19,7 @@ public interface SocieteRepository extends JpaRepository<Societe, Long> {
     List<Societe> findByAccountantId(Long accountantId);
 
     List<Societe> findByAccountant(User accountant);
+
+    @Query("SELECT s.id FROM Societe s ORDER BY s.id")
+    List<Long> findAllIds();
 }
@@ -0,0 +1,29 @@
+package com.example.backend.repository;
+
+import com.example.backend.entity.StorageBlob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+public interface StorageBlobRepository extends JpaRepository<StorageBlob, String> {
+
+    /** Registers one more reference, creating the blob row on first use. */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO storage_blobs (sha256, ref_count, taille_fichier, created_at) " +
+            "VALUES (:sha256, 1, :size, CURRENT_TIMESTAMP) " +
+            "ON DUPLICATE KEY UPDATE ref_count = ref_count + 1", nativeQuery = true)
+    void incrementReference(@Param("sha256") String sha256, @Param("size") long size);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE StorageBlob b SET b.refCount = b.refCount - 1 WHERE b.sha256 = :sha256 AND b.refCount > 0")
+    int decrementReference(@Param("sha256") String sha256);
+
+    @Query("SELECT b.refCount FROM StorageBlob b WHERE b.sha256 = :sha256")
+    Optional<Integer> findRefCount(@Param("sha256") String sha256);
+}
@@ -0,0 +1,29 @@
+package com.example.backend.repository;
+
+import com.example.backend.entity.UploadSession;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface UploadSessionRepository extends JpaRepository<UploadSession, String> {
+
+    /**
+     * Row-locks the session so concurrent chunk PUTs do not lose each other's
+     * bits, and so no chunk is written while a commit registers the file.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM UploadSession s WHERE s.id = :id")
+    Optional<UploadSession> findByIdForUpdate(@Param("id") String id);
+
+    /** Read from the row itself, never from an entity the persistence context already holds. */
+    @Query("SELECT s.revision FROM UploadSession s WHERE s.id = :id")
+    Optional<Integer> findRevisionById(@Param("id") String id);
+
+    List<UploadSession> findByExpiresAtBefore(LocalDateTime now);
+}
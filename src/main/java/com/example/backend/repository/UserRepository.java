@@ -1,5 +1,6 @@
 package com.example.backend.repository;
 
+import com.example.backend.dto.UserTokenVersion;
 import com.example.backend.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -23,6 +24,10 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     List<User> findByRoleAndActive(User.Role role, boolean active);
 
+    /** Users whose tokens were revoked at least once; everyone else is still at version 0. */
+    @Query("SELECT new com.example.backend.dto.UserTokenVersion(u.id, u.tokenVersion) FROM User u WHERE u.tokenVersion > 0")
+    List<UserTokenVersion> findTokenVersions();
+
     @Query("SELECT u FROM User u WHERE " +
             "(:role IS NULL OR u.role = :role) AND " +
             "(:active IS NULL OR u.active = :active) AND " +
@@ -0,0 +1,27 @@
+package com.example.backend.scheduler;
+
+import com.example.backend.contract.ChunkedUploadContract;
+import com.example.backend.util.AppLogger;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class ChunkedUploadSweeper {
+
+    private final ChunkedUploadContract chunkedUploadService;
+
+    /**
+     * Removes abandoned chunked uploads (session row and partial file) once they
+     * pass their expiry. Runs every 15 minutes by default.
+     */
+    @Scheduled(fixedDelayString = "${app.uploads.chunked.sweep-interval-ms:900000}")
+    public void sweepExpiredSessions() {
+        try {
+            chunkedUploadService.purgeExpiredSessions();
+        } catch (Exception e) {
+            AppLogger.error("[ChunkedUploadSweeper] Sweep failed: {}", e.getMessage());
+        }
+    }
+}
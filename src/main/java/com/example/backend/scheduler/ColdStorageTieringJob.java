@@ -0,0 +1,31 @@
+package com.example.backend.scheduler;
+
+import com.example.backend.contract.ColdStorageTieringContract;
+import com.example.backend.util.AppLogger;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.storage.tiering.enabled", havingValue = "true", matchIfMissing = true)
+public class ColdStorageTieringJob {
+
+    private final ColdStorageTieringContract tieringService;
+
+    /**
+     * Runs every night at 03:00, after the midnight backup and missing-file check.
+     * Packs validated documents of closed fiscal years into the cold tier.
+     */
+    @Scheduled(cron = "${app.storage.tiering.cron:0 0 3 * * *}")
+    public void archiveClosedYears() {
+        AppLogger.info("[ColdStorageTieringJob] Packing documents of closed fiscal years...");
+        try {
+            int archived = tieringService.archiveClosedYears();
+            AppLogger.info("[ColdStorageTieringJob] " + archived + " document(s) moved to the cold tier.");
+        } catch (Exception e) {
+            AppLogger.error("[ColdStorageTieringJob] Tiering run failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.backend.scheduler;
+
+import com.example.backend.service.ComplianceCounterService;
+import com.example.backend.util.AppLogger;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class ComplianceCounterVerifyJob {
+
+    private final ComplianceCounterService complianceCounterService;
+
+    /**
+     * Runs every day at 02:30 by default. Counters are updated with every
+     * document change, so drift only comes from writes that bypass the
+     * service (manual SQL, restores); affected sociétés are rebuilt.
+     */
+    @Scheduled(cron = "${app.compliance.counters.verify-cron:0 30 2 * * *}")
+    public void verifyCounters() {
+        try {
+            int repaired = complianceCounterService.repairDrift();
+            if (repaired > 0) {
+                AppLogger.info("[ComplianceCounterVerifyJob] Rebuilt counters of {} societe(s)", repaired);
+            }
+        } catch (Exception e) {
+            AppLogger.error("[ComplianceCounterVerifyJob] Verification failed: {}", e.getMessage());
+        }
+    }
+}
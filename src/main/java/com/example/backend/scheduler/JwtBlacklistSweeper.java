@@ -0,0 +1,30 @@
+package com.example.backend.scheduler;
+
+import com.example.backend.service.JwtBlacklistService;
+import com.example.backend.util.AppLogger;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class JwtBlacklistSweeper {
+
+    private final JwtBlacklistService jwtBlacklistService;
+
+    /**
+     * Drops blacklist entries whose token has expired. Runs every five
+     * minutes by default.
+     */
+    @Scheduled(fixedDelayString = "${security.jwt.blacklist.sweep-interval-ms:300000}")
+    public void sweepExpiredTokens() {
+        try {
+            int removed = jwtBlacklistService.purgeExpired();
+            if (removed > 0) {
+                AppLogger.debug("[JwtBlacklistSweeper] Removed {} expired entries", removed);
+            }
+        } catch (Exception e) {
+            AppLogger.error("[JwtBlacklistSweeper] Sweep failed: {}", e.getMessage());
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.backend.scheduler;
 
+import com.example.backend.contract.FileStorageService;
 import com.example.backend.entity.Document;
 import com.example.backend.entity.MissingFileWarning;
 import com.example.backend.repository.DocumentRepository;
@@ -10,8 +11,6 @@ import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.nio.file.Files;
-import java.nio.file.Paths;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -21,6 +20,7 @@ public class MissingFileCheckJob {
 
     private final DocumentRepository documentRepository;
     private final MissingFileWarningRepository warningRepository;
+    private final FileStorageService fileStorageService;
 
     /**
      * Runs every day at midnight (00:00).
@@ -40,7 +40,7 @@ public class MissingFileCheckJob {
         List<Document> allDocs = documentRepository.findAll();
 
         List<MissingFileWarning> warnings = allDocs.stream()
-                .filter(doc -> !Files.exists(Paths.get(doc.getCheminFichier())))
+                .filter(doc -> !fileStorageService.exists(doc.getCheminFichier()))
                 .map(doc -> MissingFileWarning.builder()
                         .document(doc)
                         .expectedPath(doc.getCheminFichier())
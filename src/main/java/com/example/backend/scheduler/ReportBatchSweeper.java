@@ -0,0 +1,27 @@
+package com.example.backend.scheduler;
+
+import com.example.backend.service.ComplianceReportBatchService;
+import com.example.backend.util.AppLogger;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class ReportBatchSweeper {
+
+    private final ComplianceReportBatchService reportBatchService;
+
+    /**
+     * Drops finished batch report jobs and their ZIP archives once they pass
+     * the retention period. Runs every hour by default.
+     */
+    @Scheduled(fixedDelayString = "${app.reports.batch.sweep-interval-ms:3600000}")
+    public void sweepExpiredBatches() {
+        try {
+            reportBatchService.purgeExpired();
+        } catch (Exception e) {
+            AppLogger.error("[ReportBatchSweeper] Sweep failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.backend.scheduler;
+
+import com.example.backend.service.search.DocumentSearchIndex;
+import com.example.backend.util.AppLogger;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class SearchIndexCommitJob {
+
+    private final DocumentSearchIndex searchIndex;
+
+    /**
+     * Flushes search index changes to disk. Searches already see them; this
+     * only bounds what a crash can lose (rebuilt from the database at startup).
+     */
+    @Scheduled(fixedDelayString = "${app.search.commit-interval-ms:30000}")
+    public void commit() {
+        try {
+            searchIndex.commit();
+        } catch (Exception e) {
+            AppLogger.error("[SearchIndexCommitJob] Commit failed: {}", e.getMessage());
+        }
+    }
+}
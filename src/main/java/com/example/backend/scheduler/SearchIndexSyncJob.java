@@ -0,0 +1,30 @@
+package com.example.backend.scheduler;
+
+import com.example.backend.service.search.DocumentSearchIndex;
+import com.example.backend.util.AppLogger;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class SearchIndexSyncJob {
+
+    private final DocumentSearchIndex searchIndex;
+
+    /**
+     * Brings this node's search index up to date with documents changed on
+     * other nodes. Runs every 30 seconds by default.
+     */
+    @Scheduled(fixedDelayString = "${app.search.sync-interval-ms:30000}")
+    public void catchUp() {
+        try {
+            int reindexed = searchIndex.catchUp();
+            if (reindexed > 0) {
+                AppLogger.debug("[SearchIndexSyncJob] Re-indexed {} changed documents", reindexed);
+            }
+        } catch (Exception e) {
+            AppLogger.error("[SearchIndexSyncJob] Catch-up failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.backend.scheduler;
+
+import com.example.backend.service.storage.StoragePromotionService;
+import com.example.backend.util.AppLogger;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+@Component
+@RequiredArgsConstructor
+public class StoragePromotionJob {
+
+    private final StoragePromotionService storagePromotionService;
+
+    @Value("${app.storage.promotion.resume.grace-minutes:10}")
+    private long graceMinutes = 10;
+
+    @Value("${app.storage.promotion.resume.batch-size:200}")
+    private int batchSize = 200;
+
+    /**
+     * Queues documents still STORING after the grace period: promotions turned
+     * away by a saturated storage pool, or interrupted by a node stopping.
+     * Runs every 5 minutes by default.
+     */
+    @Scheduled(fixedDelayString = "${app.storage.promotion.resume.interval-ms:300000}")
+    public void resumeStalledPromotions() {
+        try {
+            int queued = storagePromotionService.resumeStalledPromotions(
+                    LocalDateTime.now().minusMinutes(graceMinutes), batchSize);
+            if (queued > 0) {
+                AppLogger.info("[StoragePromotionJob] Queued {} stalled promotions", queued);
+            }
+        } catch (Exception e) {
+            AppLogger.error("[StoragePromotionJob] Resume failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.backend.scheduler;
+
+import com.example.backend.service.TextExtractionService;
+import com.example.backend.util.AppLogger;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class TextExtractionJob {
+
+    private final TextExtractionService textExtractionService;
+
+    @Value("${app.extraction.catch-up.batch-size:200}")
+    private int batchSize = 200;
+
+    /**
+     * Queues stored documents whose text was never extracted: uploads from
+     * before content search existed, and extractions dropped because the pool
+     * was saturated or the server stopped. Files that could not be read are
+     * queued again until their attempts run out. Documents still waiting on the
+     * pool are not queued twice. Runs every 10 minutes by default.
+     */
+    @Scheduled(fixedDelayString = "${app.extraction.catch-up.interval-ms:600000}")
+    public void queuePendingExtractions() {
+        try {
+            int queued = textExtractionService.queuePending(batchSize);
+            if (queued > 0) {
+                AppLogger.info("[TextExtractionJob] Queued {} documents for text extraction", queued);
+            }
+        } catch (Exception e) {
+            AppLogger.error("[TextExtractionJob] Catch-up failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.backend.scheduler;
+
+import com.example.backend.contract.TokenRevocationStore;
+import com.example.backend.util.AppLogger;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "security.jwt.revocation.store", havingValue = "database")
+public class TokenRevocationSyncJob {
+
+    private final TokenRevocationStore revocationStore;
+
+    /**
+     * Pulls tokens logged out on other nodes into this node's filter. The
+     * interval bounds how long such a token keeps working here; every five
+     * seconds by default.
+     */
+    @Scheduled(fixedDelayString = "${security.jwt.revocation.sync-interval-ms:5000}")
+    public void syncRevocations() {
+        try {
+            revocationStore.refresh();
+        } catch (Exception e) {
+            AppLogger.error("[TokenRevocationSyncJob] Sync failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.backend.scheduler;
+
+import com.example.backend.security.TokenVersionRegistry;
+import com.example.backend.util.AppLogger;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class TokenVersionRefreshJob {
+
+    private final TokenVersionRegistry tokenVersions;
+
+    /**
+     * Pulls token versions bumped on other nodes, bounding how long a revoked
+     * user's tokens keep working here. Runs every ten seconds by default.
+     */
+    @Scheduled(fixedDelayString = "${security.jwt.token-version.refresh-interval-ms:10000}")
+    public void refreshTokenVersions() {
+        try {
+            tokenVersions.refresh();
+        } catch (Exception e) {
+            AppLogger.error("[TokenVersionRefreshJob] Refresh failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.backend.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.backend.entity.User;
+import com.example.backend.exception.InvalidTokenException;
+import com.example.backend.repository.UserRepository;
+import com.example.backend.util.AppLogger;
+import com.example.backend.util.BoundedCache;
+
+import io.jsonwebtoken.Claims;
+
+/**
+ * Builds the request principal from verified JWT claims. The user row is
+ * kept in a short-lived, size-bounded cache keyed by email, so an
+ * authenticated request does not query users every time. The cached User is
+ * detached and shared between requests: callers must treat it as read-only.
+ *
+ * Entries are dropped after commit whenever a user's status, role, email or
+ * password changes, so a deactivation takes effect on the next request on
+ * this instance and within the TTL on the others. With
+ * app.security.user-cache.enabled=false every request loads the user again.
+ */
+@Component
+public class AuthenticatedUserCache {
+
+    private final UserRepository userRepository;
+    private final boolean enabled;
+    private final BoundedCache<String, User> users;
+
+    public AuthenticatedUserCache(UserRepository userRepository,
+            @Value("${app.security.user-cache.enabled:true}") boolean enabled,
+            @Value("${app.security.user-cache.max-size:1000}") int maxSize,
+            @Value("${app.security.user-cache.ttl-seconds:30}") long ttlSeconds) {
+        this.userRepository = userRepository;
+        this.enabled = enabled;
+        this.users = new BoundedCache<>(maxSize, ttlSeconds * 1000);
+    }
+
+    /**
+     * Returns the principal for a verified token. Rejects the token when the
+     * account no longer exists, is disabled, or no longer has the role the
+     * token was issued for.
+     */
+    public CustomUserDetails principalFor(Claims claims) {
+        String email = claims.getSubject();
+        User user = enabled ? users.get(email, this::load) : load(email);
+
+        if (user == null) {
+            AppLogger.warn(String.format("Token presented for unknown user: %s", email));
+            throw new InvalidTokenException("Utilisateur introuvable");
+        }
+        if (!user.isActive()) {
+            AppLogger.warn(String.format("Token presented for inactive user: %s", email));
+            throw new InvalidTokenException("Compte utilisateur désactivé");
+        }
+
+        String role = claims.get("role", String.class);
+        if (role != null && !role.equals(user.getRole().name())) {
+            AppLogger.warn(String.format("Token role %s no longer matches user %s", role, email));
+            throw new InvalidTokenException("Le rôle de l'utilisateur a changé, veuillez vous reconnecter");
+        }
+
+        return new CustomUserDetails(user);
+    }
+
+    /** Drops the cached user once the current transaction commits. */
+    public void evictAfterCommit(String email) {
+        if (email == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            users.invalidate(email);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                users.invalidate(email);
+            }
+        });
+    }
+
+    private User load(String email) {
+        return userRepository.findByEmail(email).orElse(null);
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.backend.security;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.backend.dto.UserTokenVersion;
+import com.example.backend.repository.UserRepository;
+
+import io.jsonwebtoken.Claims;
+
+/**
+ * In-memory copy of users.token_version, holding only users whose version
+ * is above 0. Incrementing a user's version revokes every token issued to
+ * them, without listing or blacklisting the tokens.
+ *
+ * Changes made on this node apply once their transaction commits; changes
+ * from other nodes are pulled by TokenVersionRefreshJob. Versions only go
+ * up, so a refresh never lowers a version recorded locally.
+ */
+@Component
+public class TokenVersionRegistry {
+
+    public static final String CLAIM = "tokenVersion";
+
+    private final UserRepository userRepository;
+    private final Map<Long, Integer> versions = new ConcurrentHashMap<>();
+
+    public TokenVersionRegistry(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    /** Tokens issued before this claim existed count as version 0. */
+    public boolean isCurrent(Long userId, Claims claims) {
+        Integer current = versions.get(userId);
+        if (current == null) {
+            return true;
+        }
+        String issued = claims.get(CLAIM, String.class);
+        return issued != null && Integer.parseInt(issued) >= current;
+    }
+
+    /** Records a user's new version once the current transaction commits. */
+    public void recordAfterCommit(Long userId, int version) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            record(userId, version);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                record(userId, version);
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void refresh() {
+        for (UserTokenVersion entry : userRepository.findTokenVersions()) {
+            record(entry.userId(), entry.tokenVersion());
+        }
+    }
+
+    private void record(Long userId, int version) {
+        versions.merge(userId, version, Math::max);
+    }
+}
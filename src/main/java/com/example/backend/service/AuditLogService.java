@@ -43,6 +43,27 @@ public class AuditLogService {
                                 document.getNumeroPiece(), performedBy.getEmail()));
         }
 
+        /** Bulk variant of {@link #logUpload}: one saveAll, batched by Hibernate. */
+        @Transactional
+        public void logUploads(List<Document> documents, User performedBy) {
+                List<AuditLog> logs = documents.stream()
+                                .map(document -> AuditLog.builder()
+                                                .action(AuditLog.AuditAction.DOCUMENT_UPLOADED)
+                                                .document(document)
+                                                .performedBy(performedBy)
+                                                .details(String.format(
+                                                                "Document '%s' uploadé par %s pour la société '%s' (exercice %d)",
+                                                                document.getNumeroPiece(),
+                                                                performedBy.getFullName(),
+                                                                document.getSociete().getRaisonSociale(),
+                                                                document.getExerciceComptable()))
+                                                .build())
+                                .toList();
+                auditLogRepository.saveAll(logs);
+                AppLogger.info(String.format("[AUDIT] UPLOAD %d document(s) by='%s'",
+                                documents.size(), performedBy.getEmail()));
+        }
+
         @Transactional
         public void logValidation(Document document, User performedBy) {
                 AuditLog log = AuditLog.builder()
@@ -0,0 +1,377 @@
+package com.example.backend.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.backend.contract.ChunkedUploadContract;
+import com.example.backend.contract.DocumentServiceContract;
+import com.example.backend.contract.FileValidatorContract;
+import com.example.backend.dto.ChunkedUploadInitDTO;
+import com.example.backend.dto.ChunkedUploadSessionDTO;
+import com.example.backend.dto.DocumentResponseDTO;
+import com.example.backend.dto.DocumentUploadDTO;
+import com.example.backend.dto.StoredFileInfo;
+import com.example.backend.entity.UploadSession;
+import com.example.backend.entity.User;
+import com.example.backend.exception.BusinessException;
+import com.example.backend.exception.ResourceNotFoundException;
+import com.example.backend.repository.UploadSessionRepository;
+import com.example.backend.service.storage.extras.FileSignature;
+import com.example.backend.service.storage.extras.InspectingInputStream;
+import com.example.backend.util.AppLogger;
+import com.example.backend.util.FileHelper;
+
+/**
+ * Resumable uploads: init → PUT chunks (any order, retried individually) →
+ * commit. Each chunk is streamed to a temporary file and verified, then copied
+ * to its offset in the session file, so neither the file nor a chunk is ever
+ * held in memory. The copy, the registration and any discard all hold the
+ * session's row lock; the commit inspects the file before taking it, and gives
+ * up if a chunk was written meanwhile. A chunk arriving while a commit
+ * registers the file waits, then finds the session gone. The committed file
+ * enters the regular upload flow as a staged file.
+ */
+@Service
+public class ChunkedUploadService implements ChunkedUploadContract {
+
+    private static final Path DEFAULT_CHUNKED_DIR = Paths.get("uploads/documents/", "chunked");
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final UploadSessionRepository sessionRepository;
+    private final DocumentServiceContract documentService;
+    private final FileValidatorContract fileValidator;
+    private final TransactionTemplate transactionTemplate;
+    private final Path chunkedDir;
+    private final int chunkSize;
+    private final long ttlMinutes;
+
+    @Autowired
+    public ChunkedUploadService(
+            UploadSessionRepository sessionRepository,
+            DocumentServiceContract documentService,
+            FileValidatorContract fileValidator,
+            TransactionTemplate transactionTemplate,
+            @Value("${app.uploads.chunked.chunk-size-kb:5120}") int chunkSizeKb,
+            @Value("${app.uploads.chunked.ttl-minutes:1440}") long ttlMinutes) {
+        this(sessionRepository, documentService, fileValidator, transactionTemplate, DEFAULT_CHUNKED_DIR,
+                chunkSizeKb, ttlMinutes);
+    }
+
+    ChunkedUploadService(UploadSessionRepository sessionRepository, DocumentServiceContract documentService,
+            FileValidatorContract fileValidator, TransactionTemplate transactionTemplate, Path chunkedDir,
+            int chunkSizeKb, long ttlMinutes) {
+        this.sessionRepository = sessionRepository;
+        this.documentService = documentService;
+        this.fileValidator = fileValidator;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkedDir = chunkedDir;
+        this.chunkSize = chunkSizeKb * 1024;
+        this.ttlMinutes = ttlMinutes;
+    }
+
+    @Override
+    public ChunkedUploadSessionDTO initSession(ChunkedUploadInitDTO init, User user) {
+        fileValidator.validateDeclaredFile(init.getNomFichier(), init.getTailleTotale(), init.getTypeDocument());
+
+        String id = UUID.randomUUID().toString();
+        String extension = FileHelper.getFileExtension(init.getNomFichier());
+        Path file = chunkedDir.resolve(id + "." + extension + ".part");
+        try {
+            Files.createDirectories(chunkedDir);
+            Files.createFile(file);
+        } catch (IOException e) {
+            throw new BusinessException("FILE_SAVE_ERROR", e.getMessage());
+        }
+
+        int chunks = (int) ((init.getTailleTotale() + chunkSize - 1) / chunkSize);
+        UploadSession session = UploadSession.builder()
+                .id(id)
+                .nomFichierOriginal(init.getNomFichier())
+                .tailleTotale(init.getTailleTotale())
+                .tailleChunk(chunkSize)
+                .nombreChunks(chunks)
+                .chunksRecus(new byte[0])
+                .cheminFichier(file.toString())
+                .checksumSha256(init.getChecksumSha256() != null ? init.getChecksumSha256().toLowerCase() : null)
+                .createdBy(user)
+                .expiresAt(LocalDateTime.now().plusMinutes(ttlMinutes))
+                .build();
+
+        return mapToDTO(sessionRepository.save(session));
+    }
+
+    @Override
+    public ChunkedUploadSessionDTO getSession(String sessionId, User user) {
+        return mapToDTO(findOwnedSession(sessionId, user));
+    }
+
+    /**
+     * Receives one chunk into a temporary file while hashing it; only once its
+     * length and SHA-256 match is it copied to its offset and counted as
+     * received. A rejected chunk is simply sent again.
+     */
+    @Override
+    public ChunkedUploadSessionDTO writeChunk(String sessionId, int index, String sha256, InputStream content,
+            User user) {
+        UploadSession session = findActiveSession(sessionId, user);
+        if (index < 0 || index >= session.getNombreChunks()) {
+            throw new BusinessException("INVALID_CHUNK",
+                    String.format("Index de segment invalide: %d (0 à %d)", index, session.getNombreChunks() - 1));
+        }
+        if (sha256 == null || sha256.isBlank()) {
+            throw new BusinessException("CHUNK_CHECKSUM_REQUIRED", "L'empreinte SHA-256 du segment est obligatoire");
+        }
+
+        long expected = session.chunkLength(index);
+        long offset = (long) index * session.getTailleChunk();
+        Path chunk = createChunkFile(sessionId, index);
+        try {
+            String actual = receive(chunk, expected, content);
+            if (!actual.equalsIgnoreCase(sha256.trim())) {
+                throw new BusinessException("CHUNK_CHECKSUM_MISMATCH",
+                        String.format("L'empreinte du segment %d ne correspond pas, veuillez le renvoyer", index));
+            }
+
+            UploadSession updated = transactionTemplate.execute(status -> {
+                UploadSession locked = lockSession(sessionId);
+                copyAt(chunk, Paths.get(locked.getCheminFichier()), offset);
+                locked.markChunkReceived(index);
+                locked.setExpiresAt(LocalDateTime.now().plusMinutes(ttlMinutes));
+                return locked;
+            });
+            return mapToDTO(updated);
+        } finally {
+            deleteQuietly(chunk);
+        }
+    }
+
+    /**
+     * Inspects the assembled file without holding the row lock, then registers
+     * it and deletes the session under the lock, provided no chunk was written
+     * since the session was read. The registration is flushed inside that
+     * transaction, so a numero taken meanwhile fails as DUPLICATE_DOCUMENT.
+     */
+    @Override
+    public DocumentResponseDTO commit(String sessionId, DocumentUploadDTO dto, String societyId, User user) {
+        UploadSession session = findActiveSession(sessionId, user);
+        int revision = session.getRevision();
+        fileValidator.validateDeclaredFile(session.getNomFichierOriginal(), session.getTailleTotale(),
+                dto.getTypeDocument());
+        if (!session.isComplete()) {
+            throw new BusinessException("UPLOAD_INCOMPLETE",
+                    String.format("%d segment(s) manquant(s)", missingChunks(session).size()));
+        }
+
+        Path file = Paths.get(session.getCheminFichier());
+        try {
+            StoredFileInfo assembled = inspect(file);
+            if (session.getChecksumSha256() != null
+                    && !session.getChecksumSha256().equalsIgnoreCase(assembled.checksumSha256())) {
+                throw new BusinessException("CHECKSUM_MISMATCH",
+                        "L'empreinte du fichier assemblé ne correspond pas à celle annoncée");
+            }
+
+            return transactionTemplate.execute(status -> {
+                UploadSession locked = lockSession(sessionId);
+                if (sessionRepository.findRevisionById(sessionId).orElse(-1) != revision) {
+                    throw new BusinessException("UPLOAD_MODIFIED",
+                            "Un segment a été renvoyé pendant la validation, veuillez relancer la validation");
+                }
+
+                DocumentResponseDTO response = documentService.registerAssembledUpload(
+                        dto, assembled, locked.getNomFichierOriginal(), societyId, user);
+                sessionRepository.delete(locked);
+                return response;
+            });
+        } catch (BusinessException ex) {
+            // Bad content cannot be fixed by retrying; metadata errors (duplicate
+            // numero, wrong societe) and a chunk re-sent meanwhile can, so the
+            // session is kept for those
+            if ("INVALID_FILE_CONTENT".equals(ex.getCode()) || "FILE_TYPE_MISMATCH".equals(ex.getCode())
+                    || "CHECKSUM_MISMATCH".equals(ex.getCode()) || !Files.exists(file)) {
+                discard(sessionId, null);
+            }
+            throw ex;
+        }
+    }
+
+    @Override
+    public void abort(String sessionId, User user) {
+        findOwnedSession(sessionId, user);
+        discard(sessionId, null);
+    }
+
+    @Override
+    public void purgeExpiredSessions() {
+        LocalDateTime now = LocalDateTime.now();
+        long removed = sessionRepository.findByExpiresAtBefore(now).stream()
+                .filter(session -> discard(session.getId(), now))
+                .count();
+        if (removed > 0) {
+            AppLogger.info("[ChunkedUpload] Removed {} expired upload session(s)", removed);
+        }
+    }
+
+    private Path createChunkFile(String sessionId, int index) {
+        try {
+            Files.createDirectories(chunkedDir);
+            return Files.createTempFile(chunkedDir, sessionId + "-" + index + "-", ".chunk");
+        } catch (IOException e) {
+            throw new BusinessException("FILE_SAVE_ERROR", e.getMessage());
+        }
+    }
+
+    /** Streams the chunk to its temporary file and returns its SHA-256. */
+    private String receive(Path chunk, long expected, InputStream content) {
+        MessageDigest digest = sha256();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long written = 0;
+        try (OutputStream out = Files.newOutputStream(chunk, StandardOpenOption.WRITE)) {
+            int read;
+            while ((read = content.read(buffer)) != -1) {
+                if (written + read > expected) {
+                    throw chunkSizeMismatch(expected);
+                }
+                digest.update(buffer, 0, read);
+                out.write(buffer, 0, read);
+                written += read;
+            }
+        } catch (IOException e) {
+            throw new BusinessException("FILE_SAVE_ERROR", e.getMessage());
+        }
+        if (written != expected) {
+            throw chunkSizeMismatch(expected);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static void copyAt(Path chunk, Path file, long offset) {
+        try (FileChannel source = FileChannel.open(chunk, StandardOpenOption.READ);
+                FileChannel target = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            long size = source.size();
+            long copied = 0;
+            while (copied < size) {
+                copied += source.transferTo(copied, size - copied, target.position(offset + copied));
+            }
+        } catch (IOException e) {
+            throw new BusinessException("FILE_SAVE_ERROR", e.getMessage());
+        }
+    }
+
+    /** One sequential pass over the assembled file for its checksum and real type. */
+    private StoredFileInfo inspect(Path file) {
+        try (InspectingInputStream in = new InspectingInputStream(Files.newInputStream(file))) {
+            in.transferTo(OutputStream.nullOutputStream());
+            FileSignature signature = in.detectedSignature();
+            return new StoredFileInfo(
+                    file.toString(),
+                    in.getBytesRead(),
+                    in.sha256Hex(),
+                    signature != null ? signature.getMimeType() : null);
+        } catch (IOException e) {
+            throw new BusinessException("FILE_READ_ERROR", e.getMessage());
+        }
+    }
+
+    /**
+     * Deletes the session and its file under the row lock; with expiredBefore
+     * set, only if the session has not been extended meanwhile.
+     */
+    private boolean discard(String sessionId, LocalDateTime expiredBefore) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> sessionRepository.findByIdForUpdate(sessionId)
+                .filter(locked -> expiredBefore == null || locked.getExpiresAt().isBefore(expiredBefore))
+                .map(locked -> {
+                    deleteQuietly(Paths.get(locked.getCheminFichier()));
+                    sessionRepository.delete(locked);
+                    return true;
+                })
+                .orElse(false)));
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            AppLogger.warn("[ChunkedUpload] Could not delete {}: {}", file, e.getMessage());
+        }
+    }
+
+    private UploadSession lockSession(String sessionId) {
+        return sessionRepository.findByIdForUpdate(sessionId)
+                .orElseThrow(() -> new ResourceNotFoundException("Session de téléversement", sessionId));
+    }
+
+    /** An owned session that can still receive chunks or be committed. */
+    private UploadSession findActiveSession(String sessionId, User user) {
+        UploadSession session = findOwnedSession(sessionId, user);
+        if (session.getExpiresAt().isBefore(LocalDateTime.now())) {
+            throw new BusinessException("UPLOAD_SESSION_EXPIRED",
+                    "Cette session de téléversement a expiré, veuillez recommencer le téléversement");
+        }
+        return session;
+    }
+
+    private UploadSession findOwnedSession(String sessionId, User user) {
+        UploadSession session = sessionRepository.findById(sessionId)
+                .orElseThrow(() -> new ResourceNotFoundException("Session de téléversement", sessionId));
+        if (!session.getCreatedBy().getId().equals(user.getId())) {
+            throw new BusinessException("FORBIDDEN", "Cette session de téléversement ne vous appartient pas");
+        }
+        return session;
+    }
+
+    private List<Integer> missingChunks(UploadSession session) {
+        BitSet received = session.getReceivedChunks();
+        List<Integer> missing = new ArrayList<>();
+        for (int i = received.nextClearBit(0); i < session.getNombreChunks(); i = received.nextClearBit(i + 1)) {
+            missing.add(i);
+        }
+        return missing;
+    }
+
+    private ChunkedUploadSessionDTO mapToDTO(UploadSession session) {
+        List<Integer> missing = missingChunks(session);
+        return ChunkedUploadSessionDTO.builder()
+                .id(session.getId())
+                .nomFichier(session.getNomFichierOriginal())
+                .tailleTotale(session.getTailleTotale())
+                .tailleChunk(session.getTailleChunk())
+                .nombreChunks(session.getNombreChunks())
+                .chunksManquants(missing)
+                .complete(missing.isEmpty())
+                .expiresAt(session.getExpiresAt())
+                .build();
+    }
+
+    private static BusinessException chunkSizeMismatch(long expected) {
+        return new BusinessException("CHUNK_SIZE_MISMATCH",
+                String.format("Le segment doit contenir exactement %d octets", expected));
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.DocumentStatusCount;
+import com.example.backend.dto.SocieteComplianceTotals;
+import com.example.backend.entity.Document;
+import com.example.backend.repository.ComplianceCounterRepository;
+import com.example.backend.repository.DocumentRepository;
+import com.example.backend.repository.SocieteRepository;
+import com.example.backend.util.AppLogger;
+import com.example.backend.util.BoundedCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Maintains compliance_counters alongside the documents table. The record*
+ * methods must be called inside the transaction that changes the documents,
+ * so counters and documents commit or roll back together.
+ *
+ * Also serves the per-société totals behind the compliance portfolio, cached
+ * per fiscal year and dropped whenever a counter change commits.
+ */
+@Service
+public class ComplianceCounterService {
+
+    /** Cache key for the totals over all fiscal years. */
+    private static final int ALL_YEARS = 0;
+
+    private final ComplianceCounterRepository counterRepository;
+    private final DocumentRepository documentRepository;
+    private final SocieteRepository societeRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final BoundedCache<Integer, List<SocieteComplianceTotals>> portfolioCache;
+
+    public ComplianceCounterService(ComplianceCounterRepository counterRepository,
+            DocumentRepository documentRepository,
+            SocieteRepository societeRepository,
+            TransactionTemplate transactionTemplate,
+            @Value("${app.compliance.portfolio-cache.max-size:32}") int cacheSize,
+            @Value("${app.compliance.portfolio-cache.ttl-seconds:300}") long cacheTtlSeconds) {
+        this.counterRepository = counterRepository;
+        this.documentRepository = documentRepository;
+        this.societeRepository = societeRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.portfolioCache = new BoundedCache<>(cacheSize, cacheTtlSeconds * 1000);
+    }
+
+    public void recordInserted(Collection<Document> documents) {
+        Map<CounterKey, Long> deltas = new TreeMap<>();
+        for (Document document : documents) {
+            deltas.merge(CounterKey.of(document, document.getStatut()), 1L, Long::sum);
+        }
+        apply(deltas);
+    }
+
+    public void recordStatusChange(Document document, Document.StatutDocument previous) {
+        if (previous == document.getStatut()) {
+            return;
+        }
+        Map<CounterKey, Long> deltas = new TreeMap<>();
+        deltas.put(CounterKey.of(document, previous), -1L);
+        deltas.put(CounterKey.of(document, document.getStatut()), 1L);
+        apply(deltas);
+    }
+
+    public void recordRemoved(Document document) {
+        apply(Map.of(CounterKey.of(document, document.getStatut()), -1L));
+    }
+
+    public List<DocumentStatusCount> countsForSociete(Long societeId) {
+        return counterRepository.findCounts(societeId);
+    }
+
+    public long countBySociete(Long societeId) {
+        return counterRepository.sumBySociete(societeId);
+    }
+
+    public long countBySocieteAndStatut(Long societeId, Document.StatutDocument statut) {
+        return counterRepository.sumBySocieteAndStatut(societeId, statut);
+    }
+
+    /**
+     * Document totals of every société for one fiscal year, or all years when
+     * exercice is null, in a single aggregation over the counters.
+     */
+    public List<SocieteComplianceTotals> portfolioTotals(Integer exercice) {
+        return portfolioCache.get(Optional.ofNullable(exercice).orElse(ALL_YEARS),
+                key -> List.copyOf(counterRepository.findTotalsPerSociete(exercice,
+                        Document.StatutDocument.EN_ATTENTE, Document.StatutDocument.VALIDE,
+                        Document.StatutDocument.REJETE, Document.StatutDocument.SUPPRIME)));
+    }
+
+    /** Drops cached portfolio totals once the current transaction commits, or now without one. */
+    public void invalidatePortfolio() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            portfolioCache.invalidateAll();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                portfolioCache.invalidateAll();
+            }
+        });
+    }
+
+    /**
+     * Compares every société's counters with a fresh GROUP BY over its
+     * documents and rebuilds those that drifted. Each société is checked and
+     * repaired in its own short transaction. Returns the number repaired.
+     */
+    public int repairDrift() {
+        int repaired = 0;
+        for (Long societeId : societeRepository.findAllIds()) {
+            Boolean drifted = transactionTemplate.execute(status -> {
+                if (new HashSet<>(documentRepository.countByStatusForSociete(societeId))
+                        .equals(new HashSet<>(counterRepository.findCounts(societeId)))) {
+                    return false;
+                }
+                counterRepository.deleteBySociete(societeId);
+                counterRepository.rebuildForSociete(societeId);
+                return true;
+            });
+            if (Boolean.TRUE.equals(drifted)) {
+                AppLogger.warn("[ComplianceCounters] Rebuilt drifted counters of societe {}", societeId);
+                repaired++;
+            }
+        }
+        if (repaired > 0) {
+            portfolioCache.invalidateAll();
+        }
+        return repaired;
+    }
+
+    /** Applies deltas in key order, so concurrent writers lock counter rows in the same order. */
+    private void apply(Map<CounterKey, Long> deltas) {
+        invalidatePortfolio();
+        deltas.forEach((key, delta) -> {
+            if (delta != 0) {
+                counterRepository.increment(key.societeId(), key.exercice(), key.type().name(),
+                        key.statut().name(), delta);
+            }
+        });
+    }
+
+    private record CounterKey(Long societeId, Integer exercice, Document.TypeDocument type,
+            Document.StatutDocument statut) implements Comparable<CounterKey> {
+
+        private static final Comparator<CounterKey> ORDER = Comparator.comparing(CounterKey::societeId)
+                .thenComparing(CounterKey::exercice)
+                .thenComparing(CounterKey::type)
+                .thenComparing(CounterKey::statut);
+
+        static CounterKey of(Document document, Document.StatutDocument statut) {
+            return new CounterKey(document.getSociete().getId(), document.getExerciceComptable(),
+                    document.getTypeDocument(), statut);
+        }
+
+        @Override
+        public int compareTo(CounterKey other) {
+            return ORDER.compare(this, other);
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package com.example.backend.service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.backend.contract.StoredFile;
+import com.example.backend.dto.ReportBatchStatusDTO;
+import com.example.backend.exception.BusinessException;
+import com.example.backend.exception.ResourceNotFoundException;
+import com.example.backend.repository.SocieteRepository;
+import com.example.backend.service.storage.PathStoredFile;
+import com.example.backend.util.AppLogger;
+
+/**
+ * Year-end batch of compliance reports for every société, delivered as one
+ * ZIP. A coordinator on the single-threaded batch pool keeps a bounded number
+ * of renders in flight on the report pool and appends each report to the
+ * archive on disk as soon as it completes. Renders go through
+ * {@link ComplianceReportService}, so unchanged reports come from its cache.
+ *
+ * Jobs live in memory only: progress and cancellation are lost on restart,
+ * and finished jobs are dropped with their archive after the retention period.
+ */
+@Service
+public class ComplianceReportBatchService {
+
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, CANCELLED, FAILED
+    }
+
+    private final SocieteRepository societeRepository;
+    private final ComplianceReportService reportService;
+    private final Executor batchExecutor;
+    private final Executor renderExecutor;
+    private final Path batchDir;
+    private final int parallelism;
+    private final long retentionMillis;
+    private final Map<String, BatchJob> jobs = new ConcurrentHashMap<>();
+
+    public ComplianceReportBatchService(
+            SocieteRepository societeRepository,
+            ComplianceReportService reportService,
+            @Qualifier("reportBatchExecutor") Executor batchExecutor,
+            @Qualifier("reportExecutor") Executor reportExecutor,
+            @Value("${app.reports.batch.dir:cache/reports/batches}") String batchDir,
+            @Value("${app.reports.batch.parallelism:2}") int parallelism,
+            @Value("${app.reports.batch.retention-hours:24}") long retentionHours) {
+        this.societeRepository = societeRepository;
+        this.reportService = reportService;
+        this.batchExecutor = batchExecutor;
+        // When on-demand renders fill the report pool, the coordinator renders itself
+        this.renderExecutor = task -> {
+            try {
+                reportExecutor.execute(task);
+            } catch (RejectedExecutionException e) {
+                task.run();
+            }
+        };
+        this.batchDir = Paths.get(batchDir);
+        this.parallelism = Math.max(1, parallelism);
+        this.retentionMillis = retentionHours * 3600 * 1000;
+    }
+
+    public ReportBatchStatusDTO start() {
+        BatchJob job = new BatchJob(UUID.randomUUID().toString(), societeRepository.findAllIds());
+        jobs.put(job.id, job);
+        try {
+            batchExecutor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            throw new BusinessException("REPORT_BUSY",
+                    "Trop de lots de rapports en attente, veuillez réessayer plus tard");
+        }
+        AppLogger.info("[ReportBatch] Job {} queued for {} societes", job.id, job.societeIds.size());
+        return job.toStatus();
+    }
+
+    public ReportBatchStatusDTO getStatus(String jobId) {
+        return find(jobId).toStatus();
+    }
+
+    /** Stops the job after the renders in flight; the partial archive is discarded. */
+    public ReportBatchStatusDTO cancel(String jobId) {
+        BatchJob job = find(jobId);
+        job.cancelled = true;
+        if (job.status == Status.QUEUED) {
+            job.finish(Status.CANCELLED);
+        }
+        return job.toStatus();
+    }
+
+    public StoredFile openArchive(String jobId) {
+        BatchJob job = find(jobId);
+        if (job.status != Status.COMPLETED) {
+            throw new BusinessException("REPORT_BATCH_NOT_READY",
+                    "L'archive n'est pas disponible (statut: " + job.status + ")");
+        }
+        try {
+            return new PathStoredFile(archivePath(job.id));
+        } catch (IOException e) {
+            throw new BusinessException("REPORT_ERROR", "Impossible de lire l'archive: " + e.getMessage());
+        }
+    }
+
+    /** Forgets finished jobs past retention and deletes archives no job refers to any more. */
+    public void purgeExpired() throws IOException {
+        long cutoff = System.currentTimeMillis() - retentionMillis;
+        jobs.values().removeIf(job -> job.finishedAtMillis > 0 && job.finishedAtMillis < cutoff);
+
+        if (!Files.isDirectory(batchDir)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(batchDir)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                String jobId = name.substring(0, name.indexOf('.') > 0 ? name.indexOf('.') : name.length());
+                if (!jobs.containsKey(jobId) && Files.getLastModifiedTime(file).toMillis() < cutoff) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    private void run(BatchJob job) {
+        if (job.cancelled) {
+            job.finish(Status.CANCELLED);
+            return;
+        }
+        job.start();
+
+        Path archive = archivePath(job.id);
+        Path temp = batchDir.resolve(job.id + ".part");
+        CompletionService<Path> completion = new ExecutorCompletionService<>(renderExecutor);
+        Map<Future<Path>, Long> inFlight = new HashMap<>();
+        Iterator<Long> remaining = job.societeIds.iterator();
+
+        try {
+            Files.createDirectories(batchDir);
+            try (OutputStream file = new BufferedOutputStream(Files.newOutputStream(temp));
+                    ZipOutputStream zip = new ZipOutputStream(file)) {
+                // Reports are already compressed PDFs
+                zip.setLevel(Deflater.BEST_SPEED);
+
+                while (!job.cancelled && (remaining.hasNext() || !inFlight.isEmpty())) {
+                    while (inFlight.size() < parallelism && remaining.hasNext()) {
+                        Long societeId = remaining.next();
+                        inFlight.put(completion.submit(() -> reportService.renderNow(societeId)), societeId);
+                    }
+                    Future<Path> done = completion.take();
+                    Long societeId = inFlight.remove(done);
+                    try {
+                        Path report = done.get();
+                        zip.putNextEntry(new ZipEntry("compliance_report_" + societeId + ".pdf"));
+                        Files.copy(report, zip);
+                        zip.closeEntry();
+                        job.completed++;
+                    } catch (ExecutionException | IOException e) {
+                        Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+                        job.fail(societeId, cause.getMessage());
+                    }
+                }
+
+                if (!job.cancelled && !job.errors.isEmpty()) {
+                    zip.putNextEntry(new ZipEntry("errors.txt"));
+                    StringBuilder report = new StringBuilder();
+                    job.errors.forEach((id, reason) -> report.append(id).append(": ").append(reason).append('\n'));
+                    zip.write(report.toString().getBytes(StandardCharsets.UTF_8));
+                    zip.closeEntry();
+                }
+            }
+
+            if (job.cancelled) {
+                job.finish(Status.CANCELLED);
+                AppLogger.info("[ReportBatch] Job {} cancelled after {} reports", job.id, job.completed);
+            } else {
+                Files.move(temp, archive, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                job.finish(Status.COMPLETED);
+                AppLogger.info("[ReportBatch] Job {} completed: {} reports, {} failures", job.id, job.completed,
+                        job.errors.size());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.finish(Status.CANCELLED);
+        } catch (IOException | RuntimeException e) {
+            job.finish(Status.FAILED);
+            AppLogger.error("[ReportBatch] Job {} failed: {}", job.id, e.getMessage());
+        } finally {
+            inFlight.keySet().forEach(future -> future.cancel(true));
+            deleteQuietly(temp);
+        }
+    }
+
+    private BatchJob find(String jobId) {
+        BatchJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new ResourceNotFoundException("Lot de rapports", jobId);
+        }
+        return job;
+    }
+
+    private Path archivePath(String jobId) {
+        return batchDir.resolve(jobId + ".zip");
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            AppLogger.warn("[ReportBatch] Could not delete {}: {}", path, e.getMessage());
+        }
+    }
+
+    /** Progress is written by the coordinator thread only and read by status requests. */
+    private static final class BatchJob {
+        private final String id;
+        private final List<Long> societeIds;
+        private final Map<Long, String> errors = Collections.synchronizedMap(new LinkedHashMap<>());
+        private volatile Status status = Status.QUEUED;
+        private volatile boolean cancelled;
+        private volatile int completed;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime finishedAt;
+        private volatile long finishedAtMillis;
+
+        private BatchJob(String id, List<Long> societeIds) {
+            this.id = id;
+            this.societeIds = List.copyOf(societeIds);
+        }
+
+        private void start() {
+            startedAt = LocalDateTime.now();
+            status = Status.RUNNING;
+        }
+
+        private void fail(Long societeId, String reason) {
+            errors.put(societeId, reason != null ? reason : "Erreur inconnue");
+        }
+
+        private void finish(Status finalStatus) {
+            finishedAt = LocalDateTime.now();
+            finishedAtMillis = System.currentTimeMillis();
+            status = finalStatus;
+        }
+
+        private ReportBatchStatusDTO toStatus() {
+            Map<Long, String> errorsCopy;
+            synchronized (errors) {
+                errorsCopy = new LinkedHashMap<>(errors);
+            }
+            return ReportBatchStatusDTO.builder()
+                    .jobId(id)
+                    .status(status.name())
+                    .total(societeIds.size())
+                    .completed(completed)
+                    .failed(errorsCopy.size())
+                    .errors(errorsCopy)
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .build();
+        }
+    }
+}
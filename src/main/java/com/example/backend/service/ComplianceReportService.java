@@ -0,0 +1,188 @@
+package com.example.backend.service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.backend.contract.SocieteServiceContract;
+import com.example.backend.contract.StoredFile;
+import com.example.backend.dto.ComplianceReportStatusDTO;
+import com.example.backend.dto.SocietComplianceOverviewDTO;
+import com.example.backend.exception.BusinessException;
+import com.example.backend.service.storage.PathStoredFile;
+import com.example.backend.util.AppLogger;
+import com.example.backend.util.PdfGeneratorUtil;
+
+/**
+ * Disk cache of compliance PDF reports. Each file is keyed by société and a
+ * version stamp hashed from the data the report prints, so a report is served
+ * from disk until a document change alters its figures; the previous version
+ * is deleted once a newer one is written.
+ */
+@Service
+public class ComplianceReportService {
+
+    /** Part of the version stamp; bump it when the report layout changes. */
+    private static final String REPORT_FORMAT = "1";
+    private static final char SEPARATOR = '\u001f';
+
+    private final SocieteServiceContract societeService;
+    private final Executor reportExecutor;
+    private final Path cacheDir;
+    private final Set<Path> rendering = ConcurrentHashMap.newKeySet();
+
+    public ComplianceReportService(
+            SocieteServiceContract societeService,
+            @Qualifier("reportExecutor") Executor reportExecutor,
+            @Value("${app.reports.dir:cache/reports}") String cacheDir) {
+        this.societeService = societeService;
+        this.reportExecutor = reportExecutor;
+        this.cacheDir = Paths.get(cacheDir);
+    }
+
+    /** Report rendered from the current data, or null when it is not cached yet. */
+    public StoredFile findCached(Long societeId) {
+        Path cached = cachePath(societeId, version(societeService.getSocietComplianceOverview(societeId)));
+        if (!Files.exists(cached)) {
+            return null;
+        }
+        try {
+            return new PathStoredFile(cached);
+        } catch (NoSuchFileException e) {
+            // Replaced by a newer version in the meantime
+            return null;
+        } catch (IOException e) {
+            throw new BusinessException("REPORT_ERROR", "Impossible de lire le rapport: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Queues rendering of the report for the current data unless it is already
+     * cached or being rendered. Clients poll until {@code ready} and then
+     * download it from the cache.
+     */
+    public ComplianceReportStatusDTO renderInBackground(Long societeId) {
+        SocietComplianceOverviewDTO overview = societeService.getSocietComplianceOverview(societeId);
+        String version = version(overview);
+        Path target = cachePath(societeId, version);
+
+        if (Files.exists(target)) {
+            return status(societeId, version, true);
+        }
+        if (rendering.add(target)) {
+            try {
+                reportExecutor.execute(() -> {
+                    try {
+                        render(overview, target);
+                    } catch (IOException | RuntimeException e) {
+                        AppLogger.warn("[Report] Rendering report of societe {} failed: {}", societeId,
+                                e.getMessage());
+                    } finally {
+                        rendering.remove(target);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                rendering.remove(target);
+                throw new BusinessException("REPORT_BUSY",
+                        "Trop de rapports en cours de génération, veuillez réessayer plus tard");
+            }
+        }
+        return status(societeId, version, false);
+    }
+
+    /** Cached report for the current data, rendered on the calling thread first when missing. */
+    public Path renderNow(Long societeId) throws IOException {
+        SocietComplianceOverviewDTO overview = societeService.getSocietComplianceOverview(societeId);
+        Path target = cachePath(societeId, version(overview));
+        if (!Files.exists(target)) {
+            render(overview, target);
+        }
+        return target;
+    }
+
+    private void render(SocietComplianceOverviewDTO overview, Path target) throws IOException {
+        Files.createDirectories(cacheDir);
+        Path temp = cacheDir.resolve(UUID.randomUUID() + ".part");
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp))) {
+                PdfGeneratorUtil.writeComplianceReport(overview, out);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        deleteOtherVersions(overview.getSocieteId(), target);
+    }
+
+    private void deleteOtherVersions(Long societeId, Path current) throws IOException {
+        try (DirectoryStream<Path> reports = Files.newDirectoryStream(cacheDir, prefix(societeId) + "*.pdf")) {
+            for (Path report : reports) {
+                if (!report.equals(current)) {
+                    Files.deleteIfExists(report);
+                }
+            }
+        }
+    }
+
+    /** Hash of everything the report prints, plus the layout version. */
+    static String version(SocietComplianceOverviewDTO overview) {
+        StringBuilder data = new StringBuilder(REPORT_FORMAT);
+        append(data, overview.getRaisonSociale(), overview.getIce(), overview.getAdresse(),
+                overview.getAccountant() != null ? overview.getAccountant().getAccountantName() : null,
+                overview.getComplianceStatus(), overview.getCompliancePercentage(),
+                overview.getTotalDocuments(), overview.getPendingDocuments(), overview.getApprovedDocuments(),
+                overview.getRejectedDocuments(), overview.getDeletedDocuments());
+        overview.getExerciceBreakdowns().forEach(b -> append(data, b.getExerciceComptable(), b.getTotal(),
+                b.getApproved(), b.getCompliancePercentage()));
+        overview.getDocTypeBreakdowns().forEach(b -> append(data, b.getTypeDocument(), b.getTotal(),
+                b.getApproved(), b.getCompliancePercentage()));
+
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(data.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void append(StringBuilder data, Object... values) {
+        for (Object value : values) {
+            data.append(SEPARATOR).append(value);
+        }
+    }
+
+    private Path cachePath(Long societeId, String version) {
+        return cacheDir.resolve(prefix(societeId) + version + ".pdf");
+    }
+
+    private static String prefix(Long societeId) {
+        return "societe-" + societeId + "-";
+    }
+
+    private static ComplianceReportStatusDTO status(Long societeId, String version, boolean ready) {
+        return ComplianceReportStatusDTO.builder()
+                .societeId(societeId)
+                .version(version)
+                .ready(ready)
+                .build();
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.backend.service;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Map;
+import java.util.function.Function;
+
+import com.example.backend.entity.Document;
+import com.example.backend.exception.BusinessException;
+
+/**
+ * Position in a keyset-paginated document listing: the sort key and direction,
+ * plus the sort value and id of the last row returned. Serialized as an opaque
+ * URL-safe token so clients cannot depend on its layout.
+ */
+record DocumentCursor(String sortBy, boolean ascending, Comparable<?> value, Long id) {
+
+    private static final String SEPARATOR = "|";
+
+    /** Sort keys the cursor can seek on; all are non-null columns. */
+    private static final Map<String, Key> KEYS = Map.of(
+            "createdAt", new Key(Document::getCreatedAt, LocalDateTime::parse),
+            "datePiece", new Key(Document::getDatePiece, LocalDate::parse),
+            "montant", new Key(Document::getMontant, BigDecimal::new),
+            "numeroPiece", new Key(Document::getNumeroPiece, v -> v),
+            "id", new Key(Document::getId, Long::valueOf));
+
+    private record Key(Function<Document, Comparable<?>> extractor, Function<String, Comparable<?>> parser) {
+    }
+
+    static boolean supports(String sortBy) {
+        return KEYS.containsKey(sortBy);
+    }
+
+    /** Cursor pointing just after the given document. */
+    static DocumentCursor after(Document document, String sortBy, boolean ascending) {
+        return new DocumentCursor(sortBy, ascending, KEYS.get(sortBy).extractor().apply(document), document.getId());
+    }
+
+    String encode() {
+        String raw = sortBy + SEPARATOR + (ascending ? "asc" : "desc") + SEPARATOR + id + SEPARATOR + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static DocumentCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            // The value goes last: it is the only part that may contain the separator
+            String[] parts = raw.split("\\" + SEPARATOR, 4);
+            Key key = KEYS.get(parts[0]);
+            if (parts.length != 4 || key == null || !(parts[1].equals("asc") || parts[1].equals("desc"))) {
+                throw new IllegalArgumentException(raw);
+            }
+            return new DocumentCursor(parts[0], parts[1].equals("asc"), key.parser().apply(parts[3]),
+                    Long.valueOf(parts[2]));
+        } catch (RuntimeException e) {
+            throw new BusinessException("INVALID_CURSOR", "Curseur de pagination invalide");
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.backend.service;
+
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.backend.dto.DocumentDownloadDescriptor;
+import com.example.backend.util.BoundedCache;
+
+/**
+ * Per-document cache of download descriptors, so repeated downloads of the same
+ * document skip the database entirely. Anything that changes a document's file
+ * location must call {@link #evict(Long)}; a download that was loading the old
+ * descriptor at that moment does not put it back. Evictions are local to the
+ * node, so a download whose cached file cannot be read reloads the descriptor
+ * once (see DocumentService#downloadDocument).
+ */
+@Service
+public class DocumentDescriptorCache {
+
+    private final BoundedCache<Long, DocumentDownloadDescriptor> cache;
+
+    public DocumentDescriptorCache(
+            @Value("${app.documents.descriptor-cache.max-size:2000}") int maxSize,
+            @Value("${app.documents.descriptor-cache.ttl-seconds:600}") long ttlSeconds) {
+        this.cache = new BoundedCache<>(maxSize, ttlSeconds * 1000);
+    }
+
+    public DocumentDownloadDescriptor get(Long documentId, Function<Long, DocumentDownloadDescriptor> loader) {
+        return cache.get(documentId, loader);
+    }
+
+    public void evict(Long documentId) {
+        cache.invalidate(documentId);
+    }
+}
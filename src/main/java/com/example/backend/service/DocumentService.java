@@ -2,17 +2,26 @@ package com.example.backend.service;
 
 import lombok.RequiredArgsConstructor;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.example.backend.contract.DocumentServiceContract;
 import com.example.backend.contract.FileStorageService;
 import com.example.backend.contract.FileValidatorContract;
+import com.example.backend.contract.StoredFile;
+import com.example.backend.dto.CursorPageResponse;
+import com.example.backend.dto.DocumentBatchItemDTO;
+import com.example.backend.dto.DocumentBatchItemResultDTO;
+import com.example.backend.dto.DocumentBatchResultDTO;
+import com.example.backend.dto.DocumentDownloadDescriptor;
 import com.example.backend.dto.DocumentResponseDTO;
 import com.example.backend.dto.DocumentUploadDTO;
 import com.example.backend.dto.DocumentValidationDTO;
+import com.example.backend.dto.StoredFileInfo;
 import com.example.backend.entity.Document;
 import com.example.backend.entity.Societe;
 import com.example.backend.entity.User;
@@ -22,16 +31,31 @@ import com.example.backend.exception.ResourceNotFoundException;
 import com.example.backend.repository.DocumentRepository;
 import com.example.backend.repository.SocieteRepository;
 import com.example.backend.repository.UserRepository;
+import com.example.backend.service.search.DocumentSearchIndex;
+import com.example.backend.service.storage.StoragePromotionService;
 
+import jakarta.persistence.criteria.Expression;
 import jakarta.persistence.criteria.Predicate;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 
 import java.time.LocalDateTime;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -47,8 +71,24 @@ public class DocumentService implements DocumentServiceContract {
     private final FileStorageService fileStorageService;
     private final FileValidatorContract fileValidator;
     private final AuditLogService auditLogService;
+    private final DocumentDescriptorCache descriptorCache;
+    private final StoragePromotionService storagePromotionService;
+    private final ThumbnailService thumbnailService;
+    private final DocumentSearchIndex searchIndex;
+    private final ComplianceCounterService complianceCounters;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
 
-    @Transactional
+    private static final int MAX_CURSOR_PAGE_SIZE = 500;
+
+    @Value("${app.documents.batch.max-items:500}")
+    private int maxBatchItems = 500;
+
+    /**
+     * Not transactional on purpose: the file is staged first, then the document is
+     * registered in a short transaction, so connection hold time does not depend
+     * on file size. The move to final storage happens on the storage executor.
+     */
     public DocumentResponseDTO uploadDocument(DocumentUploadDTO dto, MultipartFile file, String societyId,
             User uploadedBy) {
         // Validate file
@@ -60,6 +100,159 @@ public class DocumentService implements DocumentServiceContract {
                     String.format("Un document avec le numéro de pièce '%s' existe déjà", dto.getNumeroPiece()));
         });
 
+        Societe societe = findUploadTarget(societyId, uploadedBy);
+
+        StoredFileInfo staged = stageValidated(file);
+        return registerStaged(dto, staged, file.getOriginalFilename(), societe, uploadedBy);
+    }
+
+    /**
+     * Final step of a chunked upload: the file is already assembled and hashed
+     * at {@code assembled.path()} and enters the normal flow as a staged file.
+     */
+    public DocumentResponseDTO registerAssembledUpload(DocumentUploadDTO dto, StoredFileInfo assembled,
+            String originalFilename, String societyId, User uploadedBy) {
+        // Check if numero piece already exists
+        documentRepository.findByNumeroPiece(dto.getNumeroPiece()).ifPresent(doc -> {
+            throw new BusinessException("DUPLICATE_DOCUMENT",
+                    String.format("Un document avec le numéro de pièce '%s' existe déjà", dto.getNumeroPiece()));
+        });
+
+        Societe societe = findUploadTarget(societyId, uploadedBy);
+
+        fileValidator.validateContent(assembled, originalFilename);
+        return registerStaged(dto, assembled, originalFilename, societe, uploadedBy);
+    }
+
+    /**
+     * Bulk variant of {@link #uploadDocument}: the societe is loaded once,
+     * duplicates are checked with a single IN query, files are staged in
+     * parallel and every accepted document is inserted in one batched
+     * transaction. Entries fail individually; only problems shared by the whole
+     * batch (societe, permissions, size) reject it outright.
+     */
+    public DocumentBatchResultDTO uploadDocuments(List<DocumentBatchItemDTO> manifest, List<MultipartFile> files,
+            String societyId, User uploadedBy) {
+        if (manifest == null || manifest.isEmpty()) {
+            throw new BusinessException("EMPTY_BATCH", "Le manifeste ne contient aucun document");
+        }
+        if (manifest.size() > maxBatchItems) {
+            throw new BusinessException("BATCH_TOO_LARGE",
+                    String.format("Un lot ne peut pas dépasser %d documents", maxBatchItems));
+        }
+
+        Societe societe = findUploadTarget(societyId, uploadedBy);
+
+        Map<String, MultipartFile> filesByName = new HashMap<>();
+        if (files != null) {
+            files.forEach(file -> filesByName.putIfAbsent(file.getOriginalFilename(), file));
+        }
+
+        // Numeros already in the database, in one query; extended below with the
+        // manifest's own entries so repeats inside the batch are caught too
+        Set<String> numeros = manifest.stream()
+                .map(DocumentBatchItemDTO::getDocument)
+                .filter(Objects::nonNull)
+                .map(DocumentUploadDTO::getNumeroPiece)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Set<String> takenNumeros = numeros.isEmpty()
+                ? new HashSet<>()
+                : new HashSet<>(documentRepository.findExistingNumeroPieces(numeros));
+
+        DocumentBatchItemResultDTO[] results = new DocumentBatchItemResultDTO[manifest.size()];
+        List<Integer> accepted = new ArrayList<>();
+        List<MultipartFile> acceptedFiles = new ArrayList<>();
+        for (int i = 0; i < manifest.size(); i++) {
+            DocumentBatchItemDTO item = manifest.get(i);
+            try {
+                MultipartFile file = checkBatchItem(item, filesByName, takenNumeros);
+                takenNumeros.add(item.getDocument().getNumeroPiece());
+                accepted.add(i);
+                acceptedFiles.add(file);
+            } catch (BusinessException ex) {
+                results[i] = batchFailure(i, item, ex.getCode(), ex.getMessage());
+            }
+        }
+
+        // Stage in parallel, outside any transaction
+        List<CompletableFuture<StoredFileInfo>> staging = storagePromotionService.stageAll(acceptedFiles);
+        List<Integer> registered = new ArrayList<>();
+        List<StoredFileInfo> stagedFiles = new ArrayList<>();
+        List<Document> documents = new ArrayList<>();
+        for (int k = 0; k < accepted.size(); k++) {
+            int i = accepted.get(k);
+            DocumentBatchItemDTO item = manifest.get(i);
+            MultipartFile file = acceptedFiles.get(k);
+            try {
+                StoredFileInfo staged = joinStaging(staging.get(k));
+                try {
+                    fileValidator.validateContent(staged, file.getOriginalFilename());
+                } catch (BusinessException ex) {
+                    fileStorageService.delete(staged.path());
+                    throw ex;
+                }
+                registered.add(i);
+                stagedFiles.add(staged);
+                documents.add(buildStagedDocument(item.getDocument(), staged, file.getOriginalFilename(), societe,
+                        uploadedBy));
+            } catch (BusinessException ex) {
+                results[i] = batchFailure(i, item, ex.getCode(), ex.getMessage());
+            }
+        }
+
+        if (!documents.isEmpty()) {
+            try {
+                List<Document> saved = transactionTemplate.execute(status -> {
+                    List<Document> inserted = documentRepository.saveAll(documents);
+                    complianceCounters.recordInserted(inserted);
+                    auditLogService.logUploads(inserted, uploadedBy);
+                    inserted.forEach(searchIndex::indexAfterCommit);
+                    List<StoragePromotionService.Promotion> promotions = new ArrayList<>();
+                    for (int k = 0; k < inserted.size(); k++) {
+                        Document document = inserted.get(k);
+                        promotions.add(new StoragePromotionService.Promotion(
+                                document.getId(), stagedFiles.get(k), societe.getId(),
+                                document.getExerciceComptable()));
+                    }
+                    storagePromotionService.promoteAllAfterCommit(promotions);
+                    return inserted;
+                });
+                for (int k = 0; k < saved.size(); k++) {
+                    int i = registered.get(k);
+                    results[i] = DocumentBatchItemResultDTO.builder()
+                            .index(i)
+                            .fichier(manifest.get(i).getFichier())
+                            .numeroPiece(saved.get(k).getNumeroPiece())
+                            .success(true)
+                            .document(mapToDTO(saved.get(k)))
+                            .build();
+                }
+            } catch (DataIntegrityViolationException ex) {
+                // A concurrent upload took one of the numeros between the check and the insert
+                stagedFiles.forEach(staged -> fileStorageService.delete(staged.path()));
+                for (int i : registered) {
+                    results[i] = batchFailure(i, manifest.get(i), "DUPLICATE_DOCUMENT",
+                            "Conflit de numéro de pièce avec un autre dépôt, veuillez renvoyer ce document");
+                }
+            } catch (RuntimeException ex) {
+                stagedFiles.forEach(staged -> fileStorageService.delete(staged.path()));
+                throw ex;
+            }
+        }
+
+        List<DocumentBatchItemResultDTO> items = Arrays.asList(results);
+        int succeeded = (int) items.stream().filter(DocumentBatchItemResultDTO::isSuccess).count();
+        return DocumentBatchResultDTO.builder()
+                .total(items.size())
+                .succeeded(succeeded)
+                .failed(items.size() - succeeded)
+                .items(items)
+                .build();
+    }
+
+    /** Loads the target societe, enforcing that CLIENT users only upload to their own. */
+    private Societe findUploadTarget(String societyId, User uploadedBy) {
         // Find societe
         Societe societe = societeRepository.findById(Long.parseLong(societyId))
                 .orElseThrow(() -> new ResourceNotFoundException("Société", societyId));
@@ -72,37 +265,128 @@ public class DocumentService implements DocumentServiceContract {
                         "Un client ne peut déposer des documents que pour sa propre société");
             }
         }
+        return societe;
+    }
+
+    private MultipartFile checkBatchItem(DocumentBatchItemDTO item, Map<String, MultipartFile> filesByName,
+            Set<String> takenNumeros) {
+        DocumentUploadDTO dto = item.getDocument();
+        if (dto == null) {
+            throw new BusinessException("VALIDATION_ERROR", "Métadonnées du document manquantes");
+        }
+
+        Set<ConstraintViolation<DocumentUploadDTO>> violations = validator.validate(dto);
+        if (!violations.isEmpty()) {
+            throw new BusinessException("VALIDATION_ERROR", violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+        }
+
+        MultipartFile file = item.getFichier() != null ? filesByName.get(item.getFichier()) : null;
+        if (file == null) {
+            throw new BusinessException("FILE_NOT_FOUND",
+                    String.format("Aucun fichier '%s' dans le lot", item.getFichier()));
+        }
+        fileValidator.validate(file);
+
+        if (takenNumeros.contains(dto.getNumeroPiece())) {
+            throw new BusinessException("DUPLICATE_DOCUMENT",
+                    String.format("Un document avec le numéro de pièce '%s' existe déjà", dto.getNumeroPiece()));
+        }
+        return file;
+    }
+
+    private StoredFileInfo joinStaging(CompletableFuture<StoredFileInfo> staging) {
+        try {
+            return staging.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof BusinessException business) {
+                throw business;
+            }
+            throw new BusinessException("FILE_SAVE_ERROR", ex.getCause().getMessage());
+        }
+    }
 
-        // Save file
-        String savedFilePath = fileStorageService.save(
-                file,
-                societe.getId(),
-                dto.getExerciceComptable());
+    private DocumentBatchItemResultDTO batchFailure(int index, DocumentBatchItemDTO item, String code,
+            String message) {
+        return DocumentBatchItemResultDTO.builder()
+                .index(index)
+                .fichier(item.getFichier())
+                .numeroPiece(item.getDocument() != null ? item.getDocument().getNumeroPiece() : null)
+                .success(false)
+                .errorCode(code)
+                .message(message)
+                .build();
+    }
 
+    /**
+     * Stages the upload — checksum, size and real MIME type come from the same
+     * pass — and checks the sniffed content against the declared filename.
+     */
+    private StoredFileInfo stageValidated(MultipartFile file) {
+        StoredFileInfo staged = fileStorageService.stage(file);
+        try {
+            fileValidator.validateContent(staged, file.getOriginalFilename());
+        } catch (BusinessException ex) {
+            fileStorageService.delete(staged.path());
+            throw ex;
+        }
+        return staged;
+    }
+
+    private Document buildStagedDocument(DocumentUploadDTO dto, StoredFileInfo staged, String originalFilename,
+            Societe societe, User uploadedBy) {
         // Create document — uploadedBy is the authenticated caller
-        Document document = Document.builder()
+        return Document.builder()
                 .numeroPiece(dto.getNumeroPiece())
                 .typeDocument(dto.getTypeDocument())
                 .categorieComptable(dto.getCategorieComptable())
                 .datePiece(dto.getDatePiece())
                 .montant(dto.getMontant())
                 .fournisseur(dto.getFournisseur())
-                .cheminFichier(savedFilePath)
-                .nomFichierOriginal(file.getOriginalFilename())
+                .cheminFichier(staged.path())
+                .nomFichierOriginal(originalFilename)
+                .tailleFichier(staged.size())
+                .typeMime(staged.typeMime())
+                .checksumSha256(staged.checksumSha256())
                 .statut(Document.StatutDocument.EN_ATTENTE)
+                .statutStockage(Document.StatutStockage.STORING)
                 .societe(societe)
                 .uploadedBy(uploadedBy)
                 .exerciceComptable(dto.getExerciceComptable())
                 .build();
+    }
+
+    /**
+     * Inserts the document as STORING, pointing at its staged file, and queues
+     * promotion once the insert commits. The staged file is discarded if the
+     * insert fails.
+     */
+    private DocumentResponseDTO registerStaged(DocumentUploadDTO dto, StoredFileInfo staged, String originalFilename,
+            Societe societe, User uploadedBy) {
+        Document document = buildStagedDocument(dto, staged, originalFilename, societe, uploadedBy);
 
         try {
-            Document saved = documentRepository.save(document);
-            auditLogService.logUpload(saved, uploadedBy);
-            return mapToDTO(saved);
+            return transactionTemplate.execute(status -> {
+                // Flushed here: when joining a caller's transaction (chunked
+                // commit), a duplicate numero must surface inside this try
+                Document saved = documentRepository.saveAndFlush(document);
+                complianceCounters.recordInserted(List.of(saved));
+                auditLogService.logUpload(saved, uploadedBy);
+                searchIndex.indexAfterCommit(saved);
+                storagePromotionService.promoteAfterCommit(
+                        saved.getId(), staged, societe.getId(), dto.getExerciceComptable());
+                return mapToDTO(saved);
+            });
         } catch (DataIntegrityViolationException ex) {
+            fileStorageService.delete(staged.path());
             throw new BusinessException(
                     "DUPLICATE_DOCUMENT",
                     String.format("Un document avec le numéro '%s' existe déjà", dto.getNumeroPiece()));
+        } catch (RuntimeException ex) {
+            fileStorageService.delete(staged.path());
+            throw ex;
         }
     }
 
@@ -111,26 +395,26 @@ public class DocumentService implements DocumentServiceContract {
                 .orElseThrow(() -> new ResourceNotFoundException("Utilisateur", userId.toString()));
 
         List<Societe> societes = getSocietesForUser(user);
+        if (societes.isEmpty()) {
+            return List.of();
+        }
 
-        List<DocumentResponseDTO> documents = new ArrayList<>();
-        societes.forEach(s -> {
-            documents.addAll(documentRepository.findBySocieteAndExerciceComptable(s, exercice)
-                    .stream()
-                    .map(this::mapToDTO)
-                    .collect(Collectors.toList()));
-        });
-        return documents;
+        return documentRepository.findWithPartiesBySocieteInAndExerciceComptable(societes, exercice)
+                .stream()
+                .map(this::mapToDTO)
+                .collect(Collectors.toList());
     }
 
     public List<DocumentResponseDTO> getAllPendingDocuments() {
-        return documentRepository.findByStatut(Document.StatutDocument.EN_ATTENTE)
+        return documentRepository.findWithPartiesByStatut(Document.StatutDocument.EN_ATTENTE)
                 .stream()
                 .map(this::mapToDTO)
                 .collect(Collectors.toList());
     }
 
     public List<DocumentResponseDTO> getPendingDocumentsByExercice(Integer exercice) {
-        return documentRepository.findByStatutAndExerciceComptable(Document.StatutDocument.EN_ATTENTE, exercice)
+        return documentRepository.findWithPartiesByStatutAndExerciceComptable(Document.StatutDocument.EN_ATTENTE,
+                exercice)
                 .stream()
                 .map(this::mapToDTO)
                 .collect(Collectors.toList());
@@ -138,7 +422,7 @@ public class DocumentService implements DocumentServiceContract {
 
     @Transactional
     public DocumentResponseDTO validateDocument(Long documentId, DocumentValidationDTO validation, User validator) {
-        Document document = documentRepository.findById(documentId)
+        Document document = documentRepository.findByIdForUpdate(documentId)
                 .orElseThrow(() -> new ResourceNotFoundException("Document", documentId.toString()));
 
         if (document.getStatut() != Document.StatutDocument.EN_ATTENTE) {
@@ -165,6 +449,7 @@ public class DocumentService implements DocumentServiceContract {
         document.setValidatedBy(validator);
 
         Document updated = documentRepository.save(document);
+        complianceCounters.recordStatusChange(updated, Document.StatutDocument.EN_ATTENTE);
 
         if (validation.getAction() == DocumentValidationDTO.Action.VALIDER) {
             auditLogService.logValidation(updated, validator);
@@ -176,7 +461,7 @@ public class DocumentService implements DocumentServiceContract {
     }
 
     public DocumentResponseDTO getDocumentById(Long id) {
-        Document document = documentRepository.findById(id)
+        Document document = documentRepository.findWithPartiesById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Document", id.toString()));
         return mapToDTO(document);
     }
@@ -186,27 +471,62 @@ public class DocumentService implements DocumentServiceContract {
                 .orElseThrow(() -> new ResourceNotFoundException("Utilisateur", userId.toString()));
 
         List<Societe> societes = getSocietesForUser(user);
+        if (societes.isEmpty()) {
+            return List.of();
+        }
 
-        List<DocumentResponseDTO> documents = new ArrayList<>();
-        societes.forEach(s -> {
-            documents.addAll(documentRepository.findBySociete(s)
-                    .stream()
-                    .map(this::mapToDTO)
-                    .collect(Collectors.toList()));
-        });
-        return documents;
+        return documentRepository.findWithPartiesBySocieteIn(societes)
+                .stream()
+                .map(this::mapToDTO)
+                .collect(Collectors.toList());
     }
 
-    public byte[] downloadDocument(Long documentId) {
-        Document document = documentRepository.findById(documentId)
-                .orElseThrow(() -> new ResourceNotFoundException("Document", documentId.toString()));
+    /**
+     * Single-statement projection of what the download path needs, served from
+     * {@link DocumentDescriptorCache} when possible.
+     */
+    public DocumentDownloadDescriptor getDownloadDescriptor(Long documentId) {
+        DocumentDownloadDescriptor descriptor = descriptorCache.get(documentId,
+                id -> documentRepository.findDownloadDescriptorById(id).orElse(null));
+        if (descriptor == null) {
+            throw new ResourceNotFoundException("Document", documentId.toString());
+        }
+        return descriptor;
+    }
+
+    public StoredFile downloadDocument(DocumentDownloadDescriptor descriptor) {
+        try {
+            return fileStorageService.open(descriptor.cheminFichier());
+        } catch (BusinessException e) {
+            return fileStorageService.open(moved(descriptor, e).cheminFichier());
+        }
+    }
 
-        return fileStorageService.read(document.getCheminFichier());
+    public StoredFile getPreview(DocumentDownloadDescriptor descriptor) {
+        try {
+            return thumbnailService.getPreview(descriptor);
+        } catch (BusinessException e) {
+            return thumbnailService.getPreview(moved(descriptor, e));
+        }
+    }
+
+    /**
+     * The cached descriptor's file could not be read. Another node may have moved
+     * the file (promotion, tiering, compaction) and only evicted its own cache, so
+     * the descriptor is reloaded once; the failure stands if the path is unchanged.
+     */
+    private DocumentDownloadDescriptor moved(DocumentDownloadDescriptor cached, BusinessException failure) {
+        descriptorCache.evict(cached.id());
+        DocumentDownloadDescriptor current = getDownloadDescriptor(cached.id());
+        if (Objects.equals(current.cheminFichier(), cached.cheminFichier())) {
+            throw failure;
+        }
+        return current;
     }
 
     @Transactional
     public void deleteDocument(Long documentId, User deletedBy) {
-        Document document = documentRepository.findById(documentId)
+        Document document = documentRepository.findByIdForUpdate(documentId)
                 .orElseThrow(() -> new ResourceNotFoundException("Document", documentId.toString()));
 
         switch (document.getStatut()) {
@@ -238,14 +558,16 @@ public class DocumentService implements DocumentServiceContract {
                         String.format("Le document '%s' est déjà marqué comme supprimé.", document.getNumeroPiece()));
         }
 
+        Document.StatutDocument previous = document.getStatut();
         document.setStatut(Document.StatutDocument.SUPPRIME);
         auditLogService.logDeletion(document, deletedBy);
         documentRepository.save(document);
+        complianceCounters.recordStatusChange(document, previous);
     }
 
     @Transactional
     public void purgeDocument(Long documentId, User deletedBy) {
-        Document document = documentRepository.findById(documentId)
+        Document document = documentRepository.findByIdForUpdate(documentId)
                 .orElseThrow(() -> new ResourceNotFoundException("Document", documentId.toString()));
 
         if (deletedBy.getRole() != User.Role.ADMIN) {
@@ -264,12 +586,15 @@ public class DocumentService implements DocumentServiceContract {
         auditLogService.deleteForDocument(document);
         fileStorageService.delete(document.getCheminFichier());
         documentRepository.delete(document);
+        complianceCounters.recordRemoved(document);
+        descriptorCache.evict(documentId);
+        searchIndex.removeAfterCommit(documentId);
     }
 
     @Override
     public List<DocumentResponseDTO> getPendingDocumentsForCurrentUser(User user) {
         if (user.getRole() == User.Role.ADMIN) {
-            return documentRepository.findByStatut(Document.StatutDocument.EN_ATTENTE)
+            return documentRepository.findWithPartiesByStatut(Document.StatutDocument.EN_ATTENTE)
                     .stream()
                     .map(this::mapToDTO)
                     .collect(Collectors.toList());
@@ -285,13 +610,9 @@ public class DocumentService implements DocumentServiceContract {
         if (societes.isEmpty()) {
             throw new BusinessException("NO_SOCIETE", "L'utilisateur n'est associé à aucune société");
         }
-        List<DocumentResponseDTO> documents = new ArrayList<>();
-        societes.forEach(s -> {
-            documents.addAll(documentRepository.findBySocieteAndStatut(s, Document.StatutDocument.EN_ATTENTE)
-                    .stream().map(this::mapToDTO)
-                    .collect(Collectors.toList()));
-        });
-        return documents;
+        return documentRepository.findWithPartiesBySocieteInAndStatut(societes, Document.StatutDocument.EN_ATTENTE)
+                .stream().map(this::mapToDTO)
+                .collect(Collectors.toList());
     }
 
     @Override
@@ -313,37 +634,176 @@ public class DocumentService implements DocumentServiceContract {
         Sort sort = "asc".equalsIgnoreCase(sortDir) ? Sort.by(sortBy).ascending() : Sort.by(sortBy).descending();
         Pageable pageable = PageRequest.of(page, size, sort);
 
-        // 2. Fetch User
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("Utilisateur", userId.toString()));
+        // 2. Role-based access and dynamic filters
+        List<Long> societeIds = scopedSocieteIds(userId);
+        Specification<Document> spec = accessSpecification(societeIds)
+                .and(buildFilters(societeIds, statut, typeDocument, exerciceComptable, numeroPiece, fournisseur,
+                        datePieceFrom, datePieceTo));
+
+        return documentRepository.findAll(spec, pageable).map(this::mapToDTO);
+    }
+
+    /**
+     * Keyset variant of {@link #getDocumentsBySocietePaginatedFiltered}: each page
+     * seeks past the last (sort key, id) returned instead of skipping an offset,
+     * so deep pages cost the same as the first one. The sort comes from the
+     * cursor once one is given.
+     */
+    @Override
+    public CursorPageResponse<DocumentResponseDTO> getDocumentsBySocieteCursor(
+            Long userId,
+            String cursor,
+            Integer size,
+            String sortBy,
+            String sortDir,
+            boolean includeTotal,
+            Document.StatutDocument statut,
+            Document.TypeDocument typeDocument,
+            Integer exerciceComptable,
+            String numeroPiece,
+            String fournisseur,
+            LocalDate datePieceFrom,
+            LocalDate datePieceTo) {
+
+        DocumentCursor position = cursor != null && !cursor.isBlank() ? DocumentCursor.decode(cursor) : null;
+        String key = position != null ? position.sortBy() : sortBy;
+        boolean ascending = position != null ? position.ascending() : "asc".equalsIgnoreCase(sortDir);
+        if (!DocumentCursor.supports(key)) {
+            throw new BusinessException("INVALID_SORT",
+                    "Tri non supporté pour la pagination par curseur: " + key);
+        }
+        int limit = Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+
+        List<Long> societeIds = scopedSocieteIds(userId);
+        Specification<Document> filters = accessSpecification(societeIds)
+                .and(buildFilters(societeIds, statut, typeDocument, exerciceComptable, numeroPiece, fournisseur,
+                        datePieceFrom, datePieceTo));
+        Specification<Document> seek = position != null ? filters.and(seekAfter(position)) : filters;
+
+        // Id breaks ties so that rows sharing a sort value are neither skipped nor repeated
+        Sort sort = ascending ? Sort.by(key, "id").ascending() : Sort.by(key, "id").descending();
+        List<Document> rows = documentRepository.findBy(seek, query -> query
+                .sortBy(sort)
+                .limit(limit + 1)
+                .project("societe", "uploadedBy", "validatedBy")
+                .all());
+
+        boolean hasNext = rows.size() > limit;
+        List<Document> content = hasNext ? rows.subList(0, limit) : rows;
+        String nextCursor = hasNext
+                ? DocumentCursor.after(content.get(content.size() - 1), key, ascending).encode()
+                : null;
+
+        return CursorPageResponse.<DocumentResponseDTO>builder()
+                .content(content.stream().map(this::mapToDTO).collect(Collectors.toList()))
+                .size(content.size())
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .totalElements(includeTotal ? documentRepository.count(filters) : null)
+                .build();
+    }
+
+    /**
+     * Search over supplier, numéro de pièce, catégorie and original filename,
+     * tolerant to prefixes, partial words and typos. Results are ordered by
+     * relevance and scoped like the listings.
+     */
+    @Override
+    public Page<DocumentResponseDTO> searchDocuments(Long userId, String q, Integer page, Integer size) {
+        if (q == null || q.isBlank()) {
+            throw new BusinessException("INVALID_QUERY", "Le terme de recherche est obligatoire");
+        }
+        List<Long> societeIds = scopedSocieteIds(userId);
+
+        DocumentSearchIndex.Hits hits = searchIndex.search(q, DocumentSearchIndex.METADATA_FIELDS,
+                true, societeIds, page * size, size);
+        return toRankedPage(hits, PageRequest.of(page, size));
+    }
+
+    /**
+     * Search over the text printed on the documents (ICE numbers, amounts,
+     * line items), as extracted after upload. No typo tolerance: a near-miss
+     * on an ICE or an amount is a different document.
+     */
+    @Override
+    public Page<DocumentResponseDTO> searchDocumentContent(Long userId, String q, Integer page, Integer size) {
+        if (q == null || q.isBlank()) {
+            throw new BusinessException("INVALID_QUERY", "Le terme de recherche est obligatoire");
+        }
+        List<Long> societeIds = scopedSocieteIds(userId);
+
+        DocumentSearchIndex.Hits hits = searchIndex.search(q, EnumSet.of(DocumentSearchIndex.SearchField.CONTENU),
+                false, societeIds, page * size, size);
+        return toRankedPage(hits, PageRequest.of(page, size));
+    }
 
-        // 3. Initialize Specification with a base condition (where 1=1)
+    /** Loads a page of search hits, keeping the index's relevance order. */
+    private Page<DocumentResponseDTO> toRankedPage(DocumentSearchIndex.Hits hits, Pageable pageable) {
+        if (hits.ids().isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, hits.total());
+        }
+        Map<Long, Document> byId = documentRepository.findWithPartiesByIdIn(hits.ids()).stream()
+                .collect(Collectors.toMap(Document::getId, d -> d));
+        List<DocumentResponseDTO> content = hits.ids().stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .map(this::mapToDTO)
+                .collect(Collectors.toList());
+        return new PageImpl<>(content, pageable, hits.total());
+    }
+
+    /** Restricts a listing to the documents of the given societes; null for no restriction. */
+    private Specification<Document> accessSpecification(List<Long> societeIds) {
+        // Base condition (where 1=1)
         Specification<Document> spec = Specification.where((root, query, cb) -> cb.conjunction());
+        if (societeIds != null) {
+            spec = spec.and((root, query, cb) -> root.get("societe").get("id").in(societeIds));
+        }
+        return spec;
+    }
+
+    /**
+     * Ids of the societes whose documents the user may see, or null when
+     * unrestricted (ADMIN).
+     */
+    private List<Long> scopedSocieteIds(Long userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Utilisateur", userId.toString()));
 
-        // 4. Role-based Filtering
         if (user.getRole() == Role.COMPTABLE) {
             List<Societe> societes = societeRepository.findByAccountantId(userId);
             if (societes.isEmpty()) {
                 throw new ResourceNotFoundException("Société", userId.toString());
             }
-            spec = spec.and((root, query, cb) -> root.get("societe").in(societes));
+            return societes.stream().map(Societe::getId).toList();
         } else if (user.getRole() == Role.CLIENT) {
             if (user.getClientSociete() == null) {
                 throw new BusinessException("NO_SOCIETE", "Ce client n'est associé à aucune société");
             }
-            Societe clientSociete = user.getClientSociete();
-            spec = spec.and((root, query, cb) -> cb.equal(root.get("societe"), clientSociete));
+            return List.of(user.getClientSociete().getId());
         }
         // ADMIN: no additional filter — sees all documents
+        return null;
+    }
 
-        // 5. Dynamic Filters
-        spec = spec.and(buildFilters(statut, typeDocument, exerciceComptable, numeroPiece, fournisseur, datePieceFrom,
-                datePieceTo));
-
-        return documentRepository.findAll(spec, pageable).map(this::mapToDTO);
+    /** (key, id) strictly after the cursor position, in the cursor's direction. */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private Specification<Document> seekAfter(DocumentCursor position) {
+        return (root, query, cb) -> {
+            Expression<Comparable> key = root.get(position.sortBy());
+            Expression<Long> id = root.get("id");
+            Comparable value = position.value();
+            if (position.ascending()) {
+                return cb.or(cb.greaterThan(key, value),
+                        cb.and(cb.equal(key, value), cb.greaterThan(id, position.id())));
+            }
+            return cb.or(cb.lessThan(key, value),
+                    cb.and(cb.equal(key, value), cb.lessThan(id, position.id())));
+        };
     }
 
     private Specification<Document> buildFilters(
+            List<Long> societeIds,
             Document.StatutDocument statut,
             Document.TypeDocument typeDocument,
             Integer exerciceComptable,
@@ -352,6 +812,11 @@ public class DocumentService implements DocumentServiceContract {
             LocalDate datePieceFrom,
             LocalDate datePieceTo) {
 
+        Specification<Document> numeroPieceFilter = textFilter("numeroPiece", numeroPiece,
+                DocumentSearchIndex.SearchField.NUMERO_PIECE, societeIds);
+        Specification<Document> fournisseurFilter = textFilter("fournisseur", fournisseur,
+                DocumentSearchIndex.SearchField.FOURNISSEUR, societeIds);
+
         return (root, query, cb) -> {
             List<Predicate> predicates = new ArrayList<>();
 
@@ -362,13 +827,11 @@ public class DocumentService implements DocumentServiceContract {
             if (exerciceComptable != null)
                 predicates.add(cb.equal(root.get("exerciceComptable"), exerciceComptable));
 
-            if (numeroPiece != null && !numeroPiece.isBlank()) {
-                predicates
-                        .add(cb.like(cb.lower(root.get("numeroPiece")), "%" + numeroPiece.trim().toLowerCase() + "%"));
+            if (numeroPieceFilter != null) {
+                predicates.add(numeroPieceFilter.toPredicate(root, query, cb));
             }
-            if (fournisseur != null && !fournisseur.isBlank()) {
-                predicates
-                        .add(cb.like(cb.lower(root.get("fournisseur")), "%" + fournisseur.trim().toLowerCase() + "%"));
+            if (fournisseurFilter != null) {
+                predicates.add(fournisseurFilter.toPredicate(root, query, cb));
             }
             if (datePieceFrom != null) {
                 predicates.add(cb.greaterThanOrEqualTo(root.get("datePiece"), datePieceFrom));
@@ -381,6 +844,34 @@ public class DocumentService implements DocumentServiceContract {
         };
     }
 
+    /**
+     * "Contains" filter on a text column. LIKE decides; the search index only
+     * narrows the rows it is evaluated on, because a leading-wildcard LIKE
+     * cannot use any index and scans every document of the societes. The
+     * narrowing keeps the index's candidates plus every row changed since the
+     * index last caught up with other nodes. Without it (short words, which
+     * only match at the start of a word in the index, too many candidates, or
+     * an index still rebuilding) the LIKE runs alone. Null when no value is
+     * given.
+     */
+    private Specification<Document> textFilter(String attribute, String value, DocumentSearchIndex.SearchField field,
+            List<Long> societeIds) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String pattern = "%" + value.trim().toLowerCase() + "%";
+        Specification<Document> like = (root, query, cb) -> cb.like(cb.lower(root.get(attribute)), pattern);
+        if (!searchIndex.matchesInsideWords(value)) {
+            return like;
+        }
+        return searchIndex.candidates(value, EnumSet.of(field), societeIds)
+                .map(candidates -> like.and((root, query, cb) -> {
+                    Predicate changed = cb.greaterThanOrEqualTo(root.get("updatedAt"), candidates.changedSince());
+                    return candidates.ids().isEmpty() ? changed : cb.or(root.get("id").in(candidates.ids()), changed);
+                }))
+                .orElse(like);
+    }
+
     /**
      * Returns the list of societes relevant to the given user.
      * ADMIN → all societes; COMPTABLE → assigned societes; CLIENT → their single
@@ -406,15 +897,19 @@ public class DocumentService implements DocumentServiceContract {
     }
 
     public int countDocumentsBySociete(Long societeId) {
-        Societe societe = societeRepository.findById(societeId)
-                .orElseThrow(() -> new ResourceNotFoundException("Société", societeId.toString()));
-        return documentRepository.countBySociete(societe);
+        requireSociete(societeId);
+        return Math.toIntExact(complianceCounters.countBySociete(societeId));
     }
 
     public int countDocumentsBySocieteAndStatut(Long societeId, Document.StatutDocument statut) {
-        Societe societe = societeRepository.findById(societeId)
-                .orElseThrow(() -> new ResourceNotFoundException("Société", societeId.toString()));
-        return documentRepository.countBySocieteAndStatut(societe, statut);
+        requireSociete(societeId);
+        return Math.toIntExact(complianceCounters.countBySocieteAndStatut(societeId, statut));
+    }
+
+    private void requireSociete(Long societeId) {
+        if (!societeRepository.existsById(societeId)) {
+            throw new ResourceNotFoundException("Société", societeId.toString());
+        }
     }
 
     private DocumentResponseDTO mapToDTO(Document document) {
@@ -439,6 +934,7 @@ public class DocumentService implements DocumentServiceContract {
                 .fournisseur(document.getFournisseur())
                 .nomFichierOriginal(document.getNomFichierOriginal())
                 .statut(document.getStatut())
+                .statutStockage(document.getStatutStockage())
                 .dateValidation(document.getDateValidation())
                 .commentaireComptable(document.getCommentaireComptable())
                 .societeRaisonSociale(document.getSociete().getRaisonSociale())
@@ -1,26 +1,59 @@
 package com.example.backend.service;
 
-import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.HexFormat;
 
 import org.springframework.stereotype.Service;
 
+import com.example.backend.contract.TokenRevocationStore;
+
+import io.jsonwebtoken.Claims;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Logged-out tokens, keyed by their jti (or a SHA-256 digest for tokens
+ * issued before jti was added) and kept only until the token's own exp:
+ * after that the signature check rejects the token anyway. Storage is
+ * delegated to the configured {@link TokenRevocationStore}; expired entries
+ * are dropped by JwtBlacklistSweeper.
+ */
 @Service
+@RequiredArgsConstructor
 public class JwtBlacklistService {
 
-    // Use ConcurrentHashMap for thread safety
-    private final Set<String> blacklistedTokens = ConcurrentHashMap.newKeySet();
+    private final TokenRevocationStore revocationStore;
 
-    public void blacklist(String token) {
-        blacklistedTokens.add(token);
+    public void blacklist(String token, Claims claims) {
+        Date expiration = claims.getExpiration();
+        if (expiration == null || expiration.getTime() <= System.currentTimeMillis()) {
+            return;
+        }
+        revocationStore.revoke(keyOf(token, claims), expiration.toInstant());
     }
 
-    public boolean isBlacklisted(String token) {
-        return blacklistedTokens.contains(token);
+    /** Claims must come from a verified token, so an expired token never gets here. */
+    public boolean isBlacklisted(String token, Claims claims) {
+        return revocationStore.isRevoked(keyOf(token, claims));
     }
 
-    public void clear() {
-        blacklistedTokens.clear();
+    /** Removes entries whose token has expired. Returns the number removed. */
+    public int purgeExpired() {
+        return revocationStore.purgeExpired();
     }
-}
 
+    private static String keyOf(String token, Claims claims) {
+        String id = claims.getId();
+        if (id != null) {
+            return id;
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.example.backend.service;
 
 import java.util.Date;
 import java.util.Map;
+import java.util.UUID;
 
 import javax.crypto.SecretKey;
 
@@ -9,66 +10,68 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import com.example.backend.contract.JwtContract;
+import com.example.backend.util.AppLogger;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
-import lombok.RequiredArgsConstructor;
 
+/**
+ * The signing key and parser are built once: JwtParser is immutable and
+ * thread-safe, so every request reuses them instead of deriving the key and
+ * rebuilding the parser.
+ */
 @Service
-@RequiredArgsConstructor
 public class JwtService implements JwtContract {
 
-    @Value("${security.jwt.secret-key}")
-    private String SECRET_KEY;
-
-    @Value("${security.jwt.expiration-time}")
-    private long JWT_EXPIRATION_TIME;
-
+    private final long jwtExpirationTime;
+    private final SecretKey signingKey;
+    private final JwtParser parser;
     private final JwtBlacklistService jwtBlacklistService;
 
+    public JwtService(
+            @Value("${security.jwt.secret-key}") String secretKey,
+            @Value("${security.jwt.expiration-time}") long jwtExpirationTime,
+            JwtBlacklistService jwtBlacklistService) {
+        this.jwtExpirationTime = jwtExpirationTime;
+        this.signingKey = Keys.hmacShaKeyFor(secretKey.getBytes());
+        this.parser = Jwts.parser().verifyWith(signingKey).build();
+        this.jwtBlacklistService = jwtBlacklistService;
+    }
+
     @Override
     public String generateToken(Map<String, String> extraClaims, String email) {
         return Jwts
                 .builder()
                 .claims().add(extraClaims)
                 .and()
+                .id(UUID.randomUUID().toString())
                 .subject(email)
                 .issuedAt(new Date(System.currentTimeMillis()))
-                .expiration(new Date(System.currentTimeMillis() + JWT_EXPIRATION_TIME))
-                .signWith(getSignInKey())
+                .expiration(new Date(System.currentTimeMillis() + jwtExpirationTime))
+                .signWith(signingKey)
                 .compact();
     }
 
     @Override
-    public String getEmail(String token) {
-        Claims claims = extractAllClaims(token);
-        return claims.getSubject();
-    }
-
-    @Override
-    public boolean isTokenExpired(String token) {
-        Claims claims = extractAllClaims(token);
-        return claims.getExpiration().before(new Date());
-    }
-
-    @Override
-    public Claims extractAllClaims(String token) {
-        return Jwts
-                .parser()
-                .verifyWith(getSignInKey())
-                .build()
+    public Claims verify(String token) {
+        return parser
                 .parseSignedClaims(token)
                 .getPayload();
     }
 
-    private SecretKey getSignInKey() {
-        byte[] keyBytes = SECRET_KEY.getBytes();
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
-
+    @Override
     public void invalidate(String token) {
-        jwtBlacklistService.blacklist(token);
+        Claims claims;
+        try {
+            claims = verify(token);
+        } catch (JwtException e) {
+            // Expired or invalid tokens are already rejected; nothing to remember
+            AppLogger.debug(String.format("Ignoring logout of unusable token: %s", e.getMessage()));
+            return;
+        }
+        jwtBlacklistService.blacklist(token, claims);
     }
 }
-
@@ -3,14 +3,18 @@ package com.example.backend.service;
 import com.example.backend.contract.SocieteServiceContract;
 import com.example.backend.dto.*;
 import com.example.backend.entity.*;
-import com.example.backend.repository.DocumentRepository;
 import com.example.backend.repository.SocieteRepository;
 import com.example.backend.repository.UserRepository;
+import com.example.backend.exception.BusinessException;
+import com.example.backend.util.PdfGeneratorUtil;
 import com.example.backend.util.SecurityUtils;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.OutputStream;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -20,7 +24,8 @@ public class SocieteService implements SocieteServiceContract {
 
     private final SocieteRepository societeRepository;
     private final UserRepository userRepository;
-    private final DocumentRepository documentRepository;
+    private final ComplianceCounterService complianceCounters;
+    private final PlatformTransactionManager transactionManager;
 
     @Transactional
     public SocieteDTO createSociete(SocieteRequestDTO request) {
@@ -42,6 +47,7 @@ public class SocieteService implements SocieteServiceContract {
                 .build();
 
         Societe saved = societeRepository.save(societe);
+        complianceCounters.invalidatePortfolio();
         return toDTO(saved);
     }
 
@@ -84,6 +90,7 @@ public class SocieteService implements SocieteServiceContract {
         societe.setEmailContact(request.getEmailContact());
 
         Societe updated = societeRepository.save(societe);
+        complianceCounters.invalidatePortfolio();
         return toDTO(updated);
     }
 
@@ -97,6 +104,7 @@ public class SocieteService implements SocieteServiceContract {
             throw new RuntimeException("Societe not found");
         }
         societeRepository.deleteById(id);
+        complianceCounters.invalidatePortfolio();
     }
 
     @Transactional
@@ -183,11 +191,11 @@ public class SocieteService implements SocieteServiceContract {
                     .build();
         }
 
-        // Load all documents once — single DB round-trip
-        List<Document> allDocs = documentRepository.findBySociete(societe);
+        // Counts per (exercice, type, statut), read from the maintained counters
+        List<DocumentStatusCount> counts = complianceCounters.countsForSociete(societe.getId());
 
         // --- Global metrics ---
-        long[] global = computeMetrics(allDocs);
+        long[] global = computeMetrics(counts);
         long totalDocuments   = global[0];
         long pendingDocuments = global[1];
         long approvedDocuments = global[2];
@@ -196,8 +204,8 @@ public class SocieteService implements SocieteServiceContract {
         double compliancePercentage = global[5] > 0 ? (double) approvedDocuments / global[5] * 100 : 0.0;
 
         // --- Per fiscal year ---
-        Map<Integer, List<Document>> byExercice = allDocs.stream()
-                .collect(Collectors.groupingBy(Document::getExerciceComptable));
+        Map<Integer, List<DocumentStatusCount>> byExercice = counts.stream()
+                .collect(Collectors.groupingBy(DocumentStatusCount::exerciceComptable));
 
         List<SocietComplianceOverviewDTO.ExerciceBreakdownDTO> exerciceBreakdowns = byExercice.entrySet()
                 .stream()
@@ -206,35 +214,16 @@ public class SocieteService implements SocieteServiceContract {
                 .collect(Collectors.toList());
 
         // --- Global per doc type ---
-        List<SocietComplianceOverviewDTO.DocTypeBreakdownDTO> docTypeBreakdowns =
-                Arrays.stream(Document.TypeDocument.values())
-                        .map(type -> {
-                            List<Document> typeDocs = allDocs.stream()
-                                    .filter(d -> d.getTypeDocument() == type)
-                                    .collect(Collectors.toList());
-                            return buildDocTypeBreakdown(type, typeDocs);
-                        })
-                        .collect(Collectors.toList());
+        List<SocietComplianceOverviewDTO.DocTypeBreakdownDTO> docTypeBreakdowns = buildDocTypeBreakdowns(counts);
 
         // --- Detailed enterprise level: per fiscal year × per doc type ---
         List<SocietComplianceOverviewDTO.ExerciceDetailDTO> exerciceDetails = byExercice.entrySet()
                 .stream()
                 .sorted(Map.Entry.comparingByKey())
                 .map(e -> {
-                    List<Document> exerciceDocs = e.getValue();
-                    long[] m = computeMetrics(exerciceDocs);
+                    long[] m = computeMetrics(e.getValue());
                     double pct = m[5] > 0 ? (double) m[2] / m[5] * 100 : 0.0;
 
-                    List<SocietComplianceOverviewDTO.DocTypeBreakdownDTO> typeBreakdowns =
-                            Arrays.stream(Document.TypeDocument.values())
-                                    .map(type -> {
-                                        List<Document> slice = exerciceDocs.stream()
-                                                .filter(d -> d.getTypeDocument() == type)
-                                                .collect(Collectors.toList());
-                                        return buildDocTypeBreakdown(type, slice);
-                                    })
-                                    .collect(Collectors.toList());
-
                     return SocietComplianceOverviewDTO.ExerciceDetailDTO.builder()
                             .exerciceComptable(e.getKey())
                             .total(m[0])
@@ -244,7 +233,7 @@ public class SocieteService implements SocieteServiceContract {
                             .deleted(m[4])
                             .compliancePercentage(pct)
                             .complianceStatus(getComplianceStatus(pct))
-                            .docTypeBreakdowns(typeBreakdowns)
+                            .docTypeBreakdowns(buildDocTypeBreakdowns(e.getValue()))
                             .build();
                 })
                 .collect(Collectors.toList());
@@ -270,29 +259,75 @@ public class SocieteService implements SocieteServiceContract {
                 .build();
     }
 
+    /**
+     * Compliance of every société, ranked and paginated. Totals come from one
+     * aggregation over the compliance counters (cached until the next document
+     * change); percentages and sorting are applied in memory on that result.
+     */
     @Transactional(readOnly = true)
-    public byte[] generateCompliancePdfReport(Long societeId) {
-        SocietComplianceOverviewDTO overview = getSocietComplianceOverview(societeId);
-        return com.example.backend.util.PdfGeneratorUtil.generateComplianceReport(overview);
+    public PageResponse<SocieteComplianceSummaryDTO> getCompliancePortfolio(Integer exercice, int page, int size,
+            String sortBy, String sortDir) {
+        Comparator<SocieteComplianceSummaryDTO> order = portfolioOrder(sortBy);
+        if ("desc".equalsIgnoreCase(sortDir)) {
+            order = order.reversed();
+        }
+        order = order.thenComparing(SocieteComplianceSummaryDTO::getSocieteId);
+
+        List<SocieteComplianceSummaryDTO> ranked = complianceCounters.portfolioTotals(exercice).stream()
+                .map(totals -> toComplianceSummary(totals, exercice))
+                .sorted(order)
+                .collect(Collectors.toList());
+
+        int pageSize = Math.max(1, size);
+        int totalPages = (ranked.size() + pageSize - 1) / pageSize;
+        int from = (int) Math.min((long) Math.max(0, page) * pageSize, ranked.size());
+        int to = Math.min(from + pageSize, ranked.size());
+
+        return PageResponse.<SocieteComplianceSummaryDTO>builder()
+                .content(ranked.subList(from, to))
+                .page(page)
+                .size(pageSize)
+                .totalElements(ranked.size())
+                .totalPages(totalPages)
+                .last(page >= totalPages - 1)
+                .first(page == 0)
+                .build();
+    }
+
+    /**
+     * Streams the PDF report to {@code out}; the overview is loaded before any byte is written.
+     * Only the load runs in a read-only transaction (a self-call would bypass the
+     * proxy's), so no connection is held while the client reads the PDF.
+     */
+    public void writeCompliancePdfReport(Long societeId, OutputStream out) {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        SocietComplianceOverviewDTO overview = readOnly.execute(status -> getSocietComplianceOverview(societeId));
+        PdfGeneratorUtil.writeComplianceReport(overview, out);
     }
 
     /**
-     * Returns [total, pending, approved, rejected, deleted, actionable].
+     * Returns [total, pending, approved, rejected, deleted, actionable] summed over the given counts.
      * actionable = total - deleted (used as denominator for compliance %).
      */
-    private long[] computeMetrics(List<Document> docs) {
-        long total    = docs.size();
-        long pending  = docs.stream().filter(d -> d.getStatut() == Document.StatutDocument.EN_ATTENTE).count();
-        long approved = docs.stream().filter(d -> d.getStatut() == Document.StatutDocument.VALIDE).count();
-        long rejected = docs.stream().filter(d -> d.getStatut() == Document.StatutDocument.REJETE).count();
-        long deleted  = docs.stream().filter(d -> d.getStatut() == Document.StatutDocument.SUPPRIME).count();
+    private long[] computeMetrics(List<DocumentStatusCount> counts) {
+        long total = 0, pending = 0, approved = 0, rejected = 0, deleted = 0;
+        for (DocumentStatusCount c : counts) {
+            total += c.count();
+            switch (c.statut()) {
+                case EN_ATTENTE -> pending += c.count();
+                case VALIDE -> approved += c.count();
+                case REJETE -> rejected += c.count();
+                case SUPPRIME -> deleted += c.count();
+            }
+        }
         long actionable = total - deleted;
         return new long[]{total, pending, approved, rejected, deleted, actionable};
     }
 
     private SocietComplianceOverviewDTO.ExerciceBreakdownDTO buildExerciceBreakdown(
-            Integer exercice, List<Document> docs) {
-        long[] m = computeMetrics(docs);
+            Integer exercice, List<DocumentStatusCount> counts) {
+        long[] m = computeMetrics(counts);
         double pct = m[5] > 0 ? (double) m[2] / m[5] * 100 : 0.0;
         return SocietComplianceOverviewDTO.ExerciceBreakdownDTO.builder()
                 .exerciceComptable(exercice)
@@ -306,9 +341,19 @@ public class SocieteService implements SocieteServiceContract {
                 .build();
     }
 
+    /** One breakdown per {@link Document.TypeDocument}, including types without documents. */
+    private List<SocietComplianceOverviewDTO.DocTypeBreakdownDTO> buildDocTypeBreakdowns(
+            List<DocumentStatusCount> counts) {
+        Map<Document.TypeDocument, List<DocumentStatusCount>> byType = counts.stream()
+                .collect(Collectors.groupingBy(DocumentStatusCount::typeDocument));
+        return Arrays.stream(Document.TypeDocument.values())
+                .map(type -> buildDocTypeBreakdown(type, byType.getOrDefault(type, List.of())))
+                .collect(Collectors.toList());
+    }
+
     private SocietComplianceOverviewDTO.DocTypeBreakdownDTO buildDocTypeBreakdown(
-            Document.TypeDocument type, List<Document> docs) {
-        long[] m = computeMetrics(docs);
+            Document.TypeDocument type, List<DocumentStatusCount> counts) {
+        long[] m = computeMetrics(counts);
         double pct = m[5] > 0 ? (double) m[2] / m[5] * 100 : 0.0;
         return SocietComplianceOverviewDTO.DocTypeBreakdownDTO.builder()
                 .typeDocument(type.name())
@@ -322,6 +367,36 @@ public class SocieteService implements SocieteServiceContract {
                 .build();
     }
 
+    private Comparator<SocieteComplianceSummaryDTO> portfolioOrder(String sortBy) {
+        return switch (sortBy == null ? "compliancePercentage" : sortBy) {
+            case "compliancePercentage" -> Comparator.comparingDouble(SocieteComplianceSummaryDTO::getCompliancePercentage);
+            case "raisonSociale" -> Comparator.comparing(SocieteComplianceSummaryDTO::getRaisonSociale,
+                    String.CASE_INSENSITIVE_ORDER);
+            case "totalDocuments" -> Comparator.comparingLong(SocieteComplianceSummaryDTO::getTotalDocuments);
+            case "pendingDocuments" -> Comparator.comparingLong(SocieteComplianceSummaryDTO::getPendingDocuments);
+            case "rejectedDocuments" -> Comparator.comparingLong(SocieteComplianceSummaryDTO::getRejectedDocuments);
+            default -> throw new BusinessException("INVALID_SORT", "Tri non supporté: " + sortBy);
+        };
+    }
+
+    private SocieteComplianceSummaryDTO toComplianceSummary(SocieteComplianceTotals totals, Integer exercice) {
+        long actionable = totals.total() - totals.deleted();
+        double pct = actionable > 0 ? (double) totals.approved() / actionable * 100 : 0.0;
+        return SocieteComplianceSummaryDTO.builder()
+                .societeId(totals.societeId())
+                .raisonSociale(totals.raisonSociale())
+                .ice(totals.ice())
+                .exerciceComptable(exercice)
+                .totalDocuments(totals.total())
+                .pendingDocuments(totals.pending())
+                .approvedDocuments(totals.approved())
+                .rejectedDocuments(totals.rejected())
+                .deletedDocuments(totals.deleted())
+                .compliancePercentage(pct)
+                .complianceStatus(getComplianceStatus(pct))
+                .build();
+    }
+
     private String getComplianceStatus(double percentage) {
         if (percentage >= 90)
             return "COMPLIANT";
@@ -0,0 +1,69 @@
+package com.example.backend.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.RandomAccessReadBufferedFile;
+import org.apache.pdfbox.pdmodel.PDDocument;
+
+import com.example.backend.contract.FileStorageService;
+import com.example.backend.contract.StoredFile;
+
+/** Opens stored PDFs with PDFBox. */
+final class StoredPdfs {
+
+    private StoredPdfs() {
+    }
+
+    /**
+     * Opens the PDF straight from disk when it is a plain file. Other files
+     * (pack records, archive entries) are spooled to a temporary file that
+     * lives as long as the document, so the PDF is never held in heap.
+     */
+    static PDDocument load(FileStorageService fileStorageService, String cheminFichier) throws IOException {
+        try (StoredFile file = fileStorageService.open(cheminFichier)) {
+            if (file.backingFile() != null && file.backingOffset() == 0) {
+                return Loader.loadPDF(file.backingFile().toFile());
+            }
+            Path spool = Files.createTempFile("pdf-", ".spool");
+            try {
+                try (InputStream in = file.newInputStream()) {
+                    Files.copy(in, spool, StandardCopyOption.REPLACE_EXISTING);
+                }
+                return Loader.loadPDF(new SpooledFile(spool));
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(spool);
+                throw e;
+            }
+        }
+    }
+
+    /** Documents uploaded before typeMime was recorded fall back to the extension. */
+    static boolean isPdf(String typeMime, String cheminFichier) {
+        return typeMime != null ? "application/pdf".equals(typeMime) : cheminFichier.endsWith(".pdf");
+    }
+
+    /** Temporary copy removed when PDFBox closes the document. */
+    private static final class SpooledFile extends RandomAccessReadBufferedFile {
+
+        private final Path path;
+
+        SpooledFile(Path path) throws IOException {
+            super(path);
+            this.path = path;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
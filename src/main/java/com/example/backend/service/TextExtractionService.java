@@ -0,0 +1,264 @@
+package com.example.backend.service;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import javax.imageio.ImageIO;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.backend.contract.FileStorageService;
+import com.example.backend.entity.Document;
+import com.example.backend.entity.DocumentText;
+import com.example.backend.repository.DocumentRepository;
+import com.example.backend.repository.DocumentTextRepository;
+import com.example.backend.service.search.DocumentSearchIndex;
+import com.example.backend.util.AppLogger;
+import com.example.backend.util.TextCompressor;
+
+/**
+ * Extracts the text of stored documents for content search: the text layer of
+ * PDFs, or, when an OCR command is configured (tesseract), the text recognized
+ * on images and on scanned PDFs without a text layer. Runs on its own bounded
+ * pool after promotion; the text is stored compressed and indexed. Files that
+ * could not be read are tried again by the catch-up job, a bounded number of
+ * times.
+ */
+@Service
+public class TextExtractionService {
+
+    private static final float OCR_DPI = 300f;
+
+    private final DocumentRepository documentRepository;
+    private final DocumentTextRepository documentTextRepository;
+    private final FileStorageService fileStorageService;
+    private final DocumentSearchIndex searchIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor extractionExecutor;
+    private final int maxPages;
+    private final int maxChars;
+    private final String ocrCommand;
+    private final String ocrLanguages;
+    private final int ocrMaxPages;
+    private final long ocrTimeoutSeconds;
+    private final int maxAttempts;
+    /** Documents queued or being extracted, so the catch-up job does not queue them twice. */
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+
+    public TextExtractionService(
+            DocumentRepository documentRepository,
+            DocumentTextRepository documentTextRepository,
+            FileStorageService fileStorageService,
+            DocumentSearchIndex searchIndex,
+            TransactionTemplate transactionTemplate,
+            @Qualifier("extractionExecutor") Executor extractionExecutor,
+            @Value("${app.extraction.max-pages:50}") int maxPages,
+            @Value("${app.extraction.max-chars:200000}") int maxChars,
+            @Value("${app.extraction.ocr.command:}") String ocrCommand,
+            @Value("${app.extraction.ocr.languages:fra+eng}") String ocrLanguages,
+            @Value("${app.extraction.ocr.max-pages:3}") int ocrMaxPages,
+            @Value("${app.extraction.ocr.timeout-seconds:60}") long ocrTimeoutSeconds,
+            @Value("${app.extraction.max-attempts:3}") int maxAttempts) {
+        this.documentRepository = documentRepository;
+        this.documentTextRepository = documentTextRepository;
+        this.fileStorageService = fileStorageService;
+        this.searchIndex = searchIndex;
+        this.transactionTemplate = transactionTemplate;
+        this.extractionExecutor = extractionExecutor;
+        this.maxPages = maxPages;
+        this.maxChars = maxChars;
+        this.ocrCommand = ocrCommand;
+        this.ocrLanguages = ocrLanguages;
+        this.ocrMaxPages = ocrMaxPages;
+        this.ocrTimeoutSeconds = ocrTimeoutSeconds;
+        this.maxAttempts = maxAttempts;
+    }
+
+    private record Extracted(DocumentText.Source source, String text) {
+    }
+
+    /**
+     * Queues extraction unless the document is already queued or running.
+     * Dropped when the pool is saturated (see {@link #queuePending(int)}).
+     * Returns whether it was queued.
+     */
+    public boolean extractInBackground(Long documentId) {
+        if (!inFlight.add(documentId)) {
+            return false;
+        }
+        try {
+            extractionExecutor.execute(() -> {
+                try {
+                    extract(documentId);
+                } catch (RuntimeException e) {
+                    AppLogger.warn("[Extraction] Document {} failed: {}", documentId, e.getMessage());
+                } finally {
+                    inFlight.remove(documentId);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(documentId);
+            AppLogger.debug("[Extraction] Pool saturated, document {} left for the catch-up job", documentId);
+            return false;
+        }
+    }
+
+    /**
+     * Queues stored documents that have no extracted text yet, then documents
+     * whose file could not be read and that have attempts left. Returns how many
+     * were queued.
+     */
+    public int queuePending(int batchSize) {
+        List<Long> pending = new ArrayList<>(documentRepository.findIdsWithoutExtractedText(
+                Document.StatutStockage.STORED, PageRequest.of(0, batchSize)));
+        if (pending.size() < batchSize) {
+            pending.addAll(documentTextRepository.findIdsToRetry(DocumentText.Source.ECHEC, maxAttempts,
+                    PageRequest.of(0, batchSize - pending.size())));
+        }
+        int queued = 0;
+        for (Long documentId : pending) {
+            if (extractInBackground(documentId)) {
+                queued++;
+            }
+        }
+        return queued;
+    }
+
+    void extract(Long documentId) {
+        Document document = documentRepository.findById(documentId).orElse(null);
+        DocumentText previous = documentTextRepository.findById(documentId).orElse(null);
+        if (document == null || previous != null && !retriable(previous)) {
+            return;
+        }
+
+        Extracted extracted;
+        try {
+            extracted = read(document);
+        } catch (IOException | RuntimeException e) {
+            AppLogger.warn("[Extraction] Could not read document {}: {}", documentId, e.getMessage());
+            extracted = new Extracted(DocumentText.Source.ECHEC, "");
+        }
+
+        String text = extracted.text().length() > maxChars
+                ? extracted.text().substring(0, maxChars)
+                : extracted.text();
+        int attempts = previous != null ? previous.getTentatives() + 1 : 1;
+        DocumentText row = DocumentText.builder()
+                .documentId(documentId)
+                .source(extracted.source())
+                .tentatives(attempts)
+                .longueur(text.length())
+                .contenu(text.isEmpty() ? null : TextCompressor.compress(text))
+                .build();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            documentTextRepository.save(row);
+            if (!text.isEmpty()) {
+                searchIndex.indexAfterCommit(document, text);
+            }
+        });
+        AppLogger.debug("[Extraction] Document {}: {} characters ({})", documentId, text.length(),
+                extracted.source());
+        if (extracted.source() == DocumentText.Source.ECHEC && attempts >= maxAttempts) {
+            AppLogger.warn("[Extraction] Giving up on document {} after {} attempts", documentId, attempts);
+        }
+    }
+
+    private boolean retriable(DocumentText previous) {
+        return previous.getSource() == DocumentText.Source.ECHEC && previous.getTentatives() < maxAttempts;
+    }
+
+    private Extracted read(Document document) throws IOException {
+        String chemin = document.getCheminFichier();
+        if (StoredPdfs.isPdf(document.getTypeMime(), chemin)) {
+            try (PDDocument pdf = StoredPdfs.load(fileStorageService, chemin)) {
+                PDFTextStripper stripper = new PDFTextStripper();
+                stripper.setEndPage(maxPages);
+                String text = stripper.getText(pdf).strip();
+                if (!text.isEmpty()) {
+                    return new Extracted(DocumentText.Source.PDF, text);
+                }
+                // Scanned PDF: no text layer
+                return ocrEnabled() ? new Extracted(DocumentText.Source.OCR, ocrPages(pdf)) : none();
+            }
+        }
+
+        if (ocrEnabled() && document.getTypeMime() != null && document.getTypeMime().startsWith("image/")) {
+            Path image = Files.createTempFile("ocr-", ".img");
+            try {
+                Files.write(image, fileStorageService.read(chemin));
+                return new Extracted(DocumentText.Source.OCR, ocr(image));
+            } finally {
+                Files.deleteIfExists(image);
+            }
+        }
+        return none();
+    }
+
+    private String ocrPages(PDDocument pdf) throws IOException {
+        PDFRenderer renderer = new PDFRenderer(pdf);
+        List<String> pages = new ArrayList<>();
+        for (int i = 0; i < Math.min(ocrMaxPages, pdf.getNumberOfPages()); i++) {
+            BufferedImage page = renderer.renderImageWithDPI(i, OCR_DPI, ImageType.GRAY);
+            Path image = Files.createTempFile("ocr-", ".png");
+            try {
+                ImageIO.write(page, "png", image.toFile());
+                pages.add(ocr(image));
+            } finally {
+                Files.deleteIfExists(image);
+            }
+        }
+        return String.join("\n", pages).strip();
+    }
+
+    /** Runs the OCR command on one image and returns the recognized text. */
+    private String ocr(Path image) throws IOException {
+        Path output = Files.createTempFile("ocr-", ".txt");
+        Process process = new ProcessBuilder(ocrCommand, image.toString(), "stdout", "-l", ocrLanguages)
+                .redirectOutput(output.toFile())
+                .redirectError(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try {
+            if (!process.waitFor(ocrTimeoutSeconds, TimeUnit.SECONDS)) {
+                throw new IOException("OCR timed out");
+            }
+            if (process.exitValue() != 0) {
+                throw new IOException("OCR exited with status " + process.exitValue());
+            }
+            return Files.readString(output, StandardCharsets.UTF_8).strip();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("OCR interrupted", e);
+        } finally {
+            process.destroyForcibly();
+            Files.deleteIfExists(output);
+        }
+    }
+
+    private boolean ocrEnabled() {
+        return ocrCommand != null && !ocrCommand.isBlank();
+    }
+
+    private static Extracted none() {
+        return new Extracted(DocumentText.Source.AUCUN, "");
+    }
+}
@@ -0,0 +1,322 @@
+package com.example.backend.service;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.backend.contract.FileStorageService;
+import com.example.backend.contract.StoredFile;
+import com.example.backend.dto.DocumentDownloadDescriptor;
+import com.example.backend.exception.BusinessException;
+import com.example.backend.service.storage.PathStoredFile;
+import com.example.backend.util.AppLogger;
+
+/**
+ * First-page JPEG previews for the review screens. Previews are rendered in
+ * the background once a document is stored, or on first request, and kept in
+ * a size-bounded disk cache keyed by document id and checksum; the least
+ * recently served previews are evicted first.
+ *
+ * Sources are streamed from storage and their dimensions checked before
+ * anything is decoded, so an image or page claiming more than
+ * app.thumbnails.max-pixels is refused instead of exhausting the heap.
+ * Concurrent requests for the same preview share a single render.
+ */
+@Service
+public class ThumbnailService {
+
+    private static final String EXTENSION = ".jpg";
+
+    private final FileStorageService fileStorageService;
+    private final Executor thumbnailExecutor;
+    private final Path cacheDir;
+    private final int width;
+    private final long maxCacheBytes;
+    private final long maxPixels;
+    private final AtomicLong cacheBytes = new AtomicLong(-1);
+    /** Renders in progress, by cache file; later requests wait for the same render. */
+    private final Map<Path, CompletableFuture<Void>> rendering = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ThumbnailService(
+            FileStorageService fileStorageService,
+            @Qualifier("thumbnailExecutor") Executor thumbnailExecutor,
+            @Value("${app.thumbnails.dir:cache/thumbnails}") String cacheDir,
+            @Value("${app.thumbnails.width:320}") int width,
+            @Value("${app.thumbnails.cache-max-mb:256}") long maxCacheMb,
+            @Value("${app.thumbnails.max-pixels:50000000}") long maxPixels) {
+        this(fileStorageService, thumbnailExecutor, Paths.get(cacheDir), width, maxCacheMb * 1024 * 1024, maxPixels);
+    }
+
+    ThumbnailService(FileStorageService fileStorageService, Executor thumbnailExecutor, Path cacheDir, int width,
+            long maxCacheBytes, long maxPixels) {
+        this.fileStorageService = fileStorageService;
+        this.thumbnailExecutor = thumbnailExecutor;
+        this.cacheDir = cacheDir;
+        this.width = width;
+        this.maxCacheBytes = maxCacheBytes;
+        this.maxPixels = maxPixels;
+    }
+
+    /** Renders the preview on the thumbnail pool unless it is cached or already being rendered. */
+    public void renderInBackground(Long documentId, String cheminFichier, String checksum, String typeMime) {
+        thumbnailExecutor.execute(() -> {
+            try {
+                Path cached = cachePath(documentId, cheminFichier, checksum);
+                if (!Files.exists(cached) && !rendering.containsKey(cached)) {
+                    renderOnce(cheminFichier, typeMime, cached);
+                }
+            } catch (IOException | RuntimeException e) {
+                AppLogger.warn("[Thumbnail] Background render of document {} failed: {}", documentId, e.getMessage());
+            }
+        });
+    }
+
+    /** Returns the cached preview, rendering it first on a miss. */
+    public StoredFile getPreview(DocumentDownloadDescriptor descriptor) {
+        try {
+            Path cached = cachePath(descriptor.id(), descriptor.cheminFichier(), descriptor.checksumSha256());
+            if (Files.exists(cached)) {
+                // Last-modified doubles as last-access time for LRU eviction
+                Files.setLastModifiedTime(cached, FileTime.fromMillis(System.currentTimeMillis()));
+            } else {
+                renderOnce(descriptor.cheminFichier(), descriptor.typeMime(), cached);
+            }
+            return new PathStoredFile(cached);
+        } catch (IOException e) {
+            throw new BusinessException("PREVIEW_ERROR",
+                    "Impossible de générer l'aperçu du document: " + e.getMessage());
+        }
+    }
+
+    /** Renders into the cache, or waits for the render another request already started. */
+    private void renderOnce(String cheminFichier, String typeMime, Path target) throws IOException {
+        CompletableFuture<Void> mine = new CompletableFuture<>();
+        CompletableFuture<Void> running = rendering.putIfAbsent(target, mine);
+        if (running != null) {
+            try {
+                running.join();
+                return;
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof IOException io ? io : new IOException(e.getCause().getMessage());
+            }
+        }
+
+        try {
+            if (!Files.exists(target)) {
+                render(cheminFichier, typeMime, target);
+            }
+            mine.complete(null);
+        } catch (IOException | RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            rendering.remove(target, mine);
+        }
+    }
+
+    private void render(String cheminFichier, String typeMime, Path target) throws IOException {
+        BufferedImage source = StoredPdfs.isPdf(typeMime, cheminFichier)
+                ? renderFirstPage(cheminFichier)
+                : readImage(cheminFichier);
+        if (source == null) {
+            throw new IOException("Format d'image non pris en charge");
+        }
+
+        Files.createDirectories(cacheDir);
+        AtomicLong size = cacheBytes();
+        Path temp = cacheDir.resolve(UUID.randomUUID() + ".part");
+        try (OutputStream out = Files.newOutputStream(temp)) {
+            writeJpeg(scale(source), out);
+        }
+        // A preview already at the target (rendered by another instance sharing
+        // the cache) is replaced, so only the difference counts
+        long replaced = Files.exists(target) ? Files.size(target) : 0;
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        if (size.addAndGet(Files.size(target) - replaced) > maxCacheBytes) {
+            evict();
+        }
+    }
+
+    private BufferedImage renderFirstPage(String cheminFichier) throws IOException {
+        try (PDDocument pdf = StoredPdfs.load(fileStorageService, cheminFichier)) {
+            if (pdf.getNumberOfPages() == 0) {
+                return null;
+            }
+            PDRectangle page = pdf.getPage(0).getCropBox();
+            float scale = width / page.getWidth();
+            checkPixels((long) Math.ceil(page.getWidth() * scale), (long) Math.ceil(page.getHeight() * scale));
+            return new PDFRenderer(pdf).renderImage(0, scale, ImageType.RGB);
+        }
+    }
+
+    /**
+     * Decodes the first image straight from storage. The header is read first
+     * to refuse oversized images, and large ones are subsampled while decoding
+     * so the full-resolution bitmap is never built.
+     */
+    private BufferedImage readImage(String cheminFichier) throws IOException {
+        try (StoredFile file = fileStorageService.open(cheminFichier);
+                InputStream in = file.newInputStream();
+                ImageInputStream images = ImageIO.createImageInputStream(in)) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(images);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(images, true, true);
+                int sourceWidth = reader.getWidth(0);
+                checkPixels(sourceWidth, reader.getHeight(0));
+
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = Math.max(1, sourceWidth / width);
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private void checkPixels(long imageWidth, long imageHeight) throws IOException {
+        if (imageWidth * imageHeight > maxPixels) {
+            throw new IOException(String.format("Image trop grande pour un aperçu (%d x %d)", imageWidth, imageHeight));
+        }
+    }
+
+    private BufferedImage scale(BufferedImage source) {
+        int targetWidth = Math.min(width, source.getWidth());
+        int targetHeight = Math.max(1, (int) ((long) source.getHeight() * targetWidth / source.getWidth()));
+
+        BufferedImage scaled = new BufferedImage(targetWidth, targetHeight, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = scaled.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(source, 0, 0, targetWidth, targetHeight, Color.WHITE, null);
+        } finally {
+            g.dispose();
+        }
+        return scaled;
+    }
+
+    private void writeJpeg(BufferedImage image, OutputStream out) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream ios = ImageIO.createImageOutputStream(out)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(0.8f);
+            writer.setOutput(ios);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    /** Deletes least recently served previews until the cache is back under 90% of its budget. */
+    private synchronized void evict() throws IOException {
+        List<Path> previews;
+        try (Stream<Path> files = Files.list(cacheDir)) {
+            previews = files.filter(p -> p.getFileName().toString().endsWith(EXTENSION))
+                    .sorted(Comparator.comparing(ThumbnailService::lastModified))
+                    .toList();
+        }
+
+        long target = maxCacheBytes * 9 / 10;
+        for (Path preview : previews) {
+            if (cacheBytes.get() <= target) {
+                break;
+            }
+            long size = preview.toFile().length();
+            if (Files.deleteIfExists(preview)) {
+                cacheBytes.addAndGet(-size);
+            }
+        }
+    }
+
+    /** Current cache size, measured once from disk and tracked incrementally afterwards. */
+    private AtomicLong cacheBytes() throws IOException {
+        if (cacheBytes.get() < 0) {
+            synchronized (this) {
+                if (cacheBytes.get() < 0) {
+                    long total;
+                    try (Stream<Path> files = Files.list(cacheDir)) {
+                        total = files.filter(p -> p.getFileName().toString().endsWith(EXTENSION))
+                                .mapToLong(p -> p.toFile().length())
+                                .sum();
+                    }
+                    cacheBytes.set(total);
+                }
+            }
+        }
+        return cacheBytes;
+    }
+
+    /**
+     * Documents stored before checksums were recorded are versioned by their
+     * path, size and modification time instead, so a replaced file is not
+     * served its old preview.
+     */
+    private Path cachePath(Long documentId, String cheminFichier, String checksum) {
+        String version;
+        if (checksum != null) {
+            version = checksum.substring(0, Math.min(16, checksum.length()));
+        } else {
+            try (StoredFile file = fileStorageService.open(cheminFichier)) {
+                version = "v" + Integer.toHexString(Objects.hash(cheminFichier, file.size(), file.lastModified()));
+            } catch (IOException e) {
+                throw new BusinessException("FILE_READ_ERROR", e.getMessage());
+            }
+        }
+        return cacheDir.resolve(documentId + "-" + version + EXTENSION);
+    }
+
+    private static FileTime lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+}
@@ -7,6 +7,8 @@ import com.example.backend.entity.User;
 import com.example.backend.exception.ResourceNotFoundException;
 import com.example.backend.repository.SocieteRepository;
 import com.example.backend.repository.UserRepository;
+import com.example.backend.security.AuthenticatedUserCache;
+import com.example.backend.security.TokenVersionRegistry;
 import com.example.backend.util.SecurityUtils;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -31,6 +33,8 @@ public class UserService implements UserServiceContract {
     private final UserRepository userRepository;
     private final SocieteRepository societeRepository;
     private final PasswordEncoder passwordEncoder;
+    private final AuthenticatedUserCache userCache;
+    private final TokenVersionRegistry tokenVersions;
 
     @Transactional
     public UserDTO createComptable(CreateComptableDTO request) {
@@ -118,6 +122,7 @@ public class UserService implements UserServiceContract {
         }
 
         userRepository.deleteById(id);
+        userCache.evictAfterCommit(user.getEmail());
     }
 
     @Transactional
@@ -130,6 +135,9 @@ public class UserService implements UserServiceContract {
             throw new RuntimeException("You don't have permission to update this user");
         }
 
+        // Cached under the current email; a rename must drop that entry
+        userCache.evictAfterCommit(user.getEmail());
+
         // Check if email is being changed and already exists
         if (request.getEmail() != null && !request.getEmail().equals(user.getEmail())) {
             if (userRepository.existsByEmail(request.getEmail()) && !request.getEmail().equals(user.getEmail())) {
@@ -214,6 +222,8 @@ public class UserService implements UserServiceContract {
             throw new RuntimeException("Cannot change admin user role");
         }
 
+        userCache.evictAfterCommit(user.getEmail());
+
         if (request.getEmail() != null && !request.getEmail().equals(user.getEmail())) {
             if (userRepository.existsByEmail(request.getEmail())) {
                 throw new RuntimeException("Email already exists");
@@ -227,12 +237,16 @@ public class UserService implements UserServiceContract {
 
         if (request.getPassword() != null && !request.getPassword().isBlank()) {
             user.setPassword(passwordEncoder.encode(request.getPassword()));
+            revokeTokens(user);
         }
 
         if (request.getActive() != null) {
             if (user.getRole() == User.Role.ADMIN) {
                 throw new RuntimeException("Cannot deactivate admin user");
             }
+            if (user.isActive() && !request.getActive()) {
+                revokeTokens(user);
+            }
             user.setActive(request.getActive());
         }
 
@@ -253,11 +267,35 @@ public class UserService implements UserServiceContract {
             throw new RuntimeException("Cannot deactivate admin user");
         }
 
+        if (user.isActive() && !request.isActive()) {
+            revokeTokens(user);
+        }
         user.setActive(request.isActive());
         User updated = userRepository.save(user);
+        userCache.evictAfterCommit(user.getEmail());
         return toDTO(updated);
     }
 
+    @Transactional
+    public void revokeAllSessions(Long id) {
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        if (!SecurityUtils.canModifyUser(user.getEmail())) {
+            throw new RuntimeException("You don't have permission to revoke this user's sessions");
+        }
+
+        revokeTokens(user);
+        userRepository.save(user);
+    }
+
+    /** Invalidates every token issued to the user so far, including the caller's own. */
+    private void revokeTokens(User user) {
+        // revokeTokens can run twice in one update; only the final version matters
+        user.setTokenVersion(user.getTokenVersion() + 1);
+        tokenVersions.recordAfterCommit(user.getId(), user.getTokenVersion());
+    }
+
     @Transactional(readOnly = true)
     public PageResponse<UserDTO> getUsersWithFilters(User.Role role, Boolean active,
             String search, int page, int size, String sortBy) {
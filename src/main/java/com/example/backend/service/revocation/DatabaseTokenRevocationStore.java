@@ -0,0 +1,147 @@
+package com.example.backend.service.revocation;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.example.backend.contract.TokenRevocationStore;
+import com.example.backend.entity.RevokedToken;
+import com.example.backend.repository.RevokedTokenRepository;
+import com.example.backend.util.AppLogger;
+import com.example.backend.util.BloomFilter;
+import com.example.backend.util.BoundedCache;
+
+/**
+ * Revocations shared by every node through the revoked_tokens table.
+ *
+ * Each node keeps a Bloom filter of the revoked keys, so the check on a
+ * token that was never revoked (nearly every request) stays in memory. Only
+ * Bloom positives query the table, and keys found not to be revoked are
+ * remembered for a few seconds so a false positive does not hit the
+ * database on every request.
+ *
+ * Revocations made on this node apply immediately; those made on other
+ * nodes are pulled by {@link #refresh()} (TokenRevocationSyncJob), so they
+ * apply here within the sync interval. Keys cannot be removed from the
+ * filter, so it is rebuilt from the table at startup and, on every purge
+ * cycle, whenever it holds more keys than are still active — whichever node
+ * deleted the expired rows.
+ */
+@Service
+@ConditionalOnProperty(name = "security.jwt.revocation.store", havingValue = "database")
+public class DatabaseTokenRevocationStore implements TokenRevocationStore {
+
+    /** Re-reads a window before the last seen revocation, for rows committed late. */
+    private static final Duration SYNC_OVERLAP = Duration.ofSeconds(10);
+    private static final LocalDateTime NOTHING_SEEN = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final RevokedTokenRepository repository;
+    private final int expectedEntries;
+    private final double falsePositiveRate;
+    private final BoundedCache<String, Boolean> notRevoked;
+
+    private volatile BloomFilter bloom;
+    /** Keys put in the filter since it was built, expired or not. */
+    private final AtomicInteger filterEntries = new AtomicInteger();
+    private LocalDateTime watermark = NOTHING_SEEN;
+
+    public DatabaseTokenRevocationStore(RevokedTokenRepository repository,
+            @Value("${security.jwt.revocation.bloom.expected-entries:100000}") int expectedEntries,
+            @Value("${security.jwt.revocation.bloom.false-positive-rate:0.01}") double falsePositiveRate,
+            @Value("${security.jwt.revocation.negative-cache.max-size:10000}") int negativeCacheSize,
+            @Value("${security.jwt.revocation.negative-cache.ttl-seconds:5}") long negativeCacheTtlSeconds) {
+        this.repository = repository;
+        this.expectedEntries = expectedEntries;
+        this.falsePositiveRate = falsePositiveRate;
+        this.notRevoked = new BoundedCache<>(negativeCacheSize, negativeCacheTtlSeconds * 1000);
+        this.bloom = new BloomFilter(expectedEntries, falsePositiveRate);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        rebuild();
+    }
+
+    @Override
+    public void revoke(String key, Instant expiresAt) {
+        repository.revoke(key, LocalDateTime.ofInstant(expiresAt, ZoneId.systemDefault()));
+        bloom.put(key);
+        filterEntries.incrementAndGet();
+        notRevoked.invalidate(key);
+    }
+
+    @Override
+    public boolean isRevoked(String key) {
+        if (!bloom.mightContain(key) || notRevoked.get(key) != null) {
+            return false;
+        }
+        boolean revoked = repository.existsByTokenKeyAndExpiresAtAfter(key, LocalDateTime.now());
+        if (!revoked) {
+            notRevoked.put(key, Boolean.TRUE);
+        }
+        return revoked;
+    }
+
+    @Override
+    public synchronized void refresh() {
+        List<RevokedToken> recent = repository.findByRevokedAtGreaterThanEqual(watermark.minus(SYNC_OVERLAP));
+        for (RevokedToken token : recent) {
+            if (token.getRevokedAt() == null || token.getRevokedAt().isAfter(watermark)) {
+                // Not already counted by an earlier, overlapping refresh
+                filterEntries.incrementAndGet();
+            }
+            bloom.put(token.getTokenKey());
+            notRevoked.invalidate(token.getTokenKey());
+            advanceWatermark(token);
+        }
+    }
+
+    /**
+     * Deletes expired rows, then rebuilds the filter if it holds keys that are
+     * no longer active. Every node runs this, but only one of them deletes a
+     * given row, so the rebuild is decided by the active count rather than by
+     * what this node removed.
+     */
+    @Override
+    public int purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        int removed = repository.deleteExpired(now);
+        if (repository.countByExpiresAtAfter(now) < filterEntries.get()) {
+            rebuild();
+        }
+        return removed;
+    }
+
+    /**
+     * Replaces the filter with one holding only unexpired revocations. A key
+     * revoked locally while this runs may miss the new filter; the next
+     * refresh adds it back from the table.
+     */
+    private synchronized void rebuild() {
+        List<RevokedToken> active = repository.findByExpiresAtAfter(LocalDateTime.now());
+        BloomFilter fresh = new BloomFilter(Math.max(expectedEntries, active.size() * 2), falsePositiveRate);
+        for (RevokedToken token : active) {
+            fresh.put(token.getTokenKey());
+            advanceWatermark(token);
+        }
+        bloom = fresh;
+        filterEntries.set(active.size());
+        notRevoked.invalidateAll();
+        AppLogger.debug("[TokenRevocation] Loaded {} active revocations", active.size());
+    }
+
+    private void advanceWatermark(RevokedToken token) {
+        if (token.getRevokedAt() != null && token.getRevokedAt().isAfter(watermark)) {
+            watermark = token.getRevokedAt();
+        }
+    }
+}
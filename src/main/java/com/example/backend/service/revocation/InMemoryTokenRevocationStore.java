@@ -0,0 +1,43 @@
+package com.example.backend.service.revocation;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import com.example.backend.contract.TokenRevocationStore;
+
+/**
+ * Per-JVM revocations. Lost on restart and not seen by other nodes; use the
+ * database store when running more than one instance.
+ */
+@Service
+@ConditionalOnProperty(name = "security.jwt.revocation.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryTokenRevocationStore implements TokenRevocationStore {
+
+    // key -> token expiry in epoch millis
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+
+    @Override
+    public void revoke(String key, Instant expiresAt) {
+        revoked.put(key, expiresAt.toEpochMilli());
+    }
+
+    @Override
+    public boolean isRevoked(String key) {
+        return !revoked.isEmpty() && revoked.containsKey(key);
+    }
+
+    @Override
+    public int purgeExpired() {
+        return purgeExpired(System.currentTimeMillis());
+    }
+
+    int purgeExpired(long now) {
+        int before = revoked.size();
+        revoked.values().removeIf(expiresAt -> expiresAt <= now);
+        return before - revoked.size();
+    }
+}
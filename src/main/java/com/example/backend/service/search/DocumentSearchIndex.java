@@ -0,0 +1,496 @@
+package com.example.backend.service.search;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.miscellaneous.ASCIIFoldingFilter;
+import org.apache.lucene.analysis.miscellaneous.PerFieldAnalyzerWrapper;
+import org.apache.lucene.analysis.ngram.NGramTokenFilter;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause.Occur;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.ConstantScoreQuery;
+import org.apache.lucene.search.FuzzyQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermInSetQuery;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.BytesRef;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.backend.entity.Document;
+import com.example.backend.entity.DocumentText;
+import com.example.backend.repository.DocumentRepository;
+import com.example.backend.repository.DocumentTextRepository;
+import com.example.backend.util.AppLogger;
+import com.example.backend.util.TextCompressor;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Embedded Lucene index over the short text fields of documents (supplier,
+ * numéro de pièce, catégorie, original filename), replacing LIKE '%x%' scans,
+ * and over the text extracted from their files. Fields are indexed as
+ * lowercased, accent-folded words for exact, prefix and fuzzy matches; the
+ * short fields are also indexed as trigrams for matches inside a word.
+ *
+ * The database stays the source of truth: changes are applied after the
+ * surrounding transaction commits, and the index is rebuilt at startup when
+ * its document count no longer matches the table. Each node keeps its own
+ * index, so {@link #catchUp()} periodically re-indexes rows changed on other
+ * nodes, and the instant it has caught up to is stored with every commit.
+ */
+@Service
+public class DocumentSearchIndex {
+
+    public enum SearchField {
+        FOURNISSEUR("fournisseur", true),
+        NUMERO_PIECE("numeroPiece", true),
+        CATEGORIE("categorie", true),
+        NOM_FICHIER("nomFichier", true),
+        // Trigrams of whole documents would dwarf the rest of the index
+        CONTENU("contenu", false);
+
+        private final String name;
+        private final boolean grams;
+
+        SearchField(String name, boolean grams) {
+            this.name = name;
+            this.grams = grams;
+        }
+    }
+
+    public static final Set<SearchField> METADATA_FIELDS = EnumSet.of(
+            SearchField.FOURNISSEUR, SearchField.NUMERO_PIECE, SearchField.CATEGORIE, SearchField.NOM_FICHIER);
+
+    /** Matching document ids in relevance order, with the total number of matches. */
+    public record Hits(List<Long> ids, long total) {
+    }
+
+    /**
+     * Ids the index matches, and the instant from which rows changed on other
+     * nodes may be missing from it. Every matching row is either in ids or
+     * was updated at or after changedSince.
+     */
+    public record Candidates(List<Long> ids, LocalDateTime changedSince) {
+    }
+
+    private static final String ID = "id";
+    private static final String SOCIETE = "societe";
+    private static final String GRAMS = "_grams";
+    private static final int GRAM = 3;
+    private static final int FUZZY_MIN_LENGTH = 4;
+    private static final int REBUILD_PAGE_SIZE = 500;
+    private static final String SYNCED_UNTIL = "syncedUntil";
+
+    private final DocumentRepository documentRepository;
+    private final DocumentTextRepository documentTextRepository;
+    private final int maxHits;
+    private final int maxFilterIds;
+    private final long syncMarginSeconds;
+    /** Rows updated before this instant, on any node, are indexed; null until known. */
+    private volatile LocalDateTime syncedUntil;
+    private final Analyzer wordAnalyzer = new WordAnalyzer();
+    private final Directory directory;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+
+    public DocumentSearchIndex(
+            DocumentRepository documentRepository,
+            DocumentTextRepository documentTextRepository,
+            @Value("${app.search.index-dir:search-index}") String indexDir,
+            @Value("${app.search.max-hits:5000}") int maxHits,
+            @Value("${app.search.max-filter-ids:1000}") int maxFilterIds,
+            @Value("${app.search.sync-margin-seconds:60}") long syncMarginSeconds) throws IOException {
+        this.documentRepository = documentRepository;
+        this.documentTextRepository = documentTextRepository;
+        this.maxHits = maxHits;
+        this.maxFilterIds = maxFilterIds;
+        this.syncMarginSeconds = syncMarginSeconds;
+
+        Map<String, Analyzer> gramFields = new HashMap<>();
+        Analyzer gramAnalyzer = new GramAnalyzer();
+        for (SearchField field : METADATA_FIELDS) {
+            gramFields.put(field.name + GRAMS, gramAnalyzer);
+        }
+        this.directory = FSDirectory.open(Paths.get(indexDir));
+        this.writer = new IndexWriter(directory,
+                new IndexWriterConfig(new PerFieldAnalyzerWrapper(wordAnalyzer, gramFields)));
+        this.searcherManager = new SearcherManager(writer, null);
+        Iterable<Map.Entry<String, String>> commitData = writer.getLiveCommitData();
+        if (commitData != null) {
+            for (Map.Entry<String, String> entry : commitData) {
+                if (SYNCED_UNTIL.equals(entry.getKey())) {
+                    this.syncedUntil = LocalDateTime.parse(entry.getValue());
+                }
+            }
+        }
+    }
+
+    /** Indexes (or re-indexes) the document once the current transaction commits. */
+    public void indexAfterCommit(Document document) {
+        indexAfterCommit(document, null);
+    }
+
+    /** Same, including the text extracted from the document's file. */
+    public void indexAfterCommit(Document document, String contenu) {
+        org.apache.lucene.document.Document entry = toEntry(document, contenu);
+        Term id = new Term(ID, document.getId().toString());
+        afterCommit(() -> writer.updateDocument(id, entry));
+    }
+
+    public void removeAfterCommit(Long documentId) {
+        Term id = new Term(ID, documentId.toString());
+        afterCommit(() -> writer.deleteDocuments(id));
+    }
+
+    /**
+     * Finds documents whose given fields match every word of the text. Words
+     * match exactly, as a prefix, inside another word (three letters or more,
+     * metadata fields only) and, when {@code fuzzy} is set, with one or two typos.
+     *
+     * @param societeIds restricts the results to these societes; null for no restriction
+     */
+    public Hits search(String text, Set<SearchField> fields, boolean fuzzy, Collection<Long> societeIds,
+            int offset, int limit) {
+        Query query = buildQuery(text, fields, fuzzy, societeIds);
+        int end = Math.min(offset + limit, maxHits);
+        if (query == null || offset >= end) {
+            return new Hits(List.of(), 0);
+        }
+
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                TopDocs top = searcher.search(query, end);
+                List<Long> ids = new ArrayList<>();
+                for (int i = offset; i < top.scoreDocs.length; i++) {
+                    ScoreDoc hit = top.scoreDocs[i];
+                    ids.add(Long.valueOf(searcher.storedFields().document(hit.doc, Set.of(ID)).get(ID)));
+                }
+                return new Hits(ids, Math.min(searcher.count(query), maxHits));
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Ids of all documents matching the text, without fuzzy matching. */
+    public List<Long> matchingIds(String text, Set<SearchField> fields) {
+        Query query = buildQuery(text, fields, false, null);
+        return query == null ? List.of() : collectIds(query, Integer.MAX_VALUE).orElseThrow();
+    }
+
+    /**
+     * Candidates for narrowing a LIKE filter to the documents of the given
+     * societes, without fuzzy matching. Empty when the index cannot help: it
+     * has not caught up with the database yet, or more than
+     * {@code app.search.max-filter-ids} documents match.
+     *
+     * @param societeIds restricts the results to these societes; null for no restriction
+     */
+    public Optional<Candidates> candidates(String text, Set<SearchField> fields, Collection<Long> societeIds) {
+        LocalDateTime changedSince = syncedUntil;
+        Query query = buildQuery(text, fields, false, societeIds);
+        if (changedSince == null || query == null) {
+            return Optional.empty();
+        }
+        return collectIds(query, maxFilterIds).map(ids -> new Candidates(ids, changedSince));
+    }
+
+    /** Every id the query matches, or empty when there are more than the limit. */
+    private Optional<List<Long>> collectIds(Query query, int limit) {
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                Query unscored = new ConstantScoreQuery(query);
+                int count = searcher.count(unscored);
+                if (count > limit) {
+                    return Optional.empty();
+                }
+                if (count == 0) {
+                    return Optional.of(List.of());
+                }
+                TopDocs top = searcher.search(unscored, count);
+                List<Long> ids = new ArrayList<>(top.scoreDocs.length);
+                for (ScoreDoc hit : top.scoreDocs) {
+                    ids.add(Long.valueOf(searcher.storedFields().document(hit.doc, Set.of(ID)).get(ID)));
+                }
+                return Optional.of(ids);
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Whether the index finds the text anywhere inside a field value, as
+     * LIKE '%text%' would. Words shorter than a trigram only match at the start
+     * of a word, so callers fall back to LIKE for them.
+     */
+    public boolean matchesInsideWords(String text) {
+        List<String> words = analyze(text);
+        return !words.isEmpty() && words.stream().allMatch(word -> word.length() >= GRAM);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfStale() {
+        long indexed = writer.getDocStats().numDocs;
+        long stored = documentRepository.count();
+        if (indexed != stored || syncedUntil == null) {
+            AppLogger.info("[Search] Index holds {} documents, database {}: rebuilding", indexed, stored);
+            rebuild();
+        }
+    }
+
+    public synchronized void rebuild() {
+        try {
+            LocalDateTime started = syncPoint();
+            writer.deleteAll();
+            int count = 0;
+            Page<Document> page;
+            int number = 0;
+            do {
+                page = documentRepository.findAll(PageRequest.of(number++, REBUILD_PAGE_SIZE, Sort.by("id")));
+                count += reindex(page.getContent());
+            } while (page.hasNext());
+            markSynced(started);
+            writer.commit();
+            searcherManager.maybeRefreshBlocking();
+            AppLogger.info("[Search] Rebuilt index with {} documents", count);
+        } catch (IOException e) {
+            AppLogger.error("[Search] Index rebuild failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Re-indexes the rows updated since the index last caught up, wherever they
+     * were changed. Rows whose transaction was still open at the previous pass
+     * are covered by app.search.sync-margin-seconds, which must also exceed the
+     * clock skew between nodes. Returns how many were re-indexed.
+     */
+    public synchronized int catchUp() throws IOException {
+        LocalDateTime since = syncedUntil;
+        if (since == null) {
+            // Not rebuilt yet
+            return 0;
+        }
+        LocalDateTime started = syncPoint();
+        int count = 0;
+        Page<Document> page;
+        int number = 0;
+        do {
+            page = documentRepository.findByUpdatedAtGreaterThanEqual(since,
+                    PageRequest.of(number++, REBUILD_PAGE_SIZE, Sort.by("id")));
+            count += reindex(page.getContent());
+        } while (page.hasNext());
+        markSynced(started);
+        searcherManager.maybeRefresh();
+        return count;
+    }
+
+    private LocalDateTime syncPoint() {
+        return LocalDateTime.now().minusSeconds(syncMarginSeconds);
+    }
+
+    /** Stored with the next commit, so a restart resumes from there. */
+    private void markSynced(LocalDateTime until) {
+        writer.setLiveCommitData(Map.of(SYNCED_UNTIL, until.toString()).entrySet());
+        syncedUntil = until;
+    }
+
+    private int reindex(List<Document> documents) throws IOException {
+        Map<Long, DocumentText> texts = new HashMap<>();
+        documentTextRepository.findAllById(documents.stream().map(Document::getId).toList())
+                .forEach(text -> texts.put(text.getDocumentId(), text));
+        for (Document document : documents) {
+            DocumentText text = texts.get(document.getId());
+            String contenu = text != null && text.getContenu() != null
+                    ? TextCompressor.decompress(text.getContenu())
+                    : null;
+            writer.updateDocument(new Term(ID, document.getId().toString()), toEntry(document, contenu));
+        }
+        return documents.size();
+    }
+
+    /**
+     * Makes pending changes durable. Searches see them as soon as they are
+     * applied; committing is only needed to survive a restart.
+     */
+    public void commit() throws IOException {
+        if (writer.hasUncommittedChanges()) {
+            writer.commit();
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    private org.apache.lucene.document.Document toEntry(Document document, String contenu) {
+        org.apache.lucene.document.Document entry = new org.apache.lucene.document.Document();
+        entry.add(new StringField(ID, document.getId().toString(), Field.Store.YES));
+        entry.add(new StringField(SOCIETE, document.getSociete().getId().toString(), Field.Store.NO));
+        addText(entry, SearchField.FOURNISSEUR, document.getFournisseur());
+        addText(entry, SearchField.NUMERO_PIECE, document.getNumeroPiece());
+        addText(entry, SearchField.CATEGORIE, document.getCategorieComptable());
+        addText(entry, SearchField.NOM_FICHIER, document.getNomFichierOriginal());
+        addText(entry, SearchField.CONTENU, contenu);
+        return entry;
+    }
+
+    private void addText(org.apache.lucene.document.Document entry, SearchField field, String value) {
+        if (value != null && !value.isBlank()) {
+            entry.add(new TextField(field.name, value, Field.Store.NO));
+            if (field.grams) {
+                entry.add(new TextField(field.name + GRAMS, value, Field.Store.NO));
+            }
+        }
+    }
+
+    private Query buildQuery(String text, Set<SearchField> fields, boolean fuzzy, Collection<Long> societeIds) {
+        List<String> words = analyze(text);
+        if (words.isEmpty() || fields.isEmpty()) {
+            return null;
+        }
+
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        for (String word : words) {
+            BooleanQuery.Builder anyField = new BooleanQuery.Builder();
+            for (SearchField field : fields) {
+                Term term = new Term(field.name, word);
+                anyField.add(new BoostQuery(new TermQuery(term), 4f), Occur.SHOULD);
+                anyField.add(new BoostQuery(new PrefixQuery(term), 2f), Occur.SHOULD);
+                if (field.grams && word.length() >= GRAM) {
+                    anyField.add(infixQuery(field, word), Occur.SHOULD);
+                }
+                if (fuzzy && word.length() >= FUZZY_MIN_LENGTH) {
+                    anyField.add(new FuzzyQuery(term, word.length() >= 8 ? 2 : 1), Occur.SHOULD);
+                }
+            }
+            query.add(anyField.build(), Occur.MUST);
+        }
+
+        if (societeIds != null) {
+            List<BytesRef> societes = societeIds.stream().map(id -> new BytesRef(id.toString())).toList();
+            query.add(new TermInSetQuery(SOCIETE, societes), Occur.FILTER);
+        }
+        return query.build();
+    }
+
+    /** All trigrams of the word must appear in the field. */
+    private Query infixQuery(SearchField field, String word) {
+        BooleanQuery.Builder grams = new BooleanQuery.Builder();
+        for (int i = 0; i + GRAM <= word.length(); i++) {
+            grams.add(new TermQuery(new Term(field.name + GRAMS, word.substring(i, i + GRAM))), Occur.MUST);
+        }
+        return grams.build();
+    }
+
+    private List<String> analyze(String text) {
+        List<String> words = new ArrayList<>();
+        if (text == null) {
+            return words;
+        }
+        try (TokenStream stream = wordAnalyzer.tokenStream("", text)) {
+            CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) {
+                words.add(term.toString());
+            }
+            stream.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return words;
+    }
+
+    private interface IndexChange {
+        void apply() throws IOException;
+    }
+
+    private void afterCommit(IndexChange change) {
+        Runnable task = () -> {
+            try {
+                change.apply();
+                searcherManager.maybeRefresh();
+            } catch (IOException | RuntimeException e) {
+                // The startup consistency check repairs the index
+                AppLogger.error("[Search] Index update failed: {}", e.getMessage());
+            }
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            task.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                task.run();
+            }
+        });
+    }
+
+    /** Lowercased, accent-folded words. */
+    private static class WordAnalyzer extends Analyzer {
+        @Override
+        protected TokenStreamComponents createComponents(String fieldName) {
+            Tokenizer tokenizer = new StandardTokenizer();
+            TokenStream stream = new ASCIIFoldingFilter(new LowerCaseFilter(tokenizer));
+            return new TokenStreamComponents(tokenizer, stream);
+        }
+    }
+
+    /** Trigrams of each lowercased, accent-folded word. */
+    private static class GramAnalyzer extends Analyzer {
+        @Override
+        protected TokenStreamComponents createComponents(String fieldName) {
+            Tokenizer tokenizer = new StandardTokenizer();
+            TokenStream stream = new ASCIIFoldingFilter(new LowerCaseFilter(tokenizer));
+            return new TokenStreamComponents(tokenizer, new NGramTokenFilter(stream, GRAM, GRAM, false));
+        }
+    }
+}
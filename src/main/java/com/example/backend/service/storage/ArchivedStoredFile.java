@@ -0,0 +1,80 @@
+package com.example.backend.service.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import com.example.backend.contract.StoredFile;
+
+/**
+ * {@link StoredFile} for a document packed into a cold-tier archive. The entry
+ * is inflated on the fly; ranges are served by skipping through the stream, so
+ * this is meant for the occasional read, not for hot documents.
+ */
+public class ArchivedStoredFile implements StoredFile {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final ZipFile zip;
+    private final ZipEntry entry;
+
+    public ArchivedStoredFile(Path pack, String entryName) throws IOException {
+        this.zip = new ZipFile(pack.toFile());
+        this.entry = zip.getEntry(entryName);
+        if (entry == null) {
+            zip.close();
+            throw new NoSuchFileException(pack + "!" + entryName);
+        }
+    }
+
+    @Override
+    public long size() {
+        return entry.getSize();
+    }
+
+    @Override
+    public long lastModified() {
+        return entry.getTime();
+    }
+
+    @Override
+    public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+        long end = Math.min(size(), position + count);
+        if (position >= end) {
+            return 0;
+        }
+
+        try (InputStream in = zip.getInputStream(entry)) {
+            in.skipNBytes(position);
+            byte[] buffer = new byte[BUFFER_SIZE];
+            long remaining = end - position;
+            while (remaining > 0) {
+                int read = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                if (read == -1) {
+                    break;
+                }
+                ByteBuffer chunk = ByteBuffer.wrap(buffer, 0, read);
+                while (chunk.hasRemaining()) {
+                    target.write(chunk);
+                }
+                remaining -= read;
+            }
+            return end - position - remaining;
+        }
+    }
+
+    @Override
+    public InputStream newInputStream() throws IOException {
+        return zip.getInputStream(entry);
+    }
+
+    @Override
+    public void close() throws IOException {
+        zip.close();
+    }
+}
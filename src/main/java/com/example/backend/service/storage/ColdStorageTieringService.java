@@ -0,0 +1,326 @@
+package com.example.backend.service.storage;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.Year;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.example.backend.contract.ColdStorageTieringContract;
+import com.example.backend.contract.FileStorageService;
+import com.example.backend.contract.StoredFile;
+import com.example.backend.dto.StoredFileInfo;
+import com.example.backend.entity.Document;
+import com.example.backend.exception.BusinessException;
+import com.example.backend.exception.ResourceNotFoundException;
+import com.example.backend.repository.DocumentRepository;
+import com.example.backend.service.DocumentDescriptorCache;
+import com.example.backend.util.AppLogger;
+import com.example.backend.util.FileHelper;
+
+/**
+ * Moves validated documents of closed fiscal years into compressed packs, one
+ * ZIP per (societe, exercice) and run, under uploads/documents/archive/. The
+ * pack's central directory is the index; documents point at their entry
+ * through an archive locator, which {@link TieredFileStorageService} resolves.
+ * {@link #rehydrate} brings a single document back to the hot tier.
+ */
+@Service
+public class ColdStorageTieringService implements ColdStorageTieringContract {
+
+    private static final Path DEFAULT_ARCHIVE_DIR = Paths.get("uploads/documents/", "archive");
+    private static final DateTimeFormatter PACK_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final DocumentRepository documentRepository;
+    private final FileStorageService fileStorageService;
+    private final DocumentDescriptorCache descriptorCache;
+    private final TransactionTemplate transactionTemplate;
+    private final Path archiveDir;
+    private final int minAgeYears;
+    private final int batchSize;
+
+    @Autowired
+    public ColdStorageTieringService(
+            DocumentRepository documentRepository,
+            FileStorageService fileStorageService,
+            DocumentDescriptorCache descriptorCache,
+            TransactionTemplate transactionTemplate,
+            @Value("${app.storage.tiering.min-age-years:1}") int minAgeYears,
+            @Value("${app.storage.tiering.batch-size:5000}") int batchSize) {
+        this(documentRepository, fileStorageService, descriptorCache, transactionTemplate, DEFAULT_ARCHIVE_DIR,
+                minAgeYears, batchSize);
+    }
+
+    ColdStorageTieringService(DocumentRepository documentRepository, FileStorageService fileStorageService,
+            DocumentDescriptorCache descriptorCache, TransactionTemplate transactionTemplate, Path archiveDir,
+            int minAgeYears, int batchSize) {
+        this.documentRepository = documentRepository;
+        this.fileStorageService = fileStorageService;
+        this.descriptorCache = descriptorCache;
+        this.transactionTemplate = transactionTemplate;
+        this.archiveDir = archiveDir;
+        this.minAgeYears = minAgeYears;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Packs up to one batch of eligible documents.
+     *
+     * @return number of documents moved to the cold tier
+     */
+    @Override
+    public int archiveClosedYears() {
+        int lastClosedYear = Year.now().getValue() - minAgeYears;
+        List<Document> candidates = documentRepository.findColdTierCandidates(
+                Document.StatutDocument.VALIDE,
+                Document.StatutStockage.STORED,
+                lastClosedYear,
+                PageRequest.of(0, batchSize));
+
+        Map<PackKey, List<Document>> groups = new LinkedHashMap<>();
+        for (Document document : candidates) {
+            PackKey key = new PackKey(document.getSociete().getId(), document.getExerciceComptable());
+            groups.computeIfAbsent(key, k -> new ArrayList<>()).add(document);
+        }
+
+        int archived = 0;
+        for (Map.Entry<PackKey, List<Document>> group : groups.entrySet()) {
+            try {
+                archived += pack(group.getKey(), group.getValue());
+            } catch (IOException | RuntimeException e) {
+                AppLogger.error("[Tiering] Packing societe {} / exercice {} failed: {}",
+                        group.getKey().societeId(), group.getKey().exercice(), e.getMessage());
+            }
+        }
+        return archived;
+    }
+
+    private int pack(PackKey key, List<Document> documents) throws IOException {
+        Path dir = archiveDir.resolve("client").resolve(String.valueOf(key.societeId()))
+                .resolve("year").resolve(String.valueOf(key.exercice()));
+        Files.createDirectories(dir);
+        Path pack = dir.resolve("pack-" + LocalDateTime.now().format(PACK_TIMESTAMP) + ".zip");
+        Path temp = dir.resolve(pack.getFileName() + StagedFiles.SUFFIX);
+
+        // documentId → path it had when packed, for the ones that made it in
+        Map<Long, String> packed = new LinkedHashMap<>();
+        Map<Long, String> entryNames = new LinkedHashMap<>();
+        try (ZipOutputStream zip = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            zip.setLevel(Deflater.BEST_COMPRESSION);
+            WritableByteChannel channel = Channels.newChannel(zip);
+
+            for (Document document : documents) {
+                StoredFile file;
+                try {
+                    file = fileStorageService.open(document.getCheminFichier());
+                } catch (BusinessException e) {
+                    AppLogger.warn("[Tiering] Skipping document {}: {}", document.getId(), e.getMessage());
+                    continue;
+                }
+                try (file) {
+                    String entryName = document.getId() + "."
+                            + FileHelper.getFileExtension(document.getNomFichierOriginal());
+                    ZipEntry entry = new ZipEntry(entryName);
+                    entry.setTime(file.lastModified());
+                    zip.putNextEntry(entry);
+                    file.transferTo(0, file.size(), channel);
+                    zip.closeEntry();
+                    packed.put(document.getId(), document.getCheminFichier());
+                    entryNames.put(document.getId(), entryName);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+
+        if (packed.isEmpty()) {
+            Files.deleteIfExists(temp);
+            return 0;
+        }
+        StagedFiles.force(temp);
+        Files.move(temp, pack, StandardCopyOption.ATOMIC_MOVE);
+
+        // Re-point documents; one whose file changed while packing keeps its current path
+        List<String> released = transactionTemplate.execute(status -> {
+            List<String> paths = new ArrayList<>();
+            packed.forEach((id, originalPath) -> documentRepository.findById(id)
+                    .filter(document -> originalPath.equals(document.getCheminFichier()))
+                    .ifPresent(document -> {
+                        document.setCheminFichier(TieredFileStorageService.archiveLocator(pack, entryNames.get(id)));
+                        paths.add(originalPath);
+                    }));
+            return paths;
+        });
+
+        packed.keySet().forEach(descriptorCache::evict);
+        for (String path : released) {
+            try {
+                fileStorageService.delete(path);
+            } catch (BusinessException e) {
+                AppLogger.warn("[Tiering] Could not remove hot copy {}: {}", path, e.getMessage());
+            }
+        }
+
+        AppLogger.info("[Tiering] Packed {} document(s) of societe {} / exercice {} into {}",
+                released.size(), key.societeId(), key.exercice(), pack);
+        return released.size();
+    }
+
+    /**
+     * Copies an archived document back to the hot backend, re-points it and
+     * removes its pack entry. A document re-pointed meanwhile is left alone.
+     *
+     * @return whether the document was moved back to the hot tier
+     */
+    @Override
+    public boolean rehydrate(Long documentId) {
+        Document document = documentRepository.findById(documentId)
+                .orElseThrow(() -> new ResourceNotFoundException("Document", documentId.toString()));
+        String locator = document.getCheminFichier();
+        if (!TieredFileStorageService.isArchived(locator)) {
+            return false;
+        }
+
+        StoredFileInfo staged = fileStorageService.stage(new ArchivedEntry(locator, document.getNomFichierOriginal()));
+        Boolean repointed;
+        try {
+            repointed = transactionTemplate.execute(status -> documentRepository.findById(documentId)
+                    .filter(current -> locator.equals(current.getCheminFichier()))
+                    .map(current -> {
+                        StoredFileInfo hot = fileStorageService.promote(staged,
+                                current.getSociete().getId(), current.getExerciceComptable());
+                        current.setCheminFichier(hot.path());
+                        return true;
+                    })
+                    .orElse(false));
+        } catch (RuntimeException e) {
+            fileStorageService.delete(staged.path());
+            throw e;
+        }
+        if (!Boolean.TRUE.equals(repointed)) {
+            fileStorageService.delete(staged.path());
+            return false;
+        }
+
+        descriptorCache.evict(documentId);
+        try {
+            fileStorageService.delete(locator);
+        } catch (BusinessException e) {
+            AppLogger.warn("[Tiering] Could not remove archived copy {}: {}", locator, e.getMessage());
+        }
+        AppLogger.info("[Tiering] Rehydrated document {} from {}", documentId, locator);
+        return true;
+    }
+
+    private record PackKey(Long societeId, Integer exercice) {
+    }
+
+    /** A pack entry presented as an upload, so the hot backend stages it like any other file. */
+    private static final class ArchivedEntry implements MultipartFile {
+
+        private final String locator;
+        private final String originalFilename;
+
+        ArchivedEntry(String locator, String originalFilename) {
+            this.locator = locator;
+            this.originalFilename = originalFilename;
+        }
+
+        @Override
+        public String getName() {
+            return "file";
+        }
+
+        @Override
+        public String getOriginalFilename() {
+            return originalFilename;
+        }
+
+        @Override
+        public String getContentType() {
+            return null;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return getSize() == 0;
+        }
+
+        @Override
+        public long getSize() {
+            try (ZipFile zip = new ZipFile(TieredFileStorageService.packOf(locator).toFile())) {
+                return entry(zip).getSize();
+            } catch (IOException e) {
+                throw new BusinessException("FILE_READ_ERROR", e.getMessage());
+            }
+        }
+
+        @Override
+        public byte[] getBytes() throws IOException {
+            try (InputStream in = getInputStream()) {
+                return in.readAllBytes();
+            }
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            ZipFile zip = new ZipFile(TieredFileStorageService.packOf(locator).toFile());
+            try {
+                return new FilterInputStream(zip.getInputStream(entry(zip))) {
+                    @Override
+                    public void close() throws IOException {
+                        try {
+                            super.close();
+                        } finally {
+                            zip.close();
+                        }
+                    }
+                };
+            } catch (IOException | RuntimeException e) {
+                zip.close();
+                throw e;
+            }
+        }
+
+        @Override
+        public void transferTo(File dest) throws IOException {
+            try (InputStream in = getInputStream()) {
+                Files.copy(in, dest.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+
+        private ZipEntry entry(ZipFile zip) throws IOException {
+            ZipEntry entry = zip.getEntry(TieredFileStorageService.entryOf(locator));
+            if (entry == null) {
+                throw new NoSuchFileException(locator);
+            }
+            return entry;
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.example.backend.service.storage;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.example.backend.contract.FileStorageService;
+import com.example.backend.contract.StoredFile;
+import com.example.backend.dto.StoredFileInfo;
+import com.example.backend.exception.BusinessException;
+import com.example.backend.repository.StorageBlobRepository;
+import com.example.backend.util.AppLogger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Deduplicating storage: every file is stored once under its SHA-256
+ * (uploads/documents/cas/ab/cd/abcd…), and documents with identical content share
+ * the same blob. Reference counts live in storage_blobs and are updated inside
+ * the caller's transaction; filesystem changes are applied after commit so a
+ * concurrent upload and purge of the same content can never leave a document
+ * pointing at a deleted blob.
+ *
+ * Paths outside the cas/ tree (files written by {@link LocalFileStorageService}
+ * before switching backend) are still readable and deletable.
+ */
+@Service
+@Qualifier(TieredFileStorageService.BACKEND)
+@ConditionalOnProperty(name = "app.storage.backend", havingValue = "cas")
+public class ContentAddressedFileStorageService implements FileStorageService {
+
+    private static final Path DEFAULT_ROOT_DIR = Paths.get("uploads/documents/", "cas");
+    private static final int LOCK_STRIPES = 64;
+
+    private final StorageBlobRepository blobRepository;
+    private final Path rootDir;
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    @Autowired
+    public ContentAddressedFileStorageService(StorageBlobRepository blobRepository) {
+        this(blobRepository, DEFAULT_ROOT_DIR);
+    }
+
+    ContentAddressedFileStorageService(StorageBlobRepository blobRepository, Path rootDir) {
+        this.blobRepository = blobRepository;
+        this.rootDir = rootDir;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    @Override
+    public StoredFileInfo stage(MultipartFile file) {
+        try {
+            return StagedFiles.write(rootDir.resolve("tmp"), file);
+        } catch (IOException e) {
+            throw new BusinessException("FILE_SAVE_ERROR", e.getMessage());
+        }
+    }
+
+    /**
+     * The blob is named from the digest computed while staging, so promotion
+     * never reads the content again. Inside a transaction the reference rolls
+     * back with it; in a connection-less scope (StoragePromotionService) it is
+     * taken at once and given back if the scope rolls back.
+     */
+    @Override
+    public StoredFileInfo promote(StoredFileInfo staged, Long clientId, Integer year) {
+        try {
+            Path temp = Paths.get(staged.path());
+            String hash = staged.checksumSha256();
+            Path target = blobPath(hash);
+
+            StagedFiles.force(temp);
+            boolean transactional = TransactionSynchronizationManager.isActualTransactionActive();
+            blobRepository.incrementReference(hash, staged.size());
+            Runnable releaseReference = transactional ? () -> {
+            } : () -> blobRepository.decrementReference(hash);
+            placeBlob(hash, temp, target, releaseReference);
+
+            return new StoredFileInfo(target.toString(), staged.size(), hash, staged.typeMime());
+
+        } catch (IOException e) {
+            throw new BusinessException("FILE_SAVE_ERROR", e.getMessage());
+        }
+    }
+
+    @Override
+    public byte[] read(String path) {
+        try {
+            return Files.readAllBytes(Paths.get(path));
+        } catch (IOException e) {
+            throw new BusinessException("FILE_READ_ERROR", e.getMessage());
+        }
+    }
+
+    @Override
+    public StoredFile open(String path) {
+        try {
+            return new PathStoredFile(Paths.get(path));
+        } catch (IOException e) {
+            throw new BusinessException("FILE_READ_ERROR", e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean exists(String path) {
+        return Files.exists(Paths.get(path));
+    }
+
+    @Override
+    public void delete(String path) {
+        String hash = hashOf(path);
+        if (hash == null) {
+            try {
+                Files.deleteIfExists(Paths.get(path));
+            } catch (IOException e) {
+                throw new BusinessException("FILE_DELETE_ERROR", e.getMessage());
+            }
+            return;
+        }
+
+        blobRepository.decrementReference(hash);
+        StagedFiles.afterCompletion(() -> deleteIfUnreferenced(hash), () -> {
+        });
+    }
+
+    /**
+     * Puts the freshly written temp file in place. The temp file is kept until
+     * commit either way: on rollback the document still points at it. When the
+     * blob already exists it also covers a concurrent purge that removes the
+     * blob before this transaction commits.
+     */
+    private void placeBlob(String hash, Path temp, Path target, Runnable releaseReference) throws IOException {
+        synchronized (lockFor(hash)) {
+            if (!Files.exists(target)) {
+                Files.createDirectories(target.getParent());
+                StagedFiles.link(temp, target);
+                StagedFiles.afterCompletion(() -> deleteQuietly(temp), () -> {
+                    releaseReference.run();
+                    deleteIfUnreferenced(hash);
+                });
+                return;
+            }
+        }
+
+        AppLogger.debug("[CAS] Deduplicated upload onto existing blob {}", hash);
+        StagedFiles.afterCompletion(() -> {
+            synchronized (lockFor(hash)) {
+                try {
+                    if (!Files.exists(target)) {
+                        Files.createDirectories(target.getParent());
+                        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                    } else {
+                        Files.deleteIfExists(temp);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }, releaseReference);
+    }
+
+    private void deleteIfUnreferenced(String hash) {
+        synchronized (lockFor(hash)) {
+            int references = blobRepository.findRefCount(hash).orElse(0);
+            if (references > 0) {
+                return;
+            }
+            deleteQuietly(blobPath(hash));
+            AppLogger.info("[CAS] Removed unreferenced blob {}", hash);
+        }
+    }
+
+    private Path blobPath(String hash) {
+        return rootDir.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+
+    /** Returns the hash encoded in a blob path, or null for paths outside the cas/ tree. */
+    private String hashOf(String path) {
+        Path p = Paths.get(path).normalize();
+        if (!p.startsWith(rootDir) || p.getNameCount() != rootDir.getNameCount() + 3) {
+            return null;
+        }
+        String name = p.getFileName().toString();
+        return name.length() == 64 ? name : null;
+    }
+
+    private Object lockFor(String hash) {
+        return locks[Math.floorMod(hash.hashCode(), LOCK_STRIPES)];
+    }
+
+    private void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            AppLogger.warn("[CAS] Could not delete {}: {}", path, e.getMessage());
+        }
+    }
+}
@@ -1,44 +1,70 @@
 package com.example.backend.service.storage;
 
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.example.backend.contract.FileStorageService;
+import com.example.backend.contract.StoredFile;
+import com.example.backend.dto.StoredFileInfo;
 import com.example.backend.exception.BusinessException;
-import com.example.backend.util.FileHelper;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
-import java.util.UUID;
 
 @Service
+@Qualifier(TieredFileStorageService.BACKEND)
+@ConditionalOnProperty(name = "app.storage.backend", havingValue = "local", matchIfMissing = true)
 public class LocalFileStorageService implements FileStorageService {
 
-    private static final String ROOT_DIR = "uploads/documents/";
+    private static final Path DEFAULT_ROOT_DIR = Paths.get("uploads/documents/");
+
+    private final Path rootDir;
+
+    public LocalFileStorageService() {
+        this(DEFAULT_ROOT_DIR);
+    }
+
+    LocalFileStorageService(Path rootDir) {
+        this.rootDir = rootDir;
+    }
+
+    @Override
+    public StoredFileInfo stage(MultipartFile file) {
+        try {
+            return StagedFiles.write(rootDir.resolve("staging"), file);
+        } catch (IOException e) {
+            throw new BusinessException("FILE_SAVE_ERROR", e.getMessage());
+        }
+    }
 
     @Override
-    public String save(MultipartFile file, Long clientId, Integer year) {
+    public StoredFileInfo promote(StoredFileInfo staged, Long clientId, Integer year) {
         try {
             // uploads/documents/client/{id}/year/{year}/
-            Path uploadPath = Paths.get(
-                    ROOT_DIR,
-                    "client",
-                    String.valueOf(clientId),
-                    "year",
-                    String.valueOf(year));
+            Path uploadPath = rootDir
+                    .resolve("client")
+                    .resolve(String.valueOf(clientId))
+                    .resolve("year")
+                    .resolve(String.valueOf(year));
 
             Files.createDirectories(uploadPath);
 
-            String extension = FileHelper.getFileExtension(file.getOriginalFilename());
-            String filename = UUID.randomUUID() + "." + extension;
+            Path source = Paths.get(staged.path());
+            Path filePath = uploadPath.resolve(StagedFiles.finalName(source));
 
-            Path filePath = uploadPath.resolve(filename);
-            Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
+            StagedFiles.force(source);
+            // Left over by an attempt that crashed before its transaction committed
+            Files.deleteIfExists(filePath);
+            StagedFiles.link(source, filePath);
+            StagedFiles.afterCompletion(
+                    () -> StagedFiles.deleteQuietly(source),
+                    () -> StagedFiles.deleteQuietly(filePath));
 
-            return filePath.toString();
+            return new StoredFileInfo(filePath.toString(), staged.size(), staged.checksumSha256(), staged.typeMime());
 
         } catch (IOException e) {
             throw new BusinessException("FILE_SAVE_ERROR", e.getMessage());
@@ -54,6 +80,20 @@ public class LocalFileStorageService implements FileStorageService {
         }
     }
 
+    @Override
+    public StoredFile open(String path) {
+        try {
+            return new PathStoredFile(Paths.get(path));
+        } catch (IOException e) {
+            throw new BusinessException("FILE_READ_ERROR", e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean exists(String path) {
+        return Files.exists(Paths.get(path));
+    }
+
     @Override
     public void delete(String path) {
         try {
@@ -64,4 +104,4 @@ public class LocalFileStorageService implements FileStorageService {
     }
 
     
-}
\ No newline at end of file
+}
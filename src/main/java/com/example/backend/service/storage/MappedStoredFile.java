@@ -0,0 +1,99 @@
+package com.example.backend.service.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+
+import com.example.backend.contract.StoredFile;
+
+/**
+ * {@link StoredFile} over a slice of a memory-mapped pack segment. Reads are
+ * plain memory copies; HTTP downloads can still use sendfile on the segment
+ * file at {@link #backingOffset()}.
+ */
+public class MappedStoredFile implements StoredFile {
+
+    private final ByteBuffer content;
+    private final Path segment;
+    private final long offset;
+    private final long lastModified;
+
+    public MappedStoredFile(ByteBuffer content, Path segment, long offset, long lastModified) {
+        this.content = content;
+        this.segment = segment.toAbsolutePath();
+        this.offset = offset;
+        this.lastModified = lastModified;
+    }
+
+    @Override
+    public long size() {
+        return content.capacity();
+    }
+
+    @Override
+    public long lastModified() {
+        return lastModified;
+    }
+
+    @Override
+    public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+        long end = Math.min(size(), position + count);
+        if (position >= end) {
+            return 0;
+        }
+        ByteBuffer view = content.duplicate();
+        view.limit((int) end).position((int) position);
+        long written = 0;
+        while (view.hasRemaining()) {
+            written += target.write(view);
+        }
+        return written;
+    }
+
+    /** Reads straight from the mapping, without copying the record first. */
+    @Override
+    public InputStream newInputStream() {
+        ByteBuffer view = content.duplicate();
+        return new InputStream() {
+            @Override
+            public int read() {
+                return view.hasRemaining() ? view.get() & 0xff : -1;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) {
+                if (len == 0) {
+                    return 0;
+                }
+                if (!view.hasRemaining()) {
+                    return -1;
+                }
+                int n = Math.min(len, view.remaining());
+                view.get(b, off, n);
+                return n;
+            }
+
+            @Override
+            public int available() {
+                return view.remaining();
+            }
+        };
+    }
+
+    @Override
+    public Path backingFile() {
+        return segment;
+    }
+
+    @Override
+    public long backingOffset() {
+        return offset;
+    }
+
+    @Override
+    public void close() {
+        // The mapping is shared per segment and released by the GC
+    }
+}
@@ -0,0 +1,420 @@
+package com.example.backend.service.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.example.backend.config.PackStorageConfig;
+import com.example.backend.contract.FileStorageService;
+import com.example.backend.contract.StoredFile;
+import com.example.backend.dto.StoredFileInfo;
+import com.example.backend.entity.Document;
+import com.example.backend.exception.BusinessException;
+import com.example.backend.repository.DocumentRepository;
+import com.example.backend.repository.PackSegmentRepository;
+import com.example.backend.service.DocumentDescriptorCache;
+import com.example.backend.util.AppLogger;
+
+/**
+ * Append-only storage for small files (receipts, tickets): each file becomes a
+ * record in a segment under uploads/documents/packs/, addressed as
+ * {@code pack:<segment>:<offset>:<length>} — the document row is the offset
+ * index. Reads are slices of a per-segment memory mapping, so serving a small
+ * document costs no open/stat of its own, and the tree holds a handful of
+ * segments instead of one file per receipt.
+ *
+ * Record layout: magic (4) | length (8) | SHA-256 (32) | content. Files above
+ * app.storage.pack.max-entry-kb are stored as plain files, as with the local
+ * backend. Purges count dead bytes per segment; once a sealed segment is
+ * mostly dead its live records are copied forward and the segment removed.
+ * A segment is never compacted while a promotion that appended to it has not
+ * committed yet, since its record is not visible in the document table.
+ */
+@Service
+@Qualifier(TieredFileStorageService.BACKEND)
+@ConditionalOnProperty(name = "app.storage.backend", havingValue = "pack")
+public class PackFileStorageService implements FileStorageService {
+
+    private static final Path DEFAULT_ROOT_DIR = Paths.get("uploads/documents/", "packs");
+    private static final String PREFIX = "pack:";
+    private static final int MAGIC = 0x444d504b; // "DMPK"
+    private static final int HEADER_LENGTH = 4 + 8 + 32;
+
+    private final PackSegmentRepository segmentRepository;
+    private final DocumentRepository documentRepository;
+    private final DocumentDescriptorCache descriptorCache;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor storageExecutor;
+    private final LocalFileStorageService largeFiles;
+    private final Path rootDir;
+    private final long maxEntryBytes;
+    private final long segmentMaxBytes;
+    private final int compactionThresholdPercent;
+
+    private final Object appendLock = new Object();
+    private final Object compactionLock = new Object();
+    private final Map<String, MappedByteBuffer> mappings = new ConcurrentHashMap<>();
+    /** Appends per segment whose promoting transaction has not completed yet. */
+    private final Map<String, Integer> pendingAppends = new ConcurrentHashMap<>();
+    /** Segments whose compaction was put off because of pending appends. */
+    private final Set<String> deferredCompactions = ConcurrentHashMap.newKeySet();
+    private FileChannel activeChannel;
+    private volatile String activeSegment;
+
+    @Autowired
+    public PackFileStorageService(
+            PackSegmentRepository segmentRepository,
+            DocumentRepository documentRepository,
+            DocumentDescriptorCache descriptorCache,
+            TransactionTemplate transactionTemplate,
+            @Qualifier("storageExecutor") Executor storageExecutor,
+            @Qualifier(PackStorageConfig.LARGE_FILES) LocalFileStorageService largeFiles,
+            @Value("${app.storage.pack.max-entry-kb:512}") long maxEntryKb,
+            @Value("${app.storage.pack.segment-size-mb:256}") long segmentSizeMb,
+            @Value("${app.storage.pack.compaction-threshold-percent:50}") int compactionThresholdPercent) {
+        this(segmentRepository, documentRepository, descriptorCache, transactionTemplate, storageExecutor,
+                largeFiles, DEFAULT_ROOT_DIR, maxEntryKb * 1024, checkedSegmentSize(segmentSizeMb),
+                compactionThresholdPercent);
+    }
+
+    PackFileStorageService(PackSegmentRepository segmentRepository, DocumentRepository documentRepository,
+            DocumentDescriptorCache descriptorCache, TransactionTemplate transactionTemplate,
+            Executor storageExecutor, LocalFileStorageService largeFiles, Path rootDir, long maxEntryBytes,
+            long segmentMaxBytes, int compactionThresholdPercent) {
+        this.segmentRepository = segmentRepository;
+        this.documentRepository = documentRepository;
+        this.descriptorCache = descriptorCache;
+        this.transactionTemplate = transactionTemplate;
+        this.storageExecutor = storageExecutor;
+        this.largeFiles = largeFiles;
+        this.rootDir = rootDir;
+        this.maxEntryBytes = maxEntryBytes;
+        this.segmentMaxBytes = segmentMaxBytes;
+        this.compactionThresholdPercent = compactionThresholdPercent;
+    }
+
+    private static long checkedSegmentSize(long segmentSizeMb) {
+        if (segmentSizeMb > 1024) {
+            throw new IllegalArgumentException("app.storage.pack.segment-size-mb must not exceed 1024");
+        }
+        return segmentSizeMb * 1024 * 1024;
+    }
+
+    @Override
+    public StoredFileInfo stage(MultipartFile file) {
+        try {
+            return StagedFiles.write(rootDir.resolve("tmp"), file);
+        } catch (IOException e) {
+            throw new BusinessException("FILE_SAVE_ERROR", e.getMessage());
+        }
+    }
+
+    @Override
+    public StoredFileInfo promote(StoredFileInfo staged, Long clientId, Integer year) {
+        if (staged.size() > maxEntryBytes) {
+            return largeFiles.promote(staged, clientId, year);
+        }
+
+        Path source = Paths.get(staged.path());
+        try {
+            Location location;
+            try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ)) {
+                location = append(in, 0, staged.size(), HexFormat.of().parseHex(staged.checksumSha256()), true);
+            }
+
+            // The staged file stays until commit so a rolled-back promotion can be
+            // retried; the record it leaves behind is unreferenced
+            StagedFiles.afterCompletion(() -> {
+                appendCompleted(location.segment());
+                StagedFiles.deleteQuietly(source);
+            }, () -> {
+                appendCompleted(location.segment());
+                segmentRepository.addDeadBytes(location.segment(), HEADER_LENGTH + location.length());
+            });
+
+            return new StoredFileInfo(location.toLocator(), staged.size(), staged.checksumSha256(), staged.typeMime());
+
+        } catch (IOException e) {
+            throw new BusinessException("FILE_SAVE_ERROR", e.getMessage());
+        }
+    }
+
+    @Override
+    public byte[] read(String path) {
+        if (!path.startsWith(PREFIX)) {
+            return largeFiles.read(path);
+        }
+        ByteBuffer content = slice(Location.parse(path));
+        byte[] bytes = new byte[content.remaining()];
+        content.get(bytes);
+        return bytes;
+    }
+
+    @Override
+    public StoredFile open(String path) {
+        if (!path.startsWith(PREFIX)) {
+            return largeFiles.open(path);
+        }
+        Location location = Location.parse(path);
+        try {
+            Path segment = segmentPath(location.segment());
+            return new MappedStoredFile(slice(location), segment, location.offset(),
+                    Files.getLastModifiedTime(segment).toMillis());
+        } catch (IOException e) {
+            throw new BusinessException("FILE_READ_ERROR", e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean exists(String path) {
+        if (!path.startsWith(PREFIX)) {
+            return largeFiles.exists(path);
+        }
+        Location location = Location.parse(path);
+        try {
+            Path segment = segmentPath(location.segment());
+            return Files.exists(segment) && Files.size(segment) >= location.offset() + location.length();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public void delete(String path) {
+        if (!path.startsWith(PREFIX)) {
+            largeFiles.delete(path);
+            return;
+        }
+        Location location = Location.parse(path);
+        segmentRepository.addDeadBytes(location.segment(), HEADER_LENGTH + location.length());
+        StagedFiles.afterCompletion(() -> compactInBackground(location.segment()), () -> {
+        });
+    }
+
+    /**
+     * Copies the live records of a sealed segment into the active one and
+     * removes it, once at least compaction-threshold-percent of it is dead.
+     */
+    void compactIfNeeded(String segment) {
+        synchronized (compactionLock) {
+            try {
+                Path file = segmentPath(segment);
+                if (segment.equals(activeSegment) || !Files.exists(file)) {
+                    return;
+                }
+                if (pendingAppends.containsKey(segment)) {
+                    // Retried by appendCompleted once those promotions commit or roll back
+                    deferredCompactions.add(segment);
+                    return;
+                }
+                long dead = segmentRepository.findDeadBytes(segment).orElse(0L);
+                if (dead * 100 < Files.size(file) * compactionThresholdPercent) {
+                    return;
+                }
+                compact(segment, file);
+            } catch (IOException | RuntimeException e) {
+                AppLogger.error("[PackStorage] Compaction of {} failed: {}", segment, e.getMessage());
+            }
+        }
+    }
+
+    private void compact(String segment, Path file) throws IOException {
+        List<Document> live = documentRepository.findByCheminFichierStartingWith(PREFIX + segment + ":");
+        List<Long> moved = new ArrayList<>();
+
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            for (Document document : live) {
+                String oldPath = document.getCheminFichier();
+                Location from = Location.parse(oldPath);
+                ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+                in.read(header, from.offset() - HEADER_LENGTH);
+                header.flip();
+                if (header.remaining() < HEADER_LENGTH || header.getInt() != MAGIC
+                        || header.getLong() != from.length()) {
+                    throw new IOException("No record header at " + oldPath);
+                }
+                byte[] sha256 = new byte[32];
+                header.get(sha256);
+
+                Location to = append(in, from.offset(), from.length(), sha256, false);
+                Boolean updated = transactionTemplate.execute(status -> documentRepository.findById(document.getId())
+                        .filter(current -> oldPath.equals(current.getCheminFichier()))
+                        .map(current -> {
+                            current.setCheminFichier(to.toLocator());
+                            return true;
+                        })
+                        .orElse(false));
+                if (Boolean.TRUE.equals(updated)) {
+                    moved.add(document.getId());
+                } else {
+                    segmentRepository.addDeadBytes(to.segment(), HEADER_LENGTH + to.length());
+                }
+            }
+        }
+
+        moved.forEach(descriptorCache::evict);
+        mappings.remove(segment);
+        Files.deleteIfExists(file);
+        segmentRepository.deleteById(segment);
+        AppLogger.info("[PackStorage] Compacted {}: {} live record(s) moved", segment, moved.size());
+    }
+
+    /**
+     * Appends one record to the active segment, rolling to a new one when full.
+     * A pending append holds off compaction of its segment until
+     * {@link #appendCompleted} is called.
+     */
+    private Location append(FileChannel source, long sourceOffset, long length, byte[] sha256, boolean pending)
+            throws IOException {
+        synchronized (appendLock) {
+            FileChannel channel = activeChannel(HEADER_LENGTH + length);
+            long start = channel.size();
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+            header.putInt(MAGIC).putLong(length).put(sha256).flip();
+            long position = start;
+            while (header.hasRemaining()) {
+                position += channel.write(header, position);
+            }
+
+            long copied = 0;
+            while (copied < length) {
+                long n = channel.transferFrom(source.position(sourceOffset + copied), position + copied,
+                        length - copied);
+                if (n <= 0) {
+                    throw new IOException("Source ended before " + length + " bytes were copied");
+                }
+                copied += n;
+            }
+            channel.force(false);
+
+            if (pending) {
+                pendingAppends.merge(activeSegment, 1, Integer::sum);
+            }
+            return new Location(activeSegment, start + HEADER_LENGTH, length);
+        }
+    }
+
+    private void appendCompleted(String segment) {
+        Integer remaining = pendingAppends.computeIfPresent(segment, (name, count) -> count > 1 ? count - 1 : null);
+        if (remaining == null && deferredCompactions.remove(segment)) {
+            compactInBackground(segment);
+        }
+    }
+
+    private void compactInBackground(String segment) {
+        try {
+            storageExecutor.execute(() -> compactIfNeeded(segment));
+        } catch (RejectedExecutionException e) {
+            // Checked again on the next delete from this segment
+            AppLogger.debug("[PackStorage] Pool saturated, compaction of {} skipped", segment);
+        }
+    }
+
+    private FileChannel activeChannel(long needed) throws IOException {
+        if (activeChannel == null) {
+            Files.createDirectories(rootDir);
+            int last = lastSegmentNumber();
+            openSegment(last == 0 ? 1 : last);
+        }
+        if (activeChannel.size() > 0 && activeChannel.size() + needed > segmentMaxBytes) {
+            // Seal the current segment; it becomes eligible for compaction
+            activeChannel.close();
+            openSegment(segmentNumber(activeSegment) + 1);
+        }
+        return activeChannel;
+    }
+
+    private void openSegment(int number) throws IOException {
+        activeSegment = String.format("segment-%06d.dat", number);
+        activeChannel = FileChannel.open(segmentPath(activeSegment),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    private int lastSegmentNumber() throws IOException {
+        try (Stream<Path> files = Files.list(rootDir)) {
+            return files.map(p -> p.getFileName().toString())
+                    .filter(name -> name.startsWith("segment-") && name.endsWith(".dat"))
+                    .mapToInt(PackFileStorageService::segmentNumber)
+                    .max()
+                    .orElse(0);
+        }
+    }
+
+    /**
+     * Slice of the segment's shared read-only mapping. The active segment is
+     * remapped when a read falls past the end of its current mapping. The
+     * record header in front of the slice must carry the magic and the
+     * locator's length, so a stale or corrupt locator is refused rather than
+     * served as a slice of some other record.
+     */
+    private ByteBuffer slice(Location location) {
+        long end = location.offset() + location.length();
+        MappedByteBuffer mapping = mappings.get(location.segment());
+        if (mapping == null || mapping.capacity() < end) {
+            mapping = mappings.compute(location.segment(), (segment, current) -> {
+                if (current != null && current.capacity() >= end) {
+                    return current;
+                }
+                try (FileChannel channel = FileChannel.open(segmentPath(segment), StandardOpenOption.READ)) {
+                    return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                } catch (IOException e) {
+                    throw new BusinessException("FILE_READ_ERROR", e.getMessage());
+                }
+            });
+        }
+        if (mapping.capacity() < end) {
+            throw new BusinessException("FILE_READ_ERROR", "Enregistrement hors du segment: " + location.toLocator());
+        }
+        int header = (int) location.offset() - HEADER_LENGTH;
+        if (header < 0 || mapping.getInt(header) != MAGIC || mapping.getLong(header + 4) != location.length()) {
+            throw new BusinessException("FILE_READ_ERROR", "Enregistrement de pack invalide: " + location.toLocator());
+        }
+        return mapping.slice((int) location.offset(), (int) location.length());
+    }
+
+    private Path segmentPath(String segment) {
+        return rootDir.resolve(segment);
+    }
+
+    private static int segmentNumber(String segment) {
+        return Integer.parseInt(segment.substring("segment-".length(), segment.length() - ".dat".length()));
+    }
+
+    private record Location(String segment, long offset, long length) {
+
+        static Location parse(String locator) {
+            String[] parts = locator.substring(PREFIX.length()).split(":");
+            if (parts.length != 3) {
+                throw new BusinessException("FILE_READ_ERROR", "Emplacement de pack invalide: " + locator);
+            }
+            return new Location(parts[0], Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+        }
+
+        String toLocator() {
+            return PREFIX + segment + ":" + offset + ":" + length;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.backend.service.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import com.example.backend.contract.StoredFile;
+
+/**
+ * {@link StoredFile} backed by a plain file on disk. Transfers go through
+ * {@link FileChannel#transferTo}, which the OS can turn into a zero-copy send.
+ */
+public class PathStoredFile implements StoredFile {
+
+    private final Path path;
+    private final FileChannel channel;
+    private final long size;
+    private final long lastModified;
+
+    public PathStoredFile(Path path) throws IOException {
+        this.path = path.toAbsolutePath();
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.size = channel.size();
+        this.lastModified = Files.getLastModifiedTime(path).toMillis();
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public long lastModified() {
+        return lastModified;
+    }
+
+    @Override
+    public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+        long end = Math.min(size, position + count);
+        long current = position;
+        while (current < end) {
+            long written = channel.transferTo(current, end - current, target);
+            if (written <= 0) {
+                break;
+            }
+            current += written;
+        }
+        return current - position;
+    }
+
+    @Override
+    public InputStream newInputStream() throws IOException {
+        return Files.newInputStream(path);
+    }
+
+    @Override
+    public Path backingFile() {
+        return path;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.backend.service.storage;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.example.backend.dto.StoredFileInfo;
+import com.example.backend.service.storage.extras.FileSignature;
+import com.example.backend.service.storage.extras.InspectingInputStream;
+import com.example.backend.util.AppLogger;
+import com.example.backend.util.FileHelper;
+
+/**
+ * Helpers shared by the storage backends for the stage → promote upload flow.
+ * Staged files carry a .part suffix so backups and scans ignore them.
+ *
+ * Promotion runs inside the transaction that repoints the document, so the
+ * staged file must survive until that transaction commits: backends link or
+ * copy it into place and remove it from an after-commit callback. A rollback
+ * leaves the document on its staged path, which is still there to retry.
+ */
+final class StagedFiles {
+
+    static final String SUFFIX = ".part";
+
+    private StagedFiles() {
+    }
+
+    /** Streams the upload into {@code dir}, hashing and sniffing it on the way. */
+    static StoredFileInfo write(Path dir, MultipartFile file) throws IOException {
+        Files.createDirectories(dir);
+        String extension = FileHelper.getFileExtension(file.getOriginalFilename());
+        Path staged = dir.resolve(UUID.randomUUID() + "." + extension + SUFFIX);
+
+        try (InspectingInputStream in = new InspectingInputStream(file.getInputStream())) {
+            Files.copy(in, staged);
+            FileSignature signature = in.detectedSignature();
+            return new StoredFileInfo(
+                    staged.toString(),
+                    in.getBytesRead(),
+                    in.sha256Hex(),
+                    signature != null ? signature.getMimeType() : null);
+        } catch (IOException e) {
+            Files.deleteIfExists(staged);
+            throw e;
+        }
+    }
+
+    /** Flushes the file's content to the device before it is moved into place. */
+    static void force(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+    }
+
+    /** The final file name of a staged file, i.e. without its .part suffix. */
+    static String finalName(Path staged) {
+        String name = staged.getFileName().toString();
+        return name.endsWith(SUFFIX) ? name.substring(0, name.length() - SUFFIX.length()) : name;
+    }
+
+    /**
+     * Makes the staged file available at {@code target} without removing it:
+     * a hard link where the filesystem allows, a flushed copy otherwise.
+     */
+    static void link(Path source, Path target) throws IOException {
+        try {
+            Files.createLink(target, source);
+        } catch (UnsupportedOperationException | FileSystemException e) {
+            Files.copy(source, target);
+            force(target);
+        }
+    }
+
+    /**
+     * Runs the callbacks once the surrounding transaction completes, or the
+     * commit callback immediately when there is no transaction.
+     */
+    static void afterCompletion(Runnable onCommit, Runnable onRollback) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            onCommit.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                try {
+                    if (status == STATUS_COMMITTED) {
+                        onCommit.run();
+                    } else {
+                        onRollback.run();
+                    }
+                } catch (RuntimeException e) {
+                    AppLogger.error("[Storage] Post-transaction file maintenance failed: {}", e.getMessage());
+                }
+            }
+        });
+    }
+
+    static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            AppLogger.warn("[Storage] Could not delete {}: {}", path, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,292 @@
+package com.example.backend.service.storage;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.example.backend.contract.FileStorageService;
+import com.example.backend.dto.StoredFileInfo;
+import com.example.backend.entity.Document;
+import com.example.backend.entity.Document.StatutStockage;
+import com.example.backend.repository.DocumentRepository;
+import com.example.backend.service.DocumentDescriptorCache;
+import com.example.backend.service.TextExtractionService;
+import com.example.backend.service.ThumbnailService;
+import com.example.backend.util.AppLogger;
+
+/**
+ * Storage side of the upload pipeline, run on the storage executor: parallel
+ * staging for bulk uploads, and promotion of staged files to their final
+ * location (flipping the document from STORING to STORED). Nothing here runs
+ * while the upload request holds a connection.
+ */
+@Service
+public class StoragePromotionService {
+
+    private final DocumentRepository documentRepository;
+    private final FileStorageService fileStorageService;
+    private final DocumentDescriptorCache descriptorCache;
+    private final ThumbnailService thumbnailService;
+    private final TextExtractionService textExtractionService;
+    /** Short transaction of its own for the row update, never joining the caller's. */
+    private final TransactionTemplate updateTransaction;
+    /**
+     * Holds no connection: it only scopes the storage backend's commit and
+     * rollback callbacks (staged copy removed, or promoted copy undone) around
+     * the file work and the row update.
+     */
+    private final TransactionTemplate fileScope;
+    private final Executor storageExecutor;
+    /** Documents queued on this node, so the resume job does not queue them twice. */
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+
+    public StoragePromotionService(
+            DocumentRepository documentRepository,
+            FileStorageService fileStorageService,
+            DocumentDescriptorCache descriptorCache,
+            ThumbnailService thumbnailService,
+            TextExtractionService textExtractionService,
+            PlatformTransactionManager transactionManager,
+            @Qualifier("storageExecutor") Executor storageExecutor) {
+        this.documentRepository = documentRepository;
+        this.fileStorageService = fileStorageService;
+        this.descriptorCache = descriptorCache;
+        this.thumbnailService = thumbnailService;
+        this.textExtractionService = textExtractionService;
+        this.updateTransaction = new TransactionTemplate(transactionManager);
+        this.updateTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.fileScope = new TransactionTemplate(transactionManager);
+        this.fileScope.setPropagationBehavior(TransactionDefinition.PROPAGATION_NOT_SUPPORTED);
+        this.storageExecutor = storageExecutor;
+    }
+
+    /**
+     * Stages several uploads concurrently. Each future completes with the staged
+     * file or with the exception that staging it raised. Once the pool is
+     * saturated the remaining files are staged on the calling thread, which
+     * slows the upload down instead of dropping it.
+     */
+    public List<CompletableFuture<StoredFileInfo>> stageAll(List<MultipartFile> files) {
+        return files.stream()
+                .map(this::stageAsync)
+                .toList();
+    }
+
+    private CompletableFuture<StoredFileInfo> stageAsync(MultipartFile file) {
+        try {
+            return CompletableFuture.supplyAsync(() -> fileStorageService.stage(file), storageExecutor);
+        } catch (RejectedExecutionException e) {
+            try {
+                return CompletableFuture.completedFuture(fileStorageService.stage(file));
+            } catch (RuntimeException failure) {
+                return CompletableFuture.failedFuture(failure);
+            }
+        }
+    }
+
+    /** A registered document waiting for its staged file to be promoted. */
+    public record Promotion(Long documentId, StoredFileInfo staged, Long societeId, Integer exercice) {
+    }
+
+    /**
+     * Queues promotion of a freshly registered document once the registering
+     * transaction commits (immediately when there is none). Never runs the
+     * promotion on the committing thread: when the pool is saturated the
+     * document stays STORING for {@link #resumeStalledPromotions}.
+     */
+    public void promoteAfterCommit(Long documentId, StoredFileInfo staged, Long societeId, Integer exercice) {
+        Promotion promotion = new Promotion(documentId, staged, societeId, exercice);
+        afterCommit(() -> {
+            if (inFlight.add(documentId)) {
+                submit(() -> run(promotion), () -> inFlight.remove(documentId));
+            }
+        });
+    }
+
+    /**
+     * Queues the promotions of a bulk upload as a single task once the
+     * registering transaction commits. That task spreads them over the pool
+     * and does itself whatever the queue cannot take, so a batch larger than
+     * the queue is still promoted in full.
+     */
+    public void promoteAllAfterCommit(List<Promotion> promotions) {
+        afterCommit(() -> {
+            List<Promotion> queued = promotions.stream()
+                    .filter(promotion -> inFlight.add(promotion.documentId()))
+                    .toList();
+            if (!queued.isEmpty()) {
+                submit(() -> queued.forEach(this::runOnPool),
+                        () -> queued.forEach(promotion -> inFlight.remove(promotion.documentId())));
+            }
+        });
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Queues a task on the storage pool. When the pool is saturated, runs
+     * {@code rejected} and leaves the documents for the resume job. Returns
+     * whether the task was queued.
+     */
+    private boolean submit(Runnable task, Runnable rejected) {
+        try {
+            storageExecutor.execute(task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            rejected.run();
+            AppLogger.debug("[Storage] Pool saturated, promotion left for the resume job");
+            return false;
+        }
+    }
+
+    /** Called from a pool thread only: promotes here when the queue is full. */
+    private void runOnPool(Promotion promotion) {
+        try {
+            storageExecutor.execute(() -> run(promotion));
+        } catch (RejectedExecutionException e) {
+            run(promotion);
+        }
+    }
+
+    private void run(Promotion promotion) {
+        try {
+            promote(promotion.documentId(), promotion.staged(), promotion.societeId(), promotion.exercice());
+        } finally {
+            inFlight.remove(promotion.documentId());
+        }
+    }
+
+    /**
+     * Moves the staged file to its final location, then points the document at
+     * it. The file I/O (fsync, link or copy) runs without a connection; only the
+     * row update opens a short transaction. If that update fails or finds the
+     * document gone or already stored, the backend undoes the promoted copy and
+     * keeps the staged one.
+     */
+    void promote(Long documentId, StoredFileInfo staged, Long societeId, Integer exercice) {
+        try {
+            Document document = documentRepository.findById(documentId).orElse(null);
+            if (document == null) {
+                // Purged before promotion got to it
+                fileStorageService.delete(staged.path());
+                return;
+            }
+            if (document.getStatutStockage() == StatutStockage.STORED) {
+                return;
+            }
+
+            StoredFileInfo promoted = fileScope.execute(scope -> {
+                StoredFileInfo stored = fileStorageService.promote(staged, societeId, exercice);
+                if (!Boolean.TRUE.equals(updateTransaction.execute(status -> markStored(documentId, stored)))) {
+                    scope.setRollbackOnly();
+                    return null;
+                }
+                return stored;
+            });
+            descriptorCache.evict(documentId);
+            if (promoted != null) {
+                thumbnailService.renderInBackground(documentId, promoted.path(), promoted.checksumSha256(),
+                        promoted.typeMime());
+                textExtractionService.extractInBackground(documentId);
+            }
+
+        } catch (RuntimeException e) {
+            AppLogger.error("[Storage] Promotion of document {} failed: {}", documentId, e.getMessage());
+            markFailed(documentId);
+        }
+    }
+
+    private boolean markStored(Long documentId, StoredFileInfo stored) {
+        Document document = documentRepository.findById(documentId).orElse(null);
+        if (document == null || document.getStatutStockage() == StatutStockage.STORED) {
+            return false;
+        }
+        document.setCheminFichier(stored.path());
+        document.setStatutStockage(StatutStockage.STORED);
+        return true;
+    }
+
+    /**
+     * Resumes promotions interrupted by a shutdown or crash. Documents stay
+     * downloadable from their staged copy until this succeeds.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumePendingPromotions() {
+        List<Document> pending = documentRepository.findByStatutStockageIn(
+                List.of(StatutStockage.STORING, StatutStockage.FAILED));
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        AppLogger.info("[Storage] Resuming promotion of {} staged document(s)", pending.size());
+        resume(pending);
+    }
+
+    /**
+     * Queues documents left STORING since before {@code before}: promotions
+     * the pool turned away, or that a node stopped in the middle of. The cutoff
+     * keeps promotions still running on other nodes out. Returns how many were
+     * queued.
+     */
+    public int resumeStalledPromotions(LocalDateTime before, int batchSize) {
+        return resume(documentRepository.findStalledPromotions(
+                StatutStockage.STORING, before, PageRequest.of(0, batchSize)));
+    }
+
+    private int resume(List<Document> pending) {
+        int queued = 0;
+        for (Document document : pending) {
+            Promotion promotion = new Promotion(
+                    document.getId(),
+                    new StoredFileInfo(
+                            document.getCheminFichier(),
+                            document.getTailleFichier() != null ? document.getTailleFichier() : 0L,
+                            document.getChecksumSha256(),
+                            document.getTypeMime()),
+                    document.getSociete().getId(),
+                    document.getExerciceComptable());
+            if (inFlight.add(promotion.documentId())
+                    && submit(() -> run(promotion), () -> inFlight.remove(promotion.documentId()))) {
+                queued++;
+            }
+        }
+        return queued;
+    }
+
+    private void markFailed(Long documentId) {
+        try {
+            updateTransaction.executeWithoutResult(status -> documentRepository.findById(documentId)
+                    .filter(document -> document.getStatutStockage() != StatutStockage.STORED)
+                    .ifPresent(document -> document.setStatutStockage(StatutStockage.FAILED)));
+        } catch (RuntimeException e) {
+            AppLogger.error("[Storage] Could not flag document {} as FAILED: {}", documentId, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.backend.service.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Enumeration;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.example.backend.contract.FileStorageService;
+import com.example.backend.contract.StoredFile;
+import com.example.backend.dto.StoredFileInfo;
+import com.example.backend.exception.BusinessException;
+import com.example.backend.util.AppLogger;
+
+/**
+ * Storage entry point seen by the rest of the application. Hot files go
+ * straight to the configured backend (local or cas); documents moved to the
+ * cold tier by {@link ColdStorageTieringService} live as entries of compressed
+ * pack files and are addressed as {@code archive:<pack>!<entry>}.
+ */
+@Service
+@Primary
+public class TieredFileStorageService implements FileStorageService {
+
+    /** Qualifier of the backend bean this service wraps. */
+    public static final String BACKEND = "storageBackend";
+
+    private static final String ARCHIVE_PREFIX = "archive:";
+    private static final char ENTRY_SEPARATOR = '!';
+
+    private final FileStorageService backend;
+
+    public TieredFileStorageService(@Qualifier(BACKEND) FileStorageService backend) {
+        this.backend = backend;
+    }
+
+    public static boolean isArchived(String path) {
+        return path != null && path.startsWith(ARCHIVE_PREFIX);
+    }
+
+    public static String archiveLocator(Path pack, String entryName) {
+        return ARCHIVE_PREFIX + pack + ENTRY_SEPARATOR + entryName;
+    }
+
+    @Override
+    public StoredFileInfo stage(MultipartFile file) {
+        return backend.stage(file);
+    }
+
+    @Override
+    public StoredFileInfo promote(StoredFileInfo staged, Long clientId, Integer year) {
+        return backend.promote(staged, clientId, year);
+    }
+
+    @Override
+    public byte[] read(String path) {
+        if (!isArchived(path)) {
+            return backend.read(path);
+        }
+        try (ZipFile zip = new ZipFile(packOf(path).toFile())) {
+            ZipEntry entry = zip.getEntry(entryOf(path));
+            if (entry == null) {
+                throw new BusinessException("FILE_READ_ERROR", "Entrée introuvable dans l'archive: " + path);
+            }
+            try (InputStream in = zip.getInputStream(entry)) {
+                return in.readAllBytes();
+            }
+        } catch (IOException e) {
+            throw new BusinessException("FILE_READ_ERROR", e.getMessage());
+        }
+    }
+
+    @Override
+    public StoredFile open(String path) {
+        if (!isArchived(path)) {
+            return backend.open(path);
+        }
+        try {
+            return new ArchivedStoredFile(packOf(path), entryOf(path));
+        } catch (IOException e) {
+            throw new BusinessException("FILE_READ_ERROR", e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean exists(String path) {
+        if (!isArchived(path)) {
+            return backend.exists(path);
+        }
+        Path pack = packOf(path);
+        if (!Files.exists(pack)) {
+            return false;
+        }
+        try (ZipFile zip = new ZipFile(pack.toFile())) {
+            return zip.getEntry(entryOf(path)) != null;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Archived entries are removed by rewriting their pack without them. Packs
+     * only receive documents past their fiscal year, so this is rare.
+     */
+    @Override
+    public void delete(String path) {
+        if (!isArchived(path)) {
+            backend.delete(path);
+            return;
+        }
+        try {
+            removeEntry(packOf(path), entryOf(path));
+        } catch (IOException e) {
+            throw new BusinessException("FILE_DELETE_ERROR", e.getMessage());
+        }
+    }
+
+    private synchronized void removeEntry(Path pack, String entryName) throws IOException {
+        if (!Files.exists(pack)) {
+            return;
+        }
+
+        Path rewritten = pack.resolveSibling(pack.getFileName() + StagedFiles.SUFFIX);
+        int kept = 0;
+        try (ZipFile zip = new ZipFile(pack.toFile());
+                ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(rewritten))) {
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                if (entry.getName().equals(entryName)) {
+                    continue;
+                }
+                ZipEntry copy = new ZipEntry(entry.getName());
+                copy.setTime(entry.getTime());
+                out.putNextEntry(copy);
+                try (InputStream in = zip.getInputStream(entry)) {
+                    in.transferTo(out);
+                }
+                out.closeEntry();
+                kept++;
+            }
+        }
+
+        if (kept == 0) {
+            Files.delete(rewritten);
+            Files.delete(pack);
+            AppLogger.info("[Tiering] Removed empty pack {}", pack);
+        } else {
+            StagedFiles.force(rewritten);
+            Files.move(rewritten, pack, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+
+    static Path packOf(String locator) {
+        int separator = locator.lastIndexOf(ENTRY_SEPARATOR);
+        return Paths.get(locator.substring(ARCHIVE_PREFIX.length(), separator));
+    }
+
+    static String entryOf(String locator) {
+        return locator.substring(locator.lastIndexOf(ENTRY_SEPARATOR) + 1);
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.backend.service.storage.extras;
+
+import java.util.List;
+
+/**
+ * File formats accepted for upload, recognised by their leading magic bytes
+ * rather than by the client-supplied filename or Content-Type.
+ */
+public enum FileSignature {
+
+    PDF("application/pdf", List.of("pdf"), new int[] { 0x25, 0x50, 0x44, 0x46, 0x2D }),
+    JPEG("image/jpeg", List.of("jpg", "jpeg"), new int[] { 0xFF, 0xD8, 0xFF }),
+    PNG("image/png", List.of("png"), new int[] { 0x89, 0x50, 0x4E, 0x47, 0x0D, 0x0A, 0x1A, 0x0A });
+
+    /** Number of leading bytes needed to recognise any of the formats above. */
+    public static final int HEADER_LENGTH = 8;
+
+    private final String mimeType;
+    private final List<String> extensions;
+    private final int[] magic;
+
+    FileSignature(String mimeType, List<String> extensions, int[] magic) {
+        this.mimeType = mimeType;
+        this.extensions = extensions;
+        this.magic = magic;
+    }
+
+    public String getMimeType() {
+        return mimeType;
+    }
+
+    public List<String> getExtensions() {
+        return extensions;
+    }
+
+    public static FileSignature detect(byte[] header, int length) {
+        for (FileSignature signature : values()) {
+            if (signature.matches(header, length)) {
+                return signature;
+            }
+        }
+        return null;
+    }
+
+    public static FileSignature fromMimeType(String mimeType) {
+        for (FileSignature signature : values()) {
+            if (signature.mimeType.equals(mimeType)) {
+                return signature;
+            }
+        }
+        return null;
+    }
+
+    private boolean matches(byte[] header, int length) {
+        if (length < magic.length) {
+            return false;
+        }
+        for (int i = 0; i < magic.length; i++) {
+            if ((header[i] & 0xFF) != magic[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
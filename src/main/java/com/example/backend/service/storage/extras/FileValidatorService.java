@@ -4,10 +4,13 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.example.backend.contract.FileValidatorContract;
+import com.example.backend.dto.StoredFileInfo;
+import com.example.backend.entity.Document;
 import com.example.backend.exception.BusinessException;
 import com.example.backend.util.FileHelper;
 
@@ -16,6 +19,9 @@ public class FileValidatorService implements FileValidatorContract {
     private static final long MAX_FILE_SIZE = 20 * 1024 * 1024; // 20MB
     private static final List<String> ALLOWED_EXTENSIONS = Arrays.asList("pdf", "jpg", "jpeg", "png");
 
+    @Value("${app.uploads.chunked.max-statement-size-mb:300}")
+    private long maxStatementSizeMb = 300;
+
     @Override
     public void validate(MultipartFile file) {
         if (file.isEmpty()) {
@@ -27,7 +33,28 @@ public class FileValidatorService implements FileValidatorContract {
                     "La taille du fichier ne doit pas dépasser 20MB");
         }
 
-        String originalFilename = file.getOriginalFilename();
+        validateFilename(file.getOriginalFilename());
+    }
+
+    @Override
+    public void validateDeclaredFile(String originalFilename, long size, Document.TypeDocument typeDocument) {
+        if (size <= 0) {
+            throw new BusinessException("EMPTY_FILE", "Le fichier est vide");
+        }
+
+        // Multi-hundred-page bank statement scans get a larger cap
+        long maxSize = typeDocument == Document.TypeDocument.RELEVE_BANCAIRE
+                ? maxStatementSizeMb * 1024 * 1024
+                : MAX_FILE_SIZE;
+        if (size > maxSize) {
+            throw new BusinessException("FILE_TOO_LARGE",
+                    String.format("La taille du fichier ne doit pas dépasser %dMB", maxSize / (1024 * 1024)));
+        }
+
+        validateFilename(originalFilename);
+    }
+
+    private void validateFilename(String originalFilename) {
         if (originalFilename == null) {
             throw new BusinessException("INVALID_FILENAME", "Nom de fichier invalide");
         }
@@ -41,4 +68,20 @@ public class FileValidatorService implements FileValidatorContract {
                                     .collect(Collectors.toList()))));
         }
     }
+
+    @Override
+    public void validateContent(StoredFileInfo stored, String originalFilename) {
+        FileSignature signature = FileSignature.fromMimeType(stored.typeMime());
+        if (signature == null) {
+            throw new BusinessException("INVALID_FILE_CONTENT",
+                    "Le contenu du fichier ne correspond à aucun format accepté (PDF, JPG, PNG)");
+        }
+
+        String extension = FileHelper.getFileExtension(originalFilename.toLowerCase());
+        if (!signature.getExtensions().contains(extension)) {
+            throw new BusinessException("FILE_TYPE_MISMATCH",
+                    String.format("Le contenu du fichier (%s) ne correspond pas à son extension '.%s'",
+                            signature.name(), extension));
+        }
+    }
 }
@@ -0,0 +1,82 @@
+package com.example.backend.service.storage.extras;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Pass-through stream that computes the SHA-256, counts bytes and captures the
+ * leading magic bytes of whatever is read through it, so a single copy to disk
+ * yields everything needed to describe and validate an upload.
+ */
+public class InspectingInputStream extends FilterInputStream {
+
+    private final MessageDigest digest;
+    private final byte[] header = new byte[FileSignature.HEADER_LENGTH];
+    private int headerLength;
+    private long bytesRead;
+
+    public InspectingInputStream(InputStream in) {
+        super(in);
+        try {
+            this.digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b != -1) {
+            record(new byte[] { (byte) b }, 0, 1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int n = super.read(b, off, len);
+        if (n > 0) {
+            record(b, off, n);
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        throw new IOException("skip is not supported while inspecting an upload");
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    /** Hex-encoded SHA-256 of everything read so far. Call once the stream is drained. */
+    public String sha256Hex() {
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /** Format recognised from the leading bytes, or null when unknown. */
+    public FileSignature detectedSignature() {
+        return FileSignature.detect(header, headerLength);
+    }
+
+    private void record(byte[] b, int off, int len) {
+        digest.update(b, off, len);
+        if (headerLength < header.length) {
+            int copy = Math.min(len, header.length - headerLength);
+            System.arraycopy(b, off, header, headerLength, copy);
+            headerLength += copy;
+        }
+        bytesRead += len;
+    }
+}
@@ -60,6 +60,8 @@ public class FileStorageBackupTask implements BackupTask {
                     new BufferedOutputStream(Files.newOutputStream(zipFile)))) {
                 Files.walk(source)
                         .filter(p -> !Files.isDirectory(p))
+                        // in-flight uploads of the deduplicating backend
+                        .filter(p -> !p.getFileName().toString().endsWith(".part"))
                         .forEach(p -> {
                             String entryName = source.relativize(p).toString();
                             ZipEntry entry = new ZipEntry(entryName);
@@ -0,0 +1,125 @@
+package com.example.backend.util;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+
+import com.example.backend.contract.StoredFile;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Writes a {@link StoredFile} to the servlet response without buffering it in
+ * memory. Supports conditional requests (ETag / If-None-Match / If-Range) and
+ * single byte ranges, and hands the transfer to Tomcat's sendfile when the
+ * connector supports it.
+ */
+public class FileStreamingUtil {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    public static void write(HttpServletRequest request, HttpServletResponse response, StoredFile file,
+            String filename, MediaType contentType, String etag) throws IOException {
+
+        long size = file.size();
+        String entityTag = etag != null ? etag : defaultETag(file);
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.ETAG, entityTag);
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, file.lastModified());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(filename, StandardCharsets.UTF_8)
+                .build()
+                .toString());
+
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), entityTag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long start = 0;
+        long length = size;
+
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (rangeHeader != null && (ifRange == null || ifRange.equals(entityTag))) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(rangeHeader);
+            } catch (IllegalArgumentException e) {
+                ranges = List.of();
+            }
+
+            // Multi-range requests are answered with the full content (RFC 9110 allows it)
+            if (ranges.size() == 1) {
+                HttpRange range = ranges.get(0);
+                try {
+                    start = range.getRangeStart(size);
+                    long end = range.getRangeEnd(size);
+                    if (start > end || start >= size) {
+                        throw new IllegalArgumentException("Unsatisfiable range");
+                    }
+                    length = end - start + 1;
+                } catch (IllegalArgumentException e) {
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                    response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    return;
+                }
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE,
+                        String.format("bytes %d-%d/%d", start, start + length - 1, size));
+            }
+        }
+
+        response.setContentType(contentType.toString());
+        response.setContentLengthLong(length);
+
+        if ("HEAD".equalsIgnoreCase(request.getMethod()) || length == 0) {
+            return;
+        }
+
+        if (file.backingFile() != null && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            long offset = file.backingOffset() + start;
+            request.setAttribute(SENDFILE_FILENAME, file.backingFile().toString());
+            request.setAttribute(SENDFILE_START, offset);
+            request.setAttribute(SENDFILE_END, offset + length);
+            return;
+        }
+
+        try {
+            file.transferTo(start, length, Channels.newChannel(response.getOutputStream()));
+            response.flushBuffer();
+        } catch (IOException e) {
+            // Response is already committed: nothing useful can be sent back to the client
+            AppLogger.warn("Streaming of '{}' interrupted: {}", filename, e.getMessage());
+        }
+    }
+
+    /** Strong validator derived from modification time and size. */
+    public static String defaultETag(StoredFile file) {
+        return String.format("\"%x-%x\"", file.lastModified(), file.size());
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.equals("*") || value.equals(etag) || value.equals("W/" + etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
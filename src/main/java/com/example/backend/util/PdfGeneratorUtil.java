@@ -8,48 +8,64 @@ import com.lowagie.text.pdf.PdfPCell;
 import com.lowagie.text.pdf.PdfPTable;
 import com.lowagie.text.pdf.PdfWriter;
 
-import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.function.Function;
 import java.util.stream.Stream;
 
 public class PdfGeneratorUtil {
 
-    public static byte[] generateComplianceReport(SocietComplianceOverviewDTO overview) {
+    /** Rows buffered in a table before they are flushed to the output. */
+    private static final int TABLE_FLUSH_ROWS = 50;
+
+    // Shared by every render (batch reports render several in parallel); never modified after creation
+    private static final Font TITLE_FONT = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 22);
+    private static final Font HEADER_FONT = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 14);
+    private static final Font SMALL_BOLD_FONT = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 10);
+    private static final Font NORMAL_FONT = FontFactory.getFont(FontFactory.HELVETICA, 10);
+
+    /** Styled header cell, copied for each column since tables keep their own cell instances. */
+    private static final PdfPCell HEADER_CELL_TEMPLATE = headerCellTemplate();
+
+    private static final String[] SUMMARY_COLUMNS = {"Total", "Pending", "Approved", "Rejected", "Deleted", "Legal Basis"};
+    private static final String[] EXERCICE_COLUMNS = {"Exercice", "Total", "Approved", "Compliance (%)"};
+    private static final String[] DOC_TYPE_COLUMNS = {"Type", "Total", "Approved", "Compliance (%)"};
+
+    /**
+     * Writes the report to {@code out} as pages complete, so the PDF is never
+     * held in memory. The stream is left open.
+     */
+    public static void writeComplianceReport(SocietComplianceOverviewDTO overview, OutputStream out) {
         Document document = new Document(PageSize.A4);
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
 
         try {
-            PdfWriter.getInstance(document, out);
+            PdfWriter writer = PdfWriter.getInstance(document, out);
+            writer.setCloseStream(false);
             document.open();
 
-            // Font configurations
-            Font titleFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 22);
-            Font headerFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 14);
-            Font smallBoldFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 10);
-            Font normalFont = FontFactory.getFont(FontFactory.HELVETICA, 10);
-
             // Title
-            Paragraph title = new Paragraph("Compliance Overview Report", titleFont);
+            Paragraph title = new Paragraph("Compliance Overview Report", TITLE_FONT);
             title.setAlignment(Element.ALIGN_CENTER);
             title.setSpacingAfter(20);
             document.add(title);
 
             // Basic Info
-            document.add(new Paragraph("Societé: " + overview.getRaisonSociale(), headerFont));
-            document.add(new Paragraph("ICE: " + overview.getIce(), normalFont));
-            document.add(new Paragraph("Adresse: " + (overview.getAdresse() != null ? overview.getAdresse() : "N/A"), normalFont));
+            document.add(new Paragraph("Societé: " + overview.getRaisonSociale(), HEADER_FONT));
+            document.add(new Paragraph("ICE: " + overview.getIce(), NORMAL_FONT));
+            document.add(new Paragraph("Adresse: " + (overview.getAdresse() != null ? overview.getAdresse() : "N/A"), NORMAL_FONT));
             
             if (overview.getAccountant() != null) {
-                document.add(new Paragraph("Accountant: " + overview.getAccountant().getAccountantName(), normalFont));
+                document.add(new Paragraph("Accountant: " + overview.getAccountant().getAccountantName(), NORMAL_FONT));
             }
-            document.add(new Paragraph("Status: " + overview.getComplianceStatus(), headerFont));
-            document.add(new Paragraph("Global Compliance: " + String.format("%.2f", overview.getCompliancePercentage()) + "%", headerFont));
+            document.add(new Paragraph("Status: " + overview.getComplianceStatus(), HEADER_FONT));
+            document.add(new Paragraph("Global Compliance: " + String.format("%.2f", overview.getCompliancePercentage()) + "%", HEADER_FONT));
 
             document.add(new Paragraph("\n"));
 
             // Summary Table
             PdfPTable summaryTable = new PdfPTable(6);
             summaryTable.setWidthPercentage(100);
-            addTableHeader(summaryTable, new String[]{"Total", "Pending", "Approved", "Rejected", "Deleted", "Legal Basis"}, smallBoldFont);
+            addTableHeader(summaryTable, SUMMARY_COLUMNS, SMALL_BOLD_FONT);
             addRows(summaryTable, new String[]{
                     String.valueOf(overview.getTotalDocuments()),
                     String.valueOf(overview.getPendingDocuments()),
@@ -57,65 +73,83 @@ public class PdfGeneratorUtil {
                     String.valueOf(overview.getRejectedDocuments()),
                     String.valueOf(overview.getDeletedDocuments()),
                     String.valueOf(overview.getTotalDocuments() - overview.getDeletedDocuments())
-            }, normalFont);
+            }, NORMAL_FONT);
             document.add(summaryTable);
 
             document.add(new Paragraph("\n"));
 
             // Breakdown Tables
-            document.add(new Paragraph("Fiscal Year Breakdown :", headerFont));
+            document.add(new Paragraph("Fiscal Year Breakdown :", HEADER_FONT));
             document.add(new Paragraph("\n"));
 
-            PdfPTable exerciceTable = new PdfPTable(4);
-            exerciceTable.setWidthPercentage(100);
-            addTableHeader(exerciceTable, new String[]{"Exercice", "Total", "Approved", "Compliance (%)"}, smallBoldFont);
-            for (ExerciceBreakdownDTO breakdown : overview.getExerciceBreakdowns()) {
-                addRows(exerciceTable, new String[]{
-                        String.valueOf(breakdown.getExerciceComptable()),
-                        String.valueOf(breakdown.getTotal()),
-                        String.valueOf(breakdown.getApproved()),
-                        String.format("%.2f %%", breakdown.getCompliancePercentage())
-                }, normalFont);
-            }
-            document.add(exerciceTable);
+            addStreamedTable(document, EXERCICE_COLUMNS,
+                    overview.getExerciceBreakdowns(), (ExerciceBreakdownDTO breakdown) -> new String[]{
+                            String.valueOf(breakdown.getExerciceComptable()),
+                            String.valueOf(breakdown.getTotal()),
+                            String.valueOf(breakdown.getApproved()),
+                            String.format("%.2f %%", breakdown.getCompliancePercentage())
+                    });
 
             document.add(new Paragraph("\n"));
 
-            document.add(new Paragraph("Document Type Breakdown :", headerFont));
+            document.add(new Paragraph("Document Type Breakdown :", HEADER_FONT));
             document.add(new Paragraph("\n"));
 
-            PdfPTable docTypeTable = new PdfPTable(4);
-            docTypeTable.setWidthPercentage(100);
-            addTableHeader(docTypeTable, new String[]{"Type", "Total", "Approved", "Compliance (%)"}, smallBoldFont);
-            for (DocTypeBreakdownDTO breakdown : overview.getDocTypeBreakdowns()) {
-                addRows(docTypeTable, new String[]{
-                        breakdown.getTypeDocument(),
-                        String.valueOf(breakdown.getTotal()),
-                        String.valueOf(breakdown.getApproved()),
-                        String.format("%.2f %%", breakdown.getCompliancePercentage())
-                }, normalFont);
-            }
-            document.add(docTypeTable);
+            addStreamedTable(document, DOC_TYPE_COLUMNS,
+                    overview.getDocTypeBreakdowns(), (DocTypeBreakdownDTO breakdown) -> new String[]{
+                            breakdown.getTypeDocument(),
+                            String.valueOf(breakdown.getTotal()),
+                            String.valueOf(breakdown.getApproved()),
+                            String.format("%.2f %%", breakdown.getCompliancePercentage())
+                    });
 
             document.close();
         } catch (DocumentException e) {
             throw new RuntimeException("Error generating PDF", e);
         }
+    }
 
-        return out.toByteArray();
+    /**
+     * Adds a table as an incomplete large element and flushes it every
+     * {@link #TABLE_FLUSH_ROWS} rows, so long breakdowns are written out page
+     * by page instead of being laid out all at once.
+     */
+    private static <T> void addStreamedTable(Document document, String[] columnNames, List<T> items,
+            Function<T, String[]> row) throws DocumentException {
+        PdfPTable table = new PdfPTable(columnNames.length);
+        table.setWidthPercentage(100);
+        table.setHeaderRows(1);
+        table.setComplete(false);
+        addTableHeader(table, columnNames, SMALL_BOLD_FONT);
+
+        int buffered = 0;
+        for (T item : items) {
+            addRows(table, row.apply(item), NORMAL_FONT);
+            if (++buffered == TABLE_FLUSH_ROWS) {
+                document.add(table);
+                buffered = 0;
+            }
+        }
+        table.setComplete(true);
+        document.add(table);
     }
 
     private static void addTableHeader(PdfPTable table, String[] columnNames, Font font) {
         Stream.of(columnNames)
                 .forEach(columnTitle -> {
-                    PdfPCell header = new PdfPCell();
-                    header.setBackgroundColor(java.awt.Color.LIGHT_GRAY);
-                    header.setBorderWidth(2);
+                    PdfPCell header = new PdfPCell(HEADER_CELL_TEMPLATE);
                     header.setPhrase(new Phrase(columnTitle, font));
                     table.addCell(header);
                 });
     }
 
+    private static PdfPCell headerCellTemplate() {
+        PdfPCell header = new PdfPCell();
+        header.setBackgroundColor(java.awt.Color.LIGHT_GRAY);
+        header.setBorderWidth(2);
+        return header;
+    }
+
     private static void addRows(PdfPTable table, String[] cellValues, Font font) {
         for (String cellValue : cellValues) {
             table.addCell(new Phrase(cellValue, font));
@@ -0,0 +1,8 @@
+-- Reference counts for the content-addressed storage backend (app.storage.backend=cas).
+-- One row per distinct file content; documents reference the blob through chemin_fichier.
+CREATE TABLE storage_blobs (
+    sha256          VARCHAR(64) PRIMARY KEY,
+    ref_count       INT       NOT NULL DEFAULT 0,
+    taille_fichier  BIGINT    NOT NULL,
+    created_at      TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
@@ -0,0 +1,8 @@
+-- Uploads are registered as soon as the file is staged; the move to final
+-- storage happens in the background and flips the row to STORED.
+-- Existing rows already have their file in place.
+
+ALTER TABLE documents
+    ADD COLUMN statut_stockage VARCHAR(20) NOT NULL DEFAULT 'STORED';
+
+CREATE INDEX idx_documents_statut_stockage ON documents (statut_stockage);
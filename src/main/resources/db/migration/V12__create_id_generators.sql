@@ -0,0 +1,16 @@
+-- Table-based id allocation for documents and audit_logs, so Hibernate can
+-- batch inserts (IDENTITY forces one round trip per row). Ids are handed out
+-- in blocks of 50; seeding past the current maximum keeps new ids clear of
+-- rows inserted before this migration. The AUTO_INCREMENT columns are left
+-- in place and simply no longer used by the application.
+
+CREATE TABLE id_generators (
+    sequence_name VARCHAR(64) PRIMARY KEY,
+    next_val      BIGINT      NOT NULL
+);
+
+INSERT INTO id_generators (sequence_name, next_val)
+SELECT 'documents', COALESCE(MAX(id), 0) + 100 FROM documents;
+
+INSERT INTO id_generators (sequence_name, next_val)
+SELECT 'audit_logs', COALESCE(MAX(id), 0) + 100 FROM audit_logs;
@@ -0,0 +1,19 @@
+-- Resumable chunked uploads: one row per upload in progress. chunks_recus is a
+-- bitmap of the chunks already written to chemin_fichier; rows past expires_at
+-- are removed, with their partial file, by the sweeper.
+CREATE TABLE upload_sessions (
+    id                    VARCHAR(36)  PRIMARY KEY,
+    nom_fichier_original  VARCHAR(255) NOT NULL,
+    taille_totale         BIGINT       NOT NULL,
+    taille_chunk          INT          NOT NULL,
+    nombre_chunks         INT          NOT NULL,
+    chunks_recus          BLOB         NOT NULL,
+    chemin_fichier        VARCHAR(255) NOT NULL,
+    created_by_user_id    BIGINT       NOT NULL,
+    created_at            TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    expires_at            TIMESTAMP    NOT NULL,
+    CONSTRAINT fk_upload_sessions_user
+        FOREIGN KEY (created_by_user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_upload_sessions_expires_at ON upload_sessions(expires_at);
@@ -0,0 +1,11 @@
+-- Pack storage backend (app.storage.backend=pack): small documents are appended
+-- to segment files and addressed as pack:<segment>:<offset>:<length> in
+-- documents.chemin_fichier, which is the offset index. octets_morts counts
+-- bytes freed by purges so segments can be compacted.
+CREATE TABLE pack_segments (
+    nom           VARCHAR(64) PRIMARY KEY,
+    octets_morts  BIGINT      NOT NULL DEFAULT 0
+);
+
+-- Compaction looks up the live documents of a segment by locator prefix
+CREATE INDEX idx_documents_chemin_fichier ON documents(chemin_fichier);
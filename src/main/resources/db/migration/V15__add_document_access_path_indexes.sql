@@ -0,0 +1,12 @@
+-- Composite indexes matching the document access paths. Every listing is
+-- scoped by societe (role filter) or by statut (validation queue, tiering),
+-- and narrowed by statut or exercice_comptable; the created_at index backs the
+-- default listing order, including keyset pages seeking on (created_at, id).
+-- The leading societe_id column also serves fk_document_societe, whose
+-- implicit index MySQL drops once these exist.
+
+CREATE INDEX idx_documents_societe_statut    ON documents (societe_id, statut);
+CREATE INDEX idx_documents_societe_exercice  ON documents (societe_id, exercice_comptable);
+CREATE INDEX idx_documents_societe_created   ON documents (societe_id, created_at);
+CREATE INDEX idx_documents_statut_exercice   ON documents (statut, exercice_comptable);
+CREATE INDEX idx_documents_created           ON documents (created_at);
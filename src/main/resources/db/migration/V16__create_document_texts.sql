@@ -0,0 +1,12 @@
+-- Text extracted from uploaded documents (PDF text layer, or OCR when enabled),
+-- stored deflate-compressed and indexed for content search. Every processed
+-- document gets a row, including when nothing could be extracted, so the
+-- catch-up job does not retry it forever.
+CREATE TABLE document_texts (
+    document_id   BIGINT      PRIMARY KEY,
+    source        VARCHAR(20) NOT NULL,
+    longueur      INT         NOT NULL,
+    contenu       LONGBLOB    NULL,
+    extracted_at  TIMESTAMP   NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_document_text_document FOREIGN KEY (document_id) REFERENCES documents(id) ON DELETE CASCADE
+);
@@ -0,0 +1,18 @@
+-- Materialized document counts behind the compliance dashboard, one row per
+-- (societe, fiscal year, type, status). Maintained in the same transaction as
+-- every document insert, status change and purge; ComplianceCounterVerifyJob
+-- repairs any drift from the documents table.
+CREATE TABLE compliance_counters (
+    societe_id          BIGINT      NOT NULL,
+    exercice_comptable  INT         NOT NULL,
+    type_document       VARCHAR(50) NOT NULL,
+    statut              VARCHAR(50) NOT NULL,
+    nombre              BIGINT      NOT NULL DEFAULT 0,
+    PRIMARY KEY (societe_id, exercice_comptable, type_document, statut),
+    CONSTRAINT fk_compliance_counter_societe FOREIGN KEY (societe_id) REFERENCES societes(id) ON DELETE CASCADE
+);
+
+INSERT INTO compliance_counters (societe_id, exercice_comptable, type_document, statut, nombre)
+SELECT societe_id, exercice_comptable, type_document, statut, COUNT(*)
+FROM documents
+GROUP BY societe_id, exercice_comptable, type_document, statut;
@@ -0,0 +1,12 @@
+-- Logged-out JWTs shared by every API node, keyed by jti (or the SHA-256 of
+-- tokens issued without one). Rows are only needed until the token expires;
+-- JwtBlacklistSweeper deletes them after that. revoked_at is set by the
+-- database so nodes can pull new revocations without relying on their clocks.
+CREATE TABLE revoked_tokens (
+    token_key   VARCHAR(64) NOT NULL,
+    expires_at  DATETIME(6) NOT NULL,
+    revoked_at  DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
+    PRIMARY KEY (token_key),
+    INDEX idx_revoked_tokens_revoked_at (revoked_at),
+    INDEX idx_revoked_tokens_expires_at (expires_at)
+);
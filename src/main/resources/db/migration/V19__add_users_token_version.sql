@@ -0,0 +1,4 @@
+-- Incremented to revoke every token issued to a user at once (deactivation,
+-- password reset, "log out everywhere"). Tokens carry the version they were
+-- issued with in their tokenVersion claim; JwtFilter rejects older ones.
+ALTER TABLE users ADD COLUMN token_version INT NOT NULL DEFAULT 0;
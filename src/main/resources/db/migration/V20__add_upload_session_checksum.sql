@@ -0,0 +1,3 @@
+-- Optional SHA-256 of the whole file announced when a chunked upload starts;
+-- the assembled file is checked against it at commit.
+ALTER TABLE upload_sessions ADD COLUMN checksum_sha256 VARCHAR(64) NULL;
@@ -0,0 +1,5 @@
+-- Extraction attempts per document. Rows in ECHEC (file could not be read) are
+-- retried by the catch-up job until they reach app.extraction.max-attempts.
+ALTER TABLE document_texts ADD COLUMN tentatives INT NOT NULL DEFAULT 1;
+
+CREATE INDEX idx_document_texts_source_tentatives ON document_texts (source, tentatives);
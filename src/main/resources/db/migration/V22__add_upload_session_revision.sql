@@ -0,0 +1,3 @@
+-- Bumped by every chunk written to the session file; a commit compares it
+-- with the value it read before inspecting the file, outside the row lock.
+ALTER TABLE upload_sessions ADD COLUMN revision INT NOT NULL DEFAULT 0;
@@ -0,0 +1,3 @@
+-- Search index catch-up: each node re-indexes the rows changed since its last
+-- pass, and the listing filters keep rows changed after it.
+CREATE INDEX idx_documents_updated_at ON documents (updated_at);
@@ -0,0 +1,8 @@
+-- File metadata used by the download path (Content-Length, Content-Type, ETag)
+-- without having to stat or read the stored file.
+-- Columns are nullable: rows uploaded before this migration have no recorded metadata.
+
+ALTER TABLE documents
+    ADD COLUMN taille_fichier  BIGINT       NULL,
+    ADD COLUMN type_mime       VARCHAR(100) NULL,
+    ADD COLUMN checksum_sha256 VARCHAR(64)  NULL;
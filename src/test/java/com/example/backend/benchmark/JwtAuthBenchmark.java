@@ -0,0 +1,82 @@
+package com.example.backend.benchmark;
+
+import com.example.backend.service.JwtBlacklistService;
+import com.example.backend.service.JwtService;
+import com.example.backend.service.revocation.InMemoryTokenRevocationStore;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request token verification cost in JwtFilter: the previous flow (expiry
+ * check then subject lookup, each deriving the key, building a parser and
+ * verifying the HMAC) against the single verification with the pre-built
+ * parser.
+ *
+ * Not a unit test; run with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.example.backend.benchmark.JwtAuthBenchmark}
+ * or from the IDE.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-with-at-least-256-bits-of-entropy!!";
+
+    private JwtService jwtService;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService(SECRET, TimeUnit.HOURS.toMillis(1), new JwtBlacklistService(new InMemoryTokenRevocationStore()));
+        token = jwtService.generateToken(Map.of("role", "COMPTABLE"), "comptable@test.ma");
+    }
+
+    @Benchmark
+    public String previousFlow() {
+        Claims forExpiry = parseWithFreshParser(token);
+        if (forExpiry.getExpiration().before(new Date())) {
+            return null;
+        }
+        return parseWithFreshParser(token).getSubject();
+    }
+
+    @Benchmark
+    public String singleVerification() {
+        return jwtService.verify(token).getSubject();
+    }
+
+    /** What JwtService.extractAllClaims did on every call before the parser was shared. */
+    private static Claims parseWithFreshParser(String token) {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JwtAuthBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,208 @@
+package com.example.backend.repository;
+
+import com.example.backend.entity.Document;
+import com.example.backend.entity.Societe;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.mysql.MySQLContainer;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs EXPLAIN on the SQL generated by each hot repository method against a
+ * seeded MySQL with the real migrations applied, and fails unless the documents
+ * table is reached through the expected index by a key lookup or range, with
+ * no table or index scan on any table of the plan. Needs Docker; skipped
+ * otherwise.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.example.backend.repository.RecordingStatementInspector"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class DocumentQueryPlanTest {
+
+    private static final int SOCIETES = 20;
+    private static final int DOCUMENTS = 4000;
+
+    /** Index lookups that read only the matching rows; ALL and index scan the whole table or index. */
+    private static final Set<String> LOOKUP_ACCESS = Set.of("const", "eq_ref", "ref", "range");
+
+    /** Any index leading with societe_id serves a société-only predicate equally well. */
+    private static final Set<String> SOCIETE_INDEXES = Set.of("idx_documents_societe_statut",
+            "idx_documents_societe_exercice", "idx_documents_societe_created");
+
+    @Container
+    @ServiceConnection
+    static MySQLContainer mysql = new MySQLContainer("mysql:8.4");
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    @Autowired
+    private SocieteRepository societeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Societe first;
+    private Societe second;
+
+    @BeforeEach
+    void setUp() {
+        // ANALYZE TABLE commits implicitly, so the seed survives the per-test rollback
+        Integer seeded = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM documents", Integer.class);
+        if (seeded == null || seeded == 0) {
+            seed();
+        }
+        first = societeRepository.findById(1L).orElseThrow();
+        second = societeRepository.findById(2L).orElseThrow();
+    }
+
+    private void seed() {
+        jdbcTemplate.update("INSERT INTO users (id, email, password, full_name, role) VALUES "
+                + "(1, 'comptable@test.ma', 'x', 'Comptable', 'COMPTABLE')");
+
+        List<Object[]> societes = new ArrayList<>();
+        for (long s = 1; s <= SOCIETES; s++) {
+            societes.add(new Object[] { s, "Societe " + s, String.format("%015d", s), 1L });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO societes (id, raison_sociale, ice, adresse, telephone, email_contact, "
+                + "accountant_id) VALUES (?, ?, ?, 'Casablanca', '0522000000', 'contact@test.ma', ?)", societes);
+
+        // Realistic skew: most documents are validated, the queue is a small fraction
+        List<Object[]> documents = new ArrayList<>();
+        LocalDateTime start = LocalDateTime.of(2018, 1, 1, 8, 0);
+        for (int i = 1; i <= DOCUMENTS; i++) {
+            String statut = switch (i % 20) {
+                case 0 -> "EN_ATTENTE";
+                case 1 -> "REJETE";
+                case 2 -> "SUPPRIME";
+                default -> "VALIDE";
+            };
+            int exercice = 2018 + i % 8;
+            documents.add(new Object[] { i, "PC-" + i, statut, (long) (i % SOCIETES + 1), exercice,
+                    Date.valueOf(LocalDate.of(exercice, 6, 1)), Timestamp.valueOf(start.plusHours(i)),
+                    Date.valueOf(LocalDate.of(exercice + 10, 12, 31)) });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO documents (id, numero_piece, type_document, categorie_comptable, "
+                + "date_piece, montant, chemin_fichier, nom_fichier_original, statut, societe_id, "
+                + "uploaded_by_user_id, exercice_comptable, created_at, updated_at, retention_expires_at) "
+                + "VALUES (?, ?, 'FACTURE_ACHAT', 'Achats', ?, 100.00, 'uploads/x.pdf', 'x.pdf', ?, ?, 1, ?, ?, ?, ?)",
+                documents, documents.size(), (ps, row) -> {
+                    ps.setObject(1, row[0]);
+                    ps.setObject(2, row[1]);
+                    ps.setObject(3, row[5]);
+                    ps.setObject(4, row[2]);
+                    ps.setObject(5, row[3]);
+                    ps.setObject(6, row[4]);
+                    ps.setObject(7, row[6]);
+                    ps.setObject(8, row[6]);
+                    ps.setObject(9, row[7]);
+                });
+        jdbcTemplate.execute("ANALYZE TABLE documents");
+    }
+
+    @Test
+    void pendingQueueForComptable_ShouldUseIndex() {
+        assertUsesIndex(Set.of("idx_documents_societe_statut"),
+                () -> documentRepository.findWithPartiesBySocieteInAndStatut(
+                        List.of(first, second), Document.StatutDocument.EN_ATTENTE),
+                first.getId(), second.getId(), "EN_ATTENTE");
+    }
+
+    @Test
+    void listingByExercice_ShouldUseIndex() {
+        assertUsesIndex(Set.of("idx_documents_societe_exercice"),
+                () -> documentRepository.findWithPartiesBySocieteInAndExerciceComptable(
+                        List.of(first, second), 2024),
+                first.getId(), second.getId(), 2024);
+    }
+
+    @Test
+    void listingBySociete_ShouldUseIndex() {
+        assertUsesIndex(SOCIETE_INDEXES,
+                () -> documentRepository.findWithPartiesBySocieteIn(List.of(first, second)),
+                first.getId(), second.getId());
+    }
+
+    @Test
+    void pendingQueue_ShouldUseIndex() {
+        assertUsesIndex(Set.of("idx_documents_statut_exercice"),
+                () -> documentRepository.findWithPartiesByStatut(Document.StatutDocument.EN_ATTENTE),
+                "EN_ATTENTE");
+    }
+
+    @Test
+    void pendingQueueByExercice_ShouldUseIndex() {
+        assertUsesIndex(Set.of("idx_documents_statut_exercice"),
+                () -> documentRepository.findWithPartiesByStatutAndExerciceComptable(
+                        Document.StatutDocument.EN_ATTENTE, 2024),
+                "EN_ATTENTE", 2024);
+    }
+
+    @Test
+    void complianceCountsBySociete_ShouldUseIndex() {
+        assertUsesIndex(SOCIETE_INDEXES,
+                () -> documentRepository.countByStatusForSociete(first.getId()), first.getId());
+    }
+
+    @Test
+    void coldTierCandidates_ShouldUseIndex() {
+        assertUsesIndex(Set.of("idx_documents_statut_exercice"),
+                () -> documentRepository.findColdTierCandidates(Document.StatutDocument.VALIDE,
+                        Document.StatutStockage.STORED, 2018, PageRequest.of(0, 100)),
+                "VALIDE", "STORED", 2018, 100);
+    }
+
+    @Test
+    void paginatedListing_ShouldUseIndex() {
+        Specification<Document> spec = (root, query, cb) -> root.get("societe").in(List.of(first, second));
+
+        assertUsesIndex(Set.of("idx_documents_societe_created"),
+                () -> documentRepository.findAll(spec,
+                        PageRequest.of(0, 20, Sort.by("createdAt").descending())),
+                first.getId(), second.getId(), 20);
+    }
+
+    /**
+     * Runs the call, then EXPLAINs the first statement it issued with the given
+     * bind values (in placeholder order), and checks that one of the expected
+     * indexes is used and that every table is reached by a lookup.
+     */
+    private void assertUsesIndex(Set<String> expectedKeys, Runnable call, Object... parameters) {
+        RecordingStatementInspector.reset();
+        call.run();
+        List<String> statements = RecordingStatementInspector.statements();
+        assertFalse(statements.isEmpty(), "no statement issued");
+        String sql = statements.get(0);
+
+        List<Map<String, Object>> plan = jdbcTemplate.queryForList("EXPLAIN " + sql, parameters);
+        for (Map<String, Object> row : plan) {
+            assertTrue(LOOKUP_ACCESS.contains(String.valueOf(row.get("type"))),
+                    () -> "Access " + row.get("type") + " on " + row.get("table") + ": " + sql);
+        }
+        assertTrue(plan.stream().anyMatch(row -> expectedKeys.contains(String.valueOf(row.get("key")))),
+                () -> "None of " + expectedKeys + " used: " + plan);
+    }
+}
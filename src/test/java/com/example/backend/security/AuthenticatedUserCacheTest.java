@@ -0,0 +1,86 @@
+package com.example.backend.security;
+
+import com.example.backend.entity.User;
+import com.example.backend.exception.InvalidTokenException;
+import com.example.backend.repository.UserRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class AuthenticatedUserCacheTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private AuthenticatedUserCache userCache;
+
+    @BeforeEach
+    void setUp() {
+        userCache = new AuthenticatedUserCache(userRepository, true, 10, 60);
+    }
+
+    @Test
+    void principalFor_ShouldLoadUserOnceAcrossRequests() {
+        // Arrange
+        User user = user(User.Role.COMPTABLE, true);
+        when(userRepository.findByEmail("comptable@test.ma")).thenReturn(Optional.of(user));
+
+        // Act
+        CustomUserDetails first = userCache.principalFor(claims("COMPTABLE"));
+        CustomUserDetails second = userCache.principalFor(claims("COMPTABLE"));
+
+        // Assert
+        assertSame(user, first.getUser());
+        assertSame(user, second.getUser());
+        assertEquals("ROLE_COMPTABLE", second.getAuthorities().iterator().next().getAuthority());
+        verify(userRepository, times(1)).findByEmail("comptable@test.ma");
+    }
+
+    @Test
+    void principalFor_ShouldRejectDeactivatedUser_AfterEviction() {
+        // Arrange
+        when(userRepository.findByEmail("comptable@test.ma"))
+                .thenReturn(Optional.of(user(User.Role.COMPTABLE, true)))
+                .thenReturn(Optional.of(user(User.Role.COMPTABLE, false)));
+        userCache.principalFor(claims("COMPTABLE"));
+
+        // Act
+        userCache.evictAfterCommit("comptable@test.ma");
+
+        // Assert
+        assertThrows(InvalidTokenException.class, () -> userCache.principalFor(claims("COMPTABLE")));
+    }
+
+    @Test
+    void principalFor_ShouldRejectToken_WhenRoleClaimNoLongerMatches() {
+        // Arrange
+        when(userRepository.findByEmail("comptable@test.ma")).thenReturn(Optional.of(user(User.Role.CLIENT, true)));
+
+        // Act & Assert
+        assertThrows(InvalidTokenException.class, () -> userCache.principalFor(claims("COMPTABLE")));
+    }
+
+    private static Claims claims(String role) {
+        return Jwts.claims().subject("comptable@test.ma").add("role", role).build();
+    }
+
+    private static User user(User.Role role, boolean active) {
+        return User.builder()
+                .id(3L)
+                .email("comptable@test.ma")
+                .fullName("Comptable")
+                .role(role)
+                .active(active)
+                .build();
+    }
+}
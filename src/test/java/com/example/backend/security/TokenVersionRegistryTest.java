@@ -0,0 +1,72 @@
+package com.example.backend.security;
+
+import com.example.backend.dto.UserTokenVersion;
+import com.example.backend.repository.UserRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TokenVersionRegistryTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private TokenVersionRegistry tokenVersions;
+
+    @BeforeEach
+    void setUp() {
+        tokenVersions = new TokenVersionRegistry(userRepository);
+    }
+
+    @Test
+    void isCurrent_ShouldAcceptAnyToken_ForUsersNeverRevoked() {
+        // Act & Assert
+        assertTrue(tokenVersions.isCurrent(1L, claims(null)));
+        assertTrue(tokenVersions.isCurrent(1L, claims("0")));
+    }
+
+    @Test
+    void isCurrent_ShouldRejectOlderTokens_AfterVersionBump() {
+        // Act
+        tokenVersions.recordAfterCommit(1L, 1);
+
+        // Assert
+        assertFalse(tokenVersions.isCurrent(1L, claims(null)));
+        assertFalse(tokenVersions.isCurrent(1L, claims("0")));
+        assertTrue(tokenVersions.isCurrent(1L, claims("1")));
+        assertTrue(tokenVersions.isCurrent(2L, claims("0")));
+    }
+
+    @Test
+    void refresh_ShouldPickUpOtherNodesWithoutLoweringLocalVersions() {
+        // Arrange
+        tokenVersions.recordAfterCommit(1L, 3);
+        when(userRepository.findTokenVersions())
+                .thenReturn(List.of(new UserTokenVersion(1L, 2), new UserTokenVersion(2L, 1)));
+
+        // Act
+        tokenVersions.refresh();
+
+        // Assert
+        assertFalse(tokenVersions.isCurrent(1L, claims("2")));
+        assertFalse(tokenVersions.isCurrent(2L, claims("0")));
+    }
+
+    private static Claims claims(String tokenVersion) {
+        var builder = Jwts.claims().subject("client@test.ma");
+        if (tokenVersion != null) {
+            builder.add(TokenVersionRegistry.CLAIM, tokenVersion);
+        }
+        return builder.build();
+    }
+}
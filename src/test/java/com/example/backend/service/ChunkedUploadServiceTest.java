@@ -0,0 +1,349 @@
+package com.example.backend.service;
+
+import com.example.backend.contract.DocumentServiceContract;
+import com.example.backend.contract.FileValidatorContract;
+import com.example.backend.dto.ChunkedUploadInitDTO;
+import com.example.backend.dto.ChunkedUploadSessionDTO;
+import com.example.backend.dto.DocumentResponseDTO;
+import com.example.backend.dto.DocumentUploadDTO;
+import com.example.backend.dto.StoredFileInfo;
+import com.example.backend.entity.Document;
+import com.example.backend.entity.UploadSession;
+import com.example.backend.entity.User;
+import com.example.backend.exception.BusinessException;
+import com.example.backend.exception.ResourceNotFoundException;
+import com.example.backend.repository.UploadSessionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ChunkedUploadServiceTest {
+
+    private static final int CHUNK_SIZE = 1024;
+
+    @TempDir
+    Path tempDir;
+
+    @Mock
+    private UploadSessionRepository sessionRepository;
+
+    @Mock
+    private DocumentServiceContract documentService;
+
+    @Mock
+    private FileValidatorContract fileValidator;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    /** Stands in for the database: the rows, and one lock playing every row lock. */
+    private final Map<String, UploadSession> sessions = new ConcurrentHashMap<>();
+    private final ReentrantLock rowLock = new ReentrantLock();
+
+    private ChunkedUploadService service;
+    private User user;
+    private byte[] content;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        service = new ChunkedUploadService(sessionRepository, documentService, fileValidator, transactionTemplate,
+                tempDir, 1, 60);
+        user = User.builder().id(1L).build();
+
+        // Three chunks, the last one shorter
+        content = new byte[2 * CHUNK_SIZE + 100];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) (i * 31);
+        }
+
+        // The fake database; not every test deletes a session
+        lenient().when(sessionRepository.save(any(UploadSession.class))).thenAnswer(invocation -> {
+            UploadSession session = invocation.getArgument(0);
+            sessions.put(session.getId(), session);
+            return session;
+        });
+        lenient().when(sessionRepository.findById(anyString()))
+                .thenAnswer(invocation -> Optional.ofNullable(sessions.get(invocation.<String>getArgument(0))));
+        lenient().when(sessionRepository.findByIdForUpdate(anyString())).thenAnswer(invocation -> {
+            rowLock.lock();
+            return Optional.ofNullable(sessions.get(invocation.<String>getArgument(0)));
+        });
+        lenient().when(sessionRepository.findRevisionById(anyString())).thenAnswer(invocation -> Optional
+                .ofNullable(sessions.get(invocation.<String>getArgument(0))).map(UploadSession::getRevision));
+        lenient().doAnswer(invocation -> sessions.remove(invocation.<UploadSession>getArgument(0).getId()))
+                .when(sessionRepository).delete(any(UploadSession.class));
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation -> {
+            try {
+                return invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null);
+            } finally {
+                while (rowLock.isHeldByCurrentThread()) {
+                    rowLock.unlock();
+                }
+            }
+        });
+    }
+
+    @Test
+    void writeChunk_ShouldAssembleFile_WhenChunksArriveOutOfOrder() throws Exception {
+        // Arrange
+        ChunkedUploadSessionDTO session = init(null);
+
+        // Act
+        ChunkedUploadSessionDTO afterLast = put(session.getId(), 2);
+        put(session.getId(), 0);
+        ChunkedUploadSessionDTO afterAll = put(session.getId(), 1);
+
+        // Assert
+        assertEquals(List.of(0, 1), afterLast.getChunksManquants());
+        assertTrue(afterAll.isComplete());
+        assertArrayEquals(content, Files.readAllBytes(sessionFile(session.getId())));
+    }
+
+    @Test
+    void writeChunk_ShouldBeIdempotent_WhenChunkIsSentTwice() throws Exception {
+        // Arrange
+        ChunkedUploadSessionDTO session = init(null);
+        put(session.getId(), 0);
+
+        // Act
+        ChunkedUploadSessionDTO resent = put(session.getId(), 0);
+
+        // Assert
+        assertEquals(List.of(1, 2), resent.getChunksManquants());
+        assertEquals(1, sessions.get(session.getId()).getReceivedChunks().cardinality());
+        assertArrayEquals(slice(0), Arrays.copyOf(Files.readAllBytes(sessionFile(session.getId())),
+                CHUNK_SIZE));
+    }
+
+    @Test
+    void writeChunk_ShouldNotTouchFile_WhenChunkChecksumDoesNotMatch() throws Exception {
+        // Arrange
+        ChunkedUploadSessionDTO session = init(null);
+        put(session.getId(), 0);
+        byte[] corrupted = slice(0).clone();
+        corrupted[10] ^= 0x01;
+
+        // Act
+        BusinessException ex = assertThrows(BusinessException.class, () -> service.writeChunk(session.getId(), 0,
+                sha256(slice(0)), new ByteArrayInputStream(corrupted), user));
+
+        // Assert
+        assertEquals("CHUNK_CHECKSUM_MISMATCH", ex.getCode());
+        assertArrayEquals(slice(0), Arrays.copyOf(Files.readAllBytes(sessionFile(session.getId())),
+                CHUNK_SIZE));
+    }
+
+    @Test
+    void commit_ShouldRegisterAssembledFile_AndDeleteSession() throws Exception {
+        // Arrange
+        ChunkedUploadSessionDTO session = init(sha256(content));
+        putAll(session.getId());
+        when(documentService.registerAssembledUpload(any(), any(), eq("releve.pdf"), eq("S1"), eq(user)))
+                .thenReturn(DocumentResponseDTO.builder().id(42L).build());
+
+        // Act
+        DocumentResponseDTO response = service.commit(session.getId(), uploadDto(), "S1", user);
+
+        // Assert
+        ArgumentCaptor<StoredFileInfo> assembled = ArgumentCaptor.forClass(StoredFileInfo.class);
+        verify(documentService).registerAssembledUpload(any(), assembled.capture(), any(), any(), any());
+        assertEquals(42L, response.getId());
+        assertEquals(sha256(content), assembled.getValue().checksumSha256());
+        assertEquals(content.length, assembled.getValue().size());
+        assertFalse(sessions.containsKey(session.getId()));
+    }
+
+    @Test
+    void commit_ShouldRejectAndDiscard_WhenAssembledChecksumDoesNotMatch() throws Exception {
+        // Arrange
+        ChunkedUploadSessionDTO session = init(sha256(new byte[] { 1, 2, 3 }));
+        putAll(session.getId());
+        Path file = sessionFile(session.getId());
+
+        // Act
+        BusinessException ex = assertThrows(BusinessException.class,
+                () -> service.commit(session.getId(), uploadDto(), "S1", user));
+
+        // Assert
+        assertEquals("CHECKSUM_MISMATCH", ex.getCode());
+        verify(documentService, never()).registerAssembledUpload(any(), any(), any(), any(), any());
+        assertFalse(sessions.containsKey(session.getId()));
+        assertFalse(Files.exists(file));
+    }
+
+    @Test
+    void commit_ShouldKeepSession_WhenChunksAreMissing() throws Exception {
+        // Arrange
+        ChunkedUploadSessionDTO session = init(null);
+        put(session.getId(), 0);
+
+        // Act
+        BusinessException ex = assertThrows(BusinessException.class,
+                () -> service.commit(session.getId(), uploadDto(), "S1", user));
+
+        // Assert
+        assertEquals("UPLOAD_INCOMPLETE", ex.getCode());
+        assertTrue(sessions.containsKey(session.getId()));
+    }
+
+    @Test
+    void commit_ShouldKeepSession_WhenChunkIsResentDuringInspection() throws Exception {
+        // Arrange — a retried chunk lands after the commit read the session, before it locks it
+        ChunkedUploadSessionDTO session = init(null);
+        putAll(session.getId());
+        doAnswer(invocation -> put(session.getId(), 1)).when(fileValidator)
+                .validateDeclaredFile(any(), anyLong(), any());
+
+        // Act
+        BusinessException ex = assertThrows(BusinessException.class,
+                () -> service.commit(session.getId(), uploadDto(), "S1", user));
+
+        // Assert
+        assertEquals("UPLOAD_MODIFIED", ex.getCode());
+        assertTrue(sessions.containsKey(session.getId()));
+        verify(documentService, never()).registerAssembledUpload(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void expiredSession_ShouldRefuseChunksAndCommit_AndBePurged() throws Exception {
+        // Arrange
+        ChunkedUploadSessionDTO session = init(null);
+        putAll(session.getId());
+        sessions.get(session.getId()).setExpiresAt(LocalDateTime.now().minusMinutes(1));
+        Path file = sessionFile(session.getId());
+        when(sessionRepository.findByExpiresAtBefore(any(LocalDateTime.class)))
+                .thenAnswer(invocation -> List.copyOf(sessions.values()));
+
+        // Act
+        BusinessException chunkEx = assertThrows(BusinessException.class, () -> put(session.getId(), 0));
+        BusinessException commitEx = assertThrows(BusinessException.class,
+                () -> service.commit(session.getId(), uploadDto(), "S1", user));
+        service.purgeExpiredSessions();
+
+        // Assert
+        assertEquals("UPLOAD_SESSION_EXPIRED", chunkEx.getCode());
+        assertEquals("UPLOAD_SESSION_EXPIRED", commitEx.getCode());
+        assertFalse(sessions.containsKey(session.getId()));
+        assertFalse(Files.exists(file));
+    }
+
+    @Test
+    void purgeExpiredSessions_ShouldSpareSession_ExtendedByConcurrentChunk() throws Exception {
+        // Arrange — listed as expired, then a chunk extends it before the purge locks it
+        ChunkedUploadSessionDTO session = init(null);
+        UploadSession listed = sessions.get(session.getId());
+        when(sessionRepository.findByExpiresAtBefore(any(LocalDateTime.class))).thenAnswer(invocation -> {
+            listed.setExpiresAt(LocalDateTime.now().plusMinutes(60));
+            return List.of(listed);
+        });
+
+        // Act
+        service.purgeExpiredSessions();
+
+        // Assert
+        assertTrue(sessions.containsKey(session.getId()));
+        assertTrue(Files.exists(sessionFile(session.getId())));
+    }
+
+    @Test
+    void writeChunk_ShouldWaitForCommit_AndNotChangeInspectedFile() throws Exception {
+        // Arrange
+        ChunkedUploadSessionDTO session = init(null);
+        putAll(session.getId());
+        byte[] other = new byte[CHUNK_SIZE];
+        List<CompletableFuture<ChunkedUploadSessionDTO>> lateChunk = new ArrayList<>();
+        when(documentService.registerAssembledUpload(any(), any(), any(), any(), any())).thenAnswer(invocation -> {
+            // A retried chunk arrives after the file was inspected, before the session is deleted
+            lateChunk.add(CompletableFuture.supplyAsync(() -> service.writeChunk(session.getId(), 0, sha256(other),
+                    new ByteArrayInputStream(other), user)));
+            while (!rowLock.hasQueuedThreads() && !lateChunk.get(0).isDone()) {
+                Thread.onSpinWait();
+            }
+            assertArrayEquals(content, Files.readAllBytes(sessionFile(session.getId())));
+            return DocumentResponseDTO.builder().id(42L).build();
+        });
+
+        // Act
+        service.commit(session.getId(), uploadDto(), "S1", user);
+        CompletionException ex = assertThrows(CompletionException.class, lateChunk.get(0)::join);
+
+        // Assert — the chunk found the session gone instead of rewriting the registered file
+        assertInstanceOf(ResourceNotFoundException.class, ex.getCause());
+        assertFalse(sessions.containsKey(session.getId()));
+    }
+
+    private ChunkedUploadSessionDTO init(String checksum) {
+        return service.initSession(ChunkedUploadInitDTO.builder()
+                .nomFichier("releve.pdf")
+                .tailleTotale((long) content.length)
+                .typeDocument(Document.TypeDocument.RELEVE_BANCAIRE)
+                .checksumSha256(checksum)
+                .build(), user);
+    }
+
+    private ChunkedUploadSessionDTO put(String sessionId, int index) {
+        byte[] chunk = slice(index);
+        return service.writeChunk(sessionId, index, sha256(chunk), new ByteArrayInputStream(chunk), user);
+    }
+
+    private void putAll(String sessionId) {
+        for (int i = 0; i < 3; i++) {
+            put(sessionId, i);
+        }
+    }
+
+    private byte[] slice(int index) {
+        int from = index * CHUNK_SIZE;
+        return Arrays.copyOfRange(content, from, Math.min(from + CHUNK_SIZE, content.length));
+    }
+
+    private Path sessionFile(String sessionId) {
+        return Paths.get(sessions.get(sessionId).getCheminFichier());
+    }
+
+    private static DocumentUploadDTO uploadDto() {
+        return DocumentUploadDTO.builder()
+                .numeroPiece("RB-2025-001")
+                .typeDocument(Document.TypeDocument.RELEVE_BANCAIRE)
+                .build();
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
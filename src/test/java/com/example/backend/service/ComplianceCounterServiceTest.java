@@ -0,0 +1,127 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.DocumentStatusCount;
+import com.example.backend.dto.SocieteComplianceTotals;
+import com.example.backend.entity.Document;
+import com.example.backend.entity.Societe;
+import com.example.backend.repository.ComplianceCounterRepository;
+import com.example.backend.repository.DocumentRepository;
+import com.example.backend.repository.SocieteRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ComplianceCounterServiceTest {
+
+    @Mock
+    private ComplianceCounterRepository counterRepository;
+
+    @Mock
+    private DocumentRepository documentRepository;
+
+    @Mock
+    private SocieteRepository societeRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private ComplianceCounterService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ComplianceCounterService(counterRepository, documentRepository, societeRepository,
+                transactionTemplate, 8, 60);
+    }
+
+    @Test
+    void recordInserted_ShouldApplyOneDeltaPerCounterInKeyOrder() {
+        // Arrange
+        Document vente = document(2025, Document.TypeDocument.FACTURE_VENTE);
+        Document achat = document(2025, Document.TypeDocument.FACTURE_ACHAT);
+
+        // Act
+        service.recordInserted(List.of(vente, achat, vente));
+
+        // Assert
+        InOrder order = inOrder(counterRepository);
+        order.verify(counterRepository).increment(7L, 2025, "FACTURE_ACHAT", "EN_ATTENTE", 1L);
+        order.verify(counterRepository).increment(7L, 2025, "FACTURE_VENTE", "EN_ATTENTE", 2L);
+        verifyNoMoreInteractions(counterRepository);
+    }
+
+    @Test
+    void recordStatusChange_ShouldMoveOneDocumentBetweenCounters() {
+        // Arrange
+        Document document = document(2024, Document.TypeDocument.FACTURE_ACHAT);
+        document.setStatut(Document.StatutDocument.VALIDE);
+
+        // Act
+        service.recordStatusChange(document, Document.StatutDocument.EN_ATTENTE);
+
+        // Assert
+        verify(counterRepository).increment(7L, 2024, "FACTURE_ACHAT", "EN_ATTENTE", -1L);
+        verify(counterRepository).increment(7L, 2024, "FACTURE_ACHAT", "VALIDE", 1L);
+    }
+
+    @Test
+    void repairDrift_ShouldRebuildOnlySocietesWhoseCountersDiffer() {
+        // Arrange
+        DocumentStatusCount count = new DocumentStatusCount(2025, Document.TypeDocument.FACTURE_ACHAT,
+                Document.StatutDocument.VALIDE, 3);
+        when(societeRepository.findAllIds()).thenReturn(List.of(1L, 2L));
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(documentRepository.countByStatusForSociete(1L)).thenReturn(List.of(count));
+        when(counterRepository.findCounts(1L)).thenReturn(List.of(count));
+        when(documentRepository.countByStatusForSociete(2L)).thenReturn(List.of(count));
+        when(counterRepository.findCounts(2L)).thenReturn(List.of());
+
+        // Act
+        int repaired = service.repairDrift();
+
+        // Assert
+        assertEquals(1, repaired);
+        verify(counterRepository).deleteBySociete(2L);
+        verify(counterRepository).rebuildForSociete(2L);
+        verify(counterRepository, never()).deleteBySociete(1L);
+    }
+
+    @Test
+    void portfolioTotals_ShouldServeFromCacheUntilCountersChange() {
+        // Arrange
+        when(counterRepository.findTotalsPerSociete(eq(2025), any(), any(), any(), any()))
+                .thenReturn(List.of(new SocieteComplianceTotals(7L, "Atlas SARL", "001", 10, 1, 8, 1, 0)));
+
+        // Act
+        service.portfolioTotals(2025);
+        service.portfolioTotals(2025);
+        service.recordInserted(List.of(document(2025, Document.TypeDocument.FACTURE_ACHAT)));
+        List<SocieteComplianceTotals> reloaded = service.portfolioTotals(2025);
+
+        // Assert
+        assertEquals(8, reloaded.get(0).approved());
+        verify(counterRepository, times(2)).findTotalsPerSociete(eq(2025), any(), any(), any(), any());
+    }
+
+    private static Document document(int exercice, Document.TypeDocument type) {
+        return Document.builder()
+                .societe(Societe.builder().id(7L).build())
+                .exerciceComptable(exercice)
+                .typeDocument(type)
+                .statut(Document.StatutDocument.EN_ATTENTE)
+                .build();
+    }
+}
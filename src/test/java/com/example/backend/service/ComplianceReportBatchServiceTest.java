@@ -0,0 +1,95 @@
+package com.example.backend.service;
+
+import com.example.backend.contract.StoredFile;
+import com.example.backend.dto.ReportBatchStatusDTO;
+import com.example.backend.exception.BusinessException;
+import com.example.backend.repository.SocieteRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ComplianceReportBatchServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Mock
+    private SocieteRepository societeRepository;
+
+    @Mock
+    private ComplianceReportService reportService;
+
+    @Test
+    void start_ShouldZipEveryReportAndListFailures() throws Exception {
+        // Arrange
+        ComplianceReportBatchService service = service(Runnable::run);
+        when(societeRepository.findAllIds()).thenReturn(List.of(1L, 2L, 3L));
+        when(reportService.renderNow(1L)).thenReturn(report("one"));
+        when(reportService.renderNow(2L)).thenThrow(new IOException("disk full"));
+        when(reportService.renderNow(3L)).thenReturn(report("three"));
+
+        // Act
+        ReportBatchStatusDTO status = service.start();
+
+        // Assert
+        ReportBatchStatusDTO done = service.getStatus(status.getJobId());
+        assertEquals("COMPLETED", done.getStatus());
+        assertEquals(3, done.getTotal());
+        assertEquals(2, done.getCompleted());
+        assertEquals(Map.of(2L, "disk full"), done.getErrors());
+
+        List<String> entries = new ArrayList<>();
+        try (StoredFile archive = service.openArchive(status.getJobId());
+                ZipInputStream zip = new ZipInputStream(Files.newInputStream(archive.backingFile()))) {
+            for (ZipEntry entry; (entry = zip.getNextEntry()) != null;) {
+                entries.add(entry.getName());
+            }
+        }
+        assertEquals(List.of("compliance_report_1.pdf", "compliance_report_3.pdf", "errors.txt"), entries);
+    }
+
+    @Test
+    void cancel_ShouldStopQueuedJobWithoutRendering() throws Exception {
+        // Arrange
+        List<Runnable> queued = new ArrayList<>();
+        ComplianceReportBatchService service = service(queued::add);
+        when(societeRepository.findAllIds()).thenReturn(List.of(1L, 2L));
+        String jobId = service.start().getJobId();
+
+        // Act
+        ReportBatchStatusDTO cancelled = service.cancel(jobId);
+        queued.forEach(Runnable::run);
+
+        // Assert
+        assertEquals("CANCELLED", cancelled.getStatus());
+        assertEquals("CANCELLED", service.getStatus(jobId).getStatus());
+        verify(reportService, never()).renderNow(anyLong());
+        BusinessException exception = assertThrows(BusinessException.class, () -> service.openArchive(jobId));
+        assertEquals("REPORT_BATCH_NOT_READY", exception.getCode());
+    }
+
+    private ComplianceReportBatchService service(Executor batchExecutor) {
+        return new ComplianceReportBatchService(societeRepository, reportService, batchExecutor, Runnable::run,
+                tempDir.resolve("batches").toString(), 2, 24);
+    }
+
+    private Path report(String name) throws IOException {
+        return Files.writeString(tempDir.resolve(name + ".pdf"), "%PDF-" + name);
+    }
+}
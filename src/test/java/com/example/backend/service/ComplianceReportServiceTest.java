@@ -0,0 +1,95 @@
+package com.example.backend.service;
+
+import com.example.backend.contract.SocieteServiceContract;
+import com.example.backend.contract.StoredFile;
+import com.example.backend.dto.ComplianceReportStatusDTO;
+import com.example.backend.dto.SocietComplianceOverviewDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ComplianceReportServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Mock
+    private SocieteServiceContract societeService;
+
+    private ComplianceReportService service;
+
+    @BeforeEach
+    void setUp() {
+        // Renders inline
+        service = new ComplianceReportService(societeService, Runnable::run, tempDir.toString());
+    }
+
+    @Test
+    void renderInBackground_ShouldCacheReportForCurrentData() throws Exception {
+        // Arrange
+        when(societeService.getSocietComplianceOverview(1L)).thenReturn(overview(10));
+
+        // Act
+        assertNull(service.findCached(1L));
+        ComplianceReportStatusDTO first = service.renderInBackground(1L);
+        ComplianceReportStatusDTO second = service.renderInBackground(1L);
+
+        // Assert
+        assertFalse(first.isReady());
+        assertTrue(second.isReady());
+        assertEquals(first.getVersion(), second.getVersion());
+        try (StoredFile cached = service.findCached(1L)) {
+            assertNotNull(cached);
+            assertEquals("%PDF", new String(Files.readAllBytes(cached.backingFile()), 0, 4, StandardCharsets.US_ASCII));
+        }
+    }
+
+    @Test
+    void renderInBackground_ShouldReplaceReportWhenDataChanges() throws Exception {
+        // Arrange
+        when(societeService.getSocietComplianceOverview(1L)).thenReturn(overview(10), overview(11), overview(11));
+        service.renderInBackground(1L);
+
+        // Act
+        ComplianceReportStatusDTO changed = service.renderInBackground(1L);
+
+        // Assert
+        assertFalse(changed.isReady());
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertEquals(List.of("societe-1-" + changed.getVersion() + ".pdf"),
+                    files.map(p -> p.getFileName().toString()).toList());
+        }
+        assertNotNull(service.findCached(1L));
+    }
+
+    private static SocietComplianceOverviewDTO overview(long approved) {
+        return SocietComplianceOverviewDTO.builder()
+                .societeId(1L)
+                .raisonSociale("Atlas SARL")
+                .ice("001000000000001")
+                .totalDocuments(12)
+                .approvedDocuments(approved)
+                .compliancePercentage(approved * 100.0 / 12)
+                .complianceStatus("AT_RISK")
+                .exerciceBreakdowns(List.of(SocietComplianceOverviewDTO.ExerciceBreakdownDTO.builder()
+                        .exerciceComptable(2025)
+                        .total(12)
+                        .approved(approved)
+                        .build()))
+                .docTypeBreakdowns(List.of())
+                .build();
+    }
+}
@@ -0,0 +1,304 @@
+package com.example.backend.service;
+
+import com.example.backend.contract.FileStorageService;
+import com.example.backend.contract.FileValidatorContract;
+import com.example.backend.dto.CursorPageResponse;
+import com.example.backend.dto.DocumentResponseDTO;
+import com.example.backend.entity.Document;
+import com.example.backend.entity.Societe;
+import com.example.backend.entity.User;
+import com.example.backend.service.search.DocumentSearchIndex;
+import com.example.backend.service.storage.StoragePromotionService;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.validation.Validator;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * Guards the listing endpoints against N+1 regressions: each listing must
+ * load a full page, including societe and user names, in a fixed number of
+ * statements regardless of how many documents it returns.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import(DocumentService.class)
+class DocumentListingQueryCountTest {
+
+    private static final int DOCUMENTS = 30;
+
+    @Autowired
+    private DocumentService documentService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockitoBean
+    private FileStorageService fileStorageService;
+
+    @MockitoBean
+    private FileValidatorContract fileValidator;
+
+    @MockitoBean
+    private AuditLogService auditLogService;
+
+    @MockitoBean
+    private DocumentDescriptorCache descriptorCache;
+
+    @MockitoBean
+    private StoragePromotionService storagePromotionService;
+
+    @MockitoBean
+    private ThumbnailService thumbnailService;
+
+    @MockitoBean
+    private DocumentSearchIndex searchIndex;
+
+    @MockitoBean
+    private ComplianceCounterService complianceCounters;
+
+    @MockitoBean
+    private TransactionTemplate transactionTemplate;
+
+    @MockitoBean
+    private Validator validator;
+
+    private User admin;
+    private User comptable;
+    private Long documentId;
+
+    @BeforeEach
+    void setUp() {
+        admin = entityManager.persist(user("admin@test.ma", User.Role.ADMIN));
+        comptable = entityManager.persist(user("comptable@test.ma", User.Role.COMPTABLE));
+
+        Societe first = entityManager.persist(societe("Atlas SARL", "001000000000001", comptable));
+        Societe second = entityManager.persist(societe("Rif SA", "001000000000002", comptable));
+
+        // Distinct uploaders and validators, so lazy loading would need one select per row
+        for (int i = 0; i < DOCUMENTS; i++) {
+            User uploader = entityManager.persist(user("client" + i + "@test.ma", User.Role.CLIENT));
+            Document document = entityManager.persist(document("PC-" + i, i % 2 == 0 ? first : second, uploader));
+            if (i % 3 == 0) {
+                document.setValidatedBy(entityManager.persist(user("validator" + i + "@test.ma", User.Role.COMPTABLE)));
+            }
+            documentId = document.getId();
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void paginatedListing_ShouldNotQueryPerDocument() {
+        // Act
+        long statements = countStatements(() -> {
+            Page<DocumentResponseDTO> page = documentService.getDocumentsBySocietePaginatedFiltered(
+                    comptable.getId(), 0, 20, "id", "desc", null, null, null, null, null, null, null);
+            assertEquals(20, page.getContent().size());
+            assertNotNull(page.getContent().get(0).getUploadedByName());
+            return page;
+        });
+
+        // Assert — user, societes, page, count
+        assertEquals(4, statements);
+    }
+
+    @Test
+    void cursorListing_ShouldWalkAllDocumentsAtConstantCostPerPage() {
+        // Arrange
+        Set<Long> seen = new HashSet<>();
+        List<Long> statementsPerPage = new ArrayList<>();
+        String[] cursor = { null };
+
+        // Act
+        do {
+            // Each page is a separate request with its own persistence context
+            entityManager.clear();
+            statementsPerPage.add(countStatements(() -> {
+                CursorPageResponse<DocumentResponseDTO> page = documentService.getDocumentsBySocieteCursor(
+                        comptable.getId(), cursor[0], 7, "createdAt", "desc", false,
+                        null, null, null, null, null, null, null);
+                page.getContent().forEach(d -> assertTrue(seen.add(d.getId()), "duplicate " + d.getId()));
+                cursor[0] = page.getNextCursor();
+                return page;
+            }));
+        } while (cursor[0] != null);
+
+        // Assert — user, societes, page; no count query
+        assertEquals(DOCUMENTS, seen.size());
+        assertEquals(5, statementsPerPage.size());
+        statementsPerPage.forEach(statements -> assertEquals(3, statements));
+    }
+
+    @Test
+    void listingBySociete_ShouldNotQueryPerSocieteOrDocument() {
+        // Act
+        long statements = countStatements(() -> {
+            List<DocumentResponseDTO> documents = documentService.getDocumentsBySociete(comptable.getId());
+            assertEquals(DOCUMENTS, documents.size());
+            return documents;
+        });
+
+        // Assert — user, societes, documents
+        assertEquals(3, statements);
+    }
+
+    @Test
+    void listingByExercice_ShouldNotQueryPerSocieteOrDocument() {
+        // Act
+        long statements = countStatements(() -> {
+            List<DocumentResponseDTO> documents = documentService.getDocumentsBySocieteAndExercice(admin.getId(), 2025);
+            assertEquals(DOCUMENTS, documents.size());
+            return documents;
+        });
+
+        // Assert — user, societes, documents
+        assertEquals(3, statements);
+    }
+
+    @Test
+    void pendingQueue_ShouldLoadInSingleStatement() {
+        // Act
+        long statements = countStatements(() -> {
+            List<DocumentResponseDTO> documents = documentService.getAllPendingDocuments();
+            assertEquals(DOCUMENTS, documents.size());
+            return documents;
+        });
+
+        // Assert
+        assertEquals(1, statements);
+    }
+
+    @Test
+    void pendingQueueForComptable_ShouldNotQueryPerSociete() {
+        // Act
+        long statements = countStatements(() -> {
+            User current = entityManager.find(User.class, comptable.getId());
+            return documentService.getPendingDocumentsForCurrentUser(current);
+        });
+
+        // Assert — user, societes, documents
+        assertEquals(3, statements);
+    }
+
+    @Test
+    void documentById_ShouldLoadInSingleStatement() {
+        // Act
+        long statements = countStatements(() -> {
+            DocumentResponseDTO document = documentService.getDocumentById(documentId);
+            assertNotNull(document.getSocieteRaisonSociale());
+            return document;
+        });
+
+        // Assert
+        assertEquals(1, statements);
+    }
+
+    @Test
+    void numeroPieceFilter_ShouldLetLikeDecide_AndKeepRowsChangedSinceIndexSync() {
+        // Arrange — the index proposes one real match and one false positive
+        when(searchIndex.matchesInsideWords(anyString())).thenReturn(true);
+        List<Long> proposed = List.of(idOf("PC-2"), idOf("PC-5"));
+        LocalDateTime future = LocalDateTime.now().plusDays(1);
+        LocalDateTime past = LocalDateTime.now().minusDays(1);
+
+        // Act
+        when(searchIndex.candidates(anyString(), any(), any()))
+                .thenReturn(Optional.of(new DocumentSearchIndex.Candidates(proposed, future)));
+        List<String> narrowed = numerosMatching("PC-2");
+        when(searchIndex.candidates(anyString(), any(), any()))
+                .thenReturn(Optional.of(new DocumentSearchIndex.Candidates(proposed, past)));
+        List<String> changedSinceSync = numerosMatching("PC-2");
+
+        // Assert — PC-5 is not LIKE '%pc-2%'; PC-20..29 are, and were written after the sync point
+        assertEquals(List.of("PC-2"), narrowed);
+        assertEquals(11, changedSinceSync.size());
+        assertTrue(changedSinceSync.stream().allMatch(numero -> numero.startsWith("PC-2")));
+    }
+
+    private List<String> numerosMatching(String numeroPiece) {
+        return documentService.getDocumentsBySocietePaginatedFiltered(comptable.getId(), 0, 50, "id", "asc",
+                null, null, null, numeroPiece, null, null, null)
+                .map(DocumentResponseDTO::getNumeroPiece)
+                .getContent();
+    }
+
+    private Long idOf(String numeroPiece) {
+        return entityManager.getEntityManager()
+                .createQuery("SELECT d.id FROM Document d WHERE d.numeroPiece = :numero", Long.class)
+                .setParameter("numero", numeroPiece)
+                .getSingleResult();
+    }
+
+    private long countStatements(Supplier<?> call) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        call.get();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private static User user(String email, User.Role role) {
+        return User.builder()
+                .email(email)
+                .password("secret")
+                .fullName(email.substring(0, email.indexOf('@')))
+                .role(role)
+                .build();
+    }
+
+    private static Societe societe(String raisonSociale, String ice, User accountant) {
+        return Societe.builder()
+                .raisonSociale(raisonSociale)
+                .ice(ice)
+                .adresse("Casablanca")
+                .telephone("0522000000")
+                .emailContact("contact@test.ma")
+                .accountant(accountant)
+                .build();
+    }
+
+    private static Document document(String numeroPiece, Societe societe, User uploader) {
+        return Document.builder()
+                .numeroPiece(numeroPiece)
+                .typeDocument(Document.TypeDocument.FACTURE_ACHAT)
+                .categorieComptable("Achats")
+                .datePiece(LocalDate.of(2025, 3, 1))
+                .montant(new BigDecimal("100.00"))
+                .cheminFichier("uploads/documents/" + numeroPiece + ".pdf")
+                .nomFichierOriginal(numeroPiece + ".pdf")
+                .societe(societe)
+                .uploadedBy(uploader)
+                .exerciceComptable(2025)
+                .build();
+    }
+}
@@ -2,8 +2,14 @@ package com.example.backend.service;
 
 import com.example.backend.contract.FileStorageService;
 import com.example.backend.contract.FileValidatorContract;
+import com.example.backend.contract.StoredFile;
+import com.example.backend.dto.DocumentBatchItemDTO;
+import com.example.backend.dto.DocumentBatchResultDTO;
+import com.example.backend.dto.DocumentDownloadDescriptor;
 import com.example.backend.dto.DocumentResponseDTO;
+import com.example.backend.dto.DocumentUploadDTO;
 import com.example.backend.dto.DocumentValidationDTO;
+import com.example.backend.dto.StoredFileInfo;
 import com.example.backend.entity.Document;
 import com.example.backend.entity.Societe;
 import com.example.backend.entity.User;
@@ -11,16 +17,29 @@ import com.example.backend.exception.BusinessException;
 import com.example.backend.repository.DocumentRepository;
 import com.example.backend.repository.SocieteRepository;
 import com.example.backend.repository.UserRepository;
+import com.example.backend.service.search.DocumentSearchIndex;
+import com.example.backend.service.storage.StoragePromotionService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import jakarta.validation.Validator;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -44,6 +63,27 @@ public class DocumentServiceTest {
     @Mock
     private AuditLogService auditLogService;
 
+    @Mock
+    private DocumentDescriptorCache descriptorCache;
+
+    @Mock
+    private StoragePromotionService storagePromotionService;
+
+    @Mock
+    private ThumbnailService thumbnailService;
+
+    @Mock
+    private DocumentSearchIndex searchIndex;
+
+    @Mock
+    private ComplianceCounterService complianceCounters;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private Validator validator;
+
     @InjectMocks
     private DocumentService documentService;
 
@@ -67,7 +107,7 @@ public class DocumentServiceTest {
                 .uploadedBy(uploader)
                 .build();
 
-        when(documentRepository.findById(documentId)).thenReturn(Optional.of(document));
+        when(documentRepository.findByIdForUpdate(documentId)).thenReturn(Optional.of(document));
         when(documentRepository.save(any(Document.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         // Act
@@ -78,6 +118,7 @@ public class DocumentServiceTest {
         assertEquals("Looks good", result.getCommentaireComptable());
         assertNotNull(document.getRetentionExpiresAt());
         verify(auditLogService).logValidation(any(Document.class), eq(validator));
+        verify(complianceCounters).recordStatusChange(document, Document.StatutDocument.EN_ATTENTE);
     }
 
     @Test
@@ -99,7 +140,7 @@ public class DocumentServiceTest {
                 .uploadedBy(uploader)
                 .build();
 
-        when(documentRepository.findById(documentId)).thenReturn(Optional.of(document));
+        when(documentRepository.findByIdForUpdate(documentId)).thenReturn(Optional.of(document));
         when(documentRepository.save(any(Document.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         // Act
@@ -120,7 +161,7 @@ public class DocumentServiceTest {
                 .statut(Document.StatutDocument.VALIDE)
                 .build();
 
-        when(documentRepository.findById(documentId)).thenReturn(Optional.of(document));
+        when(documentRepository.findByIdForUpdate(documentId)).thenReturn(Optional.of(document));
         DocumentValidationDTO validation = new DocumentValidationDTO();
 
         // Act & Assert
@@ -128,6 +169,8 @@ public class DocumentServiceTest {
             documentService.validateDocument(documentId, validation, null);
         });
         assertEquals("ALREADY_PROCESSED", exception.getCode());
+        verify(documentRepository, never()).findById(anyLong());
+        verifyNoInteractions(complianceCounters);
     }
 
     @Test
@@ -140,7 +183,7 @@ public class DocumentServiceTest {
                 .statut(Document.StatutDocument.EN_ATTENTE)
                 .build();
 
-        when(documentRepository.findById(documentId)).thenReturn(Optional.of(document));
+        when(documentRepository.findByIdForUpdate(documentId)).thenReturn(Optional.of(document));
 
         // Act
         documentService.deleteDocument(documentId, deletedBy);
@@ -148,6 +191,7 @@ public class DocumentServiceTest {
         // Assert
         assertEquals(Document.StatutDocument.SUPPRIME, document.getStatut());
         verify(documentRepository).save(document);
+        verify(complianceCounters).recordStatusChange(document, Document.StatutDocument.EN_ATTENTE);
     }
 
     @Test
@@ -161,7 +205,7 @@ public class DocumentServiceTest {
                 .numeroPiece("PIECE-123")
                 .build();
 
-        when(documentRepository.findById(documentId)).thenReturn(Optional.of(document));
+        when(documentRepository.findByIdForUpdate(documentId)).thenReturn(Optional.of(document));
 
         // Act & Assert
         BusinessException exception = assertThrows(BusinessException.class, () -> {
@@ -169,4 +213,211 @@ public class DocumentServiceTest {
         });
         assertEquals("NOT_DELETABLE", exception.getCode());
     }
+
+    @Test
+    void getDownloadDescriptor_ShouldThrowNotFound_WhenDocumentDoesNotExist() {
+        // Arrange
+        when(descriptorCache.get(anyLong(), any())).thenAnswer(invocation -> {
+            java.util.function.Function<Long, DocumentDownloadDescriptor> loader = invocation.getArgument(1);
+            return loader.apply(invocation.getArgument(0));
+        });
+        when(documentRepository.findDownloadDescriptorById(42L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        BusinessException exception = assertThrows(BusinessException.class, () -> {
+            documentService.getDownloadDescriptor(42L);
+        });
+        assertEquals("RESOURCE_NOT_FOUND", exception.getCode());
+        verify(documentRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void downloadDocument_ShouldReloadDescriptorOnce_WhenFileMovedOnAnotherNode() {
+        // Arrange — the cached path was archived elsewhere; the database has the new one
+        DocumentDownloadDescriptor stale = new DocumentDownloadDescriptor(5L, "uploads/facture.pdf", "facture.pdf",
+                10L, "application/pdf", "abc");
+        DocumentDownloadDescriptor current = new DocumentDownloadDescriptor(5L, "archive:2023.zip!5", "facture.pdf",
+                10L, "application/pdf", "abc");
+        when(descriptorCache.get(eq(5L), any())).thenReturn(current);
+        when(fileStorageService.open("uploads/facture.pdf"))
+                .thenThrow(new BusinessException("FILE_READ_ERROR", "uploads/facture.pdf"));
+        StoredFile file = mock(StoredFile.class);
+        when(fileStorageService.open("archive:2023.zip!5")).thenReturn(file);
+
+        // Act
+        StoredFile opened = documentService.downloadDocument(stale);
+
+        // Assert
+        assertSame(file, opened);
+        verify(descriptorCache).evict(5L);
+    }
+
+    @Test
+    void downloadDocument_ShouldFail_WhenReloadedDescriptorHasTheSamePath() {
+        // Arrange
+        DocumentDownloadDescriptor descriptor = new DocumentDownloadDescriptor(5L, "uploads/facture.pdf",
+                "facture.pdf", 10L, "application/pdf", "abc");
+        when(descriptorCache.get(eq(5L), any())).thenReturn(descriptor);
+        when(fileStorageService.open("uploads/facture.pdf"))
+                .thenThrow(new BusinessException("FILE_READ_ERROR", "uploads/facture.pdf"));
+
+        // Act & Assert
+        BusinessException exception = assertThrows(BusinessException.class,
+                () -> documentService.downloadDocument(descriptor));
+        assertEquals("FILE_READ_ERROR", exception.getCode());
+        verify(fileStorageService, times(1)).open("uploads/facture.pdf");
+    }
+
+    @Test
+    void uploadDocument_ShouldDeleteStoredFile_WhenContentDoesNotMatchExtension() {
+        // Arrange
+        Societe societe = Societe.builder().id(7L).build();
+        User uploader = User.builder().role(User.Role.COMPTABLE).build();
+        DocumentUploadDTO dto = DocumentUploadDTO.builder()
+                .numeroPiece("FAC-001")
+                .exerciceComptable(2024)
+                .build();
+        MockMultipartFile file = new MockMultipartFile(
+                "file", "facture.pdf", "application/pdf", new byte[] { (byte) 0x89, 'P', 'N', 'G' });
+        StoredFileInfo stored = new StoredFileInfo("uploads/documents/x.pdf", 4L, "abc", "image/png");
+
+        when(documentRepository.findByNumeroPiece("FAC-001")).thenReturn(Optional.empty());
+        when(societeRepository.findById(7L)).thenReturn(Optional.of(societe));
+        when(fileStorageService.stage(file)).thenReturn(stored);
+        doThrow(new BusinessException("FILE_TYPE_MISMATCH", "mismatch"))
+                .when(fileValidator).validateContent(stored, "facture.pdf");
+
+        // Act & Assert
+        BusinessException exception = assertThrows(BusinessException.class, () -> {
+            documentService.uploadDocument(dto, file, "7", uploader);
+        });
+        assertEquals("FILE_TYPE_MISMATCH", exception.getCode());
+        verify(fileStorageService).delete("uploads/documents/x.pdf");
+        verify(documentRepository, never()).saveAndFlush(any(Document.class));
+    }
+
+    @Test
+    void uploadDocument_ShouldRegisterAsStoringAndQueuePromotion() {
+        // Arrange
+        Societe societe = Societe.builder().id(7L).raisonSociale("ACME").build();
+        User uploader = User.builder().role(User.Role.COMPTABLE).fullName("Comptable").build();
+        DocumentUploadDTO dto = DocumentUploadDTO.builder()
+                .numeroPiece("FAC-002")
+                .exerciceComptable(2024)
+                .build();
+        MockMultipartFile file = new MockMultipartFile(
+                "file", "facture.pdf", "application/pdf", "%PDF-1.7".getBytes());
+        StoredFileInfo staged = new StoredFileInfo("uploads/documents/staging/x.pdf.part", 8L, "abc",
+                "application/pdf");
+
+        when(documentRepository.findByNumeroPiece("FAC-002")).thenReturn(Optional.empty());
+        when(societeRepository.findById(7L)).thenReturn(Optional.of(societe));
+        when(fileStorageService.stage(file)).thenReturn(staged);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation -> {
+            TransactionCallback<?> callback = invocation.getArgument(0);
+            return callback.doInTransaction(null);
+        });
+        when(documentRepository.saveAndFlush(any(Document.class))).thenAnswer(invocation -> {
+            Document document = invocation.getArgument(0);
+            document.setId(99L);
+            return document;
+        });
+
+        // Act
+        DocumentResponseDTO result = documentService.uploadDocument(dto, file, "7", uploader);
+
+        // Assert
+        assertEquals(Document.StatutStockage.STORING, result.getStatutStockage());
+        assertEquals("uploads/documents/staging/x.pdf.part", result.getCheminFichier());
+        verify(storagePromotionService).promoteAfterCommit(99L, staged, 7L, 2024);
+        verify(fileStorageService, never()).promote(any(), anyLong(), any());
+    }
+
+    @Test
+    void registerAssembledUpload_ShouldReportDuplicate_WhenNumeroIsTakenAtInsert() {
+        // Arrange — joined to the chunked commit's transaction, the insert is flushed inside the try
+        Societe societe = Societe.builder().id(7L).build();
+        User uploader = User.builder().role(User.Role.COMPTABLE).build();
+        DocumentUploadDTO dto = DocumentUploadDTO.builder()
+                .numeroPiece("FAC-003")
+                .exerciceComptable(2024)
+                .build();
+        StoredFileInfo assembled = new StoredFileInfo("uploads/documents/chunked/x.pdf.part", 8L, "abc",
+                "application/pdf");
+
+        when(documentRepository.findByNumeroPiece("FAC-003")).thenReturn(Optional.empty());
+        when(societeRepository.findById(7L)).thenReturn(Optional.of(societe));
+        when(transactionTemplate.execute(any())).thenAnswer(invocation -> {
+            TransactionCallback<?> callback = invocation.getArgument(0);
+            return callback.doInTransaction(null);
+        });
+        when(documentRepository.saveAndFlush(any(Document.class)))
+                .thenThrow(new DataIntegrityViolationException("uk_documents_numero_piece"));
+
+        // Act & Assert
+        BusinessException exception = assertThrows(BusinessException.class,
+                () -> documentService.registerAssembledUpload(dto, assembled, "facture.pdf", "7", uploader));
+        assertEquals("DUPLICATE_DOCUMENT", exception.getCode());
+        verify(storagePromotionService, never()).promoteAfterCommit(any(), any(), any(), any());
+    }
+
+    @Test
+    void uploadDocuments_ShouldReportPerItemResults_WithSingleDuplicateQuery() {
+        // Arrange
+        Societe societe = Societe.builder().id(7L).raisonSociale("ACME").build();
+        User uploader = User.builder().role(User.Role.COMPTABLE).fullName("Comptable").build();
+        MockMultipartFile ok = new MockMultipartFile("files", "ok.pdf", "application/pdf", "%PDF-1.7".getBytes());
+        MockMultipartFile dup = new MockMultipartFile("files", "dup.pdf", "application/pdf", "%PDF-1.7".getBytes());
+        List<DocumentBatchItemDTO> manifest = List.of(
+                DocumentBatchItemDTO.builder().fichier("ok.pdf")
+                        .document(DocumentUploadDTO.builder().numeroPiece("TC-1").exerciceComptable(2024).build())
+                        .build(),
+                DocumentBatchItemDTO.builder().fichier("dup.pdf")
+                        .document(DocumentUploadDTO.builder().numeroPiece("TC-2").exerciceComptable(2024).build())
+                        .build(),
+                DocumentBatchItemDTO.builder().fichier("absent.pdf")
+                        .document(DocumentUploadDTO.builder().numeroPiece("TC-3").exerciceComptable(2024).build())
+                        .build());
+        StoredFileInfo staged = new StoredFileInfo("staging/ok.pdf.part", 8L, "abc", "application/pdf");
+
+        when(societeRepository.findById(7L)).thenReturn(Optional.of(societe));
+        when(documentRepository.findExistingNumeroPieces(any())).thenReturn(List.of("TC-2"));
+        when(storagePromotionService.stageAll(List.of(ok)))
+                .thenReturn(List.of(CompletableFuture.completedFuture(staged)));
+        when(transactionTemplate.execute(any())).thenAnswer(invocation -> {
+            TransactionCallback<?> callback = invocation.getArgument(0);
+            return callback.doInTransaction(null);
+        });
+        when(documentRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Document> documents = invocation.getArgument(0);
+            documents.get(0).setId(100L);
+            return documents;
+        });
+
+        // Act
+        DocumentBatchResultDTO result = documentService.uploadDocuments(manifest, List.of(ok, dup), "7", uploader);
+
+        // Assert
+        assertEquals(3, result.getTotal());
+        assertEquals(1, result.getSucceeded());
+        assertTrue(result.getItems().get(0).isSuccess());
+        assertEquals("DUPLICATE_DOCUMENT", result.getItems().get(1).getErrorCode());
+        assertEquals("FILE_NOT_FOUND", result.getItems().get(2).getErrorCode());
+        verify(documentRepository, times(1)).findExistingNumeroPieces(any());
+        verify(documentRepository, never()).findByNumeroPiece(any());
+        verify(societeRepository, times(1)).findById(7L);
+        verify(auditLogService).logUploads(anyList(), eq(uploader));
+        verify(storagePromotionService).promoteAllAfterCommit(
+                List.of(new StoragePromotionService.Promotion(100L, staged, 7L, 2024)));
+    }
+
+    @Test
+    void getDocumentsBySocieteCursor_ShouldRejectTamperedCursor() {
+        // Act & Assert
+        BusinessException exception = assertThrows(BusinessException.class,
+                () -> documentService.getDocumentsBySocieteCursor(1L, "not-a-cursor", 10, "createdAt", "desc",
+                        false, null, null, null, null, null, null, null));
+        assertEquals("INVALID_CURSOR", exception.getCode());
+        verifyNoInteractions(documentRepository);
+    }
 }
@@ -0,0 +1,78 @@
+package com.example.backend.service;
+
+import com.example.backend.service.revocation.InMemoryTokenRevocationStore;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JwtServiceTest {
+
+    private static final String SECRET = "test-secret-key-with-at-least-256-bits-of-entropy!!!!!!";
+
+    private JwtBlacklistService blacklist;
+    private JwtService jwtService;
+
+    @BeforeEach
+    void setUp() {
+        blacklist = new JwtBlacklistService(new InMemoryTokenRevocationStore());
+        jwtService = new JwtService(SECRET, 60_000, blacklist);
+    }
+
+    @Test
+    void invalidate_ShouldBlacklistOnlyThatToken_UntilItExpires() {
+        // Arrange
+        String token = jwtService.generateToken(Map.of("role", "CLIENT"), "client@test.ma");
+        String other = jwtService.generateToken(Map.of("role", "CLIENT"), "client@test.ma");
+
+        // Act
+        jwtService.invalidate(token);
+
+        // Assert
+        assertTrue(blacklist.isBlacklisted(token, jwtService.verify(token)));
+        assertFalse(blacklist.isBlacklisted(other, jwtService.verify(other)));
+        assertEquals(0, blacklist.purgeExpired());
+    }
+
+    @Test
+    void invalidate_ShouldIgnoreInvalidTokens() {
+        // Arrange
+        List<String> revoked = new ArrayList<>();
+        JwtService service = new JwtService(SECRET, 60_000, new JwtBlacklistService(
+                new InMemoryTokenRevocationStore() {
+                    @Override
+                    public void revoke(String key, Instant expiresAt) {
+                        revoked.add(key);
+                        super.revoke(key, expiresAt);
+                    }
+                }));
+
+        // Act
+        service.invalidate("not-a-token");
+
+        // Assert
+        assertTrue(revoked.isEmpty());
+    }
+
+    @Test
+    void blacklist_ShouldKeyLegacyTokensWithoutJtiByDigest() {
+        // Arrange
+        Claims claims = Jwts.claims().subject("client@test.ma")
+                .expiration(new Date(System.currentTimeMillis() + 60_000)).build();
+
+        // Act
+        blacklist.blacklist("legacy-token", claims);
+
+        // Assert
+        assertTrue(blacklist.isBlacklisted("legacy-token", claims));
+        assertFalse(blacklist.isBlacklisted("another-token", claims));
+    }
+}
@@ -1,9 +1,14 @@
 package com.example.backend.service;
 
+import com.example.backend.dto.DocumentStatusCount;
+import com.example.backend.dto.PageResponse;
+import com.example.backend.dto.SocieteComplianceSummaryDTO;
+import com.example.backend.dto.SocieteComplianceTotals;
+import com.example.backend.dto.SocietComplianceOverviewDTO;
 import com.example.backend.dto.SocieteDTO;
 import com.example.backend.dto.SocieteRequestDTO;
+import com.example.backend.entity.Document;
 import com.example.backend.entity.Societe;
-import com.example.backend.repository.DocumentRepository;
 import com.example.backend.repository.SocieteRepository;
 import com.example.backend.repository.UserRepository;
 import com.example.backend.util.SecurityUtils;
@@ -11,11 +16,19 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -32,7 +45,10 @@ public class SocieteServiceTest {
     private UserRepository userRepository;
 
     @Mock
-    private DocumentRepository documentRepository;
+    private ComplianceCounterService complianceCounters;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
 
     @InjectMocks
     private SocieteService societeService;
@@ -149,4 +165,90 @@ public class SocieteServiceTest {
         });
         assertEquals("Societe not found", exception.getMessage());
     }
+
+    @Test
+    void getSocietComplianceOverview_ShouldAssembleMetricsFromCounters() {
+        // Arrange
+        Societe societe = Societe.builder()
+                .id(1L)
+                .raisonSociale("Test Company")
+                .ice("123456789")
+                .build();
+
+        when(societeRepository.findById(1L)).thenReturn(Optional.of(societe));
+        when(complianceCounters.countsForSociete(1L)).thenReturn(List.of(
+                new DocumentStatusCount(2024, Document.TypeDocument.FACTURE_ACHAT, Document.StatutDocument.VALIDE, 9),
+                new DocumentStatusCount(2024, Document.TypeDocument.FACTURE_ACHAT, Document.StatutDocument.REJETE, 1),
+                new DocumentStatusCount(2024, Document.TypeDocument.FACTURE_ACHAT, Document.StatutDocument.SUPPRIME, 5),
+                new DocumentStatusCount(2025, Document.TypeDocument.FACTURE_VENTE, Document.StatutDocument.EN_ATTENTE, 4),
+                new DocumentStatusCount(2025, Document.TypeDocument.FACTURE_VENTE, Document.StatutDocument.VALIDE, 6)));
+
+        // Act
+        SocietComplianceOverviewDTO result = societeService.getSocietComplianceOverview(1L);
+
+        // Assert
+        assertEquals(25, result.getTotalDocuments());
+        assertEquals(4, result.getPendingDocuments());
+        assertEquals(15, result.getApprovedDocuments());
+        assertEquals(5, result.getDeletedDocuments());
+        assertEquals(75.0, result.getCompliancePercentage(), 0.001);
+        assertEquals("AT_RISK", result.getComplianceStatus());
+
+        assertEquals(List.of(2024, 2025), result.getExerciceBreakdowns().stream()
+                .map(SocietComplianceOverviewDTO.ExerciceBreakdownDTO::getExerciceComptable).toList());
+        assertEquals(90.0, result.getExerciceBreakdowns().get(0).getCompliancePercentage(), 0.001);
+        assertEquals("COMPLIANT", result.getExerciceBreakdowns().get(0).getComplianceStatus());
+
+        assertEquals(Document.TypeDocument.values().length, result.getDocTypeBreakdowns().size());
+        SocietComplianceOverviewDTO.ExerciceDetailDTO detail2025 = result.getExerciceDetails().get(1);
+        assertEquals(10, detail2025.getTotal());
+        assertEquals(0, detail2025.getDocTypeBreakdowns().get(0).getTotal());
+        assertEquals(6, detail2025.getDocTypeBreakdowns().get(1).getApproved());
+    }
+
+    @Test
+    void writeCompliancePdfReport_ShouldLoadOverviewInReadOnlyTransaction_BeforeWriting() {
+        // Arrange
+        Societe societe = Societe.builder().id(1L).raisonSociale("Test Company").ice("123456789").build();
+        when(societeRepository.findById(1L)).thenReturn(Optional.of(societe));
+        when(complianceCounters.countsForSociete(1L)).thenReturn(List.of(
+                new DocumentStatusCount(2024, Document.TypeDocument.FACTURE_ACHAT, Document.StatutDocument.VALIDE, 9)));
+        TransactionStatus status = mock(TransactionStatus.class);
+        when(transactionManager.getTransaction(any())).thenReturn(status);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        societeService.writeCompliancePdfReport(1L, out);
+
+        // Assert
+        ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+        InOrder inOrder = inOrder(transactionManager, societeRepository);
+        inOrder.verify(transactionManager).getTransaction(definition.capture());
+        inOrder.verify(societeRepository).findById(1L);
+        inOrder.verify(transactionManager).commit(status);
+        assertTrue(definition.getValue().isReadOnly());
+        assertTrue(new String(out.toByteArray(), 0, 5, StandardCharsets.US_ASCII).startsWith("%PDF"));
+    }
+
+    @Test
+    void getCompliancePortfolio_ShouldRankSocietesByCompliance() {
+        // Arrange
+        when(complianceCounters.portfolioTotals(null)).thenReturn(List.of(
+                new SocieteComplianceTotals(1L, "Atlas SARL", "001", 10, 0, 10, 0, 0),
+                new SocieteComplianceTotals(2L, "Rif SA", "002", 12, 2, 6, 0, 2),
+                new SocieteComplianceTotals(3L, "Souss SARL", "003", 0, 0, 0, 0, 0)));
+
+        // Act
+        PageResponse<SocieteComplianceSummaryDTO> result =
+                societeService.getCompliancePortfolio(null, 0, 2, "compliancePercentage", "asc");
+
+        // Assert
+        assertEquals(3, result.getTotalElements());
+        assertEquals(2, result.getTotalPages());
+        assertEquals(List.of(3L, 2L), result.getContent().stream()
+                .map(SocieteComplianceSummaryDTO::getSocieteId).toList());
+        assertEquals(60.0, result.getContent().get(1).getCompliancePercentage(), 0.001);
+        assertEquals("NON_COMPLIANT", result.getContent().get(1).getComplianceStatus());
+        assertFalse(result.isLast());
+    }
 }
@@ -0,0 +1,224 @@
+package com.example.backend.service;
+
+import com.example.backend.contract.FileStorageService;
+import com.example.backend.contract.StoredFile;
+import com.example.backend.entity.Document;
+import com.example.backend.entity.DocumentText;
+import com.example.backend.repository.DocumentRepository;
+import com.example.backend.repository.DocumentTextRepository;
+import com.example.backend.service.search.DocumentSearchIndex;
+import com.example.backend.util.TextCompressor;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TextExtractionServiceTest {
+
+    @Mock
+    private DocumentRepository documentRepository;
+
+    @Mock
+    private DocumentTextRepository documentTextRepository;
+
+    @Mock
+    private FileStorageService fileStorageService;
+
+    @Mock
+    private DocumentSearchIndex searchIndex;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private TextExtractionService service;
+
+    @BeforeEach
+    void setUp() {
+        // Runs tasks inline; OCR disabled
+        service = new TextExtractionService(documentRepository, documentTextRepository, fileStorageService,
+                searchIndex, transactionTemplate, Runnable::run, 50, 200000, "", "fra", 3, 60, 3);
+    }
+
+    @Test
+    void extract_ShouldStoreCompressedTextLayerAndIndexIt() throws Exception {
+        // Arrange
+        Document document = Document.builder()
+                .id(5L)
+                .cheminFichier("uploads/documents/client/1/year/2025/facture.pdf")
+                .typeMime("application/pdf")
+                .build();
+        when(documentRepository.findById(5L)).thenReturn(Optional.of(document));
+        StoredFile file = mock(StoredFile.class);
+        when(file.newInputStream()).thenReturn(new ByteArrayInputStream(pdf("ICE 001525429000087 Total 1200,00")));
+        when(fileStorageService.open(document.getCheminFichier())).thenReturn(file);
+        doAnswer(invocation -> {
+            invocation.<Consumer<Object>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        // Act
+        service.extractInBackground(5L);
+
+        // Assert
+        ArgumentCaptor<DocumentText> saved = ArgumentCaptor.forClass(DocumentText.class);
+        verify(documentTextRepository).save(saved.capture());
+        assertEquals(DocumentText.Source.PDF, saved.getValue().getSource());
+        String text = TextCompressor.decompress(saved.getValue().getContenu());
+        assertTrue(text.contains("001525429000087"));
+        assertEquals(text.length(), saved.getValue().getLongueur());
+        verify(searchIndex).indexAfterCommit(document, text);
+    }
+
+    @Test
+    void extract_ShouldRecordNothingExtracted_ForImagesWithoutOcr() {
+        // Arrange
+        Document document = Document.builder()
+                .id(6L)
+                .cheminFichier("uploads/documents/client/1/year/2025/ticket.jpg")
+                .typeMime("image/jpeg")
+                .build();
+        when(documentRepository.findById(6L)).thenReturn(Optional.of(document));
+        doAnswer(invocation -> {
+            invocation.<Consumer<Object>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        // Act
+        service.extractInBackground(6L);
+
+        // Assert
+        ArgumentCaptor<DocumentText> saved = ArgumentCaptor.forClass(DocumentText.class);
+        verify(documentTextRepository).save(saved.capture());
+        assertEquals(DocumentText.Source.AUCUN, saved.getValue().getSource());
+        assertNull(saved.getValue().getContenu());
+        verifyNoInteractions(fileStorageService, searchIndex);
+    }
+
+    @Test
+    void extract_ShouldRetryUnreadableFile_AndCountTheAttempt() throws Exception {
+        // Arrange — the first attempt could not read the file
+        Document document = Document.builder()
+                .id(7L)
+                .cheminFichier("uploads/documents/client/1/year/2025/releve.pdf")
+                .typeMime("application/pdf")
+                .build();
+        when(documentRepository.findById(7L)).thenReturn(Optional.of(document));
+        when(documentTextRepository.findById(7L)).thenReturn(Optional.of(failed(7L, 1)));
+        StoredFile file = mock(StoredFile.class);
+        when(file.newInputStream()).thenReturn(new ByteArrayInputStream(pdf("Releve de compte")));
+        when(fileStorageService.open(document.getCheminFichier())).thenReturn(file);
+        doAnswer(invocation -> {
+            invocation.<Consumer<Object>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        // Act
+        service.extractInBackground(7L);
+
+        // Assert
+        ArgumentCaptor<DocumentText> saved = ArgumentCaptor.forClass(DocumentText.class);
+        verify(documentTextRepository).save(saved.capture());
+        assertEquals(DocumentText.Source.PDF, saved.getValue().getSource());
+        assertEquals(2, saved.getValue().getTentatives());
+    }
+
+    @Test
+    void extract_ShouldLeaveFailure_OnceAttemptsRunOut() {
+        // Arrange
+        when(documentRepository.findById(8L)).thenReturn(Optional.of(Document.builder().id(8L).build()));
+        when(documentTextRepository.findById(8L)).thenReturn(Optional.of(failed(8L, 3)));
+
+        // Act
+        service.extractInBackground(8L);
+
+        // Assert
+        verify(documentTextRepository, never()).save(any());
+        verifyNoInteractions(fileStorageService, transactionTemplate);
+    }
+
+    @Test
+    void queuePending_ShouldSkipDocumentsStillWaitingOnThePool() {
+        // Arrange — a pool that holds tasks instead of running them
+        List<Runnable> queue = new ArrayList<>();
+        service = new TextExtractionService(documentRepository, documentTextRepository, fileStorageService,
+                searchIndex, transactionTemplate, queue::add, 50, 200000, "", "fra", 3, 60, 3);
+        when(documentRepository.findIdsWithoutExtractedText(eq(Document.StatutStockage.STORED), any()))
+                .thenReturn(List.of(1L, 2L));
+        when(documentTextRepository.findIdsToRetry(eq(DocumentText.Source.ECHEC), eq(3), any()))
+                .thenReturn(List.of(3L));
+
+        // Act
+        int first = service.queuePending(10);
+        int second = service.queuePending(10);
+        queue.remove(0).run();
+        int afterOneRan = service.queuePending(10);
+
+        // Assert
+        assertEquals(3, first);
+        assertEquals(0, second);
+        assertEquals(1, afterOneRan);
+        assertEquals(3, queue.size());
+    }
+
+    @Test
+    void extractInBackground_ShouldReleaseDocument_WhenPoolRejectsIt() {
+        // Arrange
+        Executor saturated = task -> {
+            throw new RejectedExecutionException("queue full");
+        };
+        service = new TextExtractionService(documentRepository, documentTextRepository, fileStorageService,
+                searchIndex, transactionTemplate, saturated, 50, 200000, "", "fra", 3, 60, 3);
+
+        // Act & Assert — dropped both times rather than stuck as in flight
+        assertFalse(service.extractInBackground(9L));
+        assertFalse(service.extractInBackground(9L));
+    }
+
+    private static DocumentText failed(Long documentId, int tentatives) {
+        return DocumentText.builder()
+                .documentId(documentId)
+                .source(DocumentText.Source.ECHEC)
+                .longueur(0)
+                .tentatives(tentatives)
+                .build();
+    }
+
+    private static byte[] pdf(String line) throws Exception {
+        try (PDDocument pdf = new PDDocument(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            PDPage page = new PDPage();
+            pdf.addPage(page);
+            try (PDPageContentStream content = new PDPageContentStream(pdf, page)) {
+                content.beginText();
+                content.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), 12);
+                content.newLineAtOffset(50, 700);
+                content.showText(line);
+                content.endText();
+            }
+            pdf.save(out);
+            return out.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.example.backend.service;
+
+import com.example.backend.contract.FileStorageService;
+import com.example.backend.contract.StoredFile;
+import com.example.backend.dto.DocumentDownloadDescriptor;
+import com.example.backend.exception.BusinessException;
+import com.example.backend.service.storage.PathStoredFile;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ThumbnailServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Mock
+    private FileStorageService fileStorageService;
+
+    private ThumbnailService thumbnails;
+    private Path cacheDir;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        cacheDir = tempDir.resolve("thumbnails");
+        thumbnails = new ThumbnailService(fileStorageService, Runnable::run, cacheDir, 320, 1024 * 1024, 4_000_000);
+        lenient().when(fileStorageService.open(anyString()))
+                .thenAnswer(invocation -> new PathStoredFile(Path.of(invocation.<String>getArgument(0))));
+    }
+
+    @Test
+    void getPreview_ShouldScaleImageDown_AndServeItFromCacheAfterwards() throws Exception {
+        // Arrange
+        Path source = image("scan.png", 1600, 1200);
+
+        // Act
+        BufferedImage first = preview(descriptor(1L, source, "image/png", "a1b2c3"));
+        preview(descriptor(1L, source, "image/png", "a1b2c3"));
+
+        // Assert
+        assertEquals(320, first.getWidth());
+        assertEquals(240, first.getHeight());
+        verify(fileStorageService, times(1)).open(source.toString());
+        verify(fileStorageService, never()).read(anyString());
+    }
+
+    @Test
+    void getPreview_ShouldRenderFirstPdfPage() throws Exception {
+        // Arrange
+        Path source = pdf("facture.pdf", PDRectangle.A4);
+
+        // Act
+        BufferedImage preview = preview(descriptor(2L, source, "application/pdf", "d4e5f6"));
+
+        // Assert
+        assertEquals(320, preview.getWidth());
+        assertEquals(Math.round(320 * PDRectangle.A4.getHeight() / PDRectangle.A4.getWidth()), preview.getHeight(),
+                1);
+    }
+
+    @Test
+    void getPreview_ShouldRefuseImage_WhoseHeaderClaimsTooManyPixels() throws Exception {
+        // Arrange — a small PNG whose header announces 40000 x 40000 pixels
+        Path source = withDeclaredSize(image("bomb.png", 8, 8), 40_000, 40_000);
+
+        // Act
+        BusinessException ex = assertThrows(BusinessException.class,
+                () -> thumbnails.getPreview(descriptor(3L, source, "image/png", "0badc0de")));
+
+        // Assert
+        assertEquals("PREVIEW_ERROR", ex.getCode());
+        assertTrue(ex.getMessage().contains("40000 x 40000"));
+        assertFalse(Files.exists(cacheDir.resolve("3-0badc0de.jpg")));
+    }
+
+    @Test
+    void getPreview_ShouldRefusePdfPage_ThatWouldRenderTooManyPixels() throws Exception {
+        // Arrange — narrow but extremely tall page: 320 px wide once scaled, 320000 px tall
+        Path source = pdf("rouleau.pdf", new PDRectangle(10, 10_000));
+
+        // Act
+        BusinessException ex = assertThrows(BusinessException.class,
+                () -> thumbnails.getPreview(descriptor(4L, source, "application/pdf", "feedface")));
+
+        // Assert
+        assertTrue(ex.getMessage().contains("320 x 320000"));
+    }
+
+    @Test
+    void getPreview_ShouldRenderOnce_ForConcurrentRequests() throws Exception {
+        // Arrange — the first render is held inside storage until a second request arrives
+        Path source = image("scan.png", 800, 600);
+        CountDownLatch rendering = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(fileStorageService.open(source.toString())).thenAnswer(invocation -> {
+            rendering.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return new PathStoredFile(source);
+        });
+        DocumentDownloadDescriptor descriptor = descriptor(5L, source, "image/png", "cafebabe");
+
+        // Act
+        CompletableFuture<StoredFile> first = CompletableFuture.supplyAsync(() -> thumbnails.getPreview(descriptor));
+        assertTrue(rendering.await(5, TimeUnit.SECONDS));
+        Thread[] second = new Thread[1];
+        CompletableFuture<StoredFile> waiting = new CompletableFuture<>();
+        second[0] = new Thread(() -> waiting.complete(thumbnails.getPreview(descriptor)));
+        second[0].start();
+        while (second[0].getState() != Thread.State.WAITING && !waiting.isDone()) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+
+        // Assert
+        try (StoredFile a = first.get(5, TimeUnit.SECONDS); StoredFile b = waiting.get(5, TimeUnit.SECONDS)) {
+            assertEquals(a.backingFile(), b.backingFile());
+        }
+        verify(fileStorageService, times(1)).open(source.toString());
+    }
+
+    @Test
+    void getPreview_ShouldRenderAgain_WhenLegacyDocumentFileChanges() throws Exception {
+        // Arrange — no checksum recorded for this document
+        Path source = image("ancien.png", 640, 480);
+        DocumentDownloadDescriptor descriptor = descriptor(6L, source, "image/png", null);
+        preview(descriptor);
+
+        // Act — the file is replaced by one of another shape
+        Files.write(source, png(480, 640));
+        Files.setLastModifiedTime(source, FileTime.fromMillis(System.currentTimeMillis() + 60_000));
+        BufferedImage refreshed = preview(descriptor);
+
+        // Assert
+        assertTrue(refreshed.getHeight() > refreshed.getWidth());
+    }
+
+    @Test
+    void getPreview_ShouldEvictLeastRecentlyServedPreviews_OverBudget() throws Exception {
+        // Arrange — a budget that holds roughly two previews
+        Path source = image("scan.png", 1600, 1200);
+        thumbnails.getPreview(descriptor(1L, source, "image/png", "aaaa")).close();
+        long previewSize = Files.size(cacheDir.resolve("1-aaaa.jpg"));
+        thumbnails = new ThumbnailService(fileStorageService, Runnable::run, cacheDir, 320, previewSize * 2 + 10,
+                4_000_000);
+        Files.setLastModifiedTime(cacheDir.resolve("1-aaaa.jpg"), FileTime.fromMillis(1_000));
+        thumbnails.getPreview(descriptor(2L, source, "image/png", "bbbb")).close();
+
+        // Act
+        thumbnails.getPreview(descriptor(3L, source, "image/png", "cccc")).close();
+
+        // Assert
+        assertFalse(Files.exists(cacheDir.resolve("1-aaaa.jpg")));
+        assertTrue(Files.exists(cacheDir.resolve("3-cccc.jpg")));
+    }
+
+    private BufferedImage preview(DocumentDownloadDescriptor descriptor) throws Exception {
+        try (StoredFile preview = thumbnails.getPreview(descriptor)) {
+            return ImageIO.read(preview.backingFile().toFile());
+        }
+    }
+
+    private static DocumentDownloadDescriptor descriptor(Long id, Path source, String typeMime, String checksum)
+            throws Exception {
+        return new DocumentDownloadDescriptor(id, source.toString(), source.getFileName().toString(),
+                Files.size(source), typeMime, checksum);
+    }
+
+    private Path image(String name, int width, int height) throws Exception {
+        Path path = tempDir.resolve(name);
+        Files.write(path, png(width, height));
+        return path;
+    }
+
+    private static byte[] png(int width, int height) throws Exception {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+
+    private Path pdf(String name, PDRectangle pageSize) throws Exception {
+        Path path = tempDir.resolve(name);
+        try (PDDocument document = new PDDocument()) {
+            document.addPage(new PDPage(pageSize));
+            document.save(path.toFile());
+        }
+        return path;
+    }
+
+    /** Rewrites the PNG's IHDR dimensions (and its CRC) without touching the pixel data. */
+    private static Path withDeclaredSize(Path png, int width, int height) throws Exception {
+        byte[] bytes = Files.readAllBytes(png);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        // 8-byte signature, 4-byte length, "IHDR", then width and height
+        buffer.putInt(16, width).putInt(20, height);
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 12, 4 + 13);
+        buffer.putInt(12 + 4 + 13, (int) crc.getValue());
+        Files.write(png, bytes);
+        return png;
+    }
+}
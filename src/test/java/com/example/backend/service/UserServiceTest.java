@@ -1,10 +1,13 @@
 package com.example.backend.service;
 
 import com.example.backend.dto.CreateComptableDTO;
+import com.example.backend.dto.UpdateUserStatusDTO;
 import com.example.backend.dto.UserDTO;
 import com.example.backend.entity.User;
 import com.example.backend.repository.SocieteRepository;
 import com.example.backend.repository.UserRepository;
+import com.example.backend.security.AuthenticatedUserCache;
+import com.example.backend.security.TokenVersionRegistry;
 import com.example.backend.util.SecurityUtils;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -34,6 +37,12 @@ public class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private AuthenticatedUserCache userCache;
+
+    @Mock
+    private TokenVersionRegistry tokenVersions;
+
     @InjectMocks
     private UserService userService;
 
@@ -165,6 +174,7 @@ public class UserServiceTest {
 
         // Assert
         verify(userRepository, times(1)).deleteById(id);
+        verify(userCache).evictAfterCommit("delete@me.com");
     }
 
     @Test
@@ -187,4 +197,27 @@ public class UserServiceTest {
         assertEquals("Cannot delete admin user", exception.getMessage());
         verify(userRepository, never()).deleteById(anyLong());
     }
+
+    @Test
+    void updateUserStatus_ShouldRevokeAllTokens_WhenDeactivating() {
+        // Arrange
+        User user = User.builder()
+                .id(4L)
+                .email("client@test.ma")
+                .role(User.Role.CLIENT)
+                .tokenVersion(2)
+                .build();
+
+        mockedSecurityUtils.when(SecurityUtils::isAdmin).thenReturn(true);
+        when(userRepository.findById(4L)).thenReturn(Optional.of(user));
+        when(userRepository.save(user)).thenReturn(user);
+
+        // Act
+        userService.updateUserStatus(4L, new UpdateUserStatusDTO(false));
+
+        // Assert
+        assertFalse(user.isActive());
+        assertEquals(3, user.getTokenVersion());
+        verify(tokenVersions).recordAfterCommit(4L, 3);
+    }
 }
@@ -0,0 +1,130 @@
+package com.example.backend.service.revocation;
+
+import com.example.backend.entity.RevokedToken;
+import com.example.backend.repository.RevokedTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TokenRevocationStoreTest {
+
+    @Mock
+    private RevokedTokenRepository repository;
+
+    private DatabaseTokenRevocationStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new DatabaseTokenRevocationStore(repository, 1000, 0.01, 100, 60);
+        when(repository.findByExpiresAtAfter(any())).thenReturn(List.of());
+        store.load();
+    }
+
+    @Test
+    void isRevoked_ShouldStayInMemory_ForTokensNeverRevoked() {
+        // Act
+        boolean revoked = store.isRevoked("jti-never-revoked");
+
+        // Assert
+        assertFalse(revoked);
+        verify(repository, never()).existsByTokenKeyAndExpiresAtAfter(anyString(), any());
+    }
+
+    @Test
+    void refresh_ShouldPickUpRevocationsMadeOnOtherNodes() {
+        // Arrange
+        when(repository.findByRevokedAtGreaterThanEqual(any()))
+                .thenReturn(List.of(revoked("jti-remote", LocalDateTime.now())));
+        when(repository.existsByTokenKeyAndExpiresAtAfter(eq("jti-remote"), any())).thenReturn(true);
+
+        // Act
+        store.refresh();
+
+        // Assert
+        assertTrue(store.isRevoked("jti-remote"));
+    }
+
+    @Test
+    void isRevoked_ShouldRememberDatabaseMisses() {
+        // Arrange — in the filter, but already purged from the table
+        store.revoke("jti-purged", Instant.now().plusSeconds(60));
+        when(repository.existsByTokenKeyAndExpiresAtAfter(eq("jti-purged"), any())).thenReturn(false);
+
+        // Act
+        boolean first = store.isRevoked("jti-purged");
+        boolean second = store.isRevoked("jti-purged");
+
+        // Assert
+        assertFalse(first);
+        assertFalse(second);
+        verify(repository, times(1)).existsByTokenKeyAndExpiresAtAfter(eq("jti-purged"), any());
+    }
+
+    @Test
+    void purgeExpired_ShouldRebuildFilter_WhenAnotherNodeDeletedTheRows() {
+        // Arrange — revoked here, expired and purged by another node
+        store.revoke("jti-expired", Instant.now().plusSeconds(1));
+        when(repository.deleteExpired(any())).thenReturn(0);
+        when(repository.countByExpiresAtAfter(any())).thenReturn(0L);
+
+        // Act
+        int removed = store.purgeExpired();
+
+        // Assert — the stale key no longer reaches the database
+        assertEquals(0, removed);
+        verify(repository, times(2)).findByExpiresAtAfter(any());
+        assertFalse(store.isRevoked("jti-expired"));
+        verify(repository, never()).existsByTokenKeyAndExpiresAtAfter(anyString(), any());
+    }
+
+    @Test
+    void purgeExpired_ShouldKeepFilter_WhileEveryKeyIsStillActive() {
+        // Arrange
+        store.revoke("jti-active", Instant.now().plusSeconds(600));
+        when(repository.countByExpiresAtAfter(any())).thenReturn(1L);
+
+        // Act
+        store.purgeExpired();
+
+        // Assert
+        verify(repository, times(1)).findByExpiresAtAfter(any());
+    }
+
+    @Test
+    void inMemoryPurge_ShouldDropEntriesPastTokenExpiry() {
+        // Arrange
+        InMemoryTokenRevocationStore memory = new InMemoryTokenRevocationStore();
+        long now = System.currentTimeMillis();
+        memory.revoke("a", Instant.ofEpochMilli(now + 5_000));
+        memory.revoke("b", Instant.ofEpochMilli(now + 60_000));
+
+        // Act
+        int removed = memory.purgeExpired(now + 10_000);
+
+        // Assert
+        assertEquals(1, removed);
+        assertFalse(memory.isRevoked("a"));
+        assertTrue(memory.isRevoked("b"));
+    }
+
+    private static RevokedToken revoked(String key, LocalDateTime revokedAt) {
+        return RevokedToken.builder()
+                .tokenKey(key)
+                .expiresAt(revokedAt.plusMinutes(30))
+                .revokedAt(revokedAt)
+                .build();
+    }
+}
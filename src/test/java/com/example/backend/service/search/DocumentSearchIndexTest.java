@@ -0,0 +1,200 @@
+package com.example.backend.service.search;
+
+import com.example.backend.entity.Document;
+import com.example.backend.entity.Societe;
+import com.example.backend.repository.DocumentRepository;
+import com.example.backend.repository.DocumentTextRepository;
+import com.example.backend.service.search.DocumentSearchIndex.Candidates;
+import com.example.backend.service.search.DocumentSearchIndex.SearchField;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class DocumentSearchIndexTest {
+
+    private static final Set<SearchField> ALL_FIELDS = EnumSet.allOf(SearchField.class);
+
+    @TempDir
+    Path tempDir;
+
+    @Mock
+    private DocumentRepository documentRepository;
+
+    @Mock
+    private DocumentTextRepository documentTextRepository;
+
+    private DocumentSearchIndex index;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        index = new DocumentSearchIndex(documentRepository, documentTextRepository, tempDir.toString(), 100, 120, 60);
+        // No transaction is active, so changes are applied immediately
+        index.indexAfterCommit(document(1L, 7L, "FAC-2024-0001", "Maroc Télécom", "facture_telecom.pdf"));
+        index.indexAfterCommit(document(2L, 7L, "TC-2024-0002", "Marjane Holding", "ticket.jpg"));
+        index.indexAfterCommit(document(3L, 8L, "FAC-2024-0003", "Lydec", "releve_lydec.pdf"));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        index.close();
+    }
+
+    @Test
+    void search_ShouldMatchPrefixesAndIgnoreAccents() {
+        // Act
+        List<Long> ids = search("telec");
+
+        // Assert
+        assertEquals(List.of(1L), ids);
+    }
+
+    @Test
+    void search_ShouldMatchInsideWords() {
+        // Act
+        List<Long> ids = search("jane");
+
+        // Assert
+        assertEquals(List.of(2L), ids);
+    }
+
+    @Test
+    void search_ShouldTolerateTyposOnlyWhenFuzzy() {
+        // Act
+        List<Long> fuzzy = index.search("lydek", ALL_FIELDS, true, null, 0, 10).ids();
+        List<Long> strict = index.matchingIds("lydek", ALL_FIELDS);
+
+        // Assert
+        assertEquals(List.of(3L), fuzzy);
+        assertTrue(strict.isEmpty());
+    }
+
+    @Test
+    void search_ShouldRequireEveryWordAndRestrictToSocietes() {
+        // Act
+        List<Long> bothWords = index.matchingIds("fac 0003", EnumSet.of(SearchField.NUMERO_PIECE));
+        List<Long> scoped = index.search("fac", ALL_FIELDS, true, List.of(7L), 0, 10).ids();
+
+        // Assert
+        assertEquals(List.of(3L), bothWords);
+        assertEquals(List.of(1L), scoped);
+    }
+
+    @Test
+    void candidates_ShouldReturnEveryMatchOfTheSocietes_UpToMaxFilterIds() {
+        // Arrange — more matches than the 100 hits a ranked search returns
+        rebuildFromEmptyDatabase();
+        for (long id = 10; id < 160; id++) {
+            index.indexAfterCommit(document(id, id % 2 == 0 ? 7L : 9L, "BL-" + id, "Fournisseur", "bl.pdf"));
+        }
+
+        // Act
+        Optional<Candidates> scoped = index.candidates("bl", EnumSet.of(SearchField.NUMERO_PIECE), List.of(7L));
+        Optional<Candidates> all = index.candidates("bl", EnumSet.of(SearchField.NUMERO_PIECE), null);
+
+        // Assert — 75 within the cap of 120, 150 beyond it
+        assertEquals(75, scoped.orElseThrow().ids().size());
+        assertTrue(scoped.orElseThrow().ids().stream().allMatch(id -> id % 2 == 0));
+        assertTrue(all.isEmpty());
+    }
+
+    @Test
+    void candidates_ShouldBeEmpty_UntilIndexHasCaughtUp() {
+        // Act & Assert — documents indexed locally, but never synced with the database
+        assertTrue(index.candidates("lydec", ALL_FIELDS, null).isEmpty());
+    }
+
+    @Test
+    void catchUp_ShouldIndexDocumentsChangedOnOtherNodes() throws Exception {
+        // Arrange
+        rebuildFromEmptyDatabase();
+        LocalDateTime since = index.candidates("lydec", ALL_FIELDS, null).orElseThrow().changedSince();
+        when(documentRepository.findByUpdatedAtGreaterThanEqual(eq(since), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(document(4L, 7L, "FAC-2024-0004", "Redal", "redal.pdf"))));
+
+        // Act
+        int reindexed = index.catchUp();
+
+        // Assert
+        assertEquals(1, reindexed);
+        assertEquals(List.of(4L), index.candidates("redal", ALL_FIELDS, null).orElseThrow().ids());
+        assertFalse(index.candidates("redal", ALL_FIELDS, null).orElseThrow().changedSince().isBefore(since));
+    }
+
+    @Test
+    void matchesInsideWords_ShouldRequireTrigramLongWords() {
+        // Act & Assert
+        assertTrue(index.matchesInsideWords("0003"));
+        assertTrue(index.matchesInsideWords("fac 0003"));
+        assertFalse(index.matchesInsideWords("03"));
+        assertFalse(index.matchesInsideWords("fac-3"));
+        assertFalse(index.matchesInsideWords("-"));
+    }
+
+    @Test
+    void search_ShouldFindExtractedContentSeparatelyFromMetadata() {
+        // Arrange
+        Document document = document(4L, 7L, "FAC-2024-0004", "Inwi", "scan.pdf");
+        index.indexAfterCommit(document, "ICE 001525429000087 Montant TTC 1200,00");
+
+        // Act
+        List<Long> byContent = index.search("001525429000087", EnumSet.of(SearchField.CONTENU), false,
+                List.of(7L), 0, 10).ids();
+        List<Long> byMetadata = index.search("001525429000087", DocumentSearchIndex.METADATA_FIELDS, false,
+                null, 0, 10).ids();
+
+        // Assert
+        assertEquals(List.of(4L), byContent);
+        assertTrue(byMetadata.isEmpty());
+    }
+
+    @Test
+    void removeAfterCommit_ShouldDropDocumentFromResults() {
+        // Act
+        index.removeAfterCommit(1L);
+
+        // Assert
+        assertTrue(search("telecom").isEmpty());
+    }
+
+    private void rebuildFromEmptyDatabase() {
+        when(documentRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(List.of()));
+        index.rebuild();
+    }
+
+    private List<Long> search(String text) {
+        return index.search(text, ALL_FIELDS, true, null, 0, 10).ids();
+    }
+
+    private static Document document(Long id, Long societeId, String numeroPiece, String fournisseur,
+            String nomFichier) {
+        Societe societe = new Societe();
+        societe.setId(societeId);
+        return Document.builder()
+                .id(id)
+                .numeroPiece(numeroPiece)
+                .fournisseur(fournisseur)
+                .categorieComptable("Charges")
+                .nomFichierOriginal(nomFichier)
+                .societe(societe)
+                .build();
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.backend.service.storage;
+
+import com.example.backend.contract.StoredFile;
+import com.example.backend.dto.StoredFileInfo;
+import com.example.backend.entity.Document;
+import com.example.backend.entity.Societe;
+import com.example.backend.repository.DocumentRepository;
+import com.example.backend.service.DocumentDescriptorCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ColdStorageTieringServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Mock
+    private DocumentRepository documentRepository;
+
+    @Mock
+    private DocumentDescriptorCache descriptorCache;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private TieredFileStorageService storage;
+    private ColdStorageTieringService tiering;
+    private final Map<Long, Document> documents = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        storage = new TieredFileStorageService(new LocalFileStorageService(tempDir.resolve("hot")));
+        tiering = new ColdStorageTieringService(documentRepository, storage, descriptorCache, transactionTemplate,
+                tempDir.resolve("archive"), 1, 100);
+        lenient().when(documentRepository.findById(anyLong()))
+                .thenAnswer(invocation -> Optional.ofNullable(documents.get(invocation.<Long>getArgument(0))));
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    void archiveClosedYears_ShouldPackDocumentsAndServeThemFromThePack() throws Exception {
+        // Arrange
+        Document facture = storedDocument(1L, "facture.pdf", "%PDF-1.7 facture de mars");
+        Document ticket = storedDocument(2L, "ticket.jpg", "ticket de caisse");
+        String hotFacture = facture.getCheminFichier();
+        candidates(facture, ticket);
+
+        // Act
+        int archived = tiering.archiveClosedYears();
+
+        // Assert
+        assertEquals(2, archived);
+        assertTrue(TieredFileStorageService.isArchived(facture.getCheminFichier()));
+        assertTrue(TieredFileStorageService.isArchived(ticket.getCheminFichier()));
+        assertFalse(Files.exists(Paths.get(hotFacture)));
+        assertTrue(storage.exists(facture.getCheminFichier()));
+        assertEquals("%PDF-1.7 facture de mars", text(storage.read(facture.getCheminFichier())));
+        assertEquals("ticket de caisse", text(storage.read(ticket.getCheminFichier())));
+        verify(descriptorCache).evict(1L);
+        verify(descriptorCache).evict(2L);
+    }
+
+    @Test
+    void open_ShouldServeRangesOfArchivedEntry() throws Exception {
+        // Arrange
+        Document facture = storedDocument(1L, "facture.pdf", "%PDF-1.7 facture de mars");
+        candidates(facture);
+        tiering.archiveClosedYears();
+
+        // Act
+        ByteArrayOutputStream range = new ByteArrayOutputStream();
+        long size;
+        try (StoredFile file = storage.open(facture.getCheminFichier())) {
+            size = file.size();
+            file.transferTo(9, 7, Channels.newChannel(range));
+        }
+
+        // Assert
+        assertEquals("%PDF-1.7 facture de mars".length(), size);
+        assertEquals("facture", text(range.toByteArray()));
+    }
+
+    @Test
+    void archiveClosedYears_ShouldKeepHotCopy_WhenDocumentMovedWhilePacking() throws Exception {
+        // Arrange — the document is re-pointed after it was read into the pack
+        Document facture = storedDocument(1L, "facture.pdf", "%PDF-1.7 facture de mars");
+        String original = facture.getCheminFichier();
+        candidates(facture);
+        Document current = storedDocument(1L, "facture.pdf", "%PDF-1.7 version corrigée");
+        documents.put(1L, current);
+
+        // Act
+        int archived = tiering.archiveClosedYears();
+
+        // Assert
+        assertEquals(0, archived);
+        assertFalse(TieredFileStorageService.isArchived(current.getCheminFichier()));
+        assertTrue(Files.exists(Paths.get(original)));
+        assertTrue(Files.exists(Paths.get(current.getCheminFichier())));
+    }
+
+    @Test
+    void rehydrate_ShouldMoveDocumentBackToHotTier_AndDropItsPackEntry() throws Exception {
+        // Arrange
+        Document facture = storedDocument(1L, "facture.pdf", "%PDF-1.7 facture de mars");
+        Document ticket = storedDocument(2L, "ticket.jpg", "ticket de caisse");
+        candidates(facture, ticket);
+        tiering.archiveClosedYears();
+        String locator = facture.getCheminFichier();
+
+        // Act
+        boolean rehydrated = tiering.rehydrate(1L);
+
+        // Assert
+        assertTrue(rehydrated);
+        assertFalse(TieredFileStorageService.isArchived(facture.getCheminFichier()));
+        assertEquals("%PDF-1.7 facture de mars", text(Files.readAllBytes(Paths.get(facture.getCheminFichier()))));
+        assertEquals("%PDF-1.7 facture de mars", text(storage.read(facture.getCheminFichier())));
+        assertFalse(storage.exists(locator));
+        assertEquals("ticket de caisse", text(storage.read(ticket.getCheminFichier())));
+        verify(descriptorCache, times(2)).evict(1L);
+    }
+
+    @Test
+    void rehydrate_ShouldRemovePack_WhenItsLastEntryLeaves() throws Exception {
+        // Arrange
+        Document facture = storedDocument(1L, "facture.pdf", "%PDF-1.7 facture de mars");
+        candidates(facture);
+        tiering.archiveClosedYears();
+        Path pack = TieredFileStorageService.packOf(facture.getCheminFichier());
+
+        // Act
+        tiering.rehydrate(1L);
+
+        // Assert
+        assertFalse(Files.exists(pack));
+        assertEquals("%PDF-1.7 facture de mars", text(storage.read(facture.getCheminFichier())));
+    }
+
+    @Test
+    void rehydrate_ShouldDoNothing_ForHotDocument() throws Exception {
+        // Arrange
+        Document facture = storedDocument(1L, "facture.pdf", "%PDF-1.7 facture de mars");
+        String hot = facture.getCheminFichier();
+
+        // Act
+        boolean rehydrated = tiering.rehydrate(1L);
+
+        // Assert
+        assertFalse(rehydrated);
+        assertEquals(hot, facture.getCheminFichier());
+        verifyNoInteractions(transactionTemplate);
+    }
+
+    private Document storedDocument(Long id, String filename, String content) {
+        StoredFileInfo staged = storage.stage(new MockMultipartFile("file", filename, null,
+                content.getBytes(StandardCharsets.UTF_8)));
+        StoredFileInfo stored = storage.promote(staged, 7L, 2023);
+        Document document = Document.builder()
+                .id(id)
+                .nomFichierOriginal(filename)
+                .cheminFichier(stored.path())
+                .societe(Societe.builder().id(7L).build())
+                .exerciceComptable(2023)
+                .statut(Document.StatutDocument.VALIDE)
+                .build();
+        documents.put(id, document);
+        return document;
+    }
+
+    private void candidates(Document... candidates) {
+        when(documentRepository.findColdTierCandidates(eq(Document.StatutDocument.VALIDE),
+                eq(Document.StatutStockage.STORED), anyInt(), any())).thenReturn(List.of(candidates));
+    }
+
+    private static String text(byte[] bytes) {
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
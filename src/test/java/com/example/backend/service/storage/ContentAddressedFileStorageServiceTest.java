@@ -0,0 +1,149 @@
+package com.example.backend.service.storage;
+
+import com.example.backend.dto.StoredFileInfo;
+import com.example.backend.repository.StorageBlobRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ContentAddressedFileStorageServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Mock
+    private StorageBlobRepository blobRepository;
+
+    private ContentAddressedFileStorageService storage;
+
+    @BeforeEach
+    void setUp() {
+        storage = new ContentAddressedFileStorageService(blobRepository, tempDir.resolve("cas"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void promote_ShouldDeduplicateIdenticalContentOntoOneBlob() throws Exception {
+        // Arrange
+        StoredFileInfo first = storage.stage(upload("facture"));
+        StoredFileInfo second = storage.stage(upload("facture"));
+
+        // Act
+        StoredFileInfo firstBlob = inTransaction(() -> storage.promote(first, 7L, 2025), true);
+        StoredFileInfo secondBlob = inTransaction(() -> storage.promote(second, 8L, 2025), true);
+
+        // Assert
+        assertEquals(firstBlob.path(), secondBlob.path());
+        assertEquals("facture", Files.readString(Paths.get(firstBlob.path()), StandardCharsets.US_ASCII));
+        assertFalse(Files.exists(Paths.get(first.path())));
+        assertFalse(Files.exists(Paths.get(second.path())));
+        verify(blobRepository, times(2)).incrementReference(first.checksumSha256(), "facture".length());
+    }
+
+    @Test
+    void delete_ShouldRemoveBlobOnlyWhenLastReferenceGoes() throws Exception {
+        // Arrange
+        StoredFileInfo staged = storage.stage(upload("facture"));
+        Path blob = Paths.get(inTransaction(() -> storage.promote(staged, 7L, 2025), true).path());
+        when(blobRepository.findRefCount(staged.checksumSha256()))
+                .thenReturn(Optional.of(1))
+                .thenReturn(Optional.of(0));
+
+        // Act
+        inTransaction(() -> {
+            storage.delete(blob.toString());
+            return null;
+        }, true);
+        boolean keptWhileReferenced = Files.exists(blob);
+        inTransaction(() -> {
+            storage.delete(blob.toString());
+            return null;
+        }, true);
+
+        // Assert
+        assertTrue(keptWhileReferenced);
+        assertFalse(Files.exists(blob));
+        verify(blobRepository, times(2)).decrementReference(staged.checksumSha256());
+    }
+
+    @Test
+    void promote_ShouldDropFirstTimeBlobButKeepStagedFile_OnRollback() throws Exception {
+        // Arrange
+        StoredFileInfo staged = storage.stage(upload("facture"));
+        when(blobRepository.findRefCount(staged.checksumSha256())).thenReturn(Optional.empty());
+
+        // Act
+        StoredFileInfo blob = inTransaction(() -> storage.promote(staged, 7L, 2025), false);
+
+        // Assert
+        assertFalse(Files.exists(Paths.get(blob.path())));
+        assertEquals("facture", Files.readString(Paths.get(staged.path()), StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    void promote_ShouldRestoreBlob_WhenConcurrentPurgeRemovedItBeforeCommit() throws Exception {
+        // Arrange
+        StoredFileInfo existing = storage.stage(upload("facture"));
+        Path blob = Paths.get(inTransaction(() -> storage.promote(existing, 7L, 2025), true).path());
+        StoredFileInfo duplicate = storage.stage(upload("facture"));
+
+        // Act — the other document is purged between our increment and our commit
+        inTransaction(() -> {
+            StoredFileInfo promoted = storage.promote(duplicate, 8L, 2025);
+            Files.delete(blob);
+            return promoted;
+        }, true);
+
+        // Assert
+        assertEquals("facture", Files.readString(blob, StandardCharsets.US_ASCII));
+        assertFalse(Files.exists(Paths.get(duplicate.path())));
+        verify(blobRepository, never()).decrementReference(anyString());
+        verify(blobRepository, times(2)).incrementReference(anyString(), anyLong());
+    }
+
+    private static MockMultipartFile upload(String content) {
+        return new MockMultipartFile("file", "facture.pdf", "application/pdf",
+                content.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /** Runs the call with transaction synchronization active, then commits or rolls back. */
+    private static <T> T inTransaction(ThrowingSupplier<T> call, boolean commit) throws Exception {
+        TransactionSynchronizationManager.initSynchronization();
+        T result = call.get();
+        var synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        int status = commit ? TransactionSynchronization.STATUS_COMMITTED : TransactionSynchronization.STATUS_ROLLED_BACK;
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+        return result;
+    }
+
+    @FunctionalInterface
+    private interface ThrowingSupplier<T> {
+        T get() throws Exception;
+    }
+}
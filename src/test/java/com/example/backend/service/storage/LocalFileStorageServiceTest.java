@@ -0,0 +1,79 @@
+package com.example.backend.service.storage;
+
+import com.example.backend.dto.StoredFileInfo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LocalFileStorageServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private LocalFileStorageService storage;
+
+    @BeforeEach
+    void setUp() {
+        storage = new LocalFileStorageService(tempDir);
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void promote_ShouldRemoveStagedFileOnlyAfterCommit() throws Exception {
+        // Arrange
+        StoredFileInfo staged = storage.stage(upload("facture"));
+
+        // Act
+        StoredFileInfo promoted = storage.promote(staged, 7L, 2025);
+        boolean stagedKeptUntilCommit = Files.exists(Paths.get(staged.path()));
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        // Assert
+        assertTrue(stagedKeptUntilCommit);
+        assertFalse(Files.exists(Paths.get(staged.path())));
+        assertEquals("facture", Files.readString(Paths.get(promoted.path()), StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    void promote_ShouldLeaveStagedFileInPlace_WhenTransactionRollsBack() throws Exception {
+        // Arrange
+        StoredFileInfo staged = storage.stage(upload("facture"));
+
+        // Act
+        StoredFileInfo promoted = storage.promote(staged, 7L, 2025);
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        // Assert — the document still points at the staged copy, so a retry can promote it again
+        assertEquals("facture", Files.readString(Paths.get(staged.path()), StandardCharsets.US_ASCII));
+        assertFalse(Files.exists(Paths.get(promoted.path())));
+    }
+
+    private static MockMultipartFile upload(String content) {
+        return new MockMultipartFile("file", "facture.pdf", "application/pdf",
+                content.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static void complete(int status) {
+        var synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+}
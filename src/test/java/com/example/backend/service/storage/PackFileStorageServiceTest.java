@@ -0,0 +1,268 @@
+package com.example.backend.service.storage;
+
+import com.example.backend.dto.StoredFileInfo;
+import com.example.backend.entity.Document;
+import com.example.backend.exception.BusinessException;
+import com.example.backend.repository.DocumentRepository;
+import com.example.backend.repository.PackSegmentRepository;
+import com.example.backend.service.DocumentDescriptorCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class PackFileStorageServiceTest {
+
+    private static final int HEADER_LENGTH = 4 + 8 + 32;
+
+    @TempDir
+    Path tempDir;
+
+    @Mock
+    private PackSegmentRepository segmentRepository;
+
+    @Mock
+    private DocumentRepository documentRepository;
+
+    @Mock
+    private DocumentDescriptorCache descriptorCache;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private PackFileStorageService storage;
+    private final Map<Long, Document> documents = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        // 64-byte entries at most, segments sealed past 200 bytes, compaction at 50% dead
+        storage = new PackFileStorageService(segmentRepository, documentRepository, descriptorCache,
+                transactionTemplate, Runnable::run, new LocalFileStorageService(tempDir.resolve("large")),
+                tempDir.resolve("packs"), 64, 200, 50);
+        lenient().when(documentRepository.findById(anyLong()))
+                .thenAnswer(invocation -> Optional.ofNullable(documents.get(invocation.<Long>getArgument(0))));
+        lenient().when(documentRepository.findByCheminFichierStartingWith(anyString()))
+                .thenAnswer(invocation -> documents.values().stream()
+                        .filter(document -> document.getCheminFichier().startsWith(invocation.getArgument(0)))
+                        .toList());
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void promote_ShouldAppendRecordWithMagicLengthAndDigest() throws Exception {
+        // Arrange
+        StoredFileInfo staged = storage.stage(upload("ticket de caisse"));
+
+        // Act
+        StoredFileInfo stored = storage.promote(staged, 7L, 2025);
+
+        // Assert — pack:<segment>:<offset>:<length>, offset just past the header
+        assertEquals("pack:segment-000001.dat:" + HEADER_LENGTH + ":16", stored.path());
+        ByteBuffer segment = ByteBuffer.wrap(Files.readAllBytes(segmentFile("segment-000001.dat")));
+        assertEquals(0x444d504b, segment.getInt());
+        assertEquals(16, segment.getLong());
+        byte[] digest = new byte[32];
+        segment.get(digest);
+        assertEquals(staged.checksumSha256(), HexFormat.of().formatHex(digest));
+        assertEquals("ticket de caisse", StandardCharsets.US_ASCII.decode(segment).toString());
+        assertEquals("ticket de caisse", text(storage.read(stored.path())));
+        assertTrue(storage.exists(stored.path()));
+    }
+
+    @Test
+    void promote_ShouldKeepStagedFileUntilCommit() throws Exception {
+        // Arrange
+        StoredFileInfo staged = storage.stage(upload("ticket de caisse"));
+
+        // Act
+        TransactionSynchronizationManager.initSynchronization();
+        StoredFileInfo stored = storage.promote(staged, 7L, 2025);
+        boolean keptUntilCommit = Files.exists(Paths.get(staged.path()));
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        // Assert
+        assertTrue(keptUntilCommit);
+        assertFalse(Files.exists(Paths.get(staged.path())));
+        assertEquals("ticket de caisse", text(storage.read(stored.path())));
+        verify(segmentRepository, never()).addDeadBytes(anyString(), anyLong());
+    }
+
+    @Test
+    void promote_ShouldKeepStagedFileAndCountRecordDead_OnRollback() throws Exception {
+        // Arrange
+        StoredFileInfo staged = storage.stage(upload("ticket de caisse"));
+
+        // Act
+        TransactionSynchronizationManager.initSynchronization();
+        storage.promote(staged, 7L, 2025);
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        // Assert
+        assertEquals("ticket de caisse", Files.readString(Paths.get(staged.path()), StandardCharsets.US_ASCII));
+        verify(segmentRepository).addDeadBytes("segment-000001.dat", HEADER_LENGTH + 16);
+    }
+
+    @Test
+    void read_ShouldRefuseLocator_ThatDoesNotPointPastARecordHeader() throws Exception {
+        // Arrange
+        StoredFileInfo stored = storage.promote(storage.stage(upload("ticket de caisse")), 7L, 2025);
+        String shifted = "pack:segment-000001.dat:" + (HEADER_LENGTH + 4) + ":12";
+        String wrongLength = "pack:segment-000001.dat:" + HEADER_LENGTH + ":8";
+
+        // Act & Assert
+        assertThrows(BusinessException.class, () -> storage.read(shifted));
+        assertThrows(BusinessException.class, () -> storage.read(wrongLength));
+        assertEquals("ticket de caisse", text(storage.read(stored.path())));
+    }
+
+    @Test
+    void read_ShouldRefuseRecord_WhoseMagicWasOverwritten() throws Exception {
+        // Arrange
+        StoredFileInfo stored = storage.promote(storage.stage(upload("ticket de caisse")), 7L, 2025);
+        try (FileChannel channel = FileChannel.open(segmentFile("segment-000001.dat"), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] { 0, 0, 0, 0 }), 0);
+        }
+
+        // Act
+        BusinessException ex = assertThrows(BusinessException.class, () -> storage.read(stored.path()));
+
+        // Assert
+        assertEquals("FILE_READ_ERROR", ex.getCode());
+    }
+
+    @Test
+    void promote_ShouldStoreLargeFilesAsPlainFiles() throws Exception {
+        // Arrange
+        String content = "x".repeat(100);
+
+        // Act
+        StoredFileInfo stored = storage.promote(storage.stage(upload(content)), 7L, 2025);
+
+        // Assert
+        assertFalse(stored.path().startsWith("pack:"));
+        assertEquals(content, text(storage.read(stored.path())));
+    }
+
+    @Test
+    void compactIfNeeded_ShouldMoveLiveRecordsForwardAndRemoveSegment() throws Exception {
+        // Arrange — three records fill segment 1, the fourth rolls over to segment 2
+        Document live = document(1L, storage.promote(storage.stage(upload("a".repeat(20))), 7L, 2025));
+        storage.promote(storage.stage(upload("b".repeat(20))), 7L, 2025);
+        storage.promote(storage.stage(upload("c".repeat(20))), 7L, 2025);
+        storage.promote(storage.stage(upload("d".repeat(20))), 7L, 2025);
+        when(segmentRepository.findDeadBytes("segment-000001.dat")).thenReturn(Optional.of(2L * (HEADER_LENGTH + 20)));
+
+        // Act
+        storage.compactIfNeeded("segment-000001.dat");
+
+        // Assert
+        assertFalse(Files.exists(segmentFile("segment-000001.dat")));
+        assertTrue(live.getCheminFichier().startsWith("pack:segment-000002.dat:"));
+        assertEquals("a".repeat(20), text(storage.read(live.getCheminFichier())));
+        verify(descriptorCache).evict(1L);
+        verify(segmentRepository).deleteById("segment-000001.dat");
+    }
+
+    @Test
+    void compactIfNeeded_ShouldWaitForUncommittedPromotionIntoTheSegment() throws Exception {
+        // Arrange — a promotion appends to segment 1 and has not committed when it gets sealed
+        storage.promote(storage.stage(upload("a".repeat(20))), 7L, 2025);
+        storage.promote(storage.stage(upload("b".repeat(20))), 7L, 2025);
+        TransactionSynchronizationManager.initSynchronization();
+        StoredFileInfo uncommitted = storage.promote(storage.stage(upload("c".repeat(20))), 7L, 2025);
+        var synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        storage.promote(storage.stage(upload("d".repeat(20))), 7L, 2025);
+        when(segmentRepository.findDeadBytes("segment-000001.dat")).thenReturn(Optional.of(2L * (HEADER_LENGTH + 20)));
+
+        // Act
+        storage.compactIfNeeded("segment-000001.dat");
+        boolean keptWhilePending = Files.exists(segmentFile("segment-000001.dat"));
+        Document committed = document(3L, uncommitted);
+        synchronizations.forEach(synchronization ->
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        // Assert — compacted once the record became visible, and carried forward
+        assertTrue(keptWhilePending);
+        assertFalse(Files.exists(segmentFile("segment-000001.dat")));
+        assertTrue(committed.getCheminFichier().startsWith("pack:segment-000002.dat:"));
+        assertEquals("c".repeat(20), text(storage.read(committed.getCheminFichier())));
+    }
+
+    @Test
+    void compactIfNeeded_ShouldLeaveSegment_BelowThreshold() throws Exception {
+        // Arrange
+        for (String letter : List.of("a", "b", "c", "d")) {
+            storage.promote(storage.stage(upload(letter.repeat(20))), 7L, 2025);
+        }
+        when(segmentRepository.findDeadBytes("segment-000001.dat")).thenReturn(Optional.of((long) HEADER_LENGTH + 20));
+
+        // Act
+        storage.compactIfNeeded("segment-000001.dat");
+
+        // Assert
+        assertTrue(Files.exists(segmentFile("segment-000001.dat")));
+        verify(segmentRepository, never()).deleteById(eq("segment-000001.dat"));
+    }
+
+    private Document document(Long id, StoredFileInfo stored) {
+        Document document = Document.builder().id(id).cheminFichier(stored.path()).build();
+        documents.put(id, document);
+        return document;
+    }
+
+    private Path segmentFile(String segment) {
+        return tempDir.resolve("packs").resolve(segment);
+    }
+
+    private static MockMultipartFile upload(String content) {
+        return new MockMultipartFile("file", "ticket.jpg", "image/jpeg", content.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static void complete(int status) {
+        var synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+
+    private static String text(byte[] bytes) {
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+}
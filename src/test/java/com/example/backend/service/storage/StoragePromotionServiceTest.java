@@ -0,0 +1,245 @@
+package com.example.backend.service.storage;
+
+import com.example.backend.dto.StoredFileInfo;
+import com.example.backend.entity.Document;
+import com.example.backend.entity.Societe;
+import com.example.backend.repository.DocumentRepository;
+import com.example.backend.service.DocumentDescriptorCache;
+import com.example.backend.service.TextExtractionService;
+import com.example.backend.service.ThumbnailService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class StoragePromotionServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Mock
+    private DocumentRepository documentRepository;
+
+    @Mock
+    private DocumentDescriptorCache descriptorCache;
+
+    @Mock
+    private ThumbnailService thumbnailService;
+
+    @Mock
+    private TextExtractionService textExtractionService;
+
+    private LocalFileStorageService storage;
+    private StoragePromotionService promotions;
+    private final Map<Long, Document> documents = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        storage = spy(new LocalFileStorageService(tempDir));
+        promotions = new StoragePromotionService(documentRepository, storage, descriptorCache, thumbnailService,
+                textExtractionService, new SynchronizingTransactionManager(), Runnable::run);
+        lenient().when(documentRepository.findById(anyLong()))
+                .thenAnswer(invocation -> Optional.ofNullable(documents.get(invocation.<Long>getArgument(0))));
+    }
+
+    @Test
+    void promote_ShouldMoveFileWithoutTransaction_ThenMarkDocumentStored() throws Exception {
+        // Arrange
+        StoredFileInfo staged = storage.stage(upload("facture"));
+        Document document = storing(1L, staged);
+        AtomicBoolean transactionDuringFileWork = new AtomicBoolean(true);
+        doAnswer(invocation -> {
+            transactionDuringFileWork.set(TransactionSynchronizationManager.isActualTransactionActive());
+            return invocation.callRealMethod();
+        }).when(storage).promote(staged, 7L, 2025);
+
+        // Act
+        promotions.promote(1L, staged, 7L, 2025);
+
+        // Assert
+        assertFalse(transactionDuringFileWork.get());
+        assertEquals(Document.StatutStockage.STORED, document.getStatutStockage());
+        assertNotEquals(staged.path(), document.getCheminFichier());
+        assertEquals("facture", Files.readString(Paths.get(document.getCheminFichier())));
+        assertFalse(Files.exists(Paths.get(staged.path())));
+        verify(descriptorCache).evict(1L);
+        verify(textExtractionService).extractInBackground(1L);
+    }
+
+    @Test
+    void promote_ShouldUndoPromotedCopy_WhenDocumentWasStoredMeanwhile() throws Exception {
+        // Arrange — another promotion of the same document finishes during the file work
+        StoredFileInfo staged = storage.stage(upload("facture"));
+        Document document = storing(1L, staged);
+        Path[] promotedPath = new Path[1];
+        doAnswer(invocation -> {
+            StoredFileInfo promoted = (StoredFileInfo) invocation.callRealMethod();
+            promotedPath[0] = Paths.get(promoted.path());
+            document.setStatutStockage(Document.StatutStockage.STORED);
+            return promoted;
+        }).when(storage).promote(staged, 7L, 2025);
+
+        // Act
+        promotions.promote(1L, staged, 7L, 2025);
+
+        // Assert
+        assertEquals(staged.path(), document.getCheminFichier());
+        assertTrue(Files.exists(Paths.get(staged.path())));
+        assertFalse(Files.exists(promotedPath[0]));
+        verifyNoInteractions(textExtractionService);
+    }
+
+    @Test
+    void promote_ShouldKeepStagedFileAndFlagFailure_WhenFileWorkFails() throws Exception {
+        // Arrange
+        StoredFileInfo staged = storage.stage(upload("facture"));
+        Document document = storing(1L, staged);
+        Files.delete(Paths.get(staged.path()));
+
+        // Act
+        promotions.promote(1L, staged, 7L, 2025);
+
+        // Assert
+        assertEquals(Document.StatutStockage.FAILED, document.getStatutStockage());
+        assertEquals(staged.path(), document.getCheminFichier());
+    }
+
+    @Test
+    void promoteAfterCommit_ShouldLeaveDocumentStoring_WhenPoolIsSaturated() throws Exception {
+        // Arrange — the commit callback must not promote on the committing thread
+        StoragePromotionService saturated = new StoragePromotionService(documentRepository, storage,
+                descriptorCache, thumbnailService, textExtractionService, new SynchronizingTransactionManager(),
+                task -> {
+                    throw new RejectedExecutionException("queue full");
+                });
+        StoredFileInfo staged = storage.stage(upload("facture"));
+        Document document = storing(1L, staged);
+
+        // Act
+        saturated.promoteAfterCommit(1L, staged, 7L, 2025);
+
+        // Assert
+        assertEquals(Document.StatutStockage.STORING, document.getStatutStockage());
+        assertTrue(Files.exists(Paths.get(staged.path())));
+        verify(storage, never()).promote(any(), any(), any());
+    }
+
+    @Test
+    void promoteAllAfterCommit_ShouldStoreEveryDocument_WhenBatchIsLargerThanQueue() throws Exception {
+        // Arrange — 2 threads and room for 2 queued tasks, 12 documents
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(2, 2, 0, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(2), new ThreadPoolExecutor.AbortPolicy());
+        StoragePromotionService pooled = new StoragePromotionService(documentRepository, storage, descriptorCache,
+                thumbnailService, textExtractionService, new SynchronizingTransactionManager(), executor);
+        List<StoragePromotionService.Promotion> batch = new ArrayList<>();
+        for (long id = 1; id <= 12; id++) {
+            StoredFileInfo staged = storage.stage(upload("facture " + id));
+            storing(id, staged);
+            batch.add(new StoragePromotionService.Promotion(id, staged, 7L, 2025));
+        }
+
+        // Act
+        pooled.promoteAllAfterCommit(batch);
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        // Assert
+        for (StoragePromotionService.Promotion promotion : batch) {
+            Document document = documents.get(promotion.documentId());
+            assertEquals(Document.StatutStockage.STORED, document.getStatutStockage());
+            assertEquals("facture " + promotion.documentId(),
+                    Files.readString(Paths.get(document.getCheminFichier())));
+        }
+    }
+
+    @Test
+    void resumeStalledPromotions_ShouldPromoteDocumentsLeftStoring() throws Exception {
+        // Arrange
+        StoredFileInfo staged = storage.stage(upload("facture"));
+        Document document = storing(1L, staged);
+        document.setSociete(Societe.builder().id(7L).build());
+        document.setExerciceComptable(2025);
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(10);
+        when(documentRepository.findStalledPromotions(eq(Document.StatutStockage.STORING), eq(cutoff),
+                any(Pageable.class))).thenReturn(List.of(document));
+
+        // Act
+        int queued = promotions.resumeStalledPromotions(cutoff, 200);
+
+        // Assert
+        assertEquals(1, queued);
+        assertEquals(Document.StatutStockage.STORED, document.getStatutStockage());
+        assertFalse(Files.exists(Paths.get(staged.path())));
+    }
+
+    private Document storing(Long id, StoredFileInfo staged) {
+        Document document = Document.builder()
+                .id(id)
+                .cheminFichier(staged.path())
+                .statutStockage(Document.StatutStockage.STORING)
+                .build();
+        documents.put(id, document);
+        return document;
+    }
+
+    private static MockMultipartFile upload(String content) {
+        return new MockMultipartFile("file", "facture.pdf", "application/pdf",
+                content.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * No resources; gives each transaction and connection-less scope its own
+     * synchronization, so storage callbacks run on commit or rollback as with a
+     * real manager.
+     */
+    private static class SynchronizingTransactionManager extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.backend.service.storage;
+
+import com.example.backend.contract.FileStorageService;
+import com.example.backend.contract.StoredFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TieredFileStorageServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Mock
+    private FileStorageService backend;
+
+    private TieredFileStorageService storage;
+    private Path pack;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        storage = new TieredFileStorageService(backend);
+        pack = tempDir.resolve("pack.zip");
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(pack))) {
+            zip.putNextEntry(new ZipEntry("1.pdf"));
+            zip.write("0123456789".getBytes(StandardCharsets.US_ASCII));
+            zip.closeEntry();
+            zip.putNextEntry(new ZipEntry("2.pdf"));
+            zip.write("abcdef".getBytes(StandardCharsets.US_ASCII));
+            zip.closeEntry();
+        }
+    }
+
+    @Test
+    void read_ShouldServeArchivedEntry_AndDelegateHotPaths() {
+        // Arrange
+        String locator = TieredFileStorageService.archiveLocator(pack, "1.pdf");
+        when(backend.read("uploads/documents/hot.pdf")).thenReturn(new byte[] { 1 });
+
+        // Act
+        byte[] archived = storage.read(locator);
+        byte[] hot = storage.read("uploads/documents/hot.pdf");
+
+        // Assert
+        assertEquals("0123456789", new String(archived, StandardCharsets.US_ASCII));
+        assertArrayEquals(new byte[] { 1 }, hot);
+    }
+
+    @Test
+    void open_ShouldServeRangeOfArchivedEntry() throws Exception {
+        // Arrange
+        String locator = TieredFileStorageService.archiveLocator(pack, "1.pdf");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        long transferred;
+        try (StoredFile file = storage.open(locator)) {
+            assertEquals(10, file.size());
+            assertNull(file.backingFile());
+            transferred = file.transferTo(3, 4, Channels.newChannel(out));
+        }
+
+        // Assert
+        assertEquals(4, transferred);
+        assertEquals("3456", out.toString(StandardCharsets.US_ASCII));
+        verifyNoInteractions(backend);
+    }
+
+    @Test
+    void delete_ShouldRewritePackWithoutEntry() {
+        // Arrange
+        String removed = TieredFileStorageService.archiveLocator(pack, "1.pdf");
+        String kept = TieredFileStorageService.archiveLocator(pack, "2.pdf");
+
+        // Act
+        storage.delete(removed);
+
+        // Assert
+        assertFalse(storage.exists(removed));
+        assertTrue(storage.exists(kept));
+        assertEquals("abcdef", new String(storage.read(kept), StandardCharsets.US_ASCII));
+        verify(backend, never()).delete(anyString());
+    }
+}
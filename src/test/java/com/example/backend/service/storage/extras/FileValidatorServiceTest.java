@@ -0,0 +1,91 @@
+package com.example.backend.service.storage.extras;
+
+import com.example.backend.dto.StoredFileInfo;
+import com.example.backend.exception.BusinessException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FileValidatorServiceTest {
+
+    private final FileValidatorService validator = new FileValidatorService();
+
+    @ParameterizedTest
+    @CsvSource({
+            "PDF, facture.pdf",
+            "JPEG, ticket.jpg",
+            "JPEG, ticket.JPEG",
+            "PNG, releve.png"
+    })
+    void validateContent_ShouldAccept_WhenContentMatchesExtension(FileSignature signature, String filename)
+            throws IOException {
+        // Arrange
+        StoredFileInfo stored = inspect(InspectingInputStreamTest.header(signature));
+
+        // Act & Assert
+        assertDoesNotThrow(() -> validator.validateContent(stored, filename));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "PDF, scan.png",
+            "JPEG, facture.pdf",
+            "PNG, ticket.jpg"
+    })
+    void validateContent_ShouldReject_WhenContentDoesNotMatchExtension(FileSignature signature, String filename)
+            throws IOException {
+        // Arrange
+        StoredFileInfo stored = inspect(InspectingInputStreamTest.header(signature));
+
+        // Act
+        BusinessException ex = assertThrows(BusinessException.class,
+                () -> validator.validateContent(stored, filename));
+
+        // Assert
+        assertEquals("FILE_TYPE_MISMATCH", ex.getCode());
+    }
+
+    @Test
+    void validateContent_ShouldReject_WhenContentIsNoAcceptedFormat() throws IOException {
+        // Arrange — an executable renamed to .pdf
+        StoredFileInfo stored = inspect(new byte[] { 0x4D, 0x5A, (byte) 0x90, 0x00 });
+
+        // Act
+        BusinessException ex = assertThrows(BusinessException.class,
+                () -> validator.validateContent(stored, "facture.pdf"));
+
+        // Assert
+        assertEquals("INVALID_FILE_CONTENT", ex.getCode());
+    }
+
+    @Test
+    void validateContent_ShouldJudgeSniffedContent_NotTheDeclaredMimeType() throws IOException {
+        // Arrange — the client sent a PNG as "application/pdf"
+        StoredFileInfo sniffed = inspect(InspectingInputStreamTest.header(FileSignature.PNG));
+        StoredFileInfo declared = new StoredFileInfo(sniffed.path(), sniffed.size(), sniffed.checksumSha256(),
+                "application/pdf");
+
+        // Act & Assert
+        assertEquals("image/png", sniffed.typeMime());
+        assertDoesNotThrow(() -> validator.validateContent(sniffed, "scan.png"));
+        assertThrows(BusinessException.class, () -> validator.validateContent(sniffed, "scan.pdf"));
+        // Only the sniffed type is trusted: a declared type is never a reason to accept
+        assertThrows(BusinessException.class, () -> validator.validateContent(declared, "scan.png"));
+    }
+
+    /** Describes the content the way StagedFiles does while writing an upload. */
+    private static StoredFileInfo inspect(byte[] header) throws IOException {
+        try (InspectingInputStream in = new InspectingInputStream(
+                new ByteArrayInputStream(InspectingInputStreamTest.withBody(header)))) {
+            in.readAllBytes();
+            FileSignature signature = in.detectedSignature();
+            return new StoredFileInfo("staging/upload.part", in.getBytesRead(), in.sha256Hex(),
+                    signature != null ? signature.getMimeType() : null);
+        }
+    }
+}
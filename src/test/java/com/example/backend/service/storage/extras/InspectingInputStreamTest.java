@@ -0,0 +1,115 @@
+package com.example.backend.service.storage.extras;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InspectingInputStreamTest {
+
+    @ParameterizedTest
+    @EnumSource(FileSignature.class)
+    void detectedSignature_ShouldRecogniseEachAcceptedFormat(FileSignature signature) throws IOException {
+        // Arrange
+        byte[] content = withBody(header(signature));
+
+        // Act
+        InspectingInputStream in = drain(new ByteArrayInputStream(content));
+
+        // Assert
+        assertEquals(signature, in.detectedSignature());
+    }
+
+    @Test
+    void detectedSignature_ShouldRejectUnknownContent() throws IOException {
+        // Arrange — a ZIP (and so DOCX/XLSX) header
+        byte[] content = withBody(new byte[] { 0x50, 0x4B, 0x03, 0x04 });
+
+        // Act
+        InspectingInputStream in = drain(new ByteArrayInputStream(content));
+
+        // Assert
+        assertNull(in.detectedSignature());
+    }
+
+    @Test
+    void detectedSignature_ShouldRejectContentShorterThanTheMagic() throws IOException {
+        // Arrange — the first bytes of a PNG signature only
+        byte[] content = { (byte) 0x89, 0x50, 0x4E };
+
+        // Act
+        InspectingInputStream in = drain(new ByteArrayInputStream(content));
+
+        // Assert
+        assertNull(in.detectedSignature());
+    }
+
+    @Test
+    void detectedSignature_ShouldRejectPdfMagicAtWrongOffset() throws IOException {
+        // Arrange
+        byte[] content = withBody(new byte[] { 0x20, 0x25, 0x50, 0x44, 0x46, 0x2D });
+
+        // Act
+        InspectingInputStream in = drain(new ByteArrayInputStream(content));
+
+        // Assert
+        assertNull(in.detectedSignature());
+    }
+
+    @Test
+    void inspection_ShouldHashAndCountEverything_WhateverTheReadSizes() throws Exception {
+        // Arrange
+        byte[] content = withBody(header(FileSignature.PDF));
+
+        // Act — single bytes across the header boundary, then bulk reads
+        InspectingInputStream in = new InspectingInputStream(new ByteArrayInputStream(content));
+        for (int i = 0; i < 3; i++) {
+            in.read();
+        }
+        in.readAllBytes();
+
+        // Assert
+        assertEquals(FileSignature.PDF, in.detectedSignature());
+        assertEquals(content.length, in.getBytesRead());
+        assertEquals(HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content)), in.sha256Hex());
+    }
+
+    @Test
+    void skip_ShouldBeRefused_SoNoByteEscapesTheHash() {
+        // Arrange
+        InspectingInputStream in = new InspectingInputStream(new ByteArrayInputStream(new byte[16]));
+
+        // Act & Assert
+        assertThrows(IOException.class, () -> in.skip(4));
+    }
+
+    static byte[] header(FileSignature signature) {
+        return switch (signature) {
+            case PDF -> new byte[] { 0x25, 0x50, 0x44, 0x46, 0x2D, 0x31, 0x2E, 0x37 };
+            case JPEG -> new byte[] { (byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xE0 };
+            case PNG -> new byte[] { (byte) 0x89, 0x50, 0x4E, 0x47, 0x0D, 0x0A, 0x1A, 0x0A };
+        };
+    }
+
+    static byte[] withBody(byte[] header) {
+        byte[] content = new byte[header.length + 64];
+        System.arraycopy(header, 0, content, 0, header.length);
+        for (int i = header.length; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+        return content;
+    }
+
+    private static InspectingInputStream drain(InputStream source) throws IOException {
+        InspectingInputStream in = new InspectingInputStream(source);
+        in.readAllBytes();
+        return in;
+    }
+}
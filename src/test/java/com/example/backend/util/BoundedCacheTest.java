@@ -0,0 +1,38 @@
+package com.example.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoundedCacheTest {
+
+    @Test
+    void get_ShouldNotCacheValueLoadedBeforeConcurrentInvalidation() {
+        // Arrange
+        BoundedCache<Long, String> cache = new BoundedCache<>(10, 60_000);
+
+        // Act — the document moves while a download is still reading its old path
+        String loaded = cache.get(1L, id -> {
+            cache.invalidate(id);
+            return "staging/1.pdf.part";
+        });
+        String next = cache.get(1L, id -> "client/7/year/2025/1.pdf");
+
+        // Assert
+        assertEquals("staging/1.pdf.part", loaded);
+        assertEquals("client/7/year/2025/1.pdf", next);
+    }
+
+    @Test
+    void get_ShouldCacheLoadedValue_WhenNothingWasInvalidated() {
+        // Arrange
+        BoundedCache<Long, String> cache = new BoundedCache<>(10, 60_000);
+        cache.get(1L, id -> "client/7/year/2025/1.pdf");
+
+        // Act
+        String cached = cache.get(1L, id -> fail("should be served from the cache"));
+
+        // Assert
+        assertEquals("client/7/year/2025/1.pdf", cached);
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.backend.util;
+
+import com.example.backend.service.storage.PathStoredFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FileStreamingUtilTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path createFile() throws Exception {
+        Path file = tempDir.resolve("doc.pdf");
+        Files.writeString(file, "0123456789", StandardCharsets.US_ASCII);
+        return file;
+    }
+
+    @Test
+    void write_ShouldStreamWholeFile_WhenNoRangeRequested() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/documents/1/download");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        try (PathStoredFile file = new PathStoredFile(createFile())) {
+            FileStreamingUtil.write(request, response, file, "facture.pdf", MediaType.APPLICATION_OCTET_STREAM, null);
+        }
+
+        // Assert
+        assertEquals(200, response.getStatus());
+        assertEquals("0123456789", response.getContentAsString());
+        assertEquals(10, response.getContentLengthLong());
+        assertEquals("bytes", response.getHeader("Accept-Ranges"));
+        assertNotNull(response.getHeader("ETag"));
+    }
+
+    @Test
+    void write_ShouldReturnPartialContent_WhenSingleRangeRequested() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/documents/1/download");
+        request.addHeader("Range", "bytes=2-5");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        try (PathStoredFile file = new PathStoredFile(createFile())) {
+            FileStreamingUtil.write(request, response, file, "facture.pdf", MediaType.APPLICATION_OCTET_STREAM, null);
+        }
+
+        // Assert
+        assertEquals(206, response.getStatus());
+        assertEquals("2345", response.getContentAsString());
+        assertEquals("bytes 2-5/10", response.getHeader("Content-Range"));
+    }
+
+    @Test
+    void write_ShouldReturn416_WhenRangeIsOutOfBounds() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/documents/1/download");
+        request.addHeader("Range", "bytes=50-60");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        try (PathStoredFile file = new PathStoredFile(createFile())) {
+            FileStreamingUtil.write(request, response, file, "facture.pdf", MediaType.APPLICATION_OCTET_STREAM, null);
+        }
+
+        // Assert
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */10", response.getHeader("Content-Range"));
+    }
+
+    @Test
+    void write_ShouldReturn304_WhenETagMatches() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/documents/1/download");
+        request.addHeader("If-None-Match", "\"abc\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        try (PathStoredFile file = new PathStoredFile(createFile())) {
+            FileStreamingUtil.write(request, response, file, "facture.pdf", MediaType.APPLICATION_OCTET_STREAM, "\"abc\"");
+        }
+
+        // Assert
+        assertEquals(304, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+}